@@ -0,0 +1,83 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the JSON serialization and deserialization of a list of {@link ShowtimeDTO}, with their
+ * {@code ZonedDateTime} fields written as ISO-8601 text as the application's object mapper does.
+ * Parameterized by the number of showtimes in the list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShowtimeDtoJsonBenchmark {
+    private static final TypeReference<List<ShowtimeDTO>> SHOWTIME_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1", "100", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<ShowtimeDTO> showtimes;
+    private byte[] json;
+
+    /**
+     * Builds an object mapper configured like Spring Boot's and the showtimes to convert.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        ZonedDateTime firstStart = ZonedDateTime.of(2025, 6, 1, 10, 0, 0, 0, ZoneId.of("UTC"));
+        showtimes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ZonedDateTime start = firstStart.plusMinutes(150L * i);
+            showtimes.add(new ShowtimeDTO((long) i + 1, (long) i % 500 + 1, "Theater " + (i % 20 + 1),
+                    start, start.plusMinutes(135), 12.99));
+        }
+        json = objectMapper.writeValueAsBytes(showtimes);
+    }
+
+    /**
+     * Serializes the showtimes.
+     */
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(showtimes);
+    }
+
+    /**
+     * Deserializes the showtimes.
+     */
+    @Benchmark
+    public List<ShowtimeDTO> deserialize() throws IOException {
+        return objectMapper.readValue(json, SHOWTIME_LIST);
+    }
+}
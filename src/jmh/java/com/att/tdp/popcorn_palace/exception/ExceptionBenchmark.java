@@ -0,0 +1,101 @@
+package com.att.tdp.popcorn_palace.exception;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of an expected rejection, from the throw to the error response: an exception capturing its
+ * stack trace against the stackless {@link SeatUnavailableException}, and the map-based error body
+ * against {@link ErrorResponseTemplate}. Parameterized by the depth of the call stack at the throw,
+ * as a request handled by Spring is typically more than a hundred frames deep.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionBenchmark {
+
+    @Param({"10", "150"})
+    public int depth;
+
+    private int seat;
+
+    /**
+     * Throws and catches an exception that captures its stack trace.
+     */
+    @Benchmark
+    public Object throwWithStackTrace() {
+        try {
+            return throwAt(depth, false);
+        } catch (InvalidRequestException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Throws and catches a stackless exception.
+     */
+    @Benchmark
+    public Object throwStackless() {
+        try {
+            return throwAt(depth, true);
+        } catch (InvalidRequestException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Builds an error response the way the handlers did before the templates: a map and the current time.
+     */
+    @Benchmark
+    public ResponseEntity<Object> renderMapBody() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", "Seat 5 is already taken for this showtime");
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Builds an error response from the precomputed template.
+     */
+    @Benchmark
+    public ResponseEntity<Object> renderTemplate() {
+        return ErrorResponseTemplate.BAD_REQUEST.render("Seat 5 is already taken for this showtime");
+    }
+
+    /**
+     * Recurses to the given depth and throws a seat conflict there.
+     *
+     * @param remaining Number of frames still to add
+     * @param stackless Whether to throw the stackless exception
+     * @return Never returns normally
+     */
+    private Object throwAt(int remaining, boolean stackless) {
+        if (remaining > 0) {
+            return throwAt(remaining - 1, stackless);
+        }
+        seat++;
+        if (stackless) {
+            throw new SeatUnavailableException(seat);
+        }
+        throw new InvalidRequestException("Seat " + seat + " is already taken for this showtime");
+    }
+}
@@ -0,0 +1,92 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the in-memory seat-taken checks, {@link CompressedSeatSet#contains} and
+ * {@link SeatMap#isOccupied}, against a {@code HashSet<Integer>} baseline.
+ * Parameterized by the capacity of the hall and the share of its seats that are taken.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatCheckBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int capacity;
+
+    @Param({"0.1", "0.9"})
+    public double occupancy;
+
+    private CompressedSeatSet compressedSeatSet;
+    private SeatMap seatMap;
+    private Set<Integer> hashSet;
+    private int[] probes;
+    private int next;
+
+    /**
+     * Takes a random share of the seats of a hall of 20 seats per row and picks the seats to look up.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        compressedSeatSet = new CompressedSeatSet(capacity);
+        seatMap = new SeatMap(new TheaterLayout(capacity / 20, 20, List.of(20)));
+        hashSet = new HashSet<>();
+        for (int seat = 1; seat <= capacity; seat++) {
+            if (random.nextDouble() < occupancy) {
+                compressedSeatSet.add(seat);
+                seatMap.occupy(seat);
+                hashSet.add(seat);
+            }
+        }
+        probes = new int[1024];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = 1 + random.nextInt(capacity);
+        }
+    }
+
+    /**
+     * Looks a seat up in a compressed seat set.
+     */
+    @Benchmark
+    public boolean compressedSeatSet() {
+        return compressedSeatSet.contains(probes[next++ & 1023]);
+    }
+
+    /**
+     * Looks a seat up in a seat map.
+     */
+    @Benchmark
+    public boolean seatMap() {
+        return seatMap.isOccupied(probes[next++ & 1023]);
+    }
+
+    /**
+     * Looks a seat up in a set of boxed seat numbers.
+     */
+    @Benchmark
+    public boolean hashSet() {
+        return hashSet.contains(probes[next++ & 1023]);
+    }
+}
@@ -0,0 +1,50 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.PopcornPalaceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+/**
+ * Starts the application for benchmarks: an in-memory H2 database loaded with a synthetic dataset
+ * (see {@link DatasetGenerator}), no web server, and no background jobs or recordings, so that
+ * measurements only include the code under test.
+ */
+final class BenchmarkContext {
+    private BenchmarkContext() {
+    }
+
+    /**
+     * Starts the application with a dataset of the given size.
+     *
+     * @param theaters  Number of theaters
+     * @param days      Number of screening days
+     * @param occupancy Average share of booked seats, 0 for no bookings
+     * @return The running application, to be closed by the benchmark's tear-down
+     */
+    static ConfigurableApplicationContext start(int theaters, int days, double occupancy) {
+        // Passed as command-line arguments, which take precedence over the application.yaml files
+        return new SpringApplicationBuilder(PopcornPalaceApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--popcorn.flight-recorder.enabled=false",
+                        "--popcorn.sql-profiler.enabled=false",
+                        "--popcorn.archive.enabled=false",
+                        "--popcorn.booking.group-commit.enabled=false",
+                        "--popcorn.booking.waiting-room.enabled=false",
+                        "--popcorn.booking.rate-limit.enabled=false",
+                        "--popcorn.dataset.generate=true",
+                        "--popcorn.dataset.theaters=" + theaters,
+                        "--popcorn.dataset.days=" + days,
+                        "--popcorn.dataset.occupancy=" + occupancy);
+    }
+}
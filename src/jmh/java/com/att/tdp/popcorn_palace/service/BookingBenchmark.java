@@ -0,0 +1,81 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.BookingDTO;
+import com.att.tdp.popcorn_palace.exception.SeatUnavailableException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the seat-taken check of {@link BookingService#bookTicket}: booking a seat that is already
+ * taken, which the conditional insert rejects. Parameterized by the number of screening days of the
+ * dataset, i.e. by the number of bookings in the table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookingBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int days;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private BookingDTO[] takenSeats;
+    private int next;
+
+    /**
+     * Starts the application and picks taken seats spread over the showtimes.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(20, days, 0.6);
+        bookingService = context.getBean(BookingService.class);
+        List<BookingDTO> bookings = context.getBean(JdbcTemplate.class).query(
+                "SELECT showtime_id, seat_number FROM bookings ORDER BY booking_id LIMIT 1024",
+                (rs, rowNum) -> new BookingDTO(rs.getLong(1), rs.getInt(2), "benchmark"));
+        takenSeats = new BookingDTO[1024];
+        for (int i = 0; i < takenSeats.length; i++) {
+            takenSeats[i] = bookings.get(i % bookings.size());
+        }
+    }
+
+    /**
+     * Stops the application.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Books a taken seat, which must be rejected.
+     */
+    @Benchmark
+    public Object bookTakenSeat() {
+        try {
+            bookingService.bookTicket(takenSeats[next++ & 1023]);
+        } catch (SeatUnavailableException e) {
+            return e;
+        }
+        throw new IllegalStateException("A taken seat was booked");
+    }
+}
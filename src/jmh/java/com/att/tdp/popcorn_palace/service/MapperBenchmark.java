@@ -0,0 +1,122 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.MovieDTO;
+import com.att.tdp.popcorn_palace.dto.ShowtimeDTO;
+import com.att.tdp.popcorn_palace.model.Movie;
+import com.att.tdp.popcorn_palace.model.Showtime;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the entity/DTO mappers of {@link ShowtimeService} and {@link MovieService}, converting a
+ * list of the given size per operation. Converting a ShowtimeDTO to an entity looks its movie up, so it
+ * includes one query per showtime.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MapperBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private ShowtimeService showtimeService;
+    private MovieService movieService;
+    private List<Showtime> showtimes;
+    private List<ShowtimeDTO> showtimeDTOs;
+    private List<Movie> movies;
+    private List<MovieDTO> movieDTOs;
+
+    /**
+     * Starts the application with enough showtimes (20 theaters over 120 days) and loads the fixtures.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(20, 120, 0);
+        showtimeService = context.getBean(ShowtimeService.class);
+        movieService = context.getBean(MovieService.class);
+
+        showtimes = context.getBean(ShowtimeRepository.class)
+                .findAll(PageRequest.of(0, size, Sort.by("id"))).getContent();
+        showtimeDTOs = showtimes.stream().map(showtimeService::convertToDTO).toList();
+        List<Movie> catalog = context.getBean(MovieRepository.class).findAll(Sort.by("id"));
+        movies = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            movies.add(catalog.get(i % catalog.size()));
+        }
+        movieDTOs = movies.stream().map(movieService::convertToDTO).toList();
+    }
+
+    /**
+     * Stops the application.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Converts showtime entities to DTOs.
+     */
+    @Benchmark
+    public void showtimeToDTO(Blackhole blackhole) {
+        for (Showtime showtime : showtimes) {
+            blackhole.consume(showtimeService.convertToDTO(showtime));
+        }
+    }
+
+    /**
+     * Converts showtime DTOs to entities.
+     */
+    @Benchmark
+    public void showtimeToEntity(Blackhole blackhole) {
+        for (ShowtimeDTO showtimeDTO : showtimeDTOs) {
+            blackhole.consume(showtimeService.convertToEntity(showtimeDTO));
+        }
+    }
+
+    /**
+     * Converts movie entities to DTOs.
+     */
+    @Benchmark
+    public void movieToDTO(Blackhole blackhole) {
+        for (Movie movie : movies) {
+            blackhole.consume(movieService.convertToDTO(movie));
+        }
+    }
+
+    /**
+     * Converts movie DTOs to entities.
+     */
+    @Benchmark
+    public void movieToEntity(Blackhole blackhole) {
+        for (MovieDTO movieDTO : movieDTOs) {
+            blackhole.consume(movieService.convertToEntity(movieDTO));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.exception.ShowtimeOverlapException;
+import com.att.tdp.popcorn_palace.model.Showtime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link ShowtimeService#checkForOverlappingShowtimes}, for a slot that fits in the gap after
+ * an existing showtime and for a slot that collides with one. Parameterized by the number of screening
+ * days of the dataset, i.e. by the number of showtimes per theater.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ShowtimeOverlapBenchmark {
+
+    @Param({"1", "30", "365"})
+    public int days;
+
+    private ConfigurableApplicationContext context;
+    private ShowtimeService showtimeService;
+    private Showtime[] freeSlots;
+    private Showtime[] overlappingSlots;
+    private int next;
+
+    /**
+     * Starts the application and derives free and overlapping slots from showtimes spread over the schedule.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(20, days, 0);
+        showtimeService = context.getBean(ShowtimeService.class);
+        List<Showtime> showtimes = context.getBean(JdbcTemplate.class).query(
+                "SELECT theater_id, start_time, end_time FROM showtimes ORDER BY id",
+                (rs, rowNum) -> slot(rs.getInt(1), rs.getObject(2, OffsetDateTime.class).toZonedDateTime(),
+                        rs.getObject(3, OffsetDateTime.class).toZonedDateTime()));
+        freeSlots = new Showtime[1024];
+        overlappingSlots = new Showtime[1024];
+        for (int i = 0; i < freeSlots.length; i++) {
+            Showtime showtime = showtimes.get((int) ((long) i * showtimes.size() / freeSlots.length));
+            // Showtimes of a theater are at least 15 minutes apart
+            ZonedDateTime freeStart = showtime.getEndTime().plusMinutes(1);
+            freeSlots[i] = slot(showtime.getTheaterId(), freeStart, freeStart.plusMinutes(10));
+            overlappingSlots[i] = showtime;
+        }
+    }
+
+    /**
+     * Stops the application.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Checks a slot that does not overlap any showtime.
+     */
+    @Benchmark
+    public void checkFreeSlot() {
+        showtimeService.checkForOverlappingShowtimes(freeSlots[next++ & 1023], "Theater", null);
+    }
+
+    /**
+     * Checks a slot that overlaps a showtime, which must be rejected.
+     */
+    @Benchmark
+    public Object checkOverlappingSlot() {
+        try {
+            showtimeService.checkForOverlappingShowtimes(overlappingSlots[next++ & 1023], "Theater", null);
+        } catch (ShowtimeOverlapException e) {
+            return e;
+        }
+        throw new IllegalStateException("An overlapping slot was accepted");
+    }
+
+    /**
+     * Creates an unsaved showtime occupying a slot of a theater.
+     */
+    private static Showtime slot(int theaterId, ZonedDateTime start, ZonedDateTime end) {
+        Showtime showtime = new Showtime();
+        showtime.setTheaterId(theaterId);
+        showtime.setStartTime(start);
+        showtime.setEndTime(end);
+        return showtime;
+    }
+}
@@ -0,0 +1,294 @@
+package com.att.tdp.popcorn_palace.loadtest;
+
+import com.att.tdp.popcorn_palace.PopcornPalaceApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP load test of the application. Starts the application on a random port against an in-memory H2
+ * database or PostgreSQL, then sweeps the number of concurrent clients: for each level, that many
+ * virtual-thread clients send a weighted mix of catalog reads, showtime reads, bookings spread over all
+ * showtimes and bookings contending for the seats of one hot showtime. Latencies of each operation are
+ * recorded in HdrHistograms, and the results of all levels are written as a Markdown and a CSV report.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn -P load-test -DskipTests test-compile exec:exec -Dloadtest.args="--concurrency=1,16,64 --duration=30s"
+ * </pre>
+ * See {@link LoadTestOptions#USAGE} for the options.
+ */
+public final class LoadTest {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final URI baseUri;
+    private final HttpClient client;
+    private final long[] showtimeIds;
+    private final int[] capacities;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder[]> outcomes = new EnumMap<>(Operation.class);
+
+    private volatile boolean running;
+    private volatile long hotShowtimeId;
+    private volatile int hotCapacity;
+
+    /**
+     * Constructs a LoadTest against a running application.
+     *
+     * @param options The options of the run
+     * @param context The running application, used to find its port and the showtimes to book
+     * @throws IllegalStateException if the database has no showtimes, or fewer than the concurrency levels
+     */
+    LoadTest(LoadTestOptions options, ConfigurableApplicationContext context) {
+        this.options = options;
+        this.baseUri = URI.create("http://localhost:"
+                + context.getEnvironment().getRequiredProperty("local.server.port"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        List<long[]> showtimes = context.getBean(JdbcTemplate.class).query(
+                "SELECT s.id, COALESCE(t.seat_rows * t.seats_per_row, 100) FROM showtimes s "
+                        + "LEFT JOIN theaters t ON t.id = s.theater_id ORDER BY s.id",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        if (showtimes.size() <= options.concurrency().size()) {
+            throw new IllegalStateException("The database has " + showtimes.size()
+                    + " showtimes, more than the " + options.concurrency().size() + " steps are needed");
+        }
+        this.showtimeIds = showtimes.stream().mapToLong(showtime -> showtime[0]).toArray();
+        this.capacities = showtimes.stream().mapToInt(showtime -> (int) showtime[1]).toArray();
+
+        this.operations = options.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        for (Operation operation : operations) {
+            recorders.put(operation, new Recorder(3));
+            LongAdder[] counts = new LongAdder[Outcome.values().length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+            outcomes.put(operation, counts);
+        }
+    }
+
+    /**
+     * Starts the application, runs the load test and writes its report.
+     *
+     * @param args Options of the form --name=value, see {@link LoadTestOptions#USAGE}
+     * @throws Exception if the application fails to start or the report cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try (ConfigurableApplicationContext context = start(options)) {
+            LoadTestReport report = new LoadTest(options, context).run();
+            System.out.println(report.toMarkdown());
+            System.out.println("Report written to " + report.writeTo(options.reportDir()));
+        }
+    }
+
+    /**
+     * Starts the application with the configuration file of the options, overridden by the settings of the run.
+     * The test configuration on the classpath is bypassed so that the application runs as it would in production.
+     */
+    private static ConfigurableApplicationContext start(LoadTestOptions options) {
+        Path reportDir = options.reportDir().toAbsolutePath();
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.config.location=file:" + options.config().toAbsolutePath(),
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--popcorn.booking.rate-limit.enabled=" + options.rateLimit(),
+                "--popcorn.flight-recorder.dump-directory=" + reportDir.resolve("recordings"),
+                "--popcorn.archive.directory=" + reportDir.resolve("archive"),
+                "--popcorn.dataset.generate=" + options.generate(),
+                "--popcorn.dataset.theaters=" + options.theaters(),
+                "--popcorn.dataset.days=" + options.days(),
+                "--popcorn.dataset.occupancy=" + options.occupancy()));
+        if (options.database().equals("h2")) {
+            args.add("--spring.datasource.url=jdbc:h2:mem:load-test;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=");
+            args.add("--spring.datasource.driverClassName=org.h2.Driver");
+        } else {
+            if (options.jdbcUrl() != null) {
+                args.add("--spring.datasource.url=" + options.jdbcUrl());
+            }
+            if (options.dbUser() != null) {
+                args.add("--spring.datasource.username=" + options.dbUser());
+            }
+            if (options.dbPassword() != null) {
+                args.add("--spring.datasource.password=" + options.dbPassword());
+            }
+        }
+        return new SpringApplicationBuilder(PopcornPalaceApplication.class)
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Runs one step per concurrency level.
+     *
+     * @return The report of all steps
+     * @throws InterruptedException if interrupted while a step runs
+     */
+    LoadTestReport run() throws InterruptedException {
+        LoadTestReport report = new LoadTestReport(options.describe());
+        List<Integer> levels = options.concurrency();
+        for (int step = 0; step < levels.size(); step++) {
+            // Each step contends for a fresh showtime, which uncontended bookings never pick
+            hotShowtimeId = showtimeIds[step];
+            hotCapacity = capacities[step];
+            runStep(levels.get(step), report);
+        }
+        return report;
+    }
+
+    /**
+     * Runs the clients of one step through the warm-up and the measured period, and adds its results.
+     */
+    private void runStep(int concurrency, LoadTestReport report) throws InterruptedException {
+        System.out.println("Running " + concurrency + " clients for " + options.warmup() + " + "
+                + options.duration());
+        running = true;
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(this::runClient);
+            }
+
+            Thread.sleep(options.warmup());
+            for (Operation operation : operations) {
+                recorders.get(operation).reset();
+                for (LongAdder count : outcomes.get(operation)) {
+                    count.reset();
+                }
+            }
+            long start = System.nanoTime();
+
+            Thread.sleep(options.duration());
+            long elapsed = System.nanoTime() - start;
+            Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+            Map<Operation, long[]> counts = new EnumMap<>(Operation.class);
+            for (Operation operation : operations) {
+                latencies.put(operation, recorders.get(operation).getIntervalHistogram());
+                LongAdder[] adders = outcomes.get(operation);
+                long[] sums = new long[adders.length];
+                for (int i = 0; i < sums.length; i++) {
+                    sums[i] = adders[i].sum();
+                }
+                counts.put(operation, sums);
+            }
+            report.addStep(concurrency, elapsed, latencies, counts);
+        } finally {
+            running = false;
+            clients.close();
+        }
+    }
+
+    /**
+     * Loop of one client: sends requests one after the other until the step ends.
+     */
+    private void runClient() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String userId = UUID.randomUUID().toString();
+        while (running) {
+            Operation operation = pickOperation(random);
+            HttpRequest request = buildRequest(operation, userId, random);
+            long start = System.nanoTime();
+            Outcome outcome;
+            try {
+                outcome = Outcome.of(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+            } catch (IOException e) {
+                outcome = Outcome.ERROR;
+            } catch (InterruptedException e) {
+                return;
+            }
+            recorders.get(operation).recordValue((System.nanoTime() - start) / 1000);
+            outcomes.get(operation)[outcome.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Picks an operation at random according to the weights of the mix.
+     */
+    private Operation pickOperation(ThreadLocalRandom random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Weights do not cover " + pick);
+    }
+
+    /**
+     * Builds the HTTP request of an operation.
+     */
+    private HttpRequest buildRequest(Operation operation, String userId, ThreadLocalRandom random) {
+        return switch (operation) {
+            case CATALOG -> get("/movies/all");
+            case SHOWTIME -> get("/showtimes/" + showtimeIds[random.nextInt(showtimeIds.length)]);
+            case BOOKING -> {
+                int index = random.nextInt(options.concurrency().size(), showtimeIds.length);
+                yield book(showtimeIds[index], 1 + random.nextInt(capacities[index]), userId);
+            }
+            case CONTENDED -> book(hotShowtimeId, 1 + random.nextInt(hotCapacity), userId);
+        };
+    }
+
+    /**
+     * Builds a GET request.
+     */
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    /**
+     * Builds a booking request.
+     */
+    private HttpRequest book(long showtimeId, int seatNumber, String userId) {
+        String body = "{\"showtimeId\":" + showtimeId + ",\"seatNumber\":" + seatNumber
+                + ",\"userId\":\"" + userId + "\"}";
+        return HttpRequest.newBuilder(baseUri.resolve("/bookings"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
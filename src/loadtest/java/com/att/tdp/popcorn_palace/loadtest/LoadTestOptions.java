@@ -0,0 +1,148 @@
+package com.att.tdp.popcorn_palace.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of a load-test run, parsed from --name=value arguments.
+ *
+ * @param database    "h2" for an in-memory database, or "postgres" for the database of the configuration
+ * @param jdbcUrl     JDBC URL overriding the configured one, or null
+ * @param dbUser      Database user overriding the configured one, or null
+ * @param dbPassword  Database password overriding the configured one, or null
+ * @param generate    Whether to replace the database contents with a generated dataset at startup
+ * @param theaters    Number of theaters of the generated dataset
+ * @param days        Number of screening days of the generated dataset
+ * @param occupancy   Share of seats already sold in the generated dataset
+ * @param concurrency Numbers of concurrent clients, one step of the sweep each
+ * @param warmup      Time each step runs before measuring
+ * @param duration    Time each step is measured for
+ * @param mix         Relative weight of each operation
+ * @param rateLimit   Whether the per-user and per-address booking rate limits stay enabled; all clients share
+ *                    one address, so they would otherwise throttle nearly every booking
+ * @param config      Application configuration file the app is started with
+ * @param reportDir   Directory the reports are written to
+ */
+record LoadTestOptions(String database, String jdbcUrl, String dbUser, String dbPassword, boolean generate,
+                       int theaters, int days, double occupancy, List<Integer> concurrency, Duration warmup,
+                       Duration duration, Map<Operation, Integer> mix, boolean rateLimit, Path config,
+                       Path reportDir) {
+
+    static final String USAGE = """
+            Options (--name=value):
+              --db=h2|postgres            database to run against (default h2)
+              --jdbc-url, --db-user, --db-password
+                                          override the configured PostgreSQL connection
+              --generate=true|false       load a generated dataset at startup (default true for h2, false for postgres)
+              --theaters=20 --days=7 --occupancy=0.3
+                                          size of the generated dataset
+              --concurrency=1,8,32,128,512
+                                          concurrent clients of each step
+              --warmup=5s --duration=15s  warm-up and measured time of each step
+              --mix=catalog:30,showtime:40,booking:20,contended:10
+                                          relative weight of each operation
+              --rate-limit=false          keep the booking rate limits enabled
+              --config=src/main/resources/application.yaml
+                                          application configuration to start with
+              --report-dir=target/load-test
+                                          directory of the reports
+            """;
+
+    /**
+     * Parses the command-line arguments.
+     *
+     * @param args Arguments of the form --name=value
+     * @return The options, with defaults for those not given
+     * @throws IllegalArgumentException if an argument is unknown or malformed
+     */
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got '" + arg + "'");
+            }
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        String database = values.getOrDefault("db", "h2");
+        if (!database.equals("h2") && !database.equals("postgres")) {
+            throw new IllegalArgumentException("Unknown database '" + database + "'");
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                database,
+                values.remove("jdbc-url"),
+                values.remove("db-user"),
+                values.remove("db-password"),
+                Boolean.parseBoolean(values.getOrDefault("generate", String.valueOf(database.equals("h2")))),
+                Integer.parseInt(values.getOrDefault("theaters", "20")),
+                Integer.parseInt(values.getOrDefault("days", "7")),
+                Double.parseDouble(values.getOrDefault("occupancy", "0.3")),
+                Arrays.stream(values.getOrDefault("concurrency", "1,8,32,128,512").split(","))
+                        .map(String::trim).map(Integer::valueOf).toList(),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "5s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "15s")),
+                parseMix(values.getOrDefault("mix", "catalog:30,showtime:40,booking:20,contended:10")),
+                Boolean.parseBoolean(values.getOrDefault("rate-limit", "false")),
+                Path.of(values.getOrDefault("config", "src/main/resources/application.yaml")),
+                Path.of(values.getOrDefault("report-dir", "target/load-test")));
+
+        values.keySet().removeAll(List.of("db", "generate", "theaters", "days", "occupancy", "concurrency",
+                "warmup", "duration", "mix", "rate-limit", "config", "report-dir"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + values.keySet());
+        }
+        if (options.concurrency.stream().anyMatch(clients -> clients < 1)) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+        return options;
+    }
+
+    /**
+     * Parses an operation mix such as "catalog:30,booking:70".
+     */
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight, got '" + entry + "'");
+            }
+            int weight = Integer.parseInt(parts[1]);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + parts[0] + " cannot be negative");
+            }
+            weights.put(Operation.fromLabel(parts[0]), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("The mix must have a positive weight");
+        }
+        return weights;
+    }
+
+    /**
+     * Describes the options for the report.
+     *
+     * @return One "name: value" line per setting that affects the results
+     */
+    List<String> describe() {
+        String dataset = generate
+                ? "generated, " + theaters + " theaters, " + days + " days, occupancy " + occupancy
+                : "existing";
+        return List.of(
+                "database: " + database + (jdbcUrl != null ? " (" + jdbcUrl + ")" : ""),
+                "dataset: " + dataset,
+                "mix: " + mix.entrySet().stream()
+                        .map(entry -> entry.getKey().getLabel() + ":" + entry.getValue()).toList(),
+                "warm-up: " + warmup + ", measured: " + duration + " per step",
+                "booking rate limits: " + (rateLimit ? "enabled" : "disabled"),
+                "configuration: " + config);
+    }
+}
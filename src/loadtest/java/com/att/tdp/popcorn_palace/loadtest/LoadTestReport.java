@@ -0,0 +1,134 @@
+package com.att.tdp.popcorn_palace.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Results of a load-test run, one step per concurrency level, written as a Markdown table for reading and
+ * a CSV file for comparing runs. Latencies are recorded in microseconds and reported in milliseconds.
+ */
+class LoadTestReport {
+    private static final String[] HEADER = {
+            "concurrency", "operation", "requests", "throughput/s", "ok", "rejected", "throttled", "errors",
+            "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"};
+
+    private final List<String> settings;
+    private final List<String[]> rows = new ArrayList<>();
+
+    /**
+     * Constructs an empty LoadTestReport.
+     *
+     * @param settings Lines describing the run, printed above the results
+     */
+    LoadTestReport(List<String> settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Adds the results of one step, one row per operation and a row for all operations together.
+     *
+     * @param concurrency Number of concurrent clients of the step
+     * @param elapsed     Measured time of the step, in nanoseconds
+     * @param latencies   Latency histogram of each operation that ran
+     * @param outcomes    Count of each outcome per operation, indexed by {@link Outcome#ordinal()}
+     */
+    void addStep(int concurrency, long elapsed, Map<Operation, Histogram> latencies, Map<Operation, long[]> outcomes) {
+        Histogram allLatencies = new Histogram(3);
+        long[] allOutcomes = new long[Outcome.values().length];
+        for (Map.Entry<Operation, Histogram> entry : latencies.entrySet()) {
+            long[] counts = outcomes.get(entry.getKey());
+            rows.add(row(concurrency, entry.getKey().getLabel(), elapsed, entry.getValue(), counts));
+            allLatencies.add(entry.getValue());
+            for (int i = 0; i < counts.length; i++) {
+                allOutcomes[i] += counts[i];
+            }
+        }
+        rows.add(row(concurrency, "all", elapsed, allLatencies, allOutcomes));
+    }
+
+    /**
+     * Formats one row of results.
+     */
+    private static String[] row(int concurrency, String operation, long elapsed, Histogram latencies,
+                                long[] outcomes) {
+        long requests = latencies.getTotalCount();
+        return new String[]{
+                String.valueOf(concurrency),
+                operation,
+                String.valueOf(requests),
+                String.format(Locale.ROOT, "%.1f", requests * 1e9 / elapsed),
+                String.valueOf(outcomes[Outcome.OK.ordinal()]),
+                String.valueOf(outcomes[Outcome.REJECTED.ordinal()]),
+                String.valueOf(outcomes[Outcome.THROTTLED.ordinal()]),
+                String.valueOf(outcomes[Outcome.ERROR.ordinal()]),
+                millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(90)),
+                millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue())};
+    }
+
+    /**
+     * Formats a latency in microseconds as milliseconds.
+     */
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.2f", micros / 1000.0);
+    }
+
+    /**
+     * Renders the report as Markdown.
+     *
+     * @return The settings as a list, followed by a table of the results
+     */
+    String toMarkdown() {
+        StringBuilder markdown = new StringBuilder("# Load test ")
+                .append(LocalDateTime.now().withNano(0)).append("\n\n");
+        for (String setting : settings) {
+            markdown.append("- ").append(setting).append('\n');
+        }
+        markdown.append("\nClients send their next request as soon as the previous one completes, so latencies ")
+                .append("are of a closed system and hide the queueing an open arrival rate would add.\n\n");
+        markdown.append("| ").append(String.join(" | ", HEADER)).append(" |\n|");
+        markdown.append(" --- |".repeat(HEADER.length)).append('\n');
+        for (String[] row : rows) {
+            markdown.append("| ").append(String.join(" | ", row)).append(" |\n");
+        }
+        return markdown.toString();
+    }
+
+    /**
+     * Renders the results as CSV, without the settings.
+     *
+     * @return A header line and one line per row
+     */
+    String toCsv() {
+        StringBuilder csv = new StringBuilder(String.join(",", HEADER)).append('\n');
+        for (String[] row : rows) {
+            csv.append(String.join(",", row)).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Writes the Markdown and CSV files of the report.
+     *
+     * @param directory Directory to write to, created if needed
+     * @return The Markdown file; the CSV file has the same name with a .csv extension
+     * @throws IOException if the files cannot be written
+     */
+    Path writeTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        String name = "load-test-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Files.writeString(directory.resolve(name + ".csv"), toCsv());
+        return Files.writeString(directory.resolve(name + ".md"), toMarkdown());
+    }
+}
@@ -0,0 +1,57 @@
+package com.att.tdp.popcorn_palace.loadtest;
+
+/**
+ * Kinds of request issued by the load-test clients, named as in the --mix option.
+ */
+enum Operation {
+    /**
+     * Lists all movies.
+     */
+    CATALOG("catalog"),
+
+    /**
+     * Fetches a random showtime.
+     */
+    SHOWTIME("showtime"),
+
+    /**
+     * Books a random seat of a random showtime, so bookings rarely compete for a seat.
+     */
+    BOOKING("booking"),
+
+    /**
+     * Books a random seat of the one hot showtime of the step, so bookings compete for its seats.
+     */
+    CONTENDED("contended");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the name of the operation in options and reports.
+     *
+     * @return The label
+     */
+    String getLabel() {
+        return label;
+    }
+
+    /**
+     * Finds an operation by its label.
+     *
+     * @param label The label
+     * @return The operation
+     * @throws IllegalArgumentException if no operation has that label
+     */
+    static Operation fromLabel(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equals(label)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + label + "'");
+    }
+}
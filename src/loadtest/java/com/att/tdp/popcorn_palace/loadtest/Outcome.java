@@ -0,0 +1,45 @@
+package com.att.tdp.popcorn_palace.loadtest;
+
+/**
+ * Outcome of a load-test request, from its HTTP status.
+ */
+enum Outcome {
+    /**
+     * 2xx: the request succeeded.
+     */
+    OK,
+
+    /**
+     * 4xx other than 429: the request was refused for business reasons, e.g. 400 for a taken seat.
+     */
+    REJECTED,
+
+    /**
+     * 429 or 503: the request was shed by a rate limit, bulkhead or concurrency limit.
+     */
+    THROTTLED,
+
+    /**
+     * Any other status, or no response at all.
+     */
+    ERROR;
+
+    /**
+     * Classifies an HTTP status.
+     *
+     * @param status The status code
+     * @return The outcome
+     */
+    static Outcome of(int status) {
+        if (status >= 200 && status < 300) {
+            return OK;
+        }
+        if (status == 429 || status == 503) {
+            return THROTTLED;
+        }
+        if (status >= 400 && status < 500) {
+            return REJECTED;
+        }
+        return ERROR;
+    }
+}
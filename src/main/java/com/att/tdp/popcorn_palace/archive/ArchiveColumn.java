@@ -0,0 +1,10 @@
+package com.att.tdp.popcorn_palace.archive;
+
+/**
+ * Name and type of a column in a columnar archive.
+ *
+ * @param name Name of the column, e.g. {@code seat_number}
+ * @param type Type of the column's values
+ */
+public record ArchiveColumn(String name, ColumnType type) {
+}
@@ -0,0 +1,51 @@
+package com.att.tdp.popcorn_palace.archive;
+
+/**
+ * Type of a column in a columnar archive or snapshot, which also decides its encoding.
+ * <p>
+ * Integers are stored as zig-zag variable-length numbers; longs, timestamps and dates as the zig-zag
+ * variable-length difference to the previous row, so that sorted IDs and times shrink to a byte or two
+ * per row before compression. Timestamps are millisecond instants. Columns cannot hold nulls.
+ * New types are only ever appended, since files store the ordinal.
+ */
+public enum ColumnType {
+    /**
+     * 32-bit integer, read back as {@link Integer}.
+     */
+    INT,
+
+    /**
+     * 64-bit integer, read back as {@link Long}.
+     */
+    LONG,
+
+    /**
+     * Instant with millisecond precision, read back as {@link java.time.Instant}.
+     */
+    TIMESTAMP,
+
+    /**
+     * Double precision number, read back as {@link Double}.
+     */
+    DOUBLE,
+
+    /**
+     * UTF-8 text, read back as {@link String}.
+     */
+    STRING,
+
+    /**
+     * Flag stored as one byte, read back as {@link Boolean}.
+     */
+    BOOLEAN,
+
+    /**
+     * UUID stored as 16 bytes, read back as {@link java.util.UUID}.
+     */
+    UUID,
+
+    /**
+     * Calendar date, read back as {@link java.time.LocalDate}.
+     */
+    DATE
+}
@@ -0,0 +1,142 @@
+package com.att.tdp.popcorn_palace.archive;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reader of a columnar archive file written by {@link ColumnarArchiveWriter}.
+ * Only the directory is read when the file is opened; a scan then reads and inflates the blocks of the
+ * requested columns and nothing else.
+ */
+public class ColumnarArchiveReader {
+    private final Path file;
+    private final int rowCount;
+    private final List<ArchiveColumn> columns;
+    private final long[] offsets;
+    private final long[] lengths;
+    private final long dataStart;
+
+    /**
+     * Opens an archive file and reads its directory.
+     *
+     * @param file The archive file
+     * @throws IOException if the file cannot be read or is not an archive
+     */
+    public ColumnarArchiveReader(Path file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            DataInputStream prefix = new DataInputStream(new ByteArrayInputStream(read(channel, 0, 12)));
+            if (prefix.readInt() != ColumnarArchiveWriter.MAGIC || prefix.readInt() != ColumnarArchiveWriter.VERSION) {
+                throw new IOException(file + " is not a columnar archive");
+            }
+            int directoryLength = prefix.readInt();
+            DataInputStream directory = new DataInputStream(
+                    new ByteArrayInputStream(read(channel, 12, directoryLength)));
+
+            this.rowCount = directory.readInt();
+            int columnCount = directory.readInt();
+            this.columns = new ArrayList<>(columnCount);
+            this.offsets = new long[columnCount];
+            this.lengths = new long[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                String name = directory.readUTF();
+                ColumnType type = ColumnType.values()[directory.readByte()];
+                columns.add(new ArchiveColumn(name, type));
+                offsets[i] = directory.readLong();
+                lengths[i] = directory.readLong();
+            }
+            this.dataStart = 12L + directoryLength;
+        }
+    }
+
+    /**
+     * Returns the columns of the archive.
+     *
+     * @return The columns, in file order
+     */
+    public List<ArchiveColumn> getColumns() {
+        return List.copyOf(columns);
+    }
+
+    /**
+     * Returns the number of rows in the archive.
+     *
+     * @return The row count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Reads the values of some columns row by row.
+     *
+     * @param columnNames Columns to read; the others are not read from disk
+     * @param consumer    Receives each row's values in the order of columnNames and returns false to stop
+     *                    the scan. The array is reused between rows and must be copied if kept.
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a column does not exist
+     */
+    public void scan(List<String> columnNames, Predicate<Object[]> consumer) throws IOException {
+        int[] indexes = new int[columnNames.size()];
+        DataInputStream[] inputs = new DataInputStream[columnNames.size()];
+        long[] previous = new long[columnNames.size()];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = indexOf(columnNames.get(i));
+                byte[] block = read(channel, dataStart + offsets[indexes[i]], (int) lengths[indexes[i]]);
+                inputs[i] = new DataInputStream(new BufferedInputStream(
+                        new GZIPInputStream(new ByteArrayInputStream(block), 8192), 8192));
+            }
+        }
+
+        Object[] values = new Object[indexes.length];
+        for (int row = 0; row < rowCount; row++) {
+            for (int i = 0; i < indexes.length; i++) {
+                values[i] = ValueCodec.read(inputs[i], columns.get(indexes[i]).type(), previous, i);
+            }
+            if (!consumer.test(values)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Finds a column by name.
+     *
+     * @param name Name of the column
+     * @return Its index in the file
+     * @throws IllegalArgumentException if the column does not exist
+     */
+    private int indexOf(String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).name().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column '" + name + "'");
+    }
+
+    /**
+     * Reads a range of bytes from the file.
+     */
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Archive is truncated");
+            }
+        }
+        return buffer.array();
+    }
+}
@@ -0,0 +1,121 @@
+package com.att.tdp.popcorn_palace.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writer of a columnar archive file.
+ * <p>
+ * Rows are added one at a time, but each column is encoded into its own gzip stream as they arrive,
+ * so only the compressed columns are held in memory. The file starts with a directory giving the type,
+ * offset and length of every column block, which lets {@link ColumnarArchiveReader} inflate only the
+ * columns a query needs:
+ * <pre>
+ * int magic, int version, int directoryLength
+ * directory: int rowCount, int columnCount, then per column: UTF name, byte type, long offset, long length
+ * column blocks (gzip), offsets counted from the end of the directory
+ * </pre>
+ */
+public class ColumnarArchiveWriter {
+    static final int MAGIC = 0x50504341;
+    static final int VERSION = 1;
+
+    private final List<ArchiveColumn> columns;
+    private final ByteArrayOutputStream[] blocks;
+    private final DataOutputStream[] outputs;
+    private final long[] previous;
+    private int rowCount;
+
+    /**
+     * Constructs an empty ColumnarArchiveWriter.
+     *
+     * @param columns Columns of the archive, in the order values are passed to {@link #addRow(Object...)}
+     */
+    public ColumnarArchiveWriter(List<ArchiveColumn> columns) {
+        this.columns = List.copyOf(columns);
+        this.blocks = new ByteArrayOutputStream[columns.size()];
+        this.outputs = new DataOutputStream[columns.size()];
+        this.previous = new long[columns.size()];
+        try {
+            for (int i = 0; i < blocks.length; i++) {
+                blocks[i] = new ByteArrayOutputStream();
+                outputs[i] = new DataOutputStream(new GZIPOutputStream(blocks[i], 8192));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends a row.
+     *
+     * @param values One value per column, of the Java type of its {@link ColumnType}
+     * @throws IllegalArgumentException if the number of values is wrong or a value is null
+     */
+    public void addRow(Object... values) {
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " values, got " + values.length);
+        }
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    throw new IllegalArgumentException("Column " + columns.get(i).name() + " cannot be null");
+                }
+                ValueCodec.write(outputs[i], columns.get(i).type(), values[i], previous, i);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rowCount++;
+    }
+
+    /**
+     * Returns the number of rows added so far.
+     *
+     * @return The row count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Completes the archive and writes it to a file. The writer cannot be used afterwards.
+     *
+     * @param file File to create or overwrite
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTo(Path file) throws IOException {
+        for (DataOutputStream output : outputs) {
+            output.close();
+        }
+
+        ByteArrayOutputStream directoryBytes = new ByteArrayOutputStream();
+        DataOutputStream directory = new DataOutputStream(directoryBytes);
+        directory.writeInt(rowCount);
+        directory.writeInt(columns.size());
+        long offset = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            directory.writeUTF(columns.get(i).name());
+            directory.writeByte(columns.get(i).type().ordinal());
+            directory.writeLong(offset);
+            directory.writeLong(blocks[i].size());
+            offset += blocks[i].size();
+        }
+
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(directoryBytes.size());
+            directoryBytes.writeTo(out);
+            for (ByteArrayOutputStream block : blocks) {
+                block.writeTo(out);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.att.tdp.popcorn_palace.archive;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reader of a snapshot stream written by {@link SnapshotWriter}, one table and one row at a time.
+ */
+public class SnapshotReader implements Closeable {
+    private final DataInputStream in;
+    private String tableName;
+    private List<ArchiveColumn> columns;
+    private long[] previous;
+    private boolean inTable;
+
+    /**
+     * Opens a snapshot stream and checks its header.
+     *
+     * @param input Stream holding the snapshot; closed with the reader
+     * @throws IOException if the stream cannot be read or is not a snapshot
+     */
+    public SnapshotReader(InputStream input) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(input, 65536), 65536));
+        if (in.readInt() != SnapshotWriter.MAGIC || in.readInt() != SnapshotWriter.VERSION) {
+            throw new IOException("Stream is not a snapshot");
+        }
+    }
+
+    /**
+     * Moves to the next table, skipping the remaining rows of the current one.
+     *
+     * @return true if there is a next table, false at the end of the snapshot
+     * @throws IOException if the stream cannot be read
+     */
+    public boolean nextTable() throws IOException {
+        Object[] skipped = columns == null ? null : new Object[columns.size()];
+        while (inTable) {
+            nextRow(skipped);
+        }
+        if (!in.readBoolean()) {
+            tableName = null;
+            columns = null;
+            return false;
+        }
+        tableName = in.readUTF();
+        int columnCount = in.readInt();
+        columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            String name = in.readUTF();
+            int type = in.readByte();
+            if (type < 0 || type >= ColumnType.values().length) {
+                throw new IOException("Unknown type of column " + name + " in table " + tableName);
+            }
+            columns.add(new ArchiveColumn(name, ColumnType.values()[type]));
+        }
+        previous = new long[columnCount];
+        inTable = true;
+        return true;
+    }
+
+    /**
+     * Returns the name of the current table.
+     *
+     * @return The table name, or null before the first and after the last table
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Returns the columns of the current table.
+     *
+     * @return The columns, in stream order
+     */
+    public List<ArchiveColumn> getColumns() {
+        return List.copyOf(columns);
+    }
+
+    /**
+     * Reads the next row of the current table.
+     *
+     * @param values Array of one element per column receiving the row's values
+     * @return true if a row was read, false at the end of the table
+     * @throws IOException if the stream cannot be read
+     */
+    public boolean nextRow(Object[] values) throws IOException {
+        if (!inTable) {
+            return false;
+        }
+        if (!in.readBoolean()) {
+            inTable = false;
+            return false;
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            values[i] = ValueCodec.read(in, columns.get(i).type(), previous, i);
+        }
+        return true;
+    }
+
+    /**
+     * Closes the stream.
+     *
+     * @throws IOException if the stream cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,109 @@
+package com.att.tdp.popcorn_palace.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writer of a snapshot stream holding several tables row by row.
+ * <p>
+ * Unlike a columnar archive, a snapshot is written and read in one pass without holding the rows in
+ * memory, so that tables of millions of rows can be streamed from and into the database. Values use the
+ * encodings of {@link ColumnType}. The whole stream is compressed:
+ * <pre>
+ * int magic, int version
+ * per table: byte 1, UTF name, int columnCount, then per column: UTF name, byte type
+ *            then per row: byte 1, values; then byte 0
+ * byte 0
+ * </pre>
+ */
+public class SnapshotWriter implements Closeable {
+    static final int MAGIC = 0x5050534e;
+    static final int VERSION = 1;
+
+    private final DataOutputStream out;
+    private List<ArchiveColumn> columns;
+    private long[] previous;
+
+    /**
+     * Starts a snapshot on a stream.
+     *
+     * @param output Stream receiving the snapshot; closed with the writer
+     * @throws IOException if the stream cannot be written
+     */
+    public SnapshotWriter(OutputStream output) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(output, 65536), 65536));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    /**
+     * Ends the current table, if any, and starts the next one.
+     *
+     * @param name    Name of the table
+     * @param columns Columns of the table, in the order values are passed to {@link #addRow(Object...)}
+     * @throws IOException if the stream cannot be written
+     */
+    public void beginTable(String name, List<ArchiveColumn> columns) throws IOException {
+        endTable();
+        out.writeBoolean(true);
+        out.writeUTF(name);
+        out.writeInt(columns.size());
+        for (ArchiveColumn column : columns) {
+            out.writeUTF(column.name());
+            out.writeByte(column.type().ordinal());
+        }
+        this.columns = List.copyOf(columns);
+        this.previous = new long[columns.size()];
+    }
+
+    /**
+     * Appends a row to the current table.
+     *
+     * @param values One value per column, of the Java type of its {@link ColumnType}
+     * @throws IOException              if the stream cannot be written
+     * @throws IllegalStateException    if no table was started
+     * @throws IllegalArgumentException if the number of values is wrong or a value is null
+     */
+    public void addRow(Object... values) throws IOException {
+        if (columns == null) {
+            throw new IllegalStateException("No table was started");
+        }
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " values, got " + values.length);
+        }
+        out.writeBoolean(true);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                throw new IllegalArgumentException("Column " + columns.get(i).name() + " cannot be null");
+            }
+            ValueCodec.write(out, columns.get(i).type(), values[i], previous, i);
+        }
+    }
+
+    /**
+     * Ends the last table and the snapshot, and closes the stream.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        endTable();
+        out.writeBoolean(false);
+        out.close();
+    }
+
+    /**
+     * Writes the end marker of the current table, if any.
+     */
+    private void endTable() throws IOException {
+        if (columns != null) {
+            out.writeBoolean(false);
+            columns = null;
+        }
+    }
+}
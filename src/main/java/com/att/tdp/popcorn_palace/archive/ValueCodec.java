@@ -0,0 +1,128 @@
+package com.att.tdp.popcorn_palace.archive;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Binary encoding of column values, shared by archives and snapshots (see {@link ColumnType}).
+ * Delta-encoded types keep the previous value of their column in a caller-provided array.
+ */
+final class ValueCodec {
+    private ValueCodec() {
+    }
+
+    /**
+     * Encodes one value.
+     *
+     * @param out      Stream of the column, or of the whole row
+     * @param type     Type of the column
+     * @param value    Value to encode, of the Java type of the column type
+     * @param previous Previous value of every column, for delta encoding
+     * @param column   Index of the column in previous
+     * @throws IOException if the value cannot be written
+     */
+    static void write(DataOutputStream out, ColumnType type, Object value, long[] previous, int column)
+            throws IOException {
+        switch (type) {
+            case INT -> writeVarLong(out, zigZag((Integer) value));
+            case LONG -> writeDelta(out, (Long) value, previous, column);
+            case TIMESTAMP -> writeDelta(out, ((Instant) value).toEpochMilli(), previous, column);
+            case DOUBLE -> out.writeDouble((Double) value);
+            case STRING -> {
+                byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+                writeVarLong(out, bytes.length);
+                out.write(bytes);
+            }
+            case BOOLEAN -> out.writeBoolean((Boolean) value);
+            case UUID -> {
+                out.writeLong(((UUID) value).getMostSignificantBits());
+                out.writeLong(((UUID) value).getLeastSignificantBits());
+            }
+            case DATE -> writeDelta(out, ((LocalDate) value).toEpochDay(), previous, column);
+        }
+    }
+
+    /**
+     * Decodes one value.
+     *
+     * @param in       Stream of the column, or of the whole row
+     * @param type     Type of the column
+     * @param previous Previous value of every column, for delta encoding
+     * @param column   Index of the column in previous
+     * @return The value, of the Java type of the column type
+     * @throws IOException if the value cannot be read
+     */
+    static Object read(DataInputStream in, ColumnType type, long[] previous, int column) throws IOException {
+        return switch (type) {
+            case INT -> (int) unZigZag(readVarLong(in));
+            case LONG -> previous[column] += unZigZag(readVarLong(in));
+            case TIMESTAMP -> Instant.ofEpochMilli(previous[column] += unZigZag(readVarLong(in)));
+            case DOUBLE -> in.readDouble();
+            case STRING -> {
+                byte[] bytes = new byte[(int) readVarLong(in)];
+                in.readFully(bytes);
+                yield new String(bytes, StandardCharsets.UTF_8);
+            }
+            case BOOLEAN -> in.readBoolean();
+            case UUID -> new UUID(in.readLong(), in.readLong());
+            case DATE -> LocalDate.ofEpochDay(previous[column] += unZigZag(readVarLong(in)));
+        };
+    }
+
+    /**
+     * Encodes a long as the difference to the previous value of its column.
+     */
+    private static void writeDelta(DataOutputStream out, long value, long[] previous, int column)
+            throws IOException {
+        writeVarLong(out, zigZag(value - previous[column]));
+        previous[column] = value;
+    }
+
+    /**
+     * Maps signed values to unsigned ones so that small negative numbers stay short.
+     */
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Reverses the zig-zag mapping.
+     */
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Writes an unsigned number in groups of 7 bits, least significant first.
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * Reads an unsigned number written in groups of 7 bits, least significant first.
+     */
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Value is truncated");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
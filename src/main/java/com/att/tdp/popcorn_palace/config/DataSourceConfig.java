@@ -0,0 +1,53 @@
+package com.att.tdp.popcorn_palace.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the partitioned DataSource: one connection pool for catalog reads and one for writes,
+ * both pointing at the database configured under spring.datasource.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Creates the DataSource routing connections to the read or write pool.
+     * Both pools publish their saturation metrics (hikaricp.*) tagged with their pool name.
+     * 
+     * @param properties    The standard spring.datasource properties
+     * @param meterRegistry Registry receiving the pool metrics
+     * @param readPoolSize  Maximum number of connections of the read pool
+     * @param writePoolSize Maximum number of connections of the write pool
+     * @return The partitioned DataSource
+     */
+    @Bean
+    public PartitionedDataSource dataSource(DataSourceProperties properties, MeterRegistry meterRegistry,
+            @Value("${popcorn.datasource.read-pool-size:10}") int readPoolSize,
+            @Value("${popcorn.datasource.write-pool-size:10}") int writePoolSize) {
+        return new PartitionedDataSource(
+                createPool(properties, meterRegistry, "read-pool", readPoolSize),
+                createPool(properties, meterRegistry, "write-pool", writePoolSize));
+    }
+
+    /**
+     * Creates one Hikari pool from the standard DataSource properties.
+     * 
+     * @param properties    The standard spring.datasource properties
+     * @param meterRegistry Registry receiving the pool metrics
+     * @param poolName      Name of the pool
+     * @param maxPoolSize   Maximum number of connections
+     * @return The connection pool
+     */
+    private HikariDataSource createPool(DataSourceProperties properties, MeterRegistry meterRegistry,
+            String poolName, int maxPoolSize) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(poolName);
+        pool.setMaximumPoolSize(maxPoolSize);
+        pool.setMetricRegistry(meterRegistry);
+        return pool;
+    }
+}
@@ -0,0 +1,35 @@
+package com.att.tdp.popcorn_palace.config;
+
+/**
+ * Connection pool partition used by the current thread.
+ * Catalog reads and writes draw connections from separate pools so that neither can exhaust the other.
+ */
+public enum DataSourcePartition {
+    READ,
+    WRITE;
+
+    private static final ThreadLocal<DataSourcePartition> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Returns the partition selected for the current thread.
+     * 
+     * @return The current partition, or WRITE when none was selected (background jobs, startup)
+     */
+    public static DataSourcePartition current() {
+        DataSourcePartition partition = CURRENT.get();
+        return partition != null ? partition : WRITE;
+    }
+
+    /**
+     * Selects the partition of the current thread.
+     * 
+     * @param partition The partition to use, or null to return to the default
+     */
+    public static void set(DataSourcePartition partition) {
+        if (partition == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(partition);
+        }
+    }
+}
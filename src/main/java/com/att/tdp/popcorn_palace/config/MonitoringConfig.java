@@ -0,0 +1,49 @@
+package com.att.tdp.popcorn_palace.config;
+
+import com.att.tdp.popcorn_palace.monitoring.RowCountingInterceptor;
+import com.att.tdp.popcorn_palace.monitoring.SqlProfiler;
+import com.att.tdp.popcorn_palace.monitoring.SqlProfilingFilter;
+import com.att.tdp.popcorn_palace.monitoring.SqlStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration wiring the monitoring components into Hibernate and the servlet filter chain.
+ */
+@Configuration
+public class MonitoringConfig {
+
+    /**
+     * Registers the SQL statement inspector and row counting interceptor with Hibernate.
+     * 
+     * @param sqlProfiler Profiler collecting per-request SQL statistics
+     * @return Customizer adding the profiling hooks to the Hibernate properties
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlProfilingHibernateCustomizer(SqlProfiler sqlProfiler) {
+        return properties -> {
+            if (sqlProfiler.isEnabled()) {
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector(sqlProfiler));
+                properties.put(AvailableSettings.INTERCEPTOR, new RowCountingInterceptor(sqlProfiler));
+            }
+        };
+    }
+
+    /**
+     * Registers the filter that scopes SQL profiles to HTTP requests.
+     * 
+     * @param sqlProfiler Profiler collecting per-request SQL statistics
+     * @return Registration of the SQL profiling filter for all paths
+     */
+    @Bean
+    public FilterRegistrationBean<SqlProfilingFilter> sqlProfilingFilter(SqlProfiler sqlProfiler) {
+        FilterRegistrationBean<SqlProfilingFilter> registration =
+                new FilterRegistrationBean<>(new SqlProfilingFilter(sqlProfiler));
+        registration.addUrlPatterns("/*");
+        registration.setEnabled(sqlProfiler.isEnabled());
+        return registration;
+    }
+}
@@ -0,0 +1,40 @@
+package com.att.tdp.popcorn_palace.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.Map;
+
+/**
+ * DataSource routing each connection request to the pool of the current {@link DataSourcePartition}.
+ */
+public class PartitionedDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    private final HikariDataSource readPool;
+    private final HikariDataSource writePool;
+
+    /**
+     * Constructs a PartitionedDataSource over two pools.
+     * 
+     * @param readPool  Pool serving catalog reads
+     * @param writePool Pool serving bookings, administrative changes and background work
+     */
+    public PartitionedDataSource(HikariDataSource readPool, HikariDataSource writePool) {
+        this.readPool = readPool;
+        this.writePool = writePool;
+        setTargetDataSources(Map.of(DataSourcePartition.READ, readPool, DataSourcePartition.WRITE, writePool));
+        setDefaultTargetDataSource(writePool);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DataSourcePartition.current();
+    }
+
+    @Override
+    public void destroy() {
+        readPool.close();
+        writePool.close();
+    }
+}
@@ -0,0 +1,222 @@
+package com.att.tdp.popcorn_palace.config;
+
+import com.att.tdp.popcorn_palace.throttling.AdaptiveConcurrencyLimiter;
+import com.att.tdp.popcorn_palace.throttling.Bulkhead;
+import com.att.tdp.popcorn_palace.throttling.BulkheadFilter;
+import com.att.tdp.popcorn_palace.throttling.ConcurrencyLimitFilter;
+import com.att.tdp.popcorn_palace.throttling.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the load-shedding components: the read/write bulkheads, the booking concurrency limiter
+ * and the booking rate limits.
+ */
+@Configuration
+public class ThrottlingConfig {
+
+    /**
+     * Creates the adaptive concurrency limiter of the booking endpoint and publishes its metrics.
+     * 
+     * @param meterRegistry Registry receiving the limit, in-flight and rejection metrics
+     * @param initialLimit  Limit used before latency samples are available
+     * @param minLimit      Lowest limit the algorithm may settle on
+     * @param maxLimit      Highest limit the algorithm may settle on
+     * @param rttTolerance  Latency increase tolerated before the limit shrinks
+     * @param smoothing     Weight of each new limit estimate
+     * @return The booking concurrency limiter
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter bookingConcurrencyLimiter(MeterRegistry meterRegistry,
+            @Value("${popcorn.booking.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${popcorn.booking.concurrency-limit.min-limit:4}") int minLimit,
+            @Value("${popcorn.booking.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${popcorn.booking.concurrency-limit.rtt-tolerance:1.5}") double rttTolerance,
+            @Value("${popcorn.booking.concurrency-limit.smoothing:0.2}") double smoothing) {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, rttTolerance, smoothing);
+
+        Gauge.builder("booking.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit of the booking endpoint")
+                .register(meterRegistry);
+        Gauge.builder("booking.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Booking requests currently admitted")
+                .register(meterRegistry);
+        FunctionCounter.builder("booking.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+                .description("Booking requests shed with 503 because the limit was reached")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    /**
+     * Registers the concurrency limit filter in front of the booking endpoints.
+     * The waiting room endpoints are left out: they never touch the database and must stay responsive
+     * while bookings are being shed.
+     * 
+     * @param limiter           The booking concurrency limiter
+     * @param objectMapper      Mapper used to write rejection bodies
+     * @param enabled           Whether load shedding is active
+     * @param retryAfterSeconds Delay suggested to rejected clients
+     * @return Registration of the filter for the booking paths
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> bookingConcurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper,
+            @Value("${popcorn.booking.concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${popcorn.booking.concurrency-limit.retry-after-seconds:1}") long retryAfterSeconds) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limiter, objectMapper, retryAfterSeconds));
+        registration.addUrlPatterns("/bookings", "/bookings/best-available");
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    /**
+     * Creates the bulkhead of the catalog read endpoints (GET requests) and publishes its metrics.
+     * 
+     * @param meterRegistry Registry receiving the bulkhead metrics
+     * @param maxConcurrent Number of read requests allowed to run concurrently
+     * @param maxWait       How long a read request may wait for a free slot
+     * @return The read bulkhead
+     */
+    @Bean
+    public Bulkhead readBulkhead(MeterRegistry meterRegistry,
+            @Value("${popcorn.bulkhead.read.max-concurrent:100}") int maxConcurrent,
+            @Value("${popcorn.bulkhead.read.max-wait:0ms}") Duration maxWait) {
+        return registerBulkheadMetrics(new Bulkhead("read", maxConcurrent, maxWait), meterRegistry);
+    }
+
+    /**
+     * Creates the bulkhead of the write endpoints (bookings and administrative changes) and publishes its metrics.
+     * 
+     * @param meterRegistry Registry receiving the bulkhead metrics
+     * @param maxConcurrent Number of write requests allowed to run concurrently
+     * @param maxWait       How long a write request may wait for a free slot
+     * @return The write bulkhead
+     */
+    @Bean
+    public Bulkhead writeBulkhead(MeterRegistry meterRegistry,
+            @Value("${popcorn.bulkhead.write.max-concurrent:100}") int maxConcurrent,
+            @Value("${popcorn.bulkhead.write.max-wait:0ms}") Duration maxWait) {
+        return registerBulkheadMetrics(new Bulkhead("write", maxConcurrent, maxWait), meterRegistry);
+    }
+
+    /**
+     * Registers the bulkhead filter in front of every endpoint, ahead of the booking concurrency limiter.
+     * 
+     * @param readBulkhead      Bulkhead of the read endpoints
+     * @param writeBulkhead     Bulkhead of the write endpoints
+     * @param objectMapper      Mapper used to write rejection bodies
+     * @param enabled           Whether the bulkheads are active
+     * @param retryAfterSeconds Delay suggested to rejected clients
+     * @return Registration of the filter for all paths
+     */
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(Bulkhead readBulkhead, Bulkhead writeBulkhead,
+            ObjectMapper objectMapper,
+            @Value("${popcorn.bulkhead.enabled:true}") boolean enabled,
+            @Value("${popcorn.bulkhead.retry-after-seconds:1}") long retryAfterSeconds) {
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(
+                new BulkheadFilter(readBulkhead, writeBulkhead, objectMapper, retryAfterSeconds));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    /**
+     * Publishes the tracked key, rejection and untracked request metrics of a rate limiter, tagged with its name.
+     * 
+     * @param limiter       The rate limiter to observe
+     * @param meterRegistry Registry receiving the metrics
+     * @return The same rate limiter
+     */
+    private TokenBucketRateLimiter registerRateLimiterMetrics(TokenBucketRateLimiter limiter,
+            MeterRegistry meterRegistry) {
+        Gauge.builder("booking.rate_limit.tracked_keys", limiter, TokenBucketRateLimiter::getTrackedKeys)
+                .description("Keys currently holding a token bucket")
+                .tag("key", limiter.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("booking.rate_limit.rejected", limiter, TokenBucketRateLimiter::getRejectedCount)
+                .description("Booking attempts rejected with 429")
+                .tag("key", limiter.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("booking.rate_limit.untracked", limiter, TokenBucketRateLimiter::getUntrackedCount)
+                .description("Booking attempts charged to a shared bucket because the bucket map was full")
+                .tag("key", limiter.getName())
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    /**
+     * Publishes the active, saturation and rejection metrics of a bulkhead, tagged with its name.
+     * 
+     * @param bulkhead      The bulkhead to observe
+     * @param meterRegistry Registry receiving the metrics
+     * @return The same bulkhead
+     */
+    private Bulkhead registerBulkheadMetrics(Bulkhead bulkhead, MeterRegistry meterRegistry) {
+        Gauge.builder("bulkhead.active", bulkhead, Bulkhead::getActive)
+                .description("Requests currently running inside the bulkhead")
+                .tag("bulkhead", bulkhead.getName())
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.saturation", bulkhead, Bulkhead::getSaturation)
+                .description("Fraction of the bulkhead slots in use")
+                .tag("bulkhead", bulkhead.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("bulkhead.rejected", bulkhead, Bulkhead::getRejectedCount)
+                .description("Requests shed with 503 because the bulkhead was full")
+                .tag("bulkhead", bulkhead.getName())
+                .register(meterRegistry);
+        return bulkhead;
+    }
+
+    /**
+     * Creates the booking rate limiter keyed by user ID and publishes its metrics.
+     * 
+     * @param meterRegistry   Registry receiving the rate limit metrics
+     * @param capacity        Number of booking attempts a user may burst
+     * @param tokensPerSecond Sustained booking attempts per second and user
+     * @param maxEntries      Upper bound of the number of users tracked
+     * @param stripes         Number of independently bounded stripes
+     * @return The per-user rate limiter
+     */
+    @Bean
+    public TokenBucketRateLimiter bookingUserRateLimiter(MeterRegistry meterRegistry,
+            @Value("${popcorn.booking.rate-limit.user.capacity:5}") int capacity,
+            @Value("${popcorn.booking.rate-limit.user.tokens-per-second:1}") double tokensPerSecond,
+            @Value("${popcorn.booking.rate-limit.max-entries:1000000}") int maxEntries,
+            @Value("${popcorn.booking.rate-limit.stripes:64}") int stripes) {
+        return registerRateLimiterMetrics(
+                new TokenBucketRateLimiter("user", capacity, tokensPerSecond, maxEntries, stripes), meterRegistry);
+    }
+
+    /**
+     * Creates the booking rate limiter keyed by client address and publishes its metrics.
+     * 
+     * @param meterRegistry   Registry receiving the rate limit metrics
+     * @param capacity        Number of booking attempts an address may burst
+     * @param tokensPerSecond Sustained booking attempts per second and address
+     * @param maxEntries      Upper bound of the number of addresses tracked
+     * @param stripes         Number of independently bounded stripes
+     * @return The per-address rate limiter
+     */
+    @Bean
+    public TokenBucketRateLimiter bookingAddressRateLimiter(MeterRegistry meterRegistry,
+            @Value("${popcorn.booking.rate-limit.address.capacity:50}") int capacity,
+            @Value("${popcorn.booking.rate-limit.address.tokens-per-second:10}") double tokensPerSecond,
+            @Value("${popcorn.booking.rate-limit.max-entries:1000000}") int maxEntries,
+            @Value("${popcorn.booking.rate-limit.stripes:64}") int stripes) {
+        return registerRateLimiterMetrics(
+                new TokenBucketRateLimiter("address", capacity, tokensPerSecond, maxEntries, stripes), meterRegistry);
+    }
+}
@@ -0,0 +1,62 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.dto.ArchiveQueryResultDTO;
+import com.att.tdp.popcorn_palace.service.ArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * REST Controller for read-only queries over the archived showtimes and bookings.
+ */
+@RestController
+@RequestMapping("/archive")
+public class ArchiveController {
+    private final ArchiveService archiveService;
+
+    /**
+     * Constructs an ArchiveController with the required dependencies.
+     * 
+     * @param archiveService Service reading the archive files
+     */
+    @Autowired
+    public ArchiveController(ArchiveService archiveService) {
+        this.archiveService = archiveService;
+    }
+
+    /**
+     * Scans the archive of showtimes or bookings over a range of months.
+     * Only the requested and filtered columns are read from the archive files.
+     * 
+     * @param dataset    "showtimes" or "bookings"
+     * @param from       First month (yyyy-MM) of the showtimes' start time
+     * @param to         Last month (yyyy-MM) of the showtimes' start time
+     * @param columns    Comma-separated columns to return; all columns if omitted
+     * @param movieId    Optional movie to restrict the rows to
+     * @param showtimeId Optional showtime to restrict the rows to
+     * @param limit      Maximum number of rows (default 1000, at most 10000)
+     * @return ResponseEntity containing the column names and matching rows
+     * 
+     * @apiNote Returns HTTP 200 OK
+     * @throws com.att.tdp.popcorn_palace.exception.InvalidRequestException if a parameter is invalid
+     */
+    @GetMapping("/{dataset}")
+    public ResponseEntity<ArchiveQueryResultDTO> query(
+            @PathVariable String dataset,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(required = false) List<String> columns,
+            @RequestParam(required = false) Long movieId,
+            @RequestParam(required = false) Long showtimeId,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(archiveService.query(dataset, from, to, columns, movieId, showtimeId, limit));
+    }
+}
@@ -1,53 +1,176 @@
 package com.att.tdp.popcorn_palace.controller;
 
+import com.att.tdp.popcorn_palace.dto.BestAvailableRequestDTO;
 import com.att.tdp.popcorn_palace.dto.BookingDTO;
+import com.att.tdp.popcorn_palace.dto.QueueStatusDTO;
+import com.att.tdp.popcorn_palace.dto.SeatAllocationDTO;
+import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
 import com.att.tdp.popcorn_palace.service.BookingService;
+import com.att.tdp.popcorn_palace.service.SeatAllocationService;
+import com.att.tdp.popcorn_palace.service.WaitingRoomService;
+import com.att.tdp.popcorn_palace.throttling.BookingRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * REST Controller for managing movie ticket bookings.
- * Handles HTTP requests related to booking operations.
+ * Handles HTTP requests related to booking operations and the waiting rooms of high-demand showtimes.
  */
 @RestController
 @RequestMapping("/bookings")
 public class BookingController {
+    static final String QUEUE_TOKEN_HEADER = "X-Queue-Token";
+
     private final BookingService bookingService;
+    private final SeatAllocationService seatAllocationService;
+    private final WaitingRoomService waitingRoomService;
+    private final BookingRateLimiter bookingRateLimiter;
 
     /**
      * Constructs the BookingController with required dependencies.
      * 
-     * @param bookingService Service that handles business logic for bookings
+     * @param bookingService        Service that handles business logic for bookings
+     * @param seatAllocationService Service that finds and books the best adjacent seats
+     * @param waitingRoomService    Service that admits visitors to high-demand showtimes
+     * @param bookingRateLimiter    Per-user and per-address limit of booking attempts
      */
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, SeatAllocationService seatAllocationService,
+            WaitingRoomService waitingRoomService, BookingRateLimiter bookingRateLimiter) {
         this.bookingService = bookingService;
+        this.seatAllocationService = seatAllocationService;
+        this.waitingRoomService = waitingRoomService;
+        this.bookingRateLimiter = bookingRateLimiter;
     }
 
     /**
      * Creates a new ticket booking.
      * 
      * @param bookingDTO Data transfer object containing booking information (seats, showtime, etc.)
+     * @param queueToken Admitted waiting room token, required for high-demand showtimes only
+     * @param request    The HTTP request, whose client address is rate limited
      * @return ResponseEntity containing the UUID of the newly created booking
      * 
      * @apiNote Returns HTTP 200 OK with booking ID on success
-     * @throws com.att.tdp.popcorn_palace.exception.SeatUnavailableException if selected seats are already booked
-     * @throws com.att.tdp.popcorn_palace.exception.InvalidShowtimeException if the requested showtime doesn't exist
+     * @throws com.att.tdp.popcorn_palace.exception.SeatUnavailableException   if selected seats are already booked
+     * @throws com.att.tdp.popcorn_palace.exception.ShowtimeNotFoundException  if the requested showtime doesn't
+     *                                                                         exist
+     * @throws com.att.tdp.popcorn_palace.exception.QueueAdmissionException    if the showtime is in high demand
+     *                                                                         and the token has not been admitted
+     * @throws com.att.tdp.popcorn_palace.exception.RateLimitExceededException if the user or client address has
+     *                                                                         exceeded its booking rate
      * 
      */
     @PostMapping
-    public ResponseEntity<Map<String, UUID>> bookTicket(@RequestBody BookingDTO bookingDTO) {
-        UUID bookingId = bookingService.bookTicket(bookingDTO);
+    public ResponseEntity<Map<String, UUID>> bookTicket(@RequestBody BookingDTO bookingDTO,
+            @RequestHeader(name = QUEUE_TOKEN_HEADER, required = false) String queueToken,
+            HttpServletRequest request) {
+        bookingRateLimiter.checkBookingAttempt(bookingDTO.getUserId(), request.getRemoteAddr());
+        UUID bookingId = bookAdmitted(bookingDTO.getShowtimeId(), queueToken,
+                () -> bookingService.bookTicket(bookingDTO));
         Map<String, UUID> response = new HashMap<>();
         response.put("bookingId", bookingId);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Books the best available run of adjacent seats, preferring the middle of the hall.
+     * Clients no longer need to guess seat numbers and retry on conflicts.
+     * 
+     * @param request     DTO containing the showtime, the number of seats and the user
+     * @param queueToken  Admitted waiting room token, required for high-demand showtimes only
+     * @param httpRequest The HTTP request, whose client address is rate limited
+     * @return ResponseEntity containing the booked seats and their booking IDs
+     * 
+     * @apiNote Returns HTTP 200 OK on success
+     * @throws com.att.tdp.popcorn_palace.exception.NoAdjacentSeatsException   if no row has enough adjacent free
+     *                                                                         seats
+     * @throws com.att.tdp.popcorn_palace.exception.ShowtimeNotFoundException  if the requested showtime doesn't
+     *                                                                         exist
+     * @throws com.att.tdp.popcorn_palace.exception.QueueAdmissionException    if the showtime is in high demand
+     *                                                                         and the token has not been admitted
+     * @throws com.att.tdp.popcorn_palace.exception.RateLimitExceededException if the user or client address has
+     *                                                                         exceeded its booking rate
+     */
+    @PostMapping("/best-available")
+    public ResponseEntity<SeatAllocationDTO> bookBestAvailable(@Valid @RequestBody BestAvailableRequestDTO request,
+            @RequestHeader(name = QUEUE_TOKEN_HEADER, required = false) String queueToken,
+            HttpServletRequest httpRequest) {
+        bookingRateLimiter.checkBookingAttempt(request.getUserId(), httpRequest.getRemoteAddr());
+        SeatAllocationDTO allocation = bookAdmitted(request.getShowtimeId(), queueToken,
+                () -> seatAllocationService.bookBestAvailable(request));
+        return ResponseEntity.ok(allocation);
+    }
+
+    /**
+     * Joins the waiting room of a high-demand showtime.
+     * 
+     * @param showtimeId ID of the showtime to queue for
+     * @return ResponseEntity containing the queue token and the position in the queue
+     * 
+     * @apiNote Returns HTTP 200 OK on success
+     * @throws com.att.tdp.popcorn_palace.exception.InvalidRequestException if the showtime does not require queueing
+     * @throws com.att.tdp.popcorn_palace.exception.QueueFullException      if the waiting room is full
+     */
+    @PostMapping("/queue/{showtimeId}")
+    public ResponseEntity<QueueStatusDTO> joinQueue(@PathVariable Long showtimeId) {
+        return ResponseEntity.ok(waitingRoomService.join(showtimeId));
+    }
+
+    /**
+     * Returns the current position of a queue token. Meant to be polled until the status is ADMITTED.
+     * 
+     * @param token Token received when joining the queue
+     * @return ResponseEntity containing the status of the token
+     * 
+     * @apiNote Returns HTTP 200 OK on success
+     * @throws com.att.tdp.popcorn_palace.exception.ResourceNotFoundException if the token is unknown, used or
+     *                                                                        expired
+     */
+    @GetMapping("/queue/status/{token}")
+    public ResponseEntity<QueueStatusDTO> getQueueStatus(@PathVariable String token) {
+        return ResponseEntity.ok(waitingRoomService.getStatus(token));
+    }
+
+    /**
+     * Runs a booking under the admission of its queue token. The admission is claimed before the booking,
+     * so one token cannot run several bookings at once, and is used up by the booking unless the booking
+     * is rejected without booking anything, in which case the visitor may try again.
+     * 
+     * @param showtimeId ID of the showtime being booked
+     * @param queueToken Queue token sent with the booking, may be null
+     * @param booking    The booking to run
+     * @param <T>        Type of the result of the booking
+     * @return The result of the booking
+     * @throws com.att.tdp.popcorn_palace.exception.QueueAdmissionException if the showtime is in high demand and
+     *                                                                      the token cannot be claimed
+     */
+    private <T> T bookAdmitted(Long showtimeId, String queueToken, Supplier<T> booking) {
+        WaitingRoomService.Admission admission = waitingRoomService.claimAdmission(showtimeId, queueToken);
+        try {
+            T result = booking.get();
+            waitingRoomService.consumeAdmission(admission);
+            return result;
+        } catch (InvalidRequestException e) {
+            waitingRoomService.releaseAdmission(admission);
+            throw e;
+        } catch (RuntimeException e) {
+            waitingRoomService.consumeAdmission(admission);
+            throw e;
+        }
+    }
+}
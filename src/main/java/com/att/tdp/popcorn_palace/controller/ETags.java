@@ -0,0 +1,63 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.exception.PreconditionFailedException;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Conversion between entity versions and the strong ETags of their responses.
+ * The ETag of a version is the version number in quotes, e.g. {@code "3"}.
+ */
+final class ETags {
+    private static final Pattern ENTITY_TAG = Pattern.compile("(W/)?\"([^\"]*)\"");
+
+    private ETags() {
+    }
+
+    /**
+     * Returns the ETag of a version.
+     *
+     * @param version The version
+     * @return The quoted version
+     */
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Parses the If-Match header of a conditional update.
+     * The header may list several ETags separated by commas (RFC 9110, section 13.1.1); the update applies
+     * if the resource has any of the listed versions. If-Match uses the strong comparison, so weak ETags
+     * and ETags that are not versions are skipped, as they can never match.
+     *
+     * @param ifMatch Value of the header, or null if absent
+     * @return The versions of which the resource must have one, or null if the update is unconditional
+     *         (no header, or *)
+     * @throws PreconditionFailedException if the header lists no strong ETag of a version, which can never
+     *                                     match
+     */
+    static Set<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new TreeSet<>();
+        Matcher tags = ENTITY_TAG.matcher(ifMatch);
+        while (tags.find()) {
+            if (tags.group(1) != null) {
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(tags.group(2)));
+            } catch (NumberFormatException e) {
+                // Not one of our ETags
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("If-Match " + ifMatch + " does not match the current version");
+        }
+        return versions;
+    }
+}
@@ -0,0 +1,46 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.monitoring.FlightRecorderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * REST Controller for dumping the continuous flight recording.
+ */
+@RestController
+@RequestMapping("/admin/flight-recording")
+public class FlightRecordingController {
+    private final FlightRecorderService flightRecorderService;
+
+    /**
+     * Constructs a FlightRecordingController with the required dependencies.
+     * 
+     * @param flightRecorderService Service managing the continuous recording
+     */
+    @Autowired
+    public FlightRecordingController(FlightRecorderService flightRecorderService) {
+        this.flightRecorderService = flightRecorderService;
+    }
+
+    /**
+     * Dumps the last minutes of the continuous recording to a file on the server.
+     * 
+     * @param minutes Number of minutes of history to dump (defaults to 5)
+     * @return ResponseEntity containing the path of the written file
+     * 
+     * @apiNote Returns HTTP 200 OK with the file path on success
+     * @throws com.att.tdp.popcorn_palace.exception.InvalidRequestException if no recording is running
+     */
+    @PostMapping("/dump")
+    public ResponseEntity<Map<String, String>> dump(@RequestParam(defaultValue = "5") int minutes) {
+        Path file = flightRecorderService.dump(minutes);
+        return ResponseEntity.ok(Map.of("file", file.toAbsolutePath().toString()));
+    }
+}
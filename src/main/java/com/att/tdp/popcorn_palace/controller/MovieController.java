@@ -1,11 +1,15 @@
 package com.att.tdp.popcorn_palace.controller;
 
 import com.att.tdp.popcorn_palace.dto.MovieDTO;
+import com.att.tdp.popcorn_palace.dto.VersionedDTO;
+import com.att.tdp.popcorn_palace.exception.ConcurrentUpdateException;
+import com.att.tdp.popcorn_palace.exception.PreconditionFailedException;
 import com.att.tdp.popcorn_palace.exception.ResourceNotFoundException;
 import com.att.tdp.popcorn_palace.service.MovieService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -68,19 +72,25 @@ public class MovieController {
      * @param movieTitle Title of the movie to update (URL path variable)
      * @param movieDTO   Data transfer object containing the updated movie
      *                   information
-     * @return ResponseEntity containing the updated movie DTO
+     * @param ifMatch    ETag of the version the movie must still have, or absent to update any version
+     * @return ResponseEntity containing the updated movie DTO, with the ETag of its new version
      * 
-     * @apiNote Returns HTTP 200 OK on success
+     * @apiNote Returns HTTP 200 OK on success, 412 PRECONDITION FAILED if the movie no longer matches If-Match,
+     *          or 409 CONFLICT if an unconditional update kept losing to concurrent updates
      * @throws ResourceNotFoundException                       if no movie exists with the specified title
+     * @throws PreconditionFailedException                     if the movie does not match If-Match
+     * @throws ConcurrentUpdateException                       if the movie kept being updated concurrently
      * @throws jakarta.validation.ConstraintViolationException if the update data fails validation
      */
     @PostMapping("/update/{movieTitle}")
     public ResponseEntity<MovieDTO> updateMovie(
             @PathVariable @NotBlank(message = "Movie title cannot be blank") String movieTitle,
-            @Valid @RequestBody MovieDTO movieDTO) {
+            @Valid @RequestBody MovieDTO movieDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            MovieDTO updatedMovie = movieService.updateMovie(movieTitle, movieDTO);
-            return ResponseEntity.ok(updatedMovie);
+            VersionedDTO<MovieDTO> updatedMovie = movieService.updateMovie(movieTitle, movieDTO,
+                    ETags.parseIfMatch(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(updatedMovie.getVersion())).body(updatedMovie.getBody());
         } catch (ResourceNotFoundException e) {
             throw e;
         }
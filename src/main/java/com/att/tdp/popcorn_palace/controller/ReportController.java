@@ -0,0 +1,69 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.dto.MovieRevenueDTO;
+import com.att.tdp.popcorn_palace.dto.TheaterOccupancyDTO;
+import com.att.tdp.popcorn_palace.service.ReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST Controller for the management reports.
+ * Provides daily revenue per movie and daily occupancy per theater, read from the sales rollups.
+ */
+@RestController
+@RequestMapping("/reports")
+public class ReportController {
+    private final ReportService reportService;
+
+    /**
+     * Constructs a ReportController with the required dependencies.
+     * 
+     * @param reportService Service producing the reports
+     */
+    @Autowired
+    public ReportController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    /**
+     * Reports the tickets sold and revenue per screening day and movie.
+     * 
+     * @param from First screening day (ISO-8601 date)
+     * @param to   Last screening day (ISO-8601 date)
+     * @return ResponseEntity containing one entry per day and movie
+     * 
+     * @apiNote Returns HTTP 200 OK; amounts are in cents
+     * @throws com.att.tdp.popcorn_palace.exception.InvalidRequestException if the period is invalid or too long
+     */
+    @GetMapping("/revenue")
+    public ResponseEntity<List<MovieRevenueDTO>> getRevenueByMovie(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reportService.getRevenueByMovie(from, to));
+    }
+
+    /**
+     * Reports the seats offered and sold per screening day and theater.
+     * 
+     * @param from First screening day (ISO-8601 date)
+     * @param to   Last screening day (ISO-8601 date)
+     * @return ResponseEntity containing one entry per day and theater
+     * 
+     * @apiNote Returns HTTP 200 OK
+     * @throws com.att.tdp.popcorn_palace.exception.InvalidRequestException if the period is invalid or too long
+     */
+    @GetMapping("/occupancy")
+    public ResponseEntity<List<TheaterOccupancyDTO>> getOccupancyByTheater(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reportService.getOccupancyByTheater(from, to));
+    }
+}
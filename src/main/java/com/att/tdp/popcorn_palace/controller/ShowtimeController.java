@@ -1,16 +1,26 @@
 package com.att.tdp.popcorn_palace.controller;
 
+import com.att.tdp.popcorn_palace.dto.AvailabilityPageDTO;
 import com.att.tdp.popcorn_palace.dto.ShowtimeDTO;
+import com.att.tdp.popcorn_palace.dto.ShowtimePageDTO;
+import com.att.tdp.popcorn_palace.dto.VersionedDTO;
+import com.att.tdp.popcorn_palace.exception.ConcurrentUpdateException;
+import com.att.tdp.popcorn_palace.exception.PreconditionFailedException;
 import com.att.tdp.popcorn_palace.exception.ResourceNotFoundException;
 import com.att.tdp.popcorn_palace.service.ShowtimeService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.ZonedDateTime;
+
 /**
  * REST Controller for managing movie showtimes.
  * Provides endpoints for creating, retrieving, updating, and deleting showtimes.
@@ -35,7 +45,7 @@ public class ShowtimeController {
      * Retrieves a showtime by its ID.
      * 
      * @param showtimeId ID of the showtime to retrieve
-     * @return ResponseEntity containing the requested showtime DTO
+     * @return ResponseEntity containing the requested showtime DTO, with the ETag of its version
      * 
      * @apiNote Returns HTTP 200 OK on success
      * @throws ResourceNotFoundException                       if no showtime exists with the specified ID
@@ -45,13 +55,65 @@ public class ShowtimeController {
     public ResponseEntity<ShowtimeDTO> getShowtimeById(
             @PathVariable @Min(value = 1, message = "Showtime ID must be positive") Long showtimeId) {
         try {
-            ShowtimeDTO showtime = showtimeService.getShowtimeById(showtimeId);
-            return ResponseEntity.ok(showtime);
+            VersionedDTO<ShowtimeDTO> showtime = showtimeService.getVersionedShowtimeById(showtimeId);
+            return ResponseEntity.ok().eTag(ETags.of(showtime.getVersion())).body(showtime.getBody());
         } catch (ResourceNotFoundException e) {
             throw e;
         }
     }
 
+    /**
+     * Lists showtimes matching optional filters, one page at a time, in order of start time.
+     * 
+     * @param movieId Only showtimes of this movie
+     * @param theater Only showtimes in this theater
+     * @param from    Only showtimes starting at or after this time (ISO-8601)
+     * @param to      Only showtimes starting before this time (ISO-8601)
+     * @param after   Cursor of the next page, as returned with the previous page
+     * @param limit   Maximum number of showtimes per page
+     * @return ResponseEntity containing the page of showtimes and the cursor of the next page
+     * 
+     * @apiNote Returns HTTP 200 OK; {@code nextCursor} is null on the last page
+     * @throws com.att.tdp.popcorn_palace.exception.InvalidRequestException if the cursor is malformed
+     */
+    @GetMapping
+    public ResponseEntity<ShowtimePageDTO> searchShowtimes(
+            @RequestParam(required = false) @Min(value = 1, message = "Movie ID must be positive") Long movieId,
+            @RequestParam(required = false) String theater,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") @Min(value = 1, message = "Limit must be at least 1")
+            @Max(value = 500, message = "Limit cannot exceed 500") int limit) {
+        return ResponseEntity.ok(showtimeService.searchShowtimes(movieId, theater, from, to, after, limit));
+    }
+
+    /**
+     * Lists showtimes like {@link #searchShowtimes} together with their remaining seats.
+     * 
+     * @param movieId Only showtimes of this movie
+     * @param theater Only showtimes in this theater
+     * @param from    Only showtimes starting at or after this time (ISO-8601)
+     * @param to      Only showtimes starting before this time (ISO-8601)
+     * @param after   Cursor of the next page, as returned with the previous page
+     * @param limit   Maximum number of showtimes per page
+     * @return ResponseEntity containing the page of showtimes with their availability
+     * 
+     * @apiNote Returns HTTP 200 OK; {@code nextCursor} is null on the last page
+     * @throws com.att.tdp.popcorn_palace.exception.InvalidRequestException if the cursor is malformed
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityPageDTO> searchAvailability(
+            @RequestParam(required = false) @Min(value = 1, message = "Movie ID must be positive") Long movieId,
+            @RequestParam(required = false) String theater,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") @Min(value = 1, message = "Limit must be at least 1")
+            @Max(value = 500, message = "Limit cannot exceed 500") int limit) {
+        return ResponseEntity.ok(showtimeService.searchAvailability(movieId, theater, from, to, after, limit));
+    }
+
     /**
      * Adds a new showtime to the system.
      * 
@@ -72,20 +134,26 @@ public class ShowtimeController {
      * 
      * @param showtimeId  ID of the showtime to update
      * @param showtimeDTO Data transfer object containing the updated showtime information
-     * @return ResponseEntity containing the updated showtime DTO
+     * @param ifMatch     ETag of the version the showtime must still have, or absent to update any version
+     * @return ResponseEntity containing the updated showtime DTO, with the ETag of its new version
      * 
-     * @apiNote Returns HTTP 200 OK on success
+     * @apiNote Returns HTTP 200 OK on success, 412 PRECONDITION FAILED if the showtime no longer matches
+     *          If-Match, or 409 CONFLICT if an unconditional update kept losing to concurrent updates
      * @throws ResourceNotFoundException                       if no showtime exists with the specified ID
+     * @throws PreconditionFailedException                     if the showtime does not match If-Match
+     * @throws ConcurrentUpdateException                       if the showtime kept being updated concurrently
      * @throws jakarta.validation.ConstraintViolationException if the showtime ID is not positive or if the update data
      *                                                         fails validation
      */
     @PostMapping("/update/{showtimeId}")
     public ResponseEntity<ShowtimeDTO> updateShowtime(
             @PathVariable @Min(value = 1, message = "Showtime ID must be positive") Long showtimeId,
-            @Valid @RequestBody ShowtimeDTO showtimeDTO) {
+            @Valid @RequestBody ShowtimeDTO showtimeDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            ShowtimeDTO updatedShowtime = showtimeService.updateShowtime(showtimeId, showtimeDTO);
-            return ResponseEntity.ok(updatedShowtime);
+            VersionedDTO<ShowtimeDTO> updatedShowtime = showtimeService.updateShowtime(showtimeId, showtimeDTO,
+                    ETags.parseIfMatch(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(updatedShowtime.getVersion())).body(updatedShowtime.getBody());
         } catch (ResourceNotFoundException e) {
             throw e;
         }
@@ -111,4 +179,24 @@ public class ShowtimeController {
             throw e;
         }
     }
+
+    /**
+     * Flags a showtime as high demand, or clears the flag.
+     * Bookings for a high-demand showtime require an admitted token from its waiting room.
+     * 
+     * @param showtimeId ID of the showtime
+     * @param enabled    Whether the showtime is in high demand
+     * @return ResponseEntity with no content
+     * 
+     * @apiNote Returns HTTP 204 NO CONTENT on success
+     * @throws ResourceNotFoundException                       if no showtime exists with the specified ID
+     * @throws jakarta.validation.ConstraintViolationException if the showtime ID is not positive
+     */
+    @PostMapping("/high-demand/{showtimeId}")
+    public ResponseEntity<Void> setHighDemand(
+            @PathVariable @Min(value = 1, message = "Showtime ID must be positive") Long showtimeId,
+            @RequestParam(defaultValue = "true") boolean enabled) {
+        showtimeService.setHighDemand(showtimeId, enabled);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
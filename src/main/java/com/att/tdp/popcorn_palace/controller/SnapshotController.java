@@ -0,0 +1,52 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.service.SnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST Controller for exporting binary snapshots of the data.
+ * Snapshots are imported at startup through {@code popcorn.snapshot.import-file}.
+ * A snapshot holds every booking with its user ID, and the endpoint is not authenticated, so it only
+ * exists when {@code popcorn.snapshot.export.enabled} is set, on instances not reachable by clients.
+ */
+@RestController
+@ConditionalOnProperty(name = "popcorn.snapshot.export.enabled", havingValue = "true")
+@RequestMapping("/admin/snapshot")
+public class SnapshotController {
+    private final SnapshotService snapshotService;
+
+    /**
+     * Constructs a SnapshotController with the required dependencies.
+     * 
+     * @param snapshotService Service writing the snapshots
+     */
+    @Autowired
+    public SnapshotController(SnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    /**
+     * Streams a consistent snapshot of the catalog, showtimes, bookings and sales rollups.
+     * 
+     * @return ResponseEntity streaming the snapshot file
+     * 
+     * @apiNote Returns HTTP 200 OK with the snapshot as an attachment
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("popcorn-palace.snapshot").build().toString())
+                .body(snapshotService::exportSnapshot);
+    }
+}
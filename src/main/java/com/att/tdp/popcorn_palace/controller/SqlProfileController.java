@@ -0,0 +1,56 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.dto.EndpointSqlStatsDTO;
+import com.att.tdp.popcorn_palace.monitoring.SqlProfiler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST Controller exposing the per-endpoint SQL statistics collected by the {@link SqlProfiler}.
+ */
+@RestController
+@RequestMapping("/admin/sql-profile")
+public class SqlProfileController {
+    private final SqlProfiler sqlProfiler;
+
+    /**
+     * Constructs a SqlProfileController with the required dependencies.
+     * 
+     * @param sqlProfiler Profiler holding the aggregated statistics
+     */
+    @Autowired
+    public SqlProfileController(SqlProfiler sqlProfiler) {
+        this.sqlProfiler = sqlProfiler;
+    }
+
+    /**
+     * Retrieves the SQL statistics of every endpoint, busiest first.
+     * 
+     * @return ResponseEntity containing the per-endpoint statistics
+     * 
+     * @apiNote Returns HTTP 200 OK with an empty list if no request has been profiled
+     */
+    @GetMapping
+    public ResponseEntity<List<EndpointSqlStatsDTO>> getSqlProfile() {
+        return ResponseEntity.ok(sqlProfiler.getEndpointStats());
+    }
+
+    /**
+     * Discards the collected statistics.
+     * 
+     * @return ResponseEntity with no content
+     * 
+     * @apiNote Returns HTTP 204 NO CONTENT
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> resetSqlProfile() {
+        sqlProfiler.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
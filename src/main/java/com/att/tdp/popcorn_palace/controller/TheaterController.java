@@ -0,0 +1,130 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.dto.FreeSlotDTO;
+import com.att.tdp.popcorn_palace.dto.TheaterDTO;
+import com.att.tdp.popcorn_palace.exception.ResourceNotFoundException;
+import com.att.tdp.popcorn_palace.service.ShowtimeService;
+import com.att.tdp.popcorn_palace.service.TheaterService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * REST Controller for managing theaters and their seat layouts.
+ * Provides endpoints for creating, reading and updating theaters.
+ */
+@RestController
+@RequestMapping("/theaters")
+@Validated
+public class TheaterController {
+    private final TheaterService theaterService;
+    private final ShowtimeService showtimeService;
+
+    /**
+     * Constructs a TheaterController with the required dependencies.
+     * 
+     * @param theaterService  Service for handling theater-related business logic
+     * @param showtimeService Service used to search theater schedules
+     */
+    @Autowired
+    public TheaterController(TheaterService theaterService, ShowtimeService showtimeService) {
+        this.theaterService = theaterService;
+        this.showtimeService = showtimeService;
+    }
+
+    /**
+     * Retrieves all theaters in the system.
+     * 
+     * @return ResponseEntity containing a list of all theater DTOs
+     * 
+     * @apiNote Returns HTTP 200 OK with an empty list if no theaters exist
+     */
+    @GetMapping("/all")
+    public ResponseEntity<List<TheaterDTO>> getAllTheaters() {
+        return ResponseEntity.ok(theaterService.getAllTheaters());
+    }
+
+    /**
+     * Retrieves a theater by its name.
+     * 
+     * @param theaterName Name of the theater (URL path variable)
+     * @return ResponseEntity containing the theater DTO
+     * 
+     * @apiNote Returns HTTP 200 OK on success
+     * @throws ResourceNotFoundException if no theater exists with the specified name
+     */
+    @GetMapping("/{theaterName}")
+    public ResponseEntity<TheaterDTO> getTheater(
+            @PathVariable @NotBlank(message = "Theater name cannot be blank") String theaterName) {
+        return ResponseEntity.ok(theaterService.getTheaterByName(theaterName));
+    }
+
+    /**
+     * Adds a new theater to the system.
+     * 
+     * @param theaterDTO Data transfer object containing the theater and its layout
+     * @return ResponseEntity containing the created theater DTO with generated ID
+     * 
+     * @apiNote Returns HTTP 201 CREATED on success
+     * @throws com.att.tdp.popcorn_palace.exception.InvalidRequestException if the layout is invalid or the name is
+     *                                                                      taken
+     */
+    @PostMapping
+    public ResponseEntity<TheaterDTO> addTheater(@Valid @RequestBody TheaterDTO theaterDTO) {
+        TheaterDTO createdTheater = theaterService.addTheater(theaterDTO);
+        return new ResponseEntity<>(createdTheater, HttpStatus.CREATED);
+    }
+
+    /**
+     * Updates the seat layout of an existing theater.
+     * 
+     * @param theaterName Name of the theater to update (URL path variable)
+     * @param theaterDTO  Data transfer object containing the updated layout
+     * @return ResponseEntity containing the updated theater DTO
+     * 
+     * @apiNote Returns HTTP 200 OK on success
+     * @throws ResourceNotFoundException if no theater exists with the specified name
+     */
+    @PostMapping("/update/{theaterName}")
+    public ResponseEntity<TheaterDTO> updateTheater(
+            @PathVariable @NotBlank(message = "Theater name cannot be blank") String theaterName,
+            @Valid @RequestBody TheaterDTO theaterDTO) {
+        return ResponseEntity.ok(theaterService.updateTheater(theaterName, theaterDTO));
+    }
+
+    /**
+     * Lists the gaps in a theater's schedule where a movie could be shown.
+     * 
+     * @param theaterName   Name of the theater (URL path variable)
+     * @param movieId       ID of the movie to schedule; its duration decides which gaps are long enough
+     * @param from          Start of the time range to search (ISO-8601)
+     * @param to            End of the time range to search (ISO-8601)
+     * @param bufferMinutes Turnover time to keep free around existing showtimes, in minutes
+     * @return ResponseEntity containing the free slots, earliest first
+     * 
+     * @apiNote Returns HTTP 200 OK with an empty list if no gap is long enough
+     * @throws ResourceNotFoundException if the theater or movie does not exist
+     */
+    @GetMapping("/{theaterName}/free-slots")
+    public ResponseEntity<List<FreeSlotDTO>> getFreeSlots(
+            @PathVariable @NotBlank(message = "Theater name cannot be blank") String theaterName,
+            @RequestParam @Min(value = 1, message = "Movie ID must be positive") Long movieId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to,
+            @RequestParam(defaultValue = "0") @Min(value = 0, message = "Buffer cannot be negative")
+            @Max(value = 1440, message = "Buffer cannot exceed a day") int bufferMinutes) {
+        return ResponseEntity.ok(showtimeService.findFreeSlots(theaterName, movieId, from, to,
+                Duration.ofMinutes(bufferMinutes)));
+    }
+}
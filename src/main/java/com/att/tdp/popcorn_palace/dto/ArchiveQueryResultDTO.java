@@ -0,0 +1,30 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the result of a query over the archived showtimes or bookings.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveQueryResultDTO {
+    /**
+     * Names of the returned columns, in the order of the values of each row.
+     */
+    private List<String> columns;
+
+    /**
+     * Matching rows, in archive order (month, then showtime).
+     */
+    private List<List<Object>> rows;
+
+    /**
+     * Whether more rows matched than the limit allowed to return.
+     */
+    private boolean truncated;
+}
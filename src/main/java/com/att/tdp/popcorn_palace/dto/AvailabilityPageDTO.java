@@ -0,0 +1,25 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of a showtime listing with remaining seats.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityPageDTO {
+    /**
+     * Showtimes of this page with their availability, ordered by start time.
+     */
+    private List<ShowtimeAvailabilityDTO> showtimes;
+
+    /**
+     * Cursor to pass as {@code after} to fetch the next page, or null if this is the last page.
+     */
+    private String nextCursor;
+}
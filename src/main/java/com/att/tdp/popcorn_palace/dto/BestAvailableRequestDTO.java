@@ -0,0 +1,37 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for booking the best available adjacent seats of a showtime.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BestAvailableRequestDTO {
+    /**
+     * ID of the showtime being booked.
+     * Must not be null.
+     */
+    @NotNull(message = "Showtime ID is required")
+    private Long showtimeId;
+
+    /**
+     * Number of adjacent seats to book.
+     * Must be at least 1; the upper bound is the length of a row.
+     */
+    @NotNull(message = "Seat count is required")
+    @Min(value = 1, message = "Seat count must be at least 1")
+    private Integer count;
+
+    /**
+     * UUID of the user making the booking.
+     * Must be a valid UUID format.
+     */
+    @NotBlank(message = "User ID is required")
+    @Pattern(regexp = "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$", message = "User ID must be a valid UUID")
+    private String userId;
+}
@@ -23,11 +23,10 @@ public class BookingDTO {
 
     /**
      * Seat number to book.
-     * Must be between 1 and 100, inclusive.
+     * Must be at least 1; the upper bound is the capacity of the showtime's theater.
      */
     @NotNull(message = "Seat number is required")
     @Min(value = 1, message = "Seat number must be at least 1")
-    @Max(value = 100, message = "Seat number cannot exceed 100")
     private Integer seatNumber;
 
     /**
@@ -0,0 +1,54 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the SQL statistics aggregated for one endpoint.
+ * Returned by the SQL profiling endpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointSqlStatsDTO {
+    /**
+     * HTTP method and path pattern of the endpoint (e.g. "POST /bookings").
+     */
+    private String endpoint;
+
+    /**
+     * Number of requests served by the endpoint.
+     */
+    private long requests;
+
+    /**
+     * Total number of SQL statements executed by those requests.
+     */
+    private long statements;
+
+    /**
+     * Total number of rows materialized into entities by those requests.
+     */
+    private long rowsFetched;
+
+    /**
+     * Highest number of statements executed by a single request.
+     */
+    private long maxStatementsPerRequest;
+
+    /**
+     * Number of SELECT statements executed without a WHERE clause or row limit.
+     */
+    private long unboundedSelects;
+
+    /**
+     * Number of requests that repeated the same statement more often than the N+1 threshold.
+     */
+    private long suspectedNPlusOneRequests;
+
+    /**
+     * Number of requests that executed more statements than the per-request threshold.
+     */
+    private long thresholdWarnings;
+}
@@ -0,0 +1,31 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Data Transfer Object describing a gap in a theater's schedule that is long enough for a movie.
+ * A showtime of that movie may start anywhere between {@code startTime} and {@code latestStartTime}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeSlotDTO {
+    /**
+     * Earliest time the theater is free, including the turnover after the previous showtime.
+     */
+    private ZonedDateTime startTime;
+
+    /**
+     * Time the theater is needed again, including the turnover before the next showtime.
+     */
+    private ZonedDateTime endTime;
+
+    /**
+     * Latest start time for the movie to end before {@code endTime}.
+     */
+    private ZonedDateTime latestStartTime;
+}
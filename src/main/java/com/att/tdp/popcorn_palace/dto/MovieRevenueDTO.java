@@ -0,0 +1,35 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object for the ticket sales of a movie on one screening day.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieRevenueDTO {
+    /**
+     * Screening day (UTC).
+     */
+    private LocalDate day;
+
+    /**
+     * ID of the movie.
+     */
+    private Long movieId;
+
+    /**
+     * Number of tickets sold for the movie's showtimes on that day.
+     */
+    private long ticketsSold;
+
+    /**
+     * Revenue of those tickets, in cents.
+     */
+    private long revenueCents;
+}
@@ -0,0 +1,38 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object describing a visitor's place in the waiting room of a high-demand showtime.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueStatusDTO {
+    /**
+     * Token identifying the visitor; sent back in the X-Queue-Token header when booking.
+     */
+    private String token;
+
+    /**
+     * ID of the showtime the visitor is queueing for.
+     */
+    private Long showtimeId;
+
+    /**
+     * Either WAITING or ADMITTED.
+     */
+    private String status;
+
+    /**
+     * Number of visitors ahead in the queue, 0 once admitted.
+     */
+    private long position;
+
+    /**
+     * Estimated time until admission, in seconds.
+     */
+    private long estimatedWaitSeconds;
+}
@@ -0,0 +1,31 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object describing the seats booked by a best-available request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatAllocationDTO {
+    /**
+     * ID of the booked showtime.
+     */
+    private Long showtimeId;
+
+    /**
+     * Numbers of the booked seats, in order.
+     */
+    private List<Integer> seatNumbers;
+
+    /**
+     * IDs of the created bookings, one per seat and in the same order.
+     */
+    private List<UUID> bookingIds;
+}
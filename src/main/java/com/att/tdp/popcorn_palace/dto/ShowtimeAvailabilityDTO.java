@@ -0,0 +1,33 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for a showtime together with its remaining seats.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowtimeAvailabilityDTO {
+    /**
+     * The showtime.
+     */
+    private ShowtimeDTO showtime;
+
+    /**
+     * Number of seats of the showtime's theater.
+     */
+    private int capacity;
+
+    /**
+     * Number of seats still free.
+     */
+    private int remainingSeats;
+
+    /**
+     * Whether every seat is booked.
+     */
+    private boolean soldOut;
+}
@@ -0,0 +1,25 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of a showtime search.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowtimePageDTO {
+    /**
+     * Showtimes of this page, ordered by start time.
+     */
+    private List<ShowtimeDTO> showtimes;
+
+    /**
+     * Cursor to pass as {@code after} to fetch the next page, or null if this is the last page.
+     */
+    private String nextCursor;
+}
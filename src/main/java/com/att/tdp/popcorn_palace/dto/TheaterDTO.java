@@ -0,0 +1,58 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for theater information.
+ * Used for creating, retrieving, and modifying theaters and their seat layout.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TheaterDTO {
+    /**
+     * Unique identifier for the theater.
+     * Generated automatically by the system when a theater is created.
+     */
+    private Integer id;
+
+    /**
+     * Name of the theater, as used by showtimes.
+     * Cannot be blank and must be within size constraints.
+     */
+    @NotBlank(message = "Name is required")
+    @Size(min = 1, max = 100, message = "Name must be between 1 and 100 characters")
+    private String name;
+
+    /**
+     * Number of seat rows.
+     */
+    @NotNull(message = "Rows is required")
+    @Min(value = 1, message = "Rows must be at least 1")
+    @Max(value = 500, message = "Rows cannot exceed 500")
+    private Integer rows;
+
+    /**
+     * Number of seats in each row.
+     */
+    @NotNull(message = "Seats per row is required")
+    @Min(value = 1, message = "Seats per row must be at least 1")
+    @Max(value = 500, message = "Seats per row cannot exceed 500")
+    private Integer seatsPerRow;
+
+    /**
+     * Widths of the sections of a row from left to right; they must add up to the seats per row.
+     * Optional: a row without aisles is a single section.
+     */
+    private List<Integer> sections;
+
+    /**
+     * Total number of seats, computed by the system.
+     */
+    private Integer capacity;
+}
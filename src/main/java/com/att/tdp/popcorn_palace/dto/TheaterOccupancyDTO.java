@@ -0,0 +1,45 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object for the occupancy of a theater on one screening day.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TheaterOccupancyDTO {
+    /**
+     * Screening day (UTC).
+     */
+    private LocalDate day;
+
+    /**
+     * Name of the theater.
+     */
+    private String theater;
+
+    /**
+     * Number of showtimes in the theater on that day.
+     */
+    private int showtimes;
+
+    /**
+     * Seats offered by those showtimes.
+     */
+    private long seatsOffered;
+
+    /**
+     * Tickets sold for those showtimes.
+     */
+    private long ticketsSold;
+
+    /**
+     * Share of the seats offered that were sold, between 0 and 1.
+     */
+    private double occupancy;
+}
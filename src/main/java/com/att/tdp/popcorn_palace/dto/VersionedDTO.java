@@ -0,0 +1,26 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A DTO together with the version of the entity it was read from.
+ * The version is not part of the body; controllers send it as the ETag of the response.
+ *
+ * @param <T> Type of the DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionedDTO<T> {
+    /**
+     * The DTO.
+     */
+    private T body;
+
+    /**
+     * Version of the entity when the DTO was read or written.
+     */
+    private long version;
+}
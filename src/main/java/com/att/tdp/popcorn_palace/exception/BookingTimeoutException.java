@@ -0,0 +1,19 @@
+package com.att.tdp.popcorn_palace.exception;
+
+/**
+ * Thrown when a booking could not be committed in time and was withdrawn before being stored.
+ * The seat was not booked, so the client may safely try again once the load has eased. Timeouts come in
+ * bursts under overload, so no stack trace is captured.
+ */
+public class BookingTimeoutException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public BookingTimeoutException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,12 @@
+package com.att.tdp.popcorn_palace.exception;
+
+/**
+ * Thrown when an update kept losing to concurrent updates of the same resource and gave up retrying.
+ */
+public class ConcurrentUpdateException extends RuntimeException {
+
+    public ConcurrentUpdateException(String resource, int attempts) {
+        super(resource + " was updated concurrently " + attempts + " times in a row, please retry", null, false,
+                false);
+    }
+}
@@ -0,0 +1,14 @@
+package com.att.tdp.popcorn_palace.exception;
+
+import java.time.LocalDateTime;
+
+/**
+ * Body of the error responses produced for expected business rejections.
+ * Serializes to the same fields, in the same order, as the map-based error bodies.
+ * 
+ * @param timestamp Time the rejection was produced
+ * @param message   Human-readable reason of the rejection
+ * @param status    HTTP status code of the response
+ */
+public record ErrorResponse(LocalDateTime timestamp, String message, int status) {
+}
@@ -0,0 +1,76 @@
+package com.att.tdp.popcorn_palace.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed error response for one HTTP status.
+ * Rendering a rejection only allocates the body record, its timestamp and the response entity: the status
+ * and headers are shared between responses.
+ */
+public final class ErrorResponseTemplate {
+
+    public static final ErrorResponseTemplate BAD_REQUEST = new ErrorResponseTemplate(HttpStatus.BAD_REQUEST);
+    public static final ErrorResponseTemplate FORBIDDEN = new ErrorResponseTemplate(HttpStatus.FORBIDDEN);
+    public static final ErrorResponseTemplate NOT_FOUND = new ErrorResponseTemplate(HttpStatus.NOT_FOUND);
+    public static final ErrorResponseTemplate CONFLICT = new ErrorResponseTemplate(HttpStatus.CONFLICT);
+    public static final ErrorResponseTemplate PRECONDITION_FAILED =
+            new ErrorResponseTemplate(HttpStatus.PRECONDITION_FAILED);
+    public static final ErrorResponseTemplate TOO_MANY_REQUESTS =
+            new ErrorResponseTemplate(HttpStatus.TOO_MANY_REQUESTS);
+    public static final ErrorResponseTemplate SERVICE_UNAVAILABLE =
+            new ErrorResponseTemplate(HttpStatus.SERVICE_UNAVAILABLE);
+
+    private static final HttpHeaders NO_HEADERS = HttpHeaders.readOnlyHttpHeaders(new HttpHeaders());
+
+    private final HttpStatus status;
+    private final int statusCode;
+
+    private ErrorResponseTemplate(HttpStatus status) {
+        this.status = status;
+        this.statusCode = status.value();
+    }
+
+    /**
+     * Renders the template with the given message.
+     * 
+     * @param message Reason of the rejection
+     * @return Response entity carrying the error body
+     */
+    public ResponseEntity<Object> render(String message) {
+        return new ResponseEntity<>(body(message), NO_HEADERS, status);
+    }
+
+    /**
+     * Renders the template with the given message and extra response headers.
+     * 
+     * @param message Reason of the rejection
+     * @param headers Headers to send with the response (e.g. Retry-After)
+     * @return Response entity carrying the error body
+     */
+    public ResponseEntity<Object> render(String message, HttpHeaders headers) {
+        return new ResponseEntity<>(body(message), headers, status);
+    }
+
+    /**
+     * Builds only the error body, for callers writing the response themselves (e.g. servlet filters).
+     * 
+     * @param message Reason of the rejection
+     * @return The error body
+     */
+    public ErrorResponse body(String message) {
+        return new ErrorResponse(LocalDateTime.now(), message, statusCode);
+    }
+
+    /**
+     * Returns the HTTP status code of the template.
+     * 
+     * @return The status code
+     */
+    public int statusCode() {
+        return statusCode;
+    }
+}
@@ -2,6 +2,7 @@ package com.att.tdp.popcorn_palace.exception;
 
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -22,32 +24,51 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<Object> handleEntityNotFoundException(EntityNotFoundException ex) {
-        Map<String, Object> body = new LinkedHashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("message", ex.getMessage());
-        body.put("status", HttpStatus.NOT_FOUND.value());
-
-        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+        return ErrorResponseTemplate.NOT_FOUND.render(ex.getMessage());
     }
     
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Object> handleResourceNotFoundException(ResourceNotFoundException ex) {
-        Map<String, Object> body = new LinkedHashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("message", ex.getMessage());
-        body.put("status", HttpStatus.NOT_FOUND.value());
-
-        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+        return ErrorResponseTemplate.NOT_FOUND.render(ex.getMessage());
     }
     
     @ExceptionHandler(InvalidRequestException.class)
     public ResponseEntity<Object> handleInvalidRequestException(InvalidRequestException ex) {
-        Map<String, Object> body = new LinkedHashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("message", ex.getMessage());
-        body.put("status", HttpStatus.BAD_REQUEST.value());
+        return ErrorResponseTemplate.BAD_REQUEST.render(ex.getMessage());
+    }
+    
+    @ExceptionHandler(QueueAdmissionException.class)
+    public ResponseEntity<Object> handleQueueAdmissionException(QueueAdmissionException ex) {
+        return ErrorResponseTemplate.FORBIDDEN.render(ex.getMessage());
+    }
 
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    @ExceptionHandler(QueueFullException.class)
+    public ResponseEntity<Object> handleQueueFullException(QueueFullException ex) {
+        return ErrorResponseTemplate.SERVICE_UNAVAILABLE.render(ex.getMessage());
+    }
+    
+    @ExceptionHandler(BookingTimeoutException.class)
+    public ResponseEntity<Object> handleBookingTimeoutException(BookingTimeoutException ex) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+        return ErrorResponseTemplate.SERVICE_UNAVAILABLE.render(ex.getMessage(), headers);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Object> handlePreconditionFailedException(PreconditionFailedException ex) {
+        return ErrorResponseTemplate.PRECONDITION_FAILED.render(ex.getMessage());
+    }
+
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<Object> handleConcurrentUpdateException(ConcurrentUpdateException ex) {
+        return ErrorResponseTemplate.CONFLICT.render(ex.getMessage());
+    }
+    
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Object> handleRateLimitExceededException(RateLimitExceededException ex) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+        return ErrorResponseTemplate.TOO_MANY_REQUESTS.render(ex.getMessage(), headers);
     }
     
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -111,6 +132,11 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<Object> handleNoResourceFoundException(NoResourceFoundException ex) {
+        return ErrorResponseTemplate.NOT_FOUND.render(ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleGenericException(Exception ex) {
         Map<String, Object> body = new LinkedHashMap<>();
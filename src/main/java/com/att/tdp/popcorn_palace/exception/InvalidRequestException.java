@@ -9,4 +9,15 @@ public class InvalidRequestException extends RuntimeException {
     public InvalidRequestException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * Constructor for expected, high-volume rejections that do not need a stack trace.
+     * Skipping the stack walk makes these exceptions almost as cheap as a return value.
+     * 
+     * @param message            The detail message
+     * @param writableStackTrace Whether the stack trace should be captured
+     */
+    protected InvalidRequestException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
@@ -0,0 +1,12 @@
+package com.att.tdp.popcorn_palace.exception;
+
+/**
+ * Thrown when a showtime has no run of free adjacent seats of the requested length.
+ * Sold-out rows are a normal outcome during on-sales, so no stack trace is captured.
+ */
+public class NoAdjacentSeatsException extends InvalidRequestException {
+
+    public NoAdjacentSeatsException(int count) {
+        super("No " + count + " adjacent seats are available for this showtime", false);
+    }
+}
@@ -0,0 +1,20 @@
+package com.att.tdp.popcorn_palace.exception;
+
+import java.util.Set;
+
+/**
+ * Thrown when a conditional update names a version of the resource that is no longer current,
+ * i.e. the client's copy is stale. Stale copies are an expected outcome, so no stack trace is captured.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String resource, Set<Long> expectedVersions, Long currentVersion) {
+        super(resource + " has changed (version " + currentVersion + ", expected "
+                + (expectedVersions.size() == 1 ? expectedVersions.iterator().next() : "one of " + expectedVersions)
+                + "), please reload it and retry", null, false, false);
+    }
+
+    public PreconditionFailedException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,12 @@
+package com.att.tdp.popcorn_palace.exception;
+
+/**
+ * Thrown when a booking for a high-demand showtime is made without an admitted queue token.
+ * Premature booking attempts are expected in bulk during on-sales, so no stack trace is captured.
+ */
+public class QueueAdmissionException extends RuntimeException {
+
+    public QueueAdmissionException(String message) {
+        super(message, null, false, false);
+    }
+}
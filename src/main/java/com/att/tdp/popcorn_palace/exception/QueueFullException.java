@@ -0,0 +1,11 @@
+package com.att.tdp.popcorn_palace.exception;
+
+/**
+ * Thrown when the waiting room of a showtime cannot take any more visitors.
+ */
+public class QueueFullException extends RuntimeException {
+
+    public QueueFullException(Long showtimeId) {
+        super("The waiting room for showtime " + showtimeId + " is full, please try again later", null, false, false);
+    }
+}
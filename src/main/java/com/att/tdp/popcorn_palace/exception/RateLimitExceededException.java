@@ -0,0 +1,18 @@
+package com.att.tdp.popcorn_palace.exception;
+
+/**
+ * Thrown when a client has exceeded its booking rate.
+ * Rejections are the normal answer to abusive clients, so no stack trace is captured.
+ */
+public class RateLimitExceededException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -3,10 +3,10 @@ package com.att.tdp.popcorn_palace.exception;
 public class ResourceNotFoundException extends RuntimeException {
     
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
     
     public ResourceNotFoundException(String resourceName, String fieldName, Object fieldValue) {
-        super(String.format("%s not found with %s : '%s'", resourceName, fieldName, fieldValue));
+        this(String.format("%s not found with %s : '%s'", resourceName, fieldName, fieldValue));
     }
 }
@@ -0,0 +1,12 @@
+package com.att.tdp.popcorn_palace.exception;
+
+/**
+ * Thrown when the requested seat of a showtime has already been booked.
+ * Seat conflicts are a normal outcome during on-sales, so no stack trace is captured.
+ */
+public class SeatUnavailableException extends InvalidRequestException {
+
+    public SeatUnavailableException(Integer seatNumber) {
+        super("Seat " + seatNumber + " is already taken for this showtime", false);
+    }
+}
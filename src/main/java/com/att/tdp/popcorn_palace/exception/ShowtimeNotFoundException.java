@@ -0,0 +1,19 @@
+package com.att.tdp.popcorn_palace.exception;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Thrown when a booking references a showtime that does not exist.
+ * Like the other expected rejections it does not capture a stack trace.
+ */
+public class ShowtimeNotFoundException extends EntityNotFoundException {
+
+    public ShowtimeNotFoundException(Long showtimeId) {
+        super("Showtime not found with id: " + showtimeId);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,13 @@
+package com.att.tdp.popcorn_palace.exception;
+
+/**
+ * Thrown when a showtime would overlap with an existing showtime in the same theater.
+ * Overlaps are an expected scheduling outcome, so no stack trace is captured.
+ */
+public class ShowtimeOverlapException extends InvalidRequestException {
+
+    public ShowtimeOverlapException(Long existingShowtimeId, String theater) {
+        super("Showtime overlaps with an existing showtime (ID: " + existingShowtimeId + ") in theater " + theater,
+                false);
+    }
+}
@@ -57,6 +57,15 @@ public class Movie {
     @Column(nullable = false)
     private Integer releaseYear;
 
+    /**
+     * Version of the movie, incremented by every update.
+     * Updates are only written if the row still has the version they read, so concurrent edits
+     * cannot silently overwrite each other; it is exposed to clients as the ETag of the movie.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Collection of showtimes associated with this movie.
      * Establishes a one-to-many relationship with Showtime entity.
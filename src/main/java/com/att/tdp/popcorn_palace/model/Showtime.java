@@ -36,10 +36,12 @@ public class Showtime {
     private Movie movie;
 
     /**
-     * Name or identifier of the theater where the movie will be shown.
+     * ID of the theater where the movie will be shown.
+     * Kept as a plain integer rather than an association: scheduling only ever compares theaters,
+     * and the name is resolved through the theater registry when needed.
      */
-    @Column(nullable = false)
-    private String theater;
+    @Column(name = "theater_id", nullable = false)
+    private Integer theaterId;
 
     /**
      * Scheduled start time of the movie showing.
@@ -61,6 +63,22 @@ public class Showtime {
     @Column(nullable = false)
     private Double price;
 
+    /**
+     * Whether bookings for this showtime must go through the waiting room.
+     * Set for premieres and other on-sales expected to draw more visitors than the booking path can absorb.
+     */
+    @Column(nullable = false)
+    private boolean highDemand;
+
+    /**
+     * Version of the showtime, incremented by every update.
+     * Updates are only written if the row still has the version they read, so concurrent scheduling
+     * edits cannot silently overwrite each other; it is exposed to clients as the ETag of the showtime.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Collection of bookings/tickets associated with this showtime.
      * Establishes a one-to-many relationship with the Booking entity.
@@ -0,0 +1,51 @@
+package com.att.tdp.popcorn_palace.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity representing a theater (screen or hall) and its seat layout.
+ * Seats are arranged in equal rows, each split by aisles into sections.
+ */
+@Entity
+@Table(name = "theaters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Theater {
+    /**
+     * Unique identifier for the theater.
+     * Auto-incremented when a new theater is added to the database.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    /**
+     * Name of the theater, as referenced by showtimes.
+     * Must be unique across all theaters.
+     */
+    @Column(nullable = false, unique = true, length = 100)
+    private String name;
+
+    /**
+     * Number of seat rows.
+     */
+    @Column(name = "seat_rows", nullable = false)
+    private Integer rowCount;
+
+    /**
+     * Number of seats in each row.
+     */
+    @Column(nullable = false)
+    private Integer seatsPerRow;
+
+    /**
+     * Widths of the sections of a row from left to right, separated by commas (e.g. "4,12,4").
+     * Adjacent seats are never assigned across a section boundary.
+     */
+    @Column(nullable = false)
+    private String sectionLayout;
+}
@@ -0,0 +1,27 @@
+package com.att.tdp.popcorn_palace.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted for every attempt to book a seat.
+ * The event duration covers the whole booking, including lock waits and database round trips.
+ */
+@Name("com.att.tdp.popcorn_palace.BookingAttempt")
+@Label("Booking Attempt")
+@Category({ "Popcorn Palace", "Booking" })
+@Description("Attempt to book a seat for a showtime")
+public class BookingAttemptEvent extends jdk.jfr.Event {
+
+    @Label("Showtime ID")
+    public long showtimeId;
+
+    @Label("Seat Number")
+    public int seatNumber;
+
+    @Label("Outcome")
+    @Description("BOOKED, SEAT_TAKEN, SHOWTIME_NOT_FOUND or FAILED")
+    public String outcome;
+}
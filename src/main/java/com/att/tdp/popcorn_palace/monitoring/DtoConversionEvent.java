@@ -0,0 +1,17 @@
+package com.att.tdp.popcorn_palace.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted when an entity is converted to or from its DTO.
+ */
+@Name("com.att.tdp.popcorn_palace.DtoConversion")
+@Label("DTO Conversion")
+@Category({ "Popcorn Palace", "Mapping" })
+public class DtoConversionEvent extends jdk.jfr.Event {
+
+    @Label("Conversion")
+    public String conversion;
+}
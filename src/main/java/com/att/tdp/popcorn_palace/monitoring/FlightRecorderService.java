@@ -0,0 +1,161 @@
+package com.att.tdp.popcorn_palace.monitoring;
+
+import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.management.jfr.FlightRecorderMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Service that keeps an always-on, low-overhead flight recording of the application
+ * and dumps the most recent part of it to a file on demand.
+ */
+@Service
+public class FlightRecorderService {
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final boolean enabled;
+    private final String settings;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final Path dumpDirectory;
+
+    private Recording recording;
+
+    /**
+     * Constructs a FlightRecorderService with the configured recording profile.
+     * 
+     * @param enabled       Whether the continuous recording should be started
+     * @param settings      Name of the JFR settings to record with ("default" has about 1% overhead)
+     * @param maxAge        How much history the continuous recording keeps
+     * @param maxSizeBytes  Upper bound of the disk space used by the continuous recording
+     * @param dumpDirectory Directory receiving the dumped recordings
+     */
+    @Autowired
+    public FlightRecorderService(@Value("${popcorn.flight-recorder.enabled:true}") boolean enabled,
+            @Value("${popcorn.flight-recorder.settings:default}") String settings,
+            @Value("${popcorn.flight-recorder.max-age:30m}") Duration maxAge,
+            @Value("${popcorn.flight-recorder.max-size-bytes:268435456}") long maxSizeBytes,
+            @Value("${popcorn.flight-recorder.dump-directory:${java.io.tmpdir}/popcorn-palace-jfr}") Path dumpDirectory) {
+        this.enabled = enabled;
+        this.settings = settings;
+        this.maxAge = maxAge;
+        this.maxSizeBytes = maxSizeBytes;
+        this.dumpDirectory = dumpDirectory;
+    }
+
+    /**
+     * Starts the continuous recording with the application's own events enabled.
+     * Booking attempts and overlap checks are always recorded, DTO conversions only when slow.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            log.warn("Could not load JFR settings '{}', continuous recording disabled", settings, e);
+            return;
+        }
+        recording.setName("popcorn-palace-continuous");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSizeBytes);
+        recording.enable(BookingAttemptEvent.class).withoutThreshold();
+        recording.enable(OverlapCheckEvent.class).withoutThreshold();
+        recording.enable(DtoConversionEvent.class).withThreshold(Duration.ofMillis(1));
+        recording.start();
+        log.info("Started continuous flight recording (settings={}, maxAge={})", settings, maxAge);
+    }
+
+    /**
+     * Stops the continuous recording on shutdown.
+     */
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * Dumps the events of the last minutes to a new file in the dump directory.
+     * 
+     * @param lastMinutes Number of minutes of history to include
+     * @return Path of the written recording file
+     * 
+     * @throws InvalidRequestException if the continuous recording is not running or the duration is not positive
+     */
+    public Path dump(int lastMinutes) {
+        if (recording == null) {
+            throw new InvalidRequestException("Continuous flight recording is not running");
+        }
+        if (lastMinutes < 1) {
+            throw new InvalidRequestException("Minutes must be at least 1");
+        }
+
+        Instant now = Instant.now();
+        Path target = dumpDirectory.resolve("popcorn-palace-" + FILE_TIMESTAMP.format(now) + ".jfr");
+        FlightRecorderMXBean bean = ManagementFactory.getPlatformMXBean(FlightRecorderMXBean.class);
+        long snapshotId = bean.takeSnapshot();
+        try {
+            Files.createDirectories(dumpDirectory);
+            long streamId = bean.openStream(snapshotId,
+                    Map.of("startTime", now.minus(Duration.ofMinutes(lastMinutes)).toString()));
+            try (OutputStream out = Files.newOutputStream(target)) {
+                byte[] chunk;
+                while ((chunk = bean.readStream(streamId)) != null) {
+                    out.write(chunk);
+                }
+            }
+            bean.closeStream(streamId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write flight recording to " + target, e);
+        } finally {
+            closeSnapshot(bean, snapshotId);
+        }
+
+        log.info("Dumped last {} minute(s) of flight recording to {}", lastMinutes, target);
+        return target;
+    }
+
+    /**
+     * Releases a snapshot taken for a dump. Failures are only logged since the dump itself is complete.
+     * 
+     * @param bean       Flight Recorder management bean owning the snapshot
+     * @param snapshotId ID of the snapshot recording
+     */
+    private void closeSnapshot(FlightRecorderMXBean bean, long snapshotId) {
+        try {
+            bean.closeRecording(snapshotId);
+        } catch (IOException e) {
+            log.warn("Could not close flight recording snapshot {}", snapshotId, e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.att.tdp.popcorn_palace.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted when a showtime is checked against the existing schedule.
+ */
+@Name("com.att.tdp.popcorn_palace.OverlapCheck")
+@Label("Showtime Overlap Check")
+@Category({ "Popcorn Palace", "Scheduling" })
+@Description("Check of a new or updated showtime against the existing showtimes")
+public class OverlapCheckEvent extends jdk.jfr.Event {
+
+    @Label("Theater")
+    public String theater;
+
+    @Label("Candidates Scanned")
+    @Description("Number of existing showtimes compared with the checked showtime")
+    public int candidatesScanned;
+
+    @Label("Overlap Found")
+    public boolean overlapFound;
+}
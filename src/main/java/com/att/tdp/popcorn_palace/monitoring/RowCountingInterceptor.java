@@ -0,0 +1,27 @@
+package com.att.tdp.popcorn_palace.monitoring;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Hibernate interceptor that reports every entity loaded from a result set to the {@link SqlProfiler},
+ * giving the number of rows fetched by the current request.
+ */
+public class RowCountingInterceptor implements Interceptor {
+    private final SqlProfiler sqlProfiler;
+
+    /**
+     * Constructs a RowCountingInterceptor reporting to the given profiler.
+     * 
+     * @param sqlProfiler Profiler collecting the rows of the current request
+     */
+    public RowCountingInterceptor(SqlProfiler sqlProfiler) {
+        this.sqlProfiler = sqlProfiler;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        sqlProfiler.recordRowFetched();
+        return false;
+    }
+}
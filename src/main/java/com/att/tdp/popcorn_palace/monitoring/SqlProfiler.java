@@ -0,0 +1,206 @@
+package com.att.tdp.popcorn_palace.monitoring;
+
+import com.att.tdp.popcorn_palace.dto.EndpointSqlStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects SQL statistics for each HTTP request and aggregates them per endpoint.
+ * Statements and loaded rows are attributed to the request running on the current thread,
+ * and requests that cross the configured thresholds are logged as warnings.
+ */
+@Component
+public class SqlProfiler {
+    private static final Logger log = LoggerFactory.getLogger(SqlProfiler.class);
+
+    private final ThreadLocal<RequestProfile> currentRequest = new ThreadLocal<>();
+    private final Map<String, EndpointStats> endpointStats = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final int maxStatementsPerRequest;
+    private final int nPlusOneThreshold;
+
+    /**
+     * Constructs a SqlProfiler with the configured thresholds.
+     *
+     * @param enabled                 Whether statements should be recorded at all
+     * @param maxStatementsPerRequest Number of statements above which a request is flagged
+     * @param nPlusOneThreshold       Number of executions of the same statement above which a request is flagged
+     *                                as an N+1 pattern
+     */
+    @Autowired
+    public SqlProfiler(@Value("${popcorn.sql-profiler.enabled:true}") boolean enabled,
+            @Value("${popcorn.sql-profiler.max-statements-per-request:10}") int maxStatementsPerRequest,
+            @Value("${popcorn.sql-profiler.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.enabled = enabled;
+        this.maxStatementsPerRequest = maxStatementsPerRequest;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    /**
+     * Indicates whether the profiler records statements.
+     *
+     * @return true if profiling is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts profiling the request handled by the current thread.
+     */
+    public void beginRequest() {
+        if (enabled) {
+            currentRequest.set(new RequestProfile());
+        }
+    }
+
+    /**
+     * Finishes profiling the request handled by the current thread and folds its
+     * statistics into the aggregate for the given endpoint.
+     *
+     * @param endpoint Label of the endpoint that served the request (e.g. "POST /bookings")
+     */
+    public void endRequest(String endpoint) {
+        RequestProfile profile = currentRequest.get();
+        if (profile == null) {
+            return;
+        }
+        currentRequest.remove();
+
+        EndpointStats stats = endpointStats.computeIfAbsent(endpoint, key -> new EndpointStats());
+        stats.requests.increment();
+        stats.statements.add(profile.statements);
+        stats.rowsFetched.add(profile.rowsFetched);
+        stats.maxStatementsPerRequest.accumulate(profile.statements);
+
+        if (profile.statements > maxStatementsPerRequest) {
+            stats.thresholdWarnings.increment();
+            log.warn("{} executed {} SQL statements (threshold {})",
+                    endpoint, profile.statements, maxStatementsPerRequest);
+        }
+
+        if (profile.unboundedSelects > 0) {
+            stats.unboundedSelects.add(profile.unboundedSelects);
+            log.warn("{} executed {} unbounded SELECT statement(s)", endpoint, profile.unboundedSelects);
+        }
+
+        profile.executions.forEach((sql, count) -> {
+            if (count > nPlusOneThreshold) {
+                stats.suspectedNPlusOneRequests.increment();
+                log.warn("{} executed the same statement {} times (possible N+1): {}", endpoint, count, sql);
+            }
+        });
+    }
+
+    /**
+     * Records a statement prepared on the current thread.
+     * Statements issued outside of a profiled request are ignored.
+     *
+     * @param sql The SQL text about to be executed
+     */
+    public void recordStatement(String sql) {
+        RequestProfile profile = currentRequest.get();
+        if (profile == null) {
+            return;
+        }
+        profile.statements++;
+        profile.executions.merge(sql, 1, Integer::sum);
+        if (isUnboundedSelect(sql)) {
+            profile.unboundedSelects++;
+        }
+    }
+
+    /**
+     * Records a row materialized into an entity on the current thread.
+     */
+    public void recordRowFetched() {
+        RequestProfile profile = currentRequest.get();
+        if (profile != null) {
+            profile.rowsFetched++;
+        }
+    }
+
+    /**
+     * Returns the aggregated statistics of every endpoint seen so far,
+     * ordered by the total number of statements executed.
+     *
+     * @return List of per-endpoint SQL statistics
+     */
+    public List<EndpointSqlStatsDTO> getEndpointStats() {
+        return endpointStats.entrySet().stream()
+                .map(entry -> entry.getValue().toDTO(entry.getKey()))
+                .sorted(Comparator.comparingLong(EndpointSqlStatsDTO::getStatements).reversed())
+                .toList();
+    }
+
+    /**
+     * Discards all aggregated statistics.
+     */
+    public void reset() {
+        endpointStats.clear();
+    }
+
+    /**
+     * Determines whether a statement is a SELECT without any WHERE clause or row limit,
+     * which means it reads the whole table.
+     *
+     * @param sql The SQL text to inspect
+     * @return true if the statement is an unbounded select
+     */
+    static boolean isUnboundedSelect(String sql) {
+        String normalized = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return normalized.startsWith("select")
+                && !normalized.contains(" where ")
+                && !normalized.contains(" limit ")
+                && !normalized.contains(" fetch first ")
+                && !normalized.contains(" offset ");
+    }
+
+    /**
+     * Mutable statistics of a single request. Only ever touched by the thread serving the request.
+     */
+    private static final class RequestProfile {
+        private final Map<String, Integer> executions = new HashMap<>();
+        private long statements;
+        private long rowsFetched;
+        private long unboundedSelects;
+    }
+
+    /**
+     * Aggregated statistics of one endpoint, updated concurrently by many requests.
+     */
+    private static final class EndpointStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rowsFetched = new LongAdder();
+        private final LongAdder unboundedSelects = new LongAdder();
+        private final LongAdder suspectedNPlusOneRequests = new LongAdder();
+        private final LongAdder thresholdWarnings = new LongAdder();
+        private final LongAccumulator maxStatementsPerRequest = new LongAccumulator(Math::max, 0);
+
+        private EndpointSqlStatsDTO toDTO(String endpoint) {
+            return new EndpointSqlStatsDTO(
+                    endpoint,
+                    requests.sum(),
+                    statements.sum(),
+                    rowsFetched.sum(),
+                    maxStatementsPerRequest.get(),
+                    unboundedSelects.sum(),
+                    suspectedNPlusOneRequests.sum(),
+                    thresholdWarnings.sum());
+        }
+    }
+}
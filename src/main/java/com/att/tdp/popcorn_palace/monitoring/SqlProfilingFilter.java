@@ -0,0 +1,51 @@
+package com.att.tdp.popcorn_palace.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter that opens a SQL profile for each request and closes it under the
+ * endpoint's path pattern, so that requests to "/showtimes/1" and "/showtimes/2" are aggregated together.
+ */
+public class SqlProfilingFilter extends OncePerRequestFilter {
+    private final SqlProfiler sqlProfiler;
+
+    /**
+     * Constructs a SqlProfilingFilter reporting to the given profiler.
+     * 
+     * @param sqlProfiler Profiler aggregating the statistics per endpoint
+     */
+    public SqlProfilingFilter(SqlProfiler sqlProfiler) {
+        this.sqlProfiler = sqlProfiler;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        sqlProfiler.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            sqlProfiler.endRequest(endpointOf(request));
+        }
+    }
+
+    /**
+     * Builds the endpoint label of a request from its method and matched path pattern,
+     * falling back to the raw URI when no handler matched.
+     * 
+     * @param request The request being served
+     * @return The endpoint label
+     */
+    private String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = pattern != null ? pattern.toString() : request.getRequestURI();
+        return request.getMethod() + " " + path;
+    }
+}
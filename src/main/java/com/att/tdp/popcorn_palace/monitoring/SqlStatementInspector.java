@@ -0,0 +1,26 @@
+package com.att.tdp.popcorn_palace.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that reports every prepared statement to the {@link SqlProfiler}.
+ * The SQL text is returned unchanged.
+ */
+public class SqlStatementInspector implements StatementInspector {
+    private final SqlProfiler sqlProfiler;
+
+    /**
+     * Constructs a SqlStatementInspector reporting to the given profiler.
+     * 
+     * @param sqlProfiler Profiler collecting the statements of the current request
+     */
+    public SqlStatementInspector(SqlProfiler sqlProfiler) {
+        this.sqlProfiler = sqlProfiler;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        sqlProfiler.recordStatement(sql);
+        return sql;
+    }
+}
@@ -3,7 +3,13 @@ package com.att.tdp.popcorn_palace.repository;
 import com.att.tdp.popcorn_palace.model.Booking;
 import com.att.tdp.popcorn_palace.model.Showtime;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -22,4 +28,59 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
      * @return true if the seat is already booked for the showtime, false otherwise
      */
     boolean existsByShowtimeAndSeatNumber(Showtime showtime, Integer seatNumber);
+
+    /**
+     * Finds the seat numbers already booked for a showtime.
+     * Only the seat column is read, no booking entities are loaded.
+     * 
+     * @param showtimeId The ID of the showtime
+     * @return The booked seat numbers, in ascending order
+     */
+    @Query("SELECT b.seatNumber FROM Booking b WHERE b.showtime.id = :showtimeId ORDER BY b.seatNumber")
+    List<Integer> findSeatNumbersByShowtimeId(@Param("showtimeId") Long showtimeId);
+
+    /**
+     * Finds the highest seat number booked for any showtime of a theater.
+     * 
+     * @param theaterId The ID of the theater
+     * @return The highest booked seat number, or null if the theater has no bookings
+     */
+    @Query("SELECT MAX(b.seatNumber) FROM Booking b WHERE b.showtime.theaterId = :theaterId")
+    Integer findHighestSeatNumberByTheaterId(@Param("theaterId") Integer theaterId);
+
+    /**
+     * Counts the booked seats of every showtime that has bookings, in one grouped query.
+     * 
+     * @return Pairs of showtime ID and number of booked seats
+     */
+    @Query("SELECT b.showtime.id, COUNT(b) FROM Booking b GROUP BY b.showtime.id")
+    List<Object[]> countSeatsByShowtime();
+
+    /**
+     * Inserts a booking unless the seat is already booked for the showtime, in a single statement.
+     * Relies on the unique constraint on (showtime_id, seat_number) to detect the conflict and on the
+     * foreign key to showtimes to reject unknown showtimes. The start time of the showtime is copied
+     * into the booking, which places it in the right partition when the schema is partitioned.
+     * 
+     * @param bookingId   The ID of the new booking
+     * @param showtimeId  The ID of the showtime to book
+     * @param seatNumber  The seat number to book
+     * @param userId      The ID of the user making the booking
+     * @param bookingTime The time of the booking
+     * @return 1 if the booking was inserted, 0 if the seat was already taken
+     * @throws org.springframework.dao.DataIntegrityViolationException if the showtime does not exist
+     *         (a foreign key violation, or a check violation when no partition accepts the booking)
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO bookings "
+            + "(booking_id, showtime_id, showtime_start, seat_number, user_id, booking_time) "
+            + "VALUES (:bookingId, :showtimeId, (SELECT s.start_time FROM showtimes s WHERE s.id = :showtimeId), "
+            + ":seatNumber, :userId, :bookingTime) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfSeatAvailable(@Param("bookingId") UUID bookingId,
+            @Param("showtimeId") Long showtimeId,
+            @Param("seatNumber") Integer seatNumber,
+            @Param("userId") String userId,
+            @Param("bookingTime") LocalDateTime bookingTime);
 }
\ No newline at end of file
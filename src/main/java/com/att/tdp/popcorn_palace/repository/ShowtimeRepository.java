@@ -2,12 +2,83 @@ package com.att.tdp.popcorn_palace.repository;
 
 import com.att.tdp.popcorn_palace.model.Showtime;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository interface for managing Showtime entities.
- * Provides standard CRUD operations for showtimes.
+ * Provides standard CRUD operations for showtimes and, through {@link ShowtimeSearchRepository},
+ * paginated searches.
  */
 @Repository
-public interface ShowtimeRepository extends JpaRepository<Showtime, Long> {
+public interface ShowtimeRepository extends JpaRepository<Showtime, Long>, ShowtimeSearchRepository {
+
+    /**
+     * Finds the IDs of the showtimes whose bookings go through the waiting room.
+     *
+     * @return IDs of the high-demand showtimes
+     */
+    @Query("SELECT s.id FROM Showtime s WHERE s.highDemand = true")
+    List<Long> findIdsByHighDemandTrue();
+
+    /**
+     * Finds the IDs of the showtimes of a movie.
+     *
+     * @param movieId The ID of the movie
+     * @return IDs of the movie's showtimes, in ascending order
+     */
+    @Query("SELECT s.id FROM Showtime s WHERE s.movie.id = :movieId ORDER BY s.id")
+    List<Long> findIdsByMovieId(@Param("movieId") Long movieId);
+
+    /**
+     * Finds the ID of the theater a showtime takes place in, without loading the showtime.
+     *
+     * @param id The ID of the showtime
+     * @return An Optional containing the theater ID, or empty if the showtime does not exist
+     */
+    @Query("SELECT s.theaterId FROM Showtime s WHERE s.id = :id")
+    Optional<Integer> findTheaterIdById(@Param("id") Long id);
+
+    /**
+     * Finds the showtimes of a theater that overlap a time slot.
+     * Served by a bounded range of the (theater_id, start_time) index instead of scanning every showtime
+     * of the theater: a showtime overlapping the slot starts after {@code earliestStart}, as showtimes
+     * cannot last longer than the time between the two.
+     *
+     * @param theaterId     The ID of the theater
+     * @param earliestStart Start of the time slot minus the longest length of a showtime
+     * @param startTime     Start of the time slot
+     * @param endTime       End of the time slot
+     * @return IDs of the overlapping showtimes
+     */
+    @Query("SELECT s.id FROM Showtime s WHERE s.theaterId = :theaterId "
+            + "AND s.startTime > :earliestStart AND s.startTime < :endTime AND s.endTime > :startTime")
+    List<Long> findOverlappingIds(@Param("theaterId") Integer theaterId,
+            @Param("earliestStart") ZonedDateTime earliestStart,
+            @Param("startTime") ZonedDateTime startTime,
+            @Param("endTime") ZonedDateTime endTime);
+
+    /**
+     * Finds the showtimes of a theater that overlap a time range, in order of start time.
+     * Like {@link #findOverlappingIds}, only reads the index range of showtimes starting after
+     * {@code earliestStart}.
+     *
+     * @param theaterId     The ID of the theater
+     * @param earliestStart Start of the time range minus the longest length of a showtime
+     * @param startTime     Start of the time range
+     * @param endTime       End of the time range
+     * @return The overlapping showtimes, earliest first
+     */
+    @Query("SELECT s FROM Showtime s WHERE s.theaterId = :theaterId "
+            + "AND s.startTime > :earliestStart AND s.startTime < :endTime AND s.endTime > :startTime "
+            + "ORDER BY s.startTime")
+    List<Showtime> findScheduleOfTheater(@Param("theaterId") Integer theaterId,
+            @Param("earliestStart") ZonedDateTime earliestStart,
+            @Param("startTime") ZonedDateTime startTime,
+            @Param("endTime") ZonedDateTime endTime);
 }
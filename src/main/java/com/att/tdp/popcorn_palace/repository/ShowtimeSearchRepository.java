@@ -0,0 +1,41 @@
+package com.att.tdp.popcorn_palace.repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Custom repository fragment for searching showtimes page by page.
+ * Pages are addressed by the (start time, id) of the last row of the previous page (keyset pagination),
+ * so every page is a single index range scan regardless of how many showtimes came before it.
+ */
+public interface ShowtimeSearchRepository {
+
+    /**
+     * Finds the next page of showtimes matching the filters, ordered by start time and ID.
+     *
+     * @param movieId         Only showtimes of this movie, or null for all movies
+     * @param theaterId       Only showtimes in this theater, or null for all theaters
+     * @param from            Only showtimes starting at or after this time, or null for no lower bound
+     * @param to              Only showtimes starting before this time, or null for no upper bound
+     * @param afterStartTime  Start time of the last showtime of the previous page, or null for the first page
+     * @param afterId         ID of the last showtime of the previous page, or null for the first page
+     * @param limit           Maximum number of showtimes to return
+     * @return The matching showtimes
+     */
+    List<ShowtimeRow> search(Long movieId, Integer theaterId, ZonedDateTime from, ZonedDateTime to,
+            ZonedDateTime afterStartTime, Long afterId, int limit);
+
+    /**
+     * Columns of a showtime as read by a search, without loading the entity or its associations.
+     *
+     * @param id        ID of the showtime
+     * @param movieId   ID of the movie
+     * @param theaterId ID of the theater
+     * @param startTime Start time of the showtime
+     * @param endTime   End time of the showtime
+     * @param price     Ticket price
+     */
+    record ShowtimeRow(Long id, Long movieId, Integer theaterId, ZonedDateTime startTime, ZonedDateTime endTime,
+            Double price) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.att.tdp.popcorn_palace.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * JDBC implementation of {@link ShowtimeSearchRepository}.
+ * The query is assembled from the filters that are set, so that each combination matches one of the
+ * composite indexes ending in (start_time, id), and rows are streamed from a server-side cursor instead
+ * of being materialized up front.
+ */
+public class ShowtimeSearchRepositoryImpl implements ShowtimeSearchRepository {
+    private static final String SELECT_SQL =
+            "SELECT id, movie_id, theater_id, start_time, end_time, price FROM showtimes";
+
+    /**
+     * Number of rows fetched from the cursor per round trip.
+     */
+    private static final int FETCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructs a ShowtimeSearchRepositoryImpl.
+     *
+     * @param dataSource Data source the searches run against
+     */
+    @Autowired
+    public ShowtimeSearchRepositoryImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    @Override
+    public List<ShowtimeRow> search(Long movieId, Integer theaterId, ZonedDateTime from, ZonedDateTime to,
+            ZonedDateTime afterStartTime, Long afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        if (movieId != null) {
+            conditions.add("movie_id = ?");
+            parameters.add(movieId);
+        }
+        if (theaterId != null) {
+            conditions.add("theater_id = ?");
+            parameters.add(theaterId);
+        }
+        if (from != null) {
+            conditions.add("start_time >= ?");
+            parameters.add(from.toOffsetDateTime());
+        }
+        if (to != null) {
+            conditions.add("start_time < ?");
+            parameters.add(to.toOffsetDateTime());
+        }
+        if (afterStartTime != null && afterId != null) {
+            conditions.add("(start_time, id) > (?, ?)");
+            parameters.add(afterStartTime.toOffsetDateTime());
+            parameters.add(afterId);
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY start_time, id LIMIT ?");
+        parameters.add(limit);
+
+        try (Stream<ShowtimeRow> rows = jdbcTemplate.queryForStream(sql.toString(), this::mapRow,
+                parameters.toArray())) {
+            return rows.limit(limit).toList();
+        }
+    }
+
+    /**
+     * Maps the current row of a search result.
+     *
+     * @param rs     The result set positioned on the row
+     * @param rowNum Number of the row
+     * @return The showtime columns
+     * @throws SQLException if a column cannot be read
+     */
+    private ShowtimeRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new ShowtimeRow(
+                rs.getLong("id"),
+                rs.getLong("movie_id"),
+                rs.getInt("theater_id"),
+                rs.getObject("start_time", OffsetDateTime.class).toZonedDateTime(),
+                rs.getObject("end_time", OffsetDateTime.class).toZonedDateTime(),
+                rs.getDouble("price"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.att.tdp.popcorn_palace.repository;
+
+import com.att.tdp.popcorn_palace.model.Theater;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for managing Theater entities.
+ * Provides CRUD operations and lookup by name.
+ */
+@Repository
+public interface TheaterRepository extends JpaRepository<Theater, Integer> {
+
+    /**
+     * Finds a theater by its name.
+     * Theater names are unique, so this method returns at most one result.
+     * 
+     * @param name The name of the theater to find
+     * @return An Optional containing the theater if found, or empty if not found
+     */
+    Optional<Theater> findByName(String name);
+}
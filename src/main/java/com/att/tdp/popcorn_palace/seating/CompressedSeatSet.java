@@ -0,0 +1,175 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import java.util.Arrays;
+
+/**
+ * Set of seat numbers whose memory follows its content rather than the hall size.
+ * <p>
+ * While few seats are taken, the set is a sorted array of seat numbers (4 bytes per seat). Once the
+ * array would outgrow a plain bitmap of the hall (one bit per seat), it switches to the bitmap, so
+ * a set never costs more than the cheaper of the two: a nearly empty arena of thousands of seats
+ * stays a few bytes, a sold-out one stays {@code capacity / 8} bytes.
+ */
+public class CompressedSeatSet {
+    private final int capacity;
+    private int[] array = new int[4];
+    private int size;
+    private long[] bitmap;
+
+    /**
+     * Constructs an empty CompressedSeatSet.
+     *
+     * @param capacity Number of seats in the hall; seat numbers range from 1 to capacity
+     */
+    public CompressedSeatSet(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds a seat to the set.
+     *
+     * @param seatNumber Number of the seat, starting at 1
+     * @return true if the seat was not in the set yet
+     * @throws IllegalArgumentException if the seat is outside the hall
+     */
+    public boolean add(int seatNumber) {
+        if (seatNumber < 1 || seatNumber > capacity) {
+            throw new IllegalArgumentException("Seat " + seatNumber + " is outside a hall of " + capacity + " seats");
+        }
+        if (bitmap != null) {
+            int bit = seatNumber - 1;
+            long mask = 1L << bit;
+            if ((bitmap[bit >>> 6] & mask) != 0) {
+                return false;
+            }
+            bitmap[bit >>> 6] |= mask;
+            size++;
+            return true;
+        }
+
+        int index = Arrays.binarySearch(array, 0, size, seatNumber);
+        if (index >= 0) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        if ((long) (size + 1) * Integer.SIZE > capacity) {
+            toBitmap();
+            return add(seatNumber);
+        }
+        if (size == array.length) {
+            array = Arrays.copyOf(array, Math.min(size * 2, capacity));
+        }
+        System.arraycopy(array, insertAt, array, insertAt + 1, size - insertAt);
+        array[insertAt] = seatNumber;
+        size++;
+        return true;
+    }
+
+    /**
+     * Indicates whether a seat is in the set.
+     *
+     * @param seatNumber Number of the seat, starting at 1
+     * @return true if the seat is in the set
+     */
+    public boolean contains(int seatNumber) {
+        if (seatNumber < 1 || seatNumber > capacity) {
+            return false;
+        }
+        if (bitmap != null) {
+            int bit = seatNumber - 1;
+            return (bitmap[bit >>> 6] & (1L << bit)) != 0;
+        }
+        return Arrays.binarySearch(array, 0, size, seatNumber) >= 0;
+    }
+
+    /**
+     * Returns the first seat of the set at or after a given seat, without allocating.
+     *
+     * @param fromSeat Number of the seat to start from
+     * @return The smallest seat number in the set that is at least {@code fromSeat}, or -1 if there is none
+     */
+    public int nextSeat(int fromSeat) {
+        int seat = Math.max(1, fromSeat);
+        if (seat > capacity) {
+            return -1;
+        }
+        if (bitmap != null) {
+            int bit = seat - 1;
+            int word = bit >>> 6;
+            long bits = bitmap[word] & (-1L << bit);
+            while (bits == 0) {
+                if (++word == bitmap.length) {
+                    return -1;
+                }
+                bits = bitmap[word];
+            }
+            return (word << 6) + Long.numberOfTrailingZeros(bits) + 1;
+        }
+        int index = Arrays.binarySearch(array, 0, size, seat);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index < size ? array[index] : -1;
+    }
+
+    /**
+     * Returns the number of seats in the set.
+     *
+     * @return The cardinality
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Indicates whether the set is stored as a bitmap.
+     *
+     * @return true once the set has become dense
+     */
+    public boolean isBitmap() {
+        return bitmap != null;
+    }
+
+    /**
+     * Returns the approximate memory used by the seat storage.
+     *
+     * @return The size of the backing array, in bytes
+     */
+    public long sizeInBytes() {
+        return bitmap != null ? (long) bitmap.length * Long.BYTES : (long) array.length * Integer.BYTES;
+    }
+
+    /**
+     * Returns the set as a bitmap of the hall, one bit per seat (seat {@code n} is bit {@code n - 1}).
+     *
+     * @return A new bitmap
+     */
+    public long[] toWords() {
+        if (bitmap != null) {
+            return bitmap.clone();
+        }
+        long[] words = new long[wordCount()];
+        for (int i = 0; i < size; i++) {
+            int bit = array[i] - 1;
+            words[bit >>> 6] |= 1L << bit;
+        }
+        return words;
+    }
+
+    /**
+     * Switches the storage from the sorted array to the bitmap.
+     */
+    private void toBitmap() {
+        bitmap = toWords();
+        array = null;
+    }
+
+    /**
+     * Returns the number of 64-bit words of a bitmap of the hall.
+     *
+     * @return The word count
+     */
+    private int wordCount() {
+        return (capacity + 63) >>> 6;
+    }
+}
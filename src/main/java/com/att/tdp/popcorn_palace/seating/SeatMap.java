@@ -0,0 +1,133 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import java.util.Collection;
+
+/**
+ * Occupancy of the seats of one showtime laid out in a {@link TheaterLayout}.
+ * Taken seats are kept in a {@link CompressedSeatSet}, so a map costs memory in proportion to the
+ * bookings rather than to the hall. Runs of free seats are searched directly on the set, gap by gap
+ * between taken seats, so a search allocates nothing and costs one step per section of each row plus
+ * one lookup per taken seat, rather than one check per seat. The lookups still scan whole 64-seat words
+ * once the set has switched to its bitmap ({@link CompressedSeatSet#nextSeat}); the shifted-bitmap search
+ * of run starts was dropped, as it needed a bitmap of the whole hall per search and one pass over it per
+ * requested seat.
+ */
+public class SeatMap {
+    private final TheaterLayout layout;
+    private final CompressedSeatSet occupied;
+
+    /**
+     * Constructs an empty SeatMap.
+     *
+     * @param layout Layout of the hall
+     */
+    public SeatMap(TheaterLayout layout) {
+        this.layout = layout;
+        this.occupied = new CompressedSeatSet(layout.capacity());
+    }
+
+    /**
+     * Creates a SeatMap with the given seats taken.
+     *
+     * @param layout        Layout of the hall
+     * @param occupiedSeats Numbers of the seats already booked
+     * @return The seat map
+     */
+    public static SeatMap of(TheaterLayout layout, Collection<Integer> occupiedSeats) {
+        SeatMap seatMap = new SeatMap(layout);
+        occupiedSeats.forEach(seatMap::occupy);
+        return seatMap;
+    }
+
+    /**
+     * Marks a seat as taken. Seats outside the hall are ignored.
+     *
+     * @param seatNumber Number of the seat, starting at 1
+     */
+    public void occupy(int seatNumber) {
+        if (seatNumber >= 1 && seatNumber <= layout.capacity()) {
+            occupied.add(seatNumber);
+        }
+    }
+
+    /**
+     * Indicates whether a seat is taken.
+     *
+     * @param seatNumber Number of the seat, starting at 1
+     * @return true if the seat is taken
+     */
+    public boolean isOccupied(int seatNumber) {
+        return occupied.contains(seatNumber);
+    }
+
+    /**
+     * Returns the number of taken seats.
+     *
+     * @return The number of taken seats
+     */
+    public int occupiedCount() {
+        return occupied.size();
+    }
+
+    /**
+     * Finds the best run of adjacent free seats within one section of one row.
+     * Runs in the rows closest to the middle of the hall win, then runs closest to the middle of their row;
+     * among equally good runs, the one with the lowest seat numbers wins.
+     *
+     * @param count Number of adjacent seats wanted
+     * @return Number of the first seat of the best run, or -1 if no section has enough adjacent free seats
+     */
+    public int findBestRun(int count) {
+        if (count < 1 || count > layout.widestSection()) {
+            return -1;
+        }
+
+        int seatsPerRow = layout.seatsPerRow();
+        double middleRow = (layout.rows() - 1) / 2.0;
+        // Position in the row at which a run is centered in the row
+        double centeredStart = (seatsPerRow - count) / 2.0;
+        int bestSeat = -1;
+        double bestScore = Double.MAX_VALUE;
+        for (int row = 0; row < layout.rows(); row++) {
+            double rowScore = Math.abs(row - middleRow) * seatsPerRow;
+            if (rowScore >= bestScore) {
+                continue;
+            }
+            int firstSeatOfRow = row * seatsPerRow + 1;
+            int sectionStart = 0;
+            for (int width : layout.sectionWidths()) {
+                int sectionEnd = Math.min(sectionStart + width, seatsPerRow);
+                int gapStart = sectionStart;
+                while (sectionEnd - gapStart >= count) {
+                    int taken = occupied.nextSeat(firstSeatOfRow + gapStart);
+                    int gapEnd = taken < 0 ? sectionEnd : Math.min(sectionEnd, taken - firstSeatOfRow);
+                    if (gapEnd - gapStart >= count) {
+                        int start = closestStart(gapStart, gapEnd - count, centeredStart);
+                        double score = rowScore + Math.abs(start - centeredStart);
+                        if (score < bestScore) {
+                            bestScore = score;
+                            bestSeat = firstSeatOfRow + start;
+                        }
+                    }
+                    gapStart = gapEnd + 1;
+                }
+                sectionStart += width;
+            }
+        }
+        return bestSeat;
+    }
+
+    /**
+     * Picks the start of a run within a gap that brings the run closest to the middle of its row.
+     *
+     * @param lowest   Lowest possible start position in the row
+     * @param highest  Highest possible start position in the row
+     * @param centered Start position at which the run would be centered
+     * @return The best start position, the lower one on a tie
+     */
+    private static int closestStart(int lowest, int highest, double centered) {
+        int below = Math.clamp((long) Math.floor(centered), lowest, highest);
+        int above = Math.clamp((long) Math.ceil(centered), lowest, highest);
+        return Math.abs(above - centered) < Math.abs(below - centered) ? above : below;
+    }
+}
@@ -0,0 +1,37 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import java.util.List;
+
+/**
+ * Seat layout of a theater: equal rows split by aisles into sections.
+ * Seats are numbered from 1, row by row, from the first seat of the first row.
+ *
+ * @param rows          Number of rows
+ * @param seatsPerRow   Number of seats in each row
+ * @param sectionWidths Widths of the sections of a row, from left to right; they add up to seatsPerRow
+ */
+public record TheaterLayout(int rows, int seatsPerRow, List<Integer> sectionWidths) {
+
+    /**
+     * Layout assumed for theaters that have not been configured: 10 rows of 10 seats.
+     */
+    public static final TheaterLayout DEFAULT = new TheaterLayout(10, 10, List.of(10));
+
+    /**
+     * Returns the number of seats of the theater.
+     *
+     * @return The capacity
+     */
+    public int capacity() {
+        return rows * seatsPerRow;
+    }
+
+    /**
+     * Returns the width of the widest section.
+     *
+     * @return The largest number of adjacent seats a row can offer
+     */
+    public int widestSection() {
+        return sectionWidths.stream().mapToInt(Integer::intValue).max().orElse(seatsPerRow);
+    }
+}
@@ -0,0 +1,448 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.archive.ArchiveColumn;
+import com.att.tdp.popcorn_palace.archive.ColumnType;
+import com.att.tdp.popcorn_palace.archive.ColumnarArchiveReader;
+import com.att.tdp.popcorn_palace.archive.ColumnarArchiveWriter;
+import com.att.tdp.popcorn_palace.dto.ArchiveQueryResultDTO;
+import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service moving finished showtimes and their bookings out of the hot tables into columnar archive files,
+ * and answering read-only queries over those files.
+ * <p>
+ * Showtimes are archived by month of their start time, once the month has been over for a configurable
+ * delay, into one file per month for showtimes and one for bookings (e.g. {@code bookings-2025-04.colgz}).
+ * Bookings carry the movie, theater, start time and price of their showtime, so archive queries never
+ * need a join. Each month is archived in one transaction: its showtimes are locked, which blocks late
+ * bookings, the files are written next to their final name, the rows are deleted with set-based statements
+ * and the files are moved into place. A month archived again (e.g. after a failed commit) is merged into
+ * its existing files. The sales figures of the archived showtimes are deleted with them, but the daily
+ * sales rollups are kept, so reports still cover archived months; detached partitions follow the same
+ * policy (see {@link PartitionMaintenanceJob}). Once a month has committed, the occupancy counters, waiting
+ * rooms and cached theaters of its showtimes are dropped.
+ */
+@Service
+public class ArchiveService {
+    private static final Logger log = LoggerFactory.getLogger(ArchiveService.class);
+
+    static final String SHOWTIMES = "showtimes";
+    static final String BOOKINGS = "bookings";
+    static final String FILE_EXTENSION = ".colgz";
+
+    /**
+     * Default and largest number of rows returned by an archive query.
+     */
+    static final int DEFAULT_QUERY_LIMIT = 1000;
+    static final int MAX_QUERY_LIMIT = 10_000;
+
+    /**
+     * Longest period an archive query may cover, in months.
+     */
+    static final int MAX_QUERY_MONTHS = 36;
+
+    static final List<ArchiveColumn> SHOWTIME_COLUMNS = List.of(
+            new ArchiveColumn("id", ColumnType.LONG),
+            new ArchiveColumn("movie_id", ColumnType.LONG),
+            new ArchiveColumn("theater_id", ColumnType.INT),
+            new ArchiveColumn("start_time", ColumnType.TIMESTAMP),
+            new ArchiveColumn("end_time", ColumnType.TIMESTAMP),
+            new ArchiveColumn("price", ColumnType.DOUBLE));
+
+    static final List<ArchiveColumn> BOOKING_COLUMNS = List.of(
+            new ArchiveColumn("booking_id", ColumnType.STRING),
+            new ArchiveColumn("showtime_id", ColumnType.LONG),
+            new ArchiveColumn("seat_number", ColumnType.INT),
+            new ArchiveColumn("user_id", ColumnType.STRING),
+            new ArchiveColumn("booking_time", ColumnType.TIMESTAMP),
+            new ArchiveColumn("movie_id", ColumnType.LONG),
+            new ArchiveColumn("theater_id", ColumnType.INT),
+            new ArchiveColumn("start_time", ColumnType.TIMESTAMP),
+            new ArchiveColumn("price", ColumnType.DOUBLE));
+
+    /**
+     * Column holding the showtime ID in each archive, used to merge and to filter by showtime.
+     */
+    private static final Map<String, String> SHOWTIME_ID_COLUMNS =
+            Map.of(SHOWTIMES, "id", BOOKINGS, "showtime_id");
+
+    private static final String FINISHED_IN_MONTH =
+            "FROM showtimes WHERE start_time >= ? AND start_time < ? AND end_time <= ?";
+
+    static final String SELECT_OLDEST_START_SQL = "SELECT MIN(start_time) FROM showtimes";
+    static final String LOCK_SHOWTIMES_SQL = "SELECT id " + FINISHED_IN_MONTH + " ORDER BY id FOR UPDATE";
+    static final String SELECT_SHOWTIMES_SQL =
+            "SELECT id, movie_id, theater_id, start_time, end_time, price " + FINISHED_IN_MONTH + " ORDER BY id";
+    static final String SELECT_BOOKINGS_SQL =
+            "SELECT b.booking_id, b.showtime_id, b.seat_number, b.user_id, b.booking_time, "
+                    + "s.movie_id, s.theater_id, s.start_time, s.price "
+                    + "FROM bookings b JOIN showtimes s ON s.id = b.showtime_id "
+                    + "WHERE s.start_time >= ? AND s.start_time < ? AND s.end_time <= ? "
+                    + "ORDER BY b.showtime_id, b.seat_number";
+    static final String DELETE_BOOKINGS_SQL =
+            "DELETE FROM bookings WHERE showtime_id IN (SELECT id " + FINISHED_IN_MONTH + ")";
+    static final String DELETE_SHOWTIME_SALES_SQL =
+            "DELETE FROM showtime_sales WHERE showtime_id IN (SELECT id " + FINISHED_IN_MONTH + ")";
+    static final String DELETE_SHOWTIMES_SQL = "DELETE " + FINISHED_IN_MONTH;
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OccupancyCounters occupancyCounters;
+    private final WaitingRoomService waitingRoomService;
+    private final TheaterService theaterService;
+    private final boolean enabled;
+    private final Path directory;
+    private final Duration delay;
+    private final Duration checkInterval;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs an ArchiveService with the configured archival policy.
+     *
+     * @param jdbcTemplate       JDBC access whose data source is used to read and delete the archived rows
+     * @param transactionManager Transaction manager wrapping the archival of each month
+     * @param occupancyCounters  Live booked-seat counts, cleared for archived showtimes
+     * @param waitingRoomService Waiting rooms, closed for archived showtimes
+     * @param theaterService     Theater lookups, whose cached showtimes are evicted when archived
+     * @param enabled            Whether finished months are archived periodically
+     * @param directory          Directory holding the archive files
+     * @param delay              How long after the end of a month its showtimes are archived
+     * @param checkInterval      How often finished months are looked for
+     */
+    @Autowired
+    public ArchiveService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            OccupancyCounters occupancyCounters, WaitingRoomService waitingRoomService, TheaterService theaterService,
+            @Value("${popcorn.archive.enabled:false}") boolean enabled,
+            @Value("${popcorn.archive.directory:./archive}") String directory,
+            @Value("${popcorn.archive.delay:7d}") Duration delay,
+            @Value("${popcorn.archive.check-interval:1h}") Duration checkInterval) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.occupancyCounters = occupancyCounters;
+        this.waitingRoomService = waitingRoomService;
+        this.theaterService = theaterService;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.delay = delay;
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * Starts archiving finished months periodically.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("archival").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::runScheduled,
+                checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops archiving.
+     */
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Archives every month that has been over for at least the configured delay, oldest first.
+     *
+     * @param now The current time
+     * @return The months in which showtimes were archived
+     */
+    public List<YearMonth> archiveFinishedMonths(Instant now) {
+        YearMonth lastMonth = YearMonth.from(now.minus(delay).atOffset(ZoneOffset.UTC)).minusMonths(1);
+        OffsetDateTime oldestStart = jdbcTemplate.queryForObject(SELECT_OLDEST_START_SQL, OffsetDateTime.class);
+        List<YearMonth> archived = new ArrayList<>();
+        if (oldestStart == null) {
+            return archived;
+        }
+        for (YearMonth month = YearMonth.from(oldestStart.withOffsetSameInstant(ZoneOffset.UTC));
+                !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            if (archiveMonth(month, now) > 0) {
+                archived.add(month);
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * Moves the showtimes of a month that ended before a point in time, and their bookings, to the archive.
+     *
+     * @param month          Month of the showtimes' start time (UTC)
+     * @param finishedBefore Only showtimes ending at or before this time are archived
+     * @return The number of showtimes archived
+     * @throws UncheckedIOException if the archive files cannot be written; nothing is deleted then
+     */
+    public int archiveMonth(YearMonth month, Instant finishedBefore) {
+        Object[] range = {
+                startOf(month), startOf(month.plusMonths(1)), finishedBefore.atOffset(ZoneOffset.UTC)
+        };
+        Path showtimesFile = archiveFile(SHOWTIMES, month);
+        Path bookingsFile = archiveFile(BOOKINGS, month);
+        Path showtimesTemp = temporaryFile(showtimesFile);
+        Path bookingsTemp = temporaryFile(bookingsFile);
+
+        try {
+            List<Long> archivedIds = transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList(LOCK_SHOWTIMES_SQL, Long.class, range);
+                if (ids.isEmpty()) {
+                    return ids;
+                }
+                Set<Long> idSet = new HashSet<>(ids);
+                writeArchive(showtimesFile, showtimesTemp, SHOWTIME_COLUMNS, SHOWTIMES, idSet,
+                        SELECT_SHOWTIMES_SQL, range);
+                writeArchive(bookingsFile, bookingsTemp, BOOKING_COLUMNS, BOOKINGS, idSet,
+                        SELECT_BOOKINGS_SQL, range);
+
+                int bookings = jdbcTemplate.update(DELETE_BOOKINGS_SQL, range);
+                jdbcTemplate.update(DELETE_SHOWTIME_SALES_SQL, range);
+                jdbcTemplate.update(DELETE_SHOWTIMES_SQL, range);
+                move(showtimesTemp, showtimesFile);
+                move(bookingsTemp, bookingsFile);
+                log.info("Archived {} showtimes and {} bookings of {}", ids.size(), bookings, month);
+                return ids;
+            });
+            for (Long showtimeId : archivedIds) {
+                occupancyCounters.remove(showtimeId);
+                waitingRoomService.setHighDemand(showtimeId, false);
+                theaterService.evictShowtime(showtimeId);
+            }
+            return archivedIds.size();
+        } finally {
+            deleteQuietly(showtimesTemp);
+            deleteQuietly(bookingsTemp);
+        }
+    }
+
+    /**
+     * Reads rows of the archived showtimes or bookings, reading only the columns that are returned or filtered on.
+     *
+     * @param dataset    "showtimes" or "bookings"
+     * @param from       First month to read
+     * @param to         Last month to read
+     * @param columns    Columns to return, or null or empty for all of them
+     * @param movieId    Only return rows of this movie, if not null
+     * @param showtimeId Only return rows of this showtime, if not null
+     * @param limit      Maximum number of rows to return, or null for the default
+     * @return The matching rows
+     *
+     * @throws InvalidRequestException if the dataset, a column, the period or the limit is invalid
+     */
+    public ArchiveQueryResultDTO query(String dataset, YearMonth from, YearMonth to, List<String> columns,
+            Long movieId, Long showtimeId, Integer limit) {
+        List<ArchiveColumn> schema = switch (dataset) {
+            case SHOWTIMES -> SHOWTIME_COLUMNS;
+            case BOOKINGS -> BOOKING_COLUMNS;
+            default -> throw new InvalidRequestException("Unknown archive '" + dataset
+                    + "', expected '" + SHOWTIMES + "' or '" + BOOKINGS + "'");
+        };
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("The first month must not be after the last month");
+        }
+        if (ChronoUnit.MONTHS.between(from, to) >= MAX_QUERY_MONTHS) {
+            throw new InvalidRequestException("An archive query cannot cover more than " + MAX_QUERY_MONTHS
+                    + " months");
+        }
+        int maxRows = limit == null ? DEFAULT_QUERY_LIMIT : limit;
+        if (maxRows < 1 || maxRows > MAX_QUERY_LIMIT) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_QUERY_LIMIT);
+        }
+
+        List<String> names = schema.stream().map(ArchiveColumn::name).toList();
+        List<String> selected = columns == null || columns.isEmpty() ? names : List.copyOf(columns);
+        for (String column : selected) {
+            if (!names.contains(column)) {
+                throw new InvalidRequestException("Unknown column '" + column + "' in archive '" + dataset + "'");
+            }
+        }
+
+        // Read the returned columns followed by the filter columns, each once
+        LinkedHashSet<String> read = new LinkedHashSet<>(selected);
+        String showtimeIdColumn = SHOWTIME_ID_COLUMNS.get(dataset);
+        if (movieId != null) {
+            read.add("movie_id");
+        }
+        if (showtimeId != null) {
+            read.add(showtimeIdColumn);
+        }
+        List<String> readColumns = List.copyOf(read);
+        int movieIdIndex = readColumns.indexOf("movie_id");
+        int showtimeIdIndex = readColumns.indexOf(showtimeIdColumn);
+
+        List<List<Object>> rows = new ArrayList<>();
+        boolean[] truncated = {false};
+        for (YearMonth month = from; !month.isAfter(to) && !truncated[0]; month = month.plusMonths(1)) {
+            Path file = archiveFile(dataset, month);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try {
+                new ColumnarArchiveReader(file).scan(readColumns, values -> {
+                    if ((movieId != null && !movieId.equals(values[movieIdIndex]))
+                            || (showtimeId != null && !showtimeId.equals(values[showtimeIdIndex]))) {
+                        return true;
+                    }
+                    if (rows.size() == maxRows) {
+                        truncated[0] = true;
+                        return false;
+                    }
+                    rows.add(List.of(values).subList(0, selected.size()));
+                    return true;
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read archive " + file, e);
+            }
+        }
+        return new ArchiveQueryResultDTO(selected, rows, truncated[0]);
+    }
+
+    // Helper methods
+
+    /**
+     * Archives the finished months from the scheduler, which would stop on an uncaught exception.
+     */
+    private void runScheduled() {
+        try {
+            archiveFinishedMonths(Instant.now());
+        } catch (RuntimeException e) {
+            log.error("Archival failed", e);
+        }
+    }
+
+    /**
+     * Writes the archive of a month to a temporary file: the rows already archived for other showtimes,
+     * followed by the rows selected from the database.
+     *
+     * @param file        Current archive file of the month, which may not exist yet
+     * @param temporary   File to write
+     * @param columns     Columns of the archive
+     * @param dataset     Name of the archive, to find its showtime ID column
+     * @param showtimeIds Showtimes being archived, whose rows are replaced if already in the file
+     * @param sql         Query selecting the rows, in the order of the columns
+     * @param range       Parameters of the query
+     */
+    private void writeArchive(Path file, Path temporary, List<ArchiveColumn> columns, String dataset,
+            Set<Long> showtimeIds, String sql, Object[] range) {
+        ColumnarArchiveWriter writer = new ColumnarArchiveWriter(columns);
+        try {
+            if (Files.exists(file)) {
+                List<String> names = columns.stream().map(ArchiveColumn::name).toList();
+                int showtimeIdIndex = names.indexOf(SHOWTIME_ID_COLUMNS.get(dataset));
+                new ColumnarArchiveReader(file).scan(names, values -> {
+                    if (!showtimeIds.contains((Long) values[showtimeIdIndex])) {
+                        writer.addRow(values);
+                    }
+                    return true;
+                });
+            }
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> writer.addRow(ColumnValues.readRow(rs, columns)), range);
+            Files.createDirectories(directory);
+            writer.writeTo(temporary);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write archive " + file, e);
+        }
+    }
+
+    /**
+     * Returns the archive file of a dataset for a month.
+     *
+     * @param dataset "showtimes" or "bookings"
+     * @param month   Month of the archived showtimes' start time
+     * @return The path of the archive file, e.g. bookings-2025-04.colgz in the archive directory
+     */
+    private Path archiveFile(String dataset, YearMonth month) {
+        return directory.resolve(dataset + "-" + month + FILE_EXTENSION);
+    }
+
+    /**
+     * Returns the file an archive is written to before it replaces the current one.
+     *
+     * @param file The archive file
+     * @return The temporary file next to it
+     */
+    private static Path temporaryFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    /**
+     * Returns the first instant of a month in UTC.
+     *
+     * @param month The month
+     * @return Midnight of its first day, at UTC
+     */
+    private static OffsetDateTime startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * Replaces an archive file with its new version.
+     *
+     * @param temporary The new version, written next to the archive file
+     * @param file      The archive file to replace
+     * @throws UncheckedIOException if the file cannot be moved into place atomically
+     */
+    private static void move(Path temporary, Path file) {
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot replace archive " + file, e);
+        }
+    }
+
+    /**
+     * Deletes a temporary file left behind by a failed archival, logging rather than throwing on failure.
+     *
+     * @param file The temporary file, which may not exist
+     */
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Cannot delete {}", file, e);
+        }
+    }
+}
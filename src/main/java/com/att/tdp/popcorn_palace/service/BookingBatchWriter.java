@@ -0,0 +1,386 @@
+package com.att.tdp.popcorn_palace.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Group-commit stage for bookings.
+ * Concurrent booking requests are queued on a lock-free queue and drained by a single writer thread,
+ * which stores them as one multi-row insert in one transaction every flush interval, or as soon as a
+ * full batch is waiting. Each caller receives its own {@link BookingOutcome} through a future, so one
+ * commit (and one fsync) is shared by the whole batch.
+ * <p>
+ * A caller that stops waiting cancels its future. The writer claims every booking before adding it to a
+ * batch, and skips cancelled ones, so a booking is either withdrawn before it is written or its caller
+ * is told the outcome of the batch that wrote it; never both.
+ */
+@Component
+public class BookingBatchWriter {
+    private static final Logger log = LoggerFactory.getLogger(BookingBatchWriter.class);
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO bookings (booking_id, showtime_id, showtime_start, seat_number, user_id, booking_time) "
+                    + "VALUES ";
+    private static final String INSERT_ROW = "(?, ?, (SELECT s.start_time FROM showtimes s WHERE s.id = ?), ?, ?, ?)";
+    private static final String INSERT_SUFFIX = " ON CONFLICT DO NOTHING";
+
+    static final String INSERT_BOOKING_SQL = INSERT_PREFIX + INSERT_ROW + INSERT_SUFFIX;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SalesRollups salesRollups;
+    private final BookingLocks bookingLocks;
+    private final boolean enabled;
+    private final long flushIntervalNanos;
+    private final int maxBatchSize;
+
+    private final Queue<PendingBooking> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * Multi-row insert statements by number of rows, built on first use. Only used by the writer thread.
+     */
+    private final String[] insertSqlByRows;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    /**
+     * Constructs a BookingBatchWriter with the configured batching policy.
+     *
+     * @param jdbcTemplate        JDBC access used for the batched inserts
+     * @param transactionTemplate Template wrapping each batch in one transaction
+     * @param salesRollups        Reporting rollups, updated in the transaction of every batch
+     * @param bookingLocks        Cross-node seat locks, taken in the transaction of every batch
+     * @param enabled             Whether bookings should go through the group-commit stage
+     * @param flushInterval       Longest time a booking waits for its batch to be written
+     * @param maxBatchSize        Number of waiting bookings that triggers an immediate flush
+     */
+    @Autowired
+    public BookingBatchWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            SalesRollups salesRollups, BookingLocks bookingLocks,
+            @Value("${popcorn.booking.group-commit.enabled:false}") boolean enabled,
+            @Value("${popcorn.booking.group-commit.flush-interval:5ms}") Duration flushInterval,
+            @Value("${popcorn.booking.group-commit.max-batch-size:256}") int maxBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.salesRollups = salesRollups;
+        this.bookingLocks = bookingLocks;
+        this.enabled = enabled;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.insertSqlByRows = new String[maxBatchSize + 1];
+    }
+
+    /**
+     * Indicates whether bookings should be submitted to this writer.
+     *
+     * @return true if group commit is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = Thread.ofPlatform().name("booking-group-commit").daemon().start(this::runWriter);
+    }
+
+    /**
+     * Stops the writer thread after the bookings already queued have been written.
+     * Bookings still queued if the writer does not finish in time are withdrawn.
+     */
+    @PreDestroy
+    public void stop() {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(Duration.ofSeconds(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PendingBooking pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().cancel(false);
+        }
+    }
+
+    /**
+     * Queues a booking for the next batch.
+     *
+     * @param bookingId   ID of the booking to store
+     * @param showtimeId  ID of the showtime to book
+     * @param seatNumber  Seat number to book
+     * @param userId      ID of the user making the booking
+     * @return Future completed with the outcome once the batch has been committed. Cancelling it withdraws
+     *         the booking, unless it is already being written, in which case {@code cancel} returns false
+     */
+    public CompletableFuture<BookingOutcome> submit(UUID bookingId, Long showtimeId, Integer seatNumber,
+            String userId) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Booking writer is not running"));
+        }
+        PendingBooking pending = new PendingBooking(bookingId, showtimeId, seatNumber, userId,
+                LocalDateTime.now(), new PendingResult());
+        queue.offer(pending);
+        if (queued.incrementAndGet() >= maxBatchSize) {
+            LockSupport.unpark(writerThread);
+        }
+        // If the writer stopped meanwhile, it may have drained the queue for the last time before this offer
+        if (!running && pending.result().cancel(false)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Booking writer is not running"));
+        }
+        return pending.result();
+    }
+
+    /**
+     * Main loop of the writer thread: waits for a full batch or the flush interval, then flushes.
+     */
+    private void runWriter() {
+        List<PendingBooking> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            if (queued.get() < maxBatchSize && running) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            PendingBooking pending;
+            while (batch.size() < maxBatchSize && (pending = queue.poll()) != null) {
+                queued.decrementAndGet();
+                if (pending.result().claim()) {
+                    batch.add(pending);
+                }
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes a batch in one transaction and completes every caller's future.
+     * If the batch fails as a whole (e.g. one booking references a missing showtime),
+     * the bookings are retried one by one so that each caller gets its own outcome.
+     *
+     * @param batch Bookings to write
+     */
+    void flush(List<PendingBooking> batch) {
+        Set<UUID> inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> {
+                bookingLocks.lockBookings(batch);
+                Set<UUID> bookingIds = insertAll(batch);
+                recordSold(batch, bookingIds);
+                return bookingIds;
+            });
+        } catch (DataIntegrityViolationException e) {
+            batch.forEach(this::writeIndividually);
+            return;
+        } catch (RuntimeException e) {
+            log.error("Failed to write a batch of {} bookings", batch.size(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        }
+
+        for (PendingBooking pending : batch) {
+            pending.result().complete(inserted.contains(pending.bookingId())
+                    ? BookingOutcome.BOOKED
+                    : BookingOutcome.SEAT_TAKEN);
+        }
+    }
+
+    /**
+     * Inserts the bookings of a batch with one multi-row statement. Bookings whose seat is taken, by an
+     * earlier booking or by another booking of the same batch, are skipped by the conflict clause.
+     *
+     * @param batch Bookings to insert
+     * @return IDs of the bookings actually inserted, as returned by the statement
+     */
+    private Set<UUID> insertAll(List<PendingBooking> batch) {
+        String sql = insertSql(batch.size());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, new String[] {"booking_id"});
+            int index = 1;
+            for (PendingBooking pending : batch) {
+                index = setInsertParameters(ps, index, pending);
+            }
+            return ps;
+        }, keyHolder);
+
+        Set<UUID> bookingIds = new HashSet<>();
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            bookingIds.add((UUID) keys.values().iterator().next());
+        }
+        return bookingIds;
+    }
+
+    /**
+     * Returns the multi-row insert statement for a number of bookings.
+     *
+     * @param rows Number of bookings
+     * @return The statement, with six parameters per booking
+     */
+    private String insertSql(int rows) {
+        String sql = insertSqlByRows[rows];
+        if (sql == null) {
+            StringBuilder builder = new StringBuilder(INSERT_PREFIX);
+            for (int i = 0; i < rows; i++) {
+                builder.append(i == 0 ? "" : ", ").append(INSERT_ROW);
+            }
+            sql = builder.append(INSERT_SUFFIX).toString();
+            insertSqlByRows[rows] = sql;
+        }
+        return sql;
+    }
+
+    /**
+     * Updates the sales rollups with the bookings of a batch, once per showtime and once per day, movie and
+     * theater, in the stripe of the batch's first inserted booking; {@link SalesRollups#recordSold(Map, int)}
+     * locks the rows in a fixed order.
+     *
+     * @param batch    Bookings of the batch
+     * @param inserted IDs of the bookings inserted
+     */
+    private void recordSold(List<PendingBooking> batch, Set<UUID> inserted) {
+        Map<Long, Integer> ticketsByShowtime = new HashMap<>();
+        int stripe = -1;
+        for (PendingBooking pending : batch) {
+            if (inserted.contains(pending.bookingId())) {
+                if (stripe < 0) {
+                    stripe = SalesRollups.stripeOf(pending.showtimeId(), pending.seatNumber());
+                }
+                ticketsByShowtime.merge(pending.showtimeId(), 1, Integer::sum);
+            }
+        }
+        if (!ticketsByShowtime.isEmpty()) {
+            salesRollups.recordSold(ticketsByShowtime, stripe);
+        }
+    }
+
+    /**
+     * Binds a queued booking to its row of the multi-row insert.
+     *
+     * @param ps      Statement of the multi-row insert
+     * @param index   Index of the first parameter of the booking's row
+     * @param pending Booking to bind
+     * @return Index of the first parameter of the next row
+     * @throws SQLException if a parameter cannot be set
+     */
+    private static int setInsertParameters(PreparedStatement ps, int index, PendingBooking pending)
+            throws SQLException {
+        ps.setObject(index, pending.bookingId());
+        ps.setLong(index + 1, pending.showtimeId());
+        ps.setLong(index + 2, pending.showtimeId());
+        ps.setInt(index + 3, pending.seatNumber());
+        ps.setString(index + 4, pending.userId());
+        ps.setTimestamp(index + 5, Timestamp.valueOf(pending.bookingTime()));
+        return index + 6;
+    }
+
+    /**
+     * Writes a single booking in its own transaction and completes its future.
+     *
+     * @param pending Booking to write
+     */
+    private void writeIndividually(PendingBooking pending) {
+        try {
+            Integer inserted = transactionTemplate.execute(status -> {
+                bookingLocks.lockSeat(pending.showtimeId(), pending.seatNumber());
+                int count = jdbcTemplate.update(INSERT_BOOKING_SQL,
+                        pending.bookingId(), pending.showtimeId(), pending.showtimeId(), pending.seatNumber(),
+                        pending.userId(),
+                        Timestamp.valueOf(pending.bookingTime()));
+                if (count > 0) {
+                    salesRollups.recordSold(pending.showtimeId(), count,
+                            SalesRollups.stripeOf(pending.showtimeId(), pending.seatNumber()));
+                }
+                return count;
+            });
+            pending.result().complete(inserted != null && inserted == 0
+                    ? BookingOutcome.SEAT_TAKEN
+                    : BookingOutcome.BOOKED);
+        } catch (DataIntegrityViolationException e) {
+            if (BookingService.isMissingShowtime(e)) {
+                pending.result().complete(BookingOutcome.SHOWTIME_NOT_FOUND);
+            } else {
+                pending.result().completeExceptionally(e);
+            }
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Booking waiting in the queue together with the future of its caller.
+     */
+    record PendingBooking(UUID bookingId, Long showtimeId, Integer seatNumber, String userId,
+            LocalDateTime bookingTime, PendingResult result) {
+    }
+
+    /**
+     * Future of a queued booking, decided exactly once: either claimed by the writer for a batch, after
+     * which it can no longer be cancelled, or cancelled by its caller, after which the writer skips it.
+     */
+    static final class PendingResult extends CompletableFuture<BookingOutcome> {
+        private final AtomicBoolean decided = new AtomicBoolean();
+
+        /**
+         * Claims the booking for a batch.
+         *
+         * @return true if the booking should be written, false if it was cancelled
+         */
+        boolean claim() {
+            return decided.compareAndSet(false, true);
+        }
+
+        /**
+         * Withdraws the booking if the writer has not claimed it yet.
+         *
+         * @param mayInterruptIfRunning Ignored, as for every CompletableFuture
+         * @return true if the booking was withdrawn and will never be written
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return decided.compareAndSet(false, true) && super.cancel(mayInterruptIfRunning);
+        }
+    }
+}
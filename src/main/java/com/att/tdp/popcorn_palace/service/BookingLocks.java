@@ -0,0 +1,168 @@
+package com.att.tdp.popcorn_palace.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-node coordination of bookings through PostgreSQL transaction-scoped advisory locks.
+ * <p>
+ * In mode {@code advisory-lock}, every transaction that books seats first takes one advisory lock per
+ * (showtime, seat) key, or per block of {@code seats-per-lock} consecutive seats, and holds it until it
+ * commits. The locks live in the database, so they serialize conflicting bookings made on any instance,
+ * while bookings for other seats or showtimes take other keys and proceed in parallel. A transaction
+ * takes all its keys in ascending order, so batches and multi-seat claims cannot deadlock each other.
+ * <p>
+ * The unique seat constraint still decides which booking wins; the locks make the losers wait for the
+ * winner's commit instead of racing it through the index. In mode {@code none}, the default, no locks
+ * are taken. The time spent waiting for locks is published as the {@code booking.lock.wait} timer.
+ */
+@Component
+public class BookingLocks {
+    static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int seatsPerLock;
+    private final Timer waitTimer;
+
+    /**
+     * Constructs BookingLocks with the configured coordination mode.
+     *
+     * @param jdbcTemplate  JDBC access, taking part in the transaction of the booking
+     * @param meterRegistry Registry receiving the lock wait metrics
+     * @param mode          "none" to take no locks, or "advisory-lock" to take advisory locks
+     * @param seatsPerLock  Number of consecutive seats sharing a lock; 1 gives every seat its own lock
+     * @throws IllegalArgumentException if the mode is unknown or seatsPerLock is not positive
+     */
+    @Autowired
+    public BookingLocks(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${popcorn.booking.coordination.mode:none}") String mode,
+            @Value("${popcorn.booking.coordination.seats-per-lock:1}") int seatsPerLock) {
+        this.enabled = switch (mode) {
+            case "none" -> false;
+            case "advisory-lock" -> true;
+            default -> throw new IllegalArgumentException("Unknown booking coordination mode '" + mode + "'");
+        };
+        if (seatsPerLock < 1) {
+            throw new IllegalArgumentException("Seats per lock must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.seatsPerLock = seatsPerLock;
+        this.waitTimer = Timer.builder("booking.lock.wait")
+                .description("Time a booking transaction waited for its seat advisory locks")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks at startup that advisory locks are available, i.e. that the database is PostgreSQL.
+     *
+     * @throws IllegalStateException if locking is enabled on another database
+     */
+    @PostConstruct
+    public void verify() {
+        if (enabled && !Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)))) {
+            throw new IllegalStateException("Booking coordination mode advisory-lock requires PostgreSQL");
+        }
+    }
+
+    /**
+     * Indicates whether bookings take advisory locks.
+     *
+     * @return true in mode advisory-lock
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Locks a seat until the current transaction ends. Does nothing in mode none.
+     *
+     * @param showtimeId ID of the showtime
+     * @param seatNumber Seat to lock
+     */
+    public void lockSeat(Long showtimeId, int seatNumber) {
+        if (enabled) {
+            lock(List.of(keyOf(showtimeId, seatNumber)));
+        }
+    }
+
+    /**
+     * Locks seats of one showtime until the current transaction ends. Does nothing in mode none.
+     *
+     * @param showtimeId  ID of the showtime
+     * @param seatNumbers Seats to lock
+     */
+    public void lockSeats(Long showtimeId, Collection<Integer> seatNumbers) {
+        if (enabled) {
+            lock(seatNumbers.stream().map(seat -> keyOf(showtimeId, seat)).toList());
+        }
+    }
+
+    /**
+     * Locks the seats of a batch of bookings, which may belong to several showtimes, until the current
+     * transaction ends. Does nothing in mode none.
+     *
+     * @param bookings Bookings whose seats to lock
+     */
+    void lockBookings(Collection<BookingBatchWriter.PendingBooking> bookings) {
+        if (enabled) {
+            lock(bookings.stream().map(booking -> keyOf(booking.showtimeId(), booking.seatNumber())).toList());
+        }
+    }
+
+    /**
+     * Takes the locks of some keys, each once and in ascending order, and records the time it took.
+     * Must be called inside a transaction, or every lock is released as soon as it is taken.
+     *
+     * @param keys Keys to lock, possibly repeated
+     */
+    private void lock(Collection<LockKey> keys) {
+        SortedSet<LockKey> ordered = new TreeSet<>(keys);
+        long start = System.nanoTime();
+        for (LockKey key : ordered) {
+            jdbcTemplate.query(LOCK_SQL, (RowCallbackHandler) rs -> { }, key.showtime(), key.block());
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the lock key of a seat. PostgreSQL keys locks by two integers, so the showtime ID is folded
+     * into the first; showtimes whose IDs fold to the same value merely share locks.
+     *
+     * @param showtimeId ID of the showtime
+     * @param seatNumber Seat number, from 1
+     * @return The key of the lock guarding the seat
+     */
+    LockKey keyOf(Long showtimeId, int seatNumber) {
+        return new LockKey(Long.hashCode(showtimeId), (seatNumber - 1) / seatsPerLock);
+    }
+
+    /**
+     * Key of an advisory lock, ordered by showtime then seat block.
+     *
+     * @param showtime Folded showtime ID
+     * @param block    Index of the seat block within the showtime
+     */
+    record LockKey(int showtime, int block) implements Comparable<LockKey> {
+        @Override
+        public int compareTo(LockKey other) {
+            int byShowtime = Integer.compare(showtime, other.showtime);
+            return byShowtime != 0 ? byShowtime : Integer.compare(block, other.block);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.att.tdp.popcorn_palace.service;
+
+/**
+ * Result of an attempt to store a booking.
+ * Used to report per-request results out of a batched write without throwing.
+ */
+public enum BookingOutcome {
+    /**
+     * The booking was stored.
+     */
+    BOOKED,
+
+    /**
+     * The seat was already booked for the showtime.
+     */
+    SEAT_TAKEN,
+
+    /**
+     * The referenced showtime does not exist.
+     */
+    SHOWTIME_NOT_FOUND
+}
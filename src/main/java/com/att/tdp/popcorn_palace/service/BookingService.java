@@ -1,15 +1,31 @@
 package com.att.tdp.popcorn_palace.service;
 
 import com.att.tdp.popcorn_palace.dto.BookingDTO;
+import com.att.tdp.popcorn_palace.exception.BookingTimeoutException;
 import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
-import com.att.tdp.popcorn_palace.model.Showtime;
-import com.att.tdp.popcorn_palace.model.Booking;
-import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.exception.SeatUnavailableException;
+import com.att.tdp.popcorn_palace.exception.ShowtimeNotFoundException;
+import com.att.tdp.popcorn_palace.monitoring.BookingAttemptEvent;
 import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.seating.TheaterLayout;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service class that handles business logic for ticket booking operations.
@@ -17,52 +33,208 @@ import java.util.UUID;
  */
 @Service
 public class BookingService {
+    /**
+     * SQL states reported when a booking refers to a missing showtime: a foreign key violation
+     * (PostgreSQL uses 23503, H2 uses 23506), or a check violation (23514) when the partitioned schema
+     * finds no partition for the booking because its showtime, and so its start time, does not exist.
+     */
+    private static final Set<String> MISSING_SHOWTIME_STATES = Set.of("23503", "23506", "23514");
+
     private final BookingRepository bookingRepository;
-    private final ShowtimeRepository showtimeRepository;
+    private final BookingBatchWriter bookingBatchWriter;
+    private final BookingLocks bookingLocks;
+    private final TheaterService theaterService;
+    private final OccupancyCounters occupancyCounters;
+    private final SalesRollups salesRollups;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration groupCommitTimeout;
 
     /**
      * Constructs a BookingService with the required dependencies.
-     * 
-     * @param bookingRepository  Repository for booking data access
-     * @param showtimeRepository Repository for showtime data access
+     *
+     * @param bookingRepository   Repository for booking data access
+     * @param bookingBatchWriter  Group-commit stage used when enabled
+     * @param bookingLocks        Cross-node seat locks, taken in the transaction of every booking
+     * @param theaterService      Service providing the seat layout of each showtime's theater
+     * @param occupancyCounters   Live booked-seat counts, updated after every booking
+     * @param salesRollups        Reporting rollups, updated in the transaction of every booking
+     * @param transactionTemplate Template wrapping each booking and its rollup update in one transaction
+     * @param groupCommitTimeout  Longest time to wait for a queued booking to be committed
      */
     @Autowired
-    public BookingService(BookingRepository bookingRepository, ShowtimeRepository showtimeRepository) {
+    public BookingService(BookingRepository bookingRepository, BookingBatchWriter bookingBatchWriter,
+            BookingLocks bookingLocks, TheaterService theaterService, OccupancyCounters occupancyCounters,
+            SalesRollups salesRollups, TransactionTemplate transactionTemplate,
+            @Value("${popcorn.booking.group-commit.timeout:2s}") Duration groupCommitTimeout) {
         this.bookingRepository = bookingRepository;
-        this.showtimeRepository = showtimeRepository;
+        this.bookingBatchWriter = bookingBatchWriter;
+        this.bookingLocks = bookingLocks;
+        this.theaterService = theaterService;
+        this.occupancyCounters = occupancyCounters;
+        this.salesRollups = salesRollups;
+        this.transactionTemplate = transactionTemplate;
+        this.groupCommitTimeout = groupCommitTimeout;
     }
 
     /**
      * Books a ticket for a specific showtime and seat.
-     * 
+     *
      * @param bookingDTO DTO containing booking information
      * @return UUID of the created booking
-     * 
-     * @throws EntityNotFoundException if the specified showtime doesn't exist
-     * @throws InvalidRequestException if the requested seat is already taken
+     *
+     * @throws EntityNotFoundException  if the specified showtime doesn't exist
+     * @throws SeatUnavailableException if the requested seat is already taken
+     * @throws InvalidRequestException  if the showtime or seat is missing, or the seat does not exist in the
+     *                                  showtime's theater
+     * @throws BookingTimeoutException  if the booking could not be committed in time and was not stored
      */
     public UUID bookTicket(BookingDTO bookingDTO) {
-        // Retrieve the showtime or throw exception if not found
-        Showtime showtime = showtimeRepository.findById(bookingDTO.getShowtimeId())
-                .orElseThrow(
-                        () -> new EntityNotFoundException("Showtime not found with id: " + bookingDTO.getShowtimeId()));
+        BookingAttemptEvent event = new BookingAttemptEvent();
+        event.begin();
+        event.showtimeId = Objects.requireNonNullElse(bookingDTO.getShowtimeId(), 0L);
+        event.seatNumber = Objects.requireNonNullElse(bookingDTO.getSeatNumber(), 0);
+        event.outcome = "FAILED";
+        try {
+            UUID bookingId = createBooking(bookingDTO);
+            event.outcome = "BOOKED";
+            return bookingId;
+        } catch (EntityNotFoundException e) {
+            event.outcome = "SHOWTIME_NOT_FOUND";
+            throw e;
+        } catch (SeatUnavailableException e) {
+            event.outcome = "SEAT_TAKEN";
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Stores the booking, either through the group-commit stage or with its own conditional insert,
+     * and turns the outcome into the matching rejection.
+     *
+     * @param bookingDTO DTO containing booking information
+     * @return UUID of the created booking
+     *
+     * @throws EntityNotFoundException  if the specified showtime doesn't exist
+     * @throws SeatUnavailableException if the requested seat is already taken
+     * @throws InvalidRequestException  if the showtime or seat is missing, or the seat does not exist in the
+     *                                  showtime's theater
+     * @throws BookingTimeoutException  if the booking could not be committed in time and was not stored
+     */
+    private UUID createBooking(BookingDTO bookingDTO) {
+        if (bookingDTO.getShowtimeId() == null) {
+            throw new InvalidRequestException("Showtime ID is required");
+        }
+        TheaterLayout layout = theaterService.getLayoutOfShowtime(bookingDTO.getShowtimeId())
+                .orElseThrow(() -> new ShowtimeNotFoundException(bookingDTO.getShowtimeId()));
+        if (bookingDTO.getSeatNumber() == null || bookingDTO.getSeatNumber() < 1) {
+            throw new InvalidRequestException("Seat number must be at least 1");
+        }
+        if (bookingDTO.getSeatNumber() > layout.capacity()) {
+            throw new InvalidRequestException("Seat number " + bookingDTO.getSeatNumber()
+                    + " exceeds the capacity of this theater (" + layout.capacity() + " seats)");
+        }
 
-        // Check if the seat is already taken
-        boolean isSeatTaken = showtime.getTickets().stream()
-                .anyMatch(ticket -> ticket.getSeatNumber().equals(bookingDTO.getSeatNumber()));
+        UUID bookingId = UUID.randomUUID();
+        BookingOutcome outcome = bookingBatchWriter.isEnabled()
+                ? insertThroughGroupCommit(bookingId, bookingDTO)
+                : insertDirectly(bookingId, bookingDTO);
 
-        if (isSeatTaken) {
-            throw new InvalidRequestException(
-                    "Seat " + bookingDTO.getSeatNumber() + " is already taken for this showtime");
+        return switch (outcome) {
+            case BOOKED -> {
+                occupancyCounters.recordBooked(bookingDTO.getShowtimeId(), 1);
+                yield bookingId;
+            }
+            case SEAT_TAKEN -> throw new SeatUnavailableException(bookingDTO.getSeatNumber());
+            case SHOWTIME_NOT_FOUND -> throw new ShowtimeNotFoundException(bookingDTO.getShowtimeId());
+        };
+    }
+
+    /**
+     * Stores the booking with a single conditional insert in its own transaction, together with the
+     * update of the sales rollups. The unique seat constraint decides whether the seat is free and the
+     * foreign key decides whether the showtime exists, so no prior reads are needed. When cross-node
+     * coordination is enabled, the seat's advisory lock is taken first.
+     *
+     * @param bookingId  ID of the new booking
+     * @param bookingDTO DTO containing booking information
+     * @return Outcome of the insert
+     */
+    private BookingOutcome insertDirectly(UUID bookingId, BookingDTO bookingDTO) {
+        try {
+            Integer inserted = transactionTemplate.execute(status -> {
+                bookingLocks.lockSeat(bookingDTO.getShowtimeId(), bookingDTO.getSeatNumber());
+                int count = bookingRepository.insertIfSeatAvailable(
+                        bookingId,
+                        bookingDTO.getShowtimeId(),
+                        bookingDTO.getSeatNumber(),
+                        bookingDTO.getUserId(),
+                        LocalDateTime.now());
+                if (count > 0) {
+                    salesRollups.recordSold(bookingDTO.getShowtimeId(), count,
+                            SalesRollups.stripeOf(bookingDTO.getShowtimeId(), bookingDTO.getSeatNumber()));
+                }
+                return count;
+            });
+            return inserted == null || inserted == 0 ? BookingOutcome.SEAT_TAKEN : BookingOutcome.BOOKED;
+        } catch (DataIntegrityViolationException e) {
+            if (isMissingShowtime(e)) {
+                return BookingOutcome.SHOWTIME_NOT_FOUND;
+            }
+            throw e;
         }
+    }
 
-        // Create and save the booking
-        Booking booking = new Booking();
-        booking.setShowtime(showtime);
-        booking.setSeatNumber(bookingDTO.getSeatNumber());
-        booking.setUserId(bookingDTO.getUserId());
+    /**
+     * Queues the booking on the group-commit stage and waits for its batch to be committed.
+     * If the booking is still queued when the timeout expires, it is withdrawn so that it can never be
+     * stored after its caller was told it failed; if its batch is already being written, the outcome of
+     * that batch is awaited instead.
+     *
+     * @param bookingId  ID of the new booking
+     * @param bookingDTO DTO containing booking information
+     * @return Outcome of the insert
+     * @throws BookingTimeoutException if the booking was withdrawn without being stored
+     */
+    private BookingOutcome insertThroughGroupCommit(UUID bookingId, BookingDTO bookingDTO) {
+        CompletableFuture<BookingOutcome> result = bookingBatchWriter.submit(
+                bookingId, bookingDTO.getShowtimeId(), bookingDTO.getSeatNumber(), bookingDTO.getUserId());
+        try {
+            try {
+                return result.get(groupCommitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException | TimeoutException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                if (result.cancel(false)) {
+                    throw new BookingTimeoutException("The booking could not be completed in time and was not made, "
+                            + "please try again later", Math.max(1, groupCommitTimeout.toSeconds()), e);
+                }
+                // Already claimed by a batch, so it may be stored: only that batch can tell
+                return result.join();
+            }
+        } catch (ExecutionException | CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Booking " + bookingId + " failed", e.getCause());
+        }
+    }
 
-        Booking savedTicket = bookingRepository.save(booking);
-        return savedTicket.getBookingId();
+    /**
+     * Determines whether a data integrity violation was caused by a missing showtime.
+     *
+     * @param e The exception raised by the insert
+     * @return true if the violated constraint is the reference to the showtime
+     */
+    static boolean isMissingShowtime(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && MISSING_SHOWTIME_STATES.contains(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.archive.ArchiveColumn;
+import com.att.tdp.popcorn_palace.archive.ColumnType;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Conversions between database columns and the values of archives and snapshots (see {@link ColumnType}).
+ * Timestamps go through {@link Timestamp}, so that columns with and without time zone both keep their
+ * instant in the JVM's time zone.
+ */
+final class ColumnValues {
+    private ColumnValues() {
+    }
+
+    /**
+     * Reads the values of the current row of a result set, whose columns are in the given order.
+     *
+     * @param rs      The result set
+     * @param columns Columns of the result set
+     * @return The values of the row
+     * @throws SQLException if a value cannot be read
+     */
+    static Object[] readRow(ResultSet rs, List<ArchiveColumn> columns) throws SQLException {
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            int index = i + 1;
+            values[i] = switch (columns.get(i).type()) {
+                case INT -> rs.getInt(index);
+                case LONG -> rs.getLong(index);
+                case TIMESTAMP -> rs.getTimestamp(index).toInstant();
+                case DOUBLE -> rs.getDouble(index);
+                case STRING -> rs.getObject(index).toString();
+                case BOOLEAN -> rs.getBoolean(index);
+                case UUID -> rs.getObject(index, UUID.class);
+                case DATE -> rs.getDate(index).toLocalDate();
+            };
+        }
+        return values;
+    }
+
+    /**
+     * Binds the values of a row to the parameters of a statement, in column order.
+     *
+     * @param statement The statement
+     * @param columns   Columns of the row
+     * @param values    Values of the row
+     * @throws SQLException if a value cannot be bound
+     */
+    static void bindRow(PreparedStatement statement, List<ArchiveColumn> columns, Object[] values)
+            throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            int index = i + 1;
+            switch (columns.get(i).type()) {
+                case TIMESTAMP -> statement.setTimestamp(index, Timestamp.from((Instant) values[i]));
+                case DATE -> statement.setDate(index, Date.valueOf((LocalDate) values[i]));
+                default -> statement.setObject(index, values[i]);
+            }
+        }
+    }
+
+    /**
+     * Appends a row in the text format of PostgreSQL's COPY: tab-separated values and a newline.
+     *
+     * @param line    Buffer receiving the row
+     * @param columns Columns of the row
+     * @param values  Values of the row
+     */
+    static void appendCopyRow(StringBuilder line, List<ArchiveColumn> columns, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            switch (columns.get(i).type()) {
+                case TIMESTAMP -> line.append(((Instant) values[i]).atZone(ZoneId.systemDefault())
+                        .toOffsetDateTime());
+                case BOOLEAN -> line.append((Boolean) values[i] ? 't' : 'f');
+                case STRING -> appendEscaped(line, (String) values[i]);
+                default -> line.append(values[i]);
+            }
+        }
+        line.append('\n');
+    }
+
+    /**
+     * Appends text with the characters that COPY treats specially escaped.
+     */
+    private static void appendEscaped(StringBuilder line, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                default -> line.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.archive.SnapshotWriter;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Deterministic generator of a synthetic dataset, written as a snapshot (see {@link SnapshotService}).
+ * <p>
+ * Theaters get varied layouts of 8 to 30 rows split into one to three sections. Movies are drawn by a
+ * Zipf-like popularity, so a few titles fill most screens. Every theater shows movies back to back from
+ * 10:00 to 23:00 UTC each day, with a cleaning gap after each one, so its showtimes never overlap. Each
+ * showtime sells a share of its seats around the requested occupancy, higher in the evening, to users of
+ * a fixed pool; the sales rollups match the bookings.
+ * <p>
+ * Every random choice comes from a generator seeded by the dataset seed and the theater, day or showtime
+ * it is made for, so the same specification always gives the same rows. The schedule is kept in memory;
+ * bookings, which make up almost all of the rows, are generated while they are written.
+ */
+public class DatasetGenerator {
+    private static final String[] ADJECTIVES = {
+            "Silent", "Crimson", "Last", "Hidden", "Broken", "Golden", "Midnight", "Frozen", "Distant", "Electric",
+            "Forgotten", "Burning", "Wild", "Hollow", "Iron", "Secret", "Endless", "Savage", "Lucky", "Paper"};
+    private static final String[] NOUNS = {
+            "Harbor", "Kingdom", "Signal", "Garden", "Frontier", "Empire", "Witness", "Orbit", "Canyon", "Protocol",
+            "Heist", "Summer", "Machine", "River", "Legacy", "Circus", "Voyage", "Storm", "Archive", "Detective"};
+    private static final String[] GENRES = {
+            "Action", "Comedy", "Drama", "Sci-Fi", "Horror", "Thriller", "Animation", "Romance", "Crime",
+            "Documentary"};
+
+    private static final int FIRST_START_MINUTE = 10 * 60;
+    private static final int LAST_START_MINUTE = 23 * 60;
+    private static final int EVENING_MINUTE = 17 * 60;
+    private static final Duration MAX_BOOKING_ADVANCE = Duration.ofDays(14);
+
+    private static final long THEATER_STREAM = 1;
+    private static final long MOVIE_STREAM = 2;
+    private static final long SCHEDULE_STREAM = 3;
+    private static final long BOOKING_STREAM = 4;
+
+    private final DatasetSpec spec;
+    private final int[] seatRows;
+    private final int[] seatsPerRow;
+    private final String[] sectionLayouts;
+    private final int[] durations;
+    private final double[] cumulativePopularity;
+    private final List<GeneratedShowtime> showtimes = new ArrayList<>();
+    private final TreeMap<SalesRollups.SalesKey, long[]> dailySales = new TreeMap<>(SalesRollups.KEY_ORDER);
+
+    /**
+     * A showtime of the schedule with the number of seats it sold.
+     *
+     * @param id        ID of the showtime
+     * @param movieId   ID of the movie
+     * @param theaterId ID of the theater
+     * @param start     Start time
+     * @param end       End time
+     * @param price     Ticket price
+     * @param sold      Number of booked seats
+     */
+    private record GeneratedShowtime(long id, long movieId, int theaterId, Instant start, Instant end, double price,
+            int sold) {
+    }
+
+    /**
+     * Constructs a DatasetGenerator and plans the theaters, movies and schedule of a dataset.
+     *
+     * @param spec Size and shape of the dataset
+     */
+    public DatasetGenerator(DatasetSpec spec) {
+        this.spec = spec;
+        this.seatRows = new int[spec.theaters()];
+        this.seatsPerRow = new int[spec.theaters()];
+        this.sectionLayouts = new String[spec.theaters()];
+        for (int theater = 0; theater < spec.theaters(); theater++) {
+            SplittableRandom random = random(THEATER_STREAM, theater);
+            int[] sections = new int[1 + random.nextInt(3)];
+            for (int i = 0; i < sections.length; i++) {
+                sections[i] = 4 + random.nextInt(11);
+            }
+            seatRows[theater] = 8 + random.nextInt(23);
+            seatsPerRow[theater] = Arrays.stream(sections).sum();
+            sectionLayouts[theater] = String.join(",", Arrays.stream(sections).mapToObj(String::valueOf).toList());
+        }
+
+        this.durations = new int[spec.movies()];
+        this.cumulativePopularity = new double[spec.movies()];
+        double total = 0;
+        for (int movie = 0; movie < spec.movies(); movie++) {
+            SplittableRandom random = random(MOVIE_STREAM, movie);
+            durations[movie] = (int) Math.clamp(Math.round(115 + 20 * random.nextGaussian()), 80, 200);
+            total += 1 / Math.pow(movie + 1, 0.9);
+            cumulativePopularity[movie] = total;
+        }
+
+        planSchedule();
+    }
+
+    /**
+     * Returns the number of bookings the dataset holds.
+     *
+     * @return The number of bookings
+     */
+    public long getBookingCount() {
+        return showtimes.stream().mapToLong(GeneratedShowtime::sold).sum();
+    }
+
+    /**
+     * Writes every table of the dataset, in snapshot order.
+     *
+     * @param writer Snapshot receiving the tables
+     * @return Number of rows written per table
+     * @throws IOException if the snapshot cannot be written
+     */
+    public Map<String, Long> writeTo(SnapshotWriter writer) throws IOException {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        beginTable(writer, "theaters");
+        for (int theater = 0; theater < spec.theaters(); theater++) {
+            writer.addRow(theater + 1, "Theater " + (theater + 1), seatRows[theater], seatsPerRow[theater],
+                    sectionLayouts[theater]);
+        }
+        counts.put("theaters", (long) spec.theaters());
+
+        beginTable(writer, "movies");
+        for (int movie = 0; movie < spec.movies(); movie++) {
+            SplittableRandom random = random(MOVIE_STREAM, movie);
+            random.nextGaussian();
+            writer.addRow((long) movie + 1, title(movie), GENRES[random.nextInt(GENRES.length)], durations[movie],
+                    Math.clamp(Math.round(65 + 12 * random.nextGaussian()), 10, 99) / 10.0,
+                    spec.startDate().getYear() - random.nextInt(40), 0L);
+        }
+        counts.put("movies", (long) spec.movies());
+
+        beginTable(writer, "showtimes");
+        for (GeneratedShowtime showtime : showtimes) {
+            writer.addRow(showtime.id(), showtime.movieId(), showtime.theaterId(), showtime.start(), showtime.end(),
+                    showtime.price(), false, 0L);
+        }
+        counts.put("showtimes", (long) showtimes.size());
+
+        beginTable(writer, "bookings");
+        int[] seats = new int[Arrays.stream(seatRows).max().orElse(0) * Arrays.stream(seatsPerRow).max().orElse(0)];
+        for (GeneratedShowtime showtime : showtimes) {
+            writeBookings(writer, showtime, seats);
+        }
+        counts.put("bookings", getBookingCount());
+
+        beginTable(writer, "showtime_sales");
+        for (GeneratedShowtime showtime : showtimes) {
+            writer.addRow(showtime.id(), capacity(showtime.theaterId() - 1), (long) showtime.sold(),
+                    showtime.sold() * SalesRollups.toCents(showtime.price()), SalesRollups.SCHEDULE_STRIPE);
+        }
+        counts.put("showtime_sales", (long) showtimes.size());
+
+        beginTable(writer, "daily_sales");
+        for (Map.Entry<SalesRollups.SalesKey, long[]> entry : dailySales.entrySet()) {
+            SalesRollups.SalesKey key = entry.getKey();
+            long[] sums = entry.getValue();
+            writer.addRow(key.day(), key.movieId(), key.theaterId(), (int) sums[0], sums[1], sums[2], sums[3],
+                    SalesRollups.SCHEDULE_STRIPE);
+        }
+        counts.put("daily_sales", (long) dailySales.size());
+        return counts;
+    }
+
+    /**
+     * Plans the showtimes of every theater and day, numbered by day and then theater, with their sales.
+     */
+    private void planSchedule() {
+        for (int day = 0; day < spec.days(); day++) {
+            LocalDate date = spec.startDate().plusDays(day);
+            Instant midnight = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+            boolean weekend = date.getDayOfWeek().compareTo(DayOfWeek.FRIDAY) >= 0;
+            for (int theater = 0; theater < spec.theaters(); theater++) {
+                SplittableRandom random = random(SCHEDULE_STREAM, theater, day);
+                int capacity = capacity(theater);
+                int minute = FIRST_START_MINUTE + 15 * random.nextInt(4);
+                while (minute <= LAST_START_MINUTE) {
+                    int movie = pickMovie(random);
+                    boolean evening = minute >= EVENING_MINUTE;
+                    double price = (evening ? 13.99 : 10.99) + (weekend ? 2 : 0);
+                    double share = spec.occupancy() * (evening ? 1.2 : 0.8) + 0.15 * random.nextGaussian();
+                    int sold = (int) Math.round(capacity * Math.clamp(share, 0, 1));
+
+                    Instant start = midnight.plus(minute, ChronoUnit.MINUTES);
+                    GeneratedShowtime showtime = new GeneratedShowtime(showtimes.size() + 1, movie + 1, theater + 1,
+                            start, start.plus(durations[movie], ChronoUnit.MINUTES), price, sold);
+                    showtimes.add(showtime);
+
+                    long[] sums = dailySales.computeIfAbsent(
+                            new SalesRollups.SalesKey(date, showtime.movieId(), showtime.theaterId()),
+                            key -> new long[4]);
+                    sums[0]++;
+                    sums[1] += capacity;
+                    sums[2] += sold;
+                    sums[3] += sold * SalesRollups.toCents(price);
+
+                    int next = minute + durations[movie] + 15 + 5 * random.nextInt(4);
+                    minute = (next + 4) / 5 * 5;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the bookings of a showtime: distinct random seats, booked by random users up to two weeks
+     * before the show.
+     *
+     * @param writer   Snapshot receiving the rows
+     * @param showtime The showtime
+     * @param seats    Scratch array at least as long as the largest theater
+     */
+    private void writeBookings(SnapshotWriter writer, GeneratedShowtime showtime, int[] seats) throws IOException {
+        SplittableRandom random = random(BOOKING_STREAM, showtime.id());
+        int capacity = capacity(showtime.theaterId() - 1);
+        for (int i = 0; i < capacity; i++) {
+            seats[i] = i + 1;
+        }
+        for (int i = 0; i < showtime.sold(); i++) {
+            int j = i + random.nextInt(capacity - i);
+            int seat = seats[j];
+            seats[j] = seats[i];
+            seats[i] = seat;
+        }
+        Arrays.sort(seats, 0, showtime.sold());
+
+        for (int i = 0; i < showtime.sold(); i++) {
+            UUID bookingId = new UUID((random.nextLong() & ~0xF000L) | 0x4000L,
+                    (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L);
+            Instant bookingTime = showtime.start()
+                    .minusSeconds(600 + random.nextLong(MAX_BOOKING_ADVANCE.toSeconds()));
+            writer.addRow(bookingId, showtime.id(), showtime.start(), seats[i],
+                    "user-" + (1 + random.nextInt(spec.users())), bookingTime);
+        }
+    }
+
+    /**
+     * Picks a movie according to its popularity.
+     */
+    private int pickMovie(SplittableRandom random) {
+        double target = random.nextDouble() * cumulativePopularity[cumulativePopularity.length - 1];
+        int index = Arrays.binarySearch(cumulativePopularity, target);
+        return Math.min(index >= 0 ? index : -index - 1, cumulativePopularity.length - 1);
+    }
+
+    /**
+     * Returns the number of seats of a theater, by index.
+     */
+    private int capacity(int theater) {
+        return seatRows[theater] * seatsPerRow[theater];
+    }
+
+    /**
+     * Returns a unique title for a movie, by index.
+     */
+    private static String title(int movie) {
+        String title = "The " + ADJECTIVES[movie % ADJECTIVES.length] + " "
+                + NOUNS[movie / ADJECTIVES.length % NOUNS.length];
+        int sequel = movie / (ADJECTIVES.length * NOUNS.length);
+        return sequel == 0 ? title : title + " " + (sequel + 1);
+    }
+
+    /**
+     * Starts a table with the columns snapshots use for it.
+     */
+    private static void beginTable(SnapshotWriter writer, String name) throws IOException {
+        writer.beginTable(name, SnapshotService.findTable(name).orElseThrow().columns());
+    }
+
+    /**
+     * Returns a random generator determined by the dataset seed and the keys of what it generates.
+     */
+    private SplittableRandom random(long... keys) {
+        long seed = spec.seed();
+        for (long key : keys) {
+            seed = new SplittableRandom(seed ^ key * 0x9E3779B97F4A7C15L).nextLong();
+        }
+        return new SplittableRandom(seed);
+    }
+}
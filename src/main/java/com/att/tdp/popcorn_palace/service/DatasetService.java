@@ -0,0 +1,136 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.archive.SnapshotWriter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Service loading a synthetic dataset (see {@link DatasetGenerator}) into the database, for performance
+ * testing at production scale.
+ * <p>
+ * The generated rows are streamed as a snapshot straight into {@link SnapshotService#importSnapshot}, so
+ * they are loaded with COPY without being staged in memory or on disk, and replace the existing data.
+ * When {@code popcorn.dataset.generate} is set, the configured dataset is loaded at startup, after any
+ * snapshot import and before the occupancy counters and waiting rooms read the bookings and showtimes.
+ */
+@Service
+public class DatasetService {
+    private static final Logger log = LoggerFactory.getLogger(DatasetService.class);
+
+    private static final int PIPE_SIZE = 1 << 20;
+
+    private final SnapshotService snapshotService;
+    private final boolean generate;
+    private final DatasetSpec spec;
+
+    /**
+     * Constructs a DatasetService with the configured dataset.
+     *
+     * @param snapshotService Service importing the generated snapshot
+     * @param generate        Whether the dataset is loaded at startup
+     * @param seed            Seed of the dataset
+     * @param theaters        Number of theaters
+     * @param movies          Number of movies
+     * @param startDate       First screening day (yyyy-MM-dd), or empty for the current day (UTC)
+     * @param days            Number of screening days
+     * @param occupancy       Average share of booked seats, between 0 and 1
+     * @param users           Number of distinct users
+     */
+    @Autowired
+    public DatasetService(SnapshotService snapshotService,
+            @Value("${popcorn.dataset.generate:false}") boolean generate,
+            @Value("${popcorn.dataset.seed:42}") long seed,
+            @Value("${popcorn.dataset.theaters:20}") int theaters,
+            @Value("${popcorn.dataset.movies:500}") int movies,
+            @Value("${popcorn.dataset.start-date:}") String startDate,
+            @Value("${popcorn.dataset.days:30}") int days,
+            @Value("${popcorn.dataset.occupancy:0.6}") double occupancy,
+            @Value("${popcorn.dataset.users:100000}") int users) {
+        this.snapshotService = snapshotService;
+        this.generate = generate;
+        this.spec = new DatasetSpec(seed, theaters, movies,
+                startDate.isBlank() ? LocalDate.now(ZoneOffset.UTC) : LocalDate.parse(startDate),
+                days, occupancy, users);
+    }
+
+    /**
+     * Loads the configured dataset before the application serves requests, if enabled.
+     *
+     * @throws IOException if the dataset cannot be loaded
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!generate) {
+            return;
+        }
+        long started = System.nanoTime();
+        Map<String, Long> counts = load(spec);
+        log.info("Loaded synthetic dataset {} in {} ms: {}", spec, (System.nanoTime() - started) / 1_000_000, counts);
+    }
+
+    /**
+     * Replaces the data with a generated dataset, in one transaction.
+     *
+     * @param spec Size and shape of the dataset
+     * @return Number of rows loaded per table
+     * @throws IOException if the dataset cannot be loaded
+     */
+    public Map<String, Long> load(DatasetSpec spec) throws IOException {
+        DatasetGenerator generator = new DatasetGenerator(spec);
+        PipedInputStream input = new PipedInputStream(PIPE_SIZE);
+        PipedOutputStream output = new PipedOutputStream(input);
+        CompletableFuture<Void> writing = CompletableFuture.runAsync(() -> {
+            try {
+                SnapshotWriter writer = new SnapshotWriter(output);
+                generator.writeTo(writer);
+                writer.close();
+            } catch (IOException | RuntimeException e) {
+                // Closing the pipe without the end marker makes the import fail and roll back
+                closeQuietly(output);
+                throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+            }
+        }, runnable -> Thread.ofPlatform().name("dataset-generator").daemon().start(runnable));
+
+        Map<String, Long> counts;
+        try {
+            counts = snapshotService.importSnapshot(input);
+        } finally {
+            input.close();
+        }
+        try {
+            writing.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while generating the dataset");
+        } catch (ExecutionException e) {
+            throw new IOException("Dataset generation failed", e.getCause());
+        }
+        return counts;
+    }
+
+    /**
+     * Closes the write end of the pipe, ignoring a reader that is already gone.
+     */
+    private static void closeQuietly(PipedOutputStream output) {
+        try {
+            output.close();
+        } catch (IOException e) {
+            log.debug("Could not close dataset pipe", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.att.tdp.popcorn_palace.service;
+
+import java.time.LocalDate;
+
+/**
+ * Size and shape of a synthetic dataset. The same specification always produces the same rows.
+ *
+ * @param seed      Seed of every random choice
+ * @param theaters  Number of theaters
+ * @param movies    Number of movies in the catalog
+ * @param startDate First screening day (UTC)
+ * @param days      Number of screening days
+ * @param occupancy Average share of the seats of a showtime that are booked, between 0 and 1
+ * @param users     Number of distinct users making the bookings
+ */
+public record DatasetSpec(long seed, int theaters, int movies, LocalDate startDate, int days, double occupancy,
+        int users) {
+
+    /**
+     * Validates the specification.
+     *
+     * @throws IllegalArgumentException if a count is not positive or the occupancy is out of range
+     */
+    public DatasetSpec {
+        if (theaters < 1 || movies < 1 || days < 1 || users < 1) {
+            throw new IllegalArgumentException("Theaters, movies, days and users must be positive");
+        }
+        if (!(occupancy >= 0 && occupancy <= 1)) {
+            throw new IllegalArgumentException("Occupancy must be between 0 and 1");
+        }
+        if (startDate == null) {
+            throw new IllegalArgumentException("Start date is required");
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.att.tdp.popcorn_palace.service;
 
 import com.att.tdp.popcorn_palace.dto.MovieDTO;
+import com.att.tdp.popcorn_palace.dto.VersionedDTO;
+import com.att.tdp.popcorn_palace.exception.ConcurrentUpdateException;
 import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
+import com.att.tdp.popcorn_palace.exception.PreconditionFailedException;
 import com.att.tdp.popcorn_palace.exception.ResourceNotFoundException;
 import com.att.tdp.popcorn_palace.model.Movie;
+import com.att.tdp.popcorn_palace.monitoring.DtoConversionEvent;
 import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -18,15 +24,25 @@ import java.util.stream.Collectors;
 @Service
 public class MovieService {
     private final MovieRepository movieRepository;
+    private final ShowtimeRepository showtimeRepository;
+    private final ShowtimeService showtimeService;
+    private final OptimisticRetry optimisticRetry;
 
     /**
      * Constructs a MovieService with the required dependencies.
      * 
-     * @param movieRepository Repository for movie data access
+     * @param movieRepository    Repository for movie data access
+     * @param showtimeRepository Repository used to find the showtimes of a movie
+     * @param showtimeService    Service deleting the showtimes of a deleted movie
+     * @param optimisticRetry    Runner of versioned updates, retrying those that lose to concurrent updates
      */
     @Autowired
-    public MovieService(MovieRepository movieRepository) {
+    public MovieService(MovieRepository movieRepository, ShowtimeRepository showtimeRepository,
+            ShowtimeService showtimeService, OptimisticRetry optimisticRetry) {
         this.movieRepository = movieRepository;
+        this.showtimeRepository = showtimeRepository;
+        this.showtimeService = showtimeService;
+        this.optimisticRetry = optimisticRetry;
     }
 
     /**
@@ -69,15 +85,50 @@ public class MovieService {
      * 
      * @throws InvalidRequestException   if the title is empty or if the new title already exists for another movie
      * @throws ResourceNotFoundException if no movie exists with the specified title
+     * @throws ConcurrentUpdateException if the movie kept being updated concurrently
      */
-    @Transactional
     public MovieDTO updateMovie(String title, MovieDTO movieDTO) {
+        return updateMovie(title, movieDTO, null).getBody();
+    }
+
+    /**
+     * Updates an existing movie identified by its title, if it still has the expected version.
+     * Without an expected version, an update that loses to a concurrent one is retried on the fresh movie.
+     * 
+     * @param title            Title of the movie to update
+     * @param movieDTO         DTO containing the updated movie information
+     * @param expectedVersions Versions of which the movie must have one, or null to update whatever its
+     *                         version
+     * @return DTO representing the updated movie, with its new version
+     * 
+     * @throws InvalidRequestException     if the title is empty or if the new title already exists for another
+     *                                     movie
+     * @throws ResourceNotFoundException   if no movie exists with the specified title
+     * @throws PreconditionFailedException if the movie does not have the expected version
+     * @throws ConcurrentUpdateException   if the movie kept being updated concurrently
+     */
+    public VersionedDTO<MovieDTO> updateMovie(String title, MovieDTO movieDTO, Set<Long> expectedVersions) {
         if (title == null || title.trim().isEmpty()) {
             throw new InvalidRequestException("Movie title cannot be empty");
         }
 
+        return optimisticRetry.update("Movie '" + title + "'", expectedVersions,
+                status -> applyUpdate(title, movieDTO, expectedVersions));
+    }
+
+    /**
+     * Reads a movie, checks its version and writes the update, within the transaction of one attempt.
+     * 
+     * @param title            Title of the movie to update
+     * @param movieDTO         DTO containing the updated movie information
+     * @param expectedVersions Versions of which the movie must have one, or null to update whatever its
+     *                         version
+     * @return DTO representing the updated movie, with its new version
+     */
+    private VersionedDTO<MovieDTO> applyUpdate(String title, MovieDTO movieDTO, Set<Long> expectedVersions) {
         Movie movie = movieRepository.findByTitle(title)
                 .orElseThrow(() -> new ResourceNotFoundException("Movie", "title", title));
+        OptimisticRetry.checkVersion("Movie '" + title + "'", expectedVersions, movie.getVersion());
 
         // If title is being changed, check if new title already exists (but not for the current movie)
         if (!title.equals(movieDTO.getTitle()) &&
@@ -91,12 +142,14 @@ public class MovieService {
         movie.setRating(movieDTO.getRating());
         movie.setReleaseYear(movieDTO.getReleaseYear());
 
+        // Flush now so that a concurrent update fails this attempt rather than the commit
         Movie updatedMovie = movieRepository.save(movie);
-        return convertToDTO(updatedMovie);
+        movieRepository.flush();
+        return new VersionedDTO<>(convertToDTO(updatedMovie), updatedMovie.getVersion());
     }
 
     /**
-     * Deletes a movie identified by its title.
+     * Deletes a movie identified by its title, together with its showtimes and their bookings.
      * 
      * @param title Title of the movie to delete
      * 
@@ -112,6 +165,10 @@ public class MovieService {
         Movie movie = movieRepository.findByTitle(title)
                 .orElseThrow(() -> new ResourceNotFoundException("Movie", "title", title));
 
+        // Each showtime goes through deleteShowtime, which also clears its rollups, counters and waiting room
+        for (Long showtimeId : showtimeRepository.findIdsByMovieId(movie.getId())) {
+            showtimeService.deleteShowtime(showtimeId);
+        }
         movieRepository.delete(movie);
     }
 
@@ -121,14 +178,19 @@ public class MovieService {
      * @param movie The Movie entity to convert
      * @return The equivalent MovieDTO
      */
-    private MovieDTO convertToDTO(Movie movie) {
-        return new MovieDTO(
+    MovieDTO convertToDTO(Movie movie) {
+        DtoConversionEvent event = new DtoConversionEvent();
+        event.begin();
+        MovieDTO movieDTO = new MovieDTO(
                 movie.getId(),
                 movie.getTitle(),
                 movie.getGenre(),
                 movie.getDuration(),
                 movie.getRating(),
                 movie.getReleaseYear());
+        event.conversion = "Movie->MovieDTO";
+        event.commit();
+        return movieDTO;
     }
 
     /**
@@ -137,13 +199,17 @@ public class MovieService {
      * @param movieDTO The MovieDTO to convert
      * @return The equivalent Movie entity
      */
-    private Movie convertToEntity(MovieDTO movieDTO) {
+    Movie convertToEntity(MovieDTO movieDTO) {
+        DtoConversionEvent event = new DtoConversionEvent();
+        event.begin();
         Movie movie = new Movie();
         movie.setTitle(movieDTO.getTitle());
         movie.setGenre(movieDTO.getGenre());
         movie.setDuration(movieDTO.getDuration());
         movie.setRating(movieDTO.getRating());
         movie.setReleaseYear(movieDTO.getReleaseYear());
+        event.conversion = "MovieDTO->Movie";
+        event.commit();
         return movie;
     }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live count of the booked seats of every showtime.
+ * Seeded from one grouped count at startup and then updated after every committed booking, so that
+ * availability can be shown for many showtimes without reading their bookings.
+ * <p>
+ * The counters only see the bookings made through this instance after startup; with several instances
+ * they may lag behind the database, never ahead of it, until the next restart.
+ */
+@Component
+@DependsOn({"snapshotService", "datasetService"})
+public class OccupancyCounters {
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, AtomicInteger> bookedSeats = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs OccupancyCounters.
+     *
+     * @param bookingRepository Repository used to count the existing bookings
+     */
+    @Autowired
+    public OccupancyCounters(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Seeds the counters from the bookings already stored.
+     */
+    @PostConstruct
+    public void load() {
+        for (Object[] row : bookingRepository.countSeatsByShowtime()) {
+            Long showtimeId = ((Number) row[0]).longValue();
+            int seats = ((Number) row[1]).intValue();
+            bookedSeats.computeIfAbsent(showtimeId, id -> new AtomicInteger()).addAndGet(seats);
+        }
+    }
+
+    /**
+     * Records seats booked for a showtime. Must only be called once the bookings are committed.
+     *
+     * @param showtimeId ID of the showtime
+     * @param seats      Number of seats booked
+     */
+    public void recordBooked(Long showtimeId, int seats) {
+        bookedSeats.computeIfAbsent(showtimeId, id -> new AtomicInteger()).addAndGet(seats);
+    }
+
+    /**
+     * Forgets a showtime, after it was deleted together with its bookings.
+     *
+     * @param showtimeId ID of the showtime
+     */
+    public void remove(Long showtimeId) {
+        bookedSeats.remove(showtimeId);
+    }
+
+    /**
+     * Returns the number of seats booked for a showtime.
+     *
+     * @param showtimeId ID of the showtime
+     * @return The number of booked seats, 0 if none
+     */
+    public int getBookedSeats(Long showtimeId) {
+        AtomicInteger seats = bookedSeats.get(showtimeId);
+        return seats == null ? 0 : seats.get();
+    }
+}
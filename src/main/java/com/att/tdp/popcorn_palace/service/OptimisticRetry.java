@@ -0,0 +1,120 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.exception.ConcurrentUpdateException;
+import com.att.tdp.popcorn_palace.exception.PreconditionFailedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs read-modify-write updates of versioned entities, each attempt in a transaction of its own.
+ * <p>
+ * An update whose entity was changed by another transaction between its read and its write fails its
+ * version check when flushed. An unconditional update only replaces the fields it is given, so running
+ * it again on the fresh row is safe: it is retried after a random pause of up to {@code retry-backoff},
+ * doubling with each attempt, at most {@code max-attempts} times in all. A conditional update was made
+ * against a version the client has seen, so it is never retried: it fails as soon as the version it
+ * expects is not the current one.
+ */
+@Component
+public class OptimisticRetry {
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffNanos;
+
+    /**
+     * Constructs an OptimisticRetry with the configured bounds.
+     *
+     * @param transactionTemplate Template wrapping each attempt in one transaction
+     * @param maxAttempts         Number of attempts of an unconditional update before giving up
+     * @param backoff             Longest pause before the first retry, doubled for each further retry
+     * @throws IllegalArgumentException if maxAttempts is not positive or the backoff is negative
+     */
+    @Autowired
+    public OptimisticRetry(TransactionTemplate transactionTemplate,
+            @Value("${popcorn.updates.max-attempts:3}") int maxAttempts,
+            @Value("${popcorn.updates.retry-backoff:10ms}") Duration backoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Update attempts must be at least 1");
+        }
+        if (backoff.isNegative()) {
+            throw new IllegalArgumentException("Update retry backoff cannot be negative");
+        }
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+        this.backoffNanos = backoff.toNanos();
+    }
+
+    /**
+     * Runs an update, retrying it on version conflicts unless it is conditional.
+     * The update must check the version it read with {@link #checkVersion} and flush its changes,
+     * so that conflicts surface inside the attempt.
+     *
+     * @param resource         Name of the updated resource, for error messages
+     * @param expectedVersions Versions of which the client expects the resource to have one, or null for an
+     *                         unconditional update
+     * @param update           The update, run in a new transaction by every attempt
+     * @param <T>              Type of the result of the update
+     * @return The result of the successful attempt
+     * @throws PreconditionFailedException if a conditional update found or met another version
+     * @throws ConcurrentUpdateException   if every attempt of an unconditional update met a concurrent update
+     */
+    public <T> T update(String resource, Set<Long> expectedVersions, TransactionCallback<T> update) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(update);
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersions != null) {
+                    throw new PreconditionFailedException(resource + " has changed, please reload it and retry");
+                }
+                if (attempt >= maxAttempts) {
+                    throw new ConcurrentUpdateException(resource, attempt);
+                }
+                pause(resource, attempt);
+            }
+        }
+    }
+
+    /**
+     * Checks that a resource still has one of the versions a conditional update expects.
+     *
+     * @param resource         Name of the resource, for error messages
+     * @param expectedVersions Versions the client expects, or null for an unconditional update
+     * @param currentVersion   Version the update read
+     * @throws PreconditionFailedException if the current version is not one of the expected ones
+     */
+    public static void checkVersion(String resource, Set<Long> expectedVersions, Long currentVersion) {
+        if (expectedVersions != null && !expectedVersions.contains(currentVersion)) {
+            throw new PreconditionFailedException(resource, expectedVersions, currentVersion);
+        }
+    }
+
+    /**
+     * Sleeps for a random time up to the backoff of the attempt, so that competing updates spread out
+     * instead of colliding again.
+     *
+     * @param resource Name of the updated resource, for error messages
+     * @param attempt  Number of the failed attempt, from 1
+     * @throws ConcurrentUpdateException if interrupted while sleeping
+     */
+    private void pause(String resource, int attempt) {
+        long bound = backoffNanos << Math.min(attempt - 1, 20);
+        if (bound <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException(resource, attempt);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.att.tdp.popcorn_palace.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of the partitioned schema (see schema-partitioned.sql).
+ * <p>
+ * Partitions of showtimes and bookings are created for the current month and a configurable number of
+ * months ahead, so that showtimes can be scheduled that far in advance. Partitions older than the retention
+ * period are detached rather than dropped: they remain as standalone tables named after their month
+ * (e.g. {@code bookings_2024_01}) until they are archived or dropped. The sales figures of their showtimes
+ * are deleted with them, but the daily sales rollups are kept so that reports still cover those months, as
+ * for archived months (see {@link ArchiveService}). Once the run has committed, the occupancy counters,
+ * waiting rooms and cached theaters of those showtimes are dropped on the node that ran it. A run happens at startup and then at a
+ * fixed interval; when several nodes run it, an advisory lock lets only one of them work at a time.
+ */
+@Component
+public class PartitionMaintenanceJob {
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceJob.class);
+
+    static final String SHOWTIMES = "showtimes";
+    static final String BOOKINGS = "bookings";
+
+    /**
+     * Key of the advisory lock serializing maintenance runs across nodes.
+     */
+    private static final long MAINTENANCE_LOCK_KEY = 0x706f70636f726eL;
+
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ssxxx");
+    private static final Pattern SUFFIX_PATTERN = Pattern.compile("_(\\d{4})_(\\d{2})$");
+
+    static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(?)";
+    static final String SELECT_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                    + "WHERE i.inhparent = to_regclass(?)";
+    static final String SELECT_FOREIGN_KEYS_SQL =
+            "SELECT conname FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OccupancyCounters occupancyCounters;
+    private final WaitingRoomService waitingRoomService;
+    private final TheaterService theaterService;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Duration checkInterval;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a PartitionMaintenanceJob with the configured partition window.
+     *
+     * @param jdbcTemplate       JDBC access used to inspect and change the partitions
+     * @param transactionManager Transaction manager wrapping each run in one transaction
+     * @param occupancyCounters  Live booked-seat counts, cleared for detached showtimes
+     * @param waitingRoomService Waiting rooms, closed for detached showtimes
+     * @param theaterService     Theater lookups, whose cached showtimes are evicted when detached
+     * @param enabled            Whether the schema is partitioned and should be maintained
+     * @param monthsAhead        Number of months after the current one that must have partitions
+     * @param retentionMonths    Number of past months kept attached before the current one
+     * @param checkInterval      How often the partitions are checked
+     */
+    @Autowired
+    public PartitionMaintenanceJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            OccupancyCounters occupancyCounters, WaitingRoomService waitingRoomService, TheaterService theaterService,
+            @Value("${popcorn.partitioning.enabled:false}") boolean enabled,
+            @Value("${popcorn.partitioning.months-ahead:3}") int monthsAhead,
+            @Value("${popcorn.partitioning.retention-months:12}") int retentionMonths,
+            @Value("${popcorn.partitioning.check-interval:1h}") Duration checkInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.occupancyCounters = occupancyCounters;
+        this.waitingRoomService = waitingRoomService;
+        this.theaterService = theaterService;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * Brings the partitions up to date before the application serves requests, then keeps them up to date.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        maintain(YearMonth.now(ZoneOffset.UTC));
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("partition-maintenance").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::runScheduled,
+                checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic checks.
+     */
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates the missing partitions of the window around a month and detaches the expired ones,
+     * in one transaction, then forgets the detached showtimes. Does nothing if another node is already
+     * running the maintenance.
+     *
+     * @param currentMonth The month considered current (UTC)
+     * @return true if the maintenance ran, false if another node held the lock
+     */
+    public boolean maintain(YearMonth currentMonth) {
+        List<Long> detachedIds = transactionTemplate.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK_SQL, Boolean.class, MAINTENANCE_LOCK_KEY))) {
+                return null;
+            }
+            for (int offset = 0; offset <= monthsAhead; offset++) {
+                YearMonth month = currentMonth.plusMonths(offset);
+                createPartition(SHOWTIMES, month);
+                createPartition(BOOKINGS, month);
+            }
+            return detachPartitionsBefore(currentMonth.minusMonths(retentionMonths));
+        });
+        if (detachedIds == null) {
+            return false;
+        }
+        for (Long showtimeId : detachedIds) {
+            occupancyCounters.remove(showtimeId);
+            waitingRoomService.setHighDemand(showtimeId, false);
+            theaterService.evictShowtime(showtimeId);
+        }
+        return true;
+    }
+
+    /**
+     * Runs the maintenance from the scheduler, which would stop on an uncaught exception.
+     */
+    private void runScheduled() {
+        try {
+            maintain(YearMonth.now(ZoneOffset.UTC));
+        } catch (RuntimeException e) {
+            log.error("Partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Creates the partition of a table for a month unless it already exists.
+     *
+     * @param table Partitioned table, showtimes or bookings
+     * @param month Month covered by the partition
+     */
+    private void createPartition(String table, YearMonth month) {
+        String partition = partitionName(table, month);
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition)) {
+            return;
+        }
+        jdbcTemplate.execute("CREATE TABLE " + partition + " PARTITION OF " + table
+                + " FOR VALUES FROM ('" + lowerBound(month) + "') TO ('" + lowerBound(month.plusMonths(1)) + "')");
+        log.info("Created partition {}", partition);
+    }
+
+    /**
+     * Detaches the partitions of every month before a cutoff month.
+     * The bookings partition of a month is detached first and loses its foreign key, so that the showtimes
+     * partition it refers to can be detached next; the sales figures of those showtimes are deleted, their
+     * daily sales are kept.
+     *
+     * @param cutoff First month whose partitions are kept
+     * @return IDs of the showtimes detached
+     */
+    private List<Long> detachPartitionsBefore(YearMonth cutoff) {
+        List<String> bookingPartitions = listPartitions(BOOKINGS);
+        List<String> showtimePartitions = listPartitions(SHOWTIMES);
+
+        TreeSet<YearMonth> expired = new TreeSet<>();
+        bookingPartitions.forEach(name -> monthOf(BOOKINGS, name).filter(cutoff::isAfter).ifPresent(expired::add));
+        showtimePartitions.forEach(name -> monthOf(SHOWTIMES, name).filter(cutoff::isAfter).ifPresent(expired::add));
+
+        List<Long> detachedIds = new ArrayList<>();
+        for (YearMonth month : expired) {
+            String bookingPartition = partitionName(BOOKINGS, month);
+            String showtimePartition = partitionName(SHOWTIMES, month);
+            if (bookingPartitions.contains(bookingPartition)) {
+                jdbcTemplate.execute("ALTER TABLE " + BOOKINGS + " DETACH PARTITION " + bookingPartition);
+                for (String foreignKey : jdbcTemplate.queryForList(
+                        SELECT_FOREIGN_KEYS_SQL, String.class, bookingPartition)) {
+                    jdbcTemplate.execute("ALTER TABLE " + bookingPartition + " DROP CONSTRAINT \""
+                            + foreignKey.replace("\"", "\"\"") + "\"");
+                }
+                log.info("Detached partition {}", bookingPartition);
+            }
+            if (showtimePartitions.contains(showtimePartition)) {
+                detachedIds.addAll(jdbcTemplate.queryForList("SELECT id FROM " + showtimePartition, Long.class));
+                jdbcTemplate.update("DELETE FROM showtime_sales WHERE showtime_id IN (SELECT id FROM "
+                        + showtimePartition + ")");
+                jdbcTemplate.execute("ALTER TABLE " + SHOWTIMES + " DETACH PARTITION " + showtimePartition);
+                log.info("Detached partition {}", showtimePartition);
+            }
+        }
+        return detachedIds;
+    }
+
+    /**
+     * Lists the partitions currently attached to a table.
+     *
+     * @param table Partitioned table
+     * @return Names of its partitions
+     */
+    private List<String> listPartitions(String table) {
+        return jdbcTemplate.queryForList(SELECT_PARTITIONS_SQL, String.class, table);
+    }
+
+    /**
+     * Returns the name of the partition of a table for a month, e.g. showtimes_2025_04.
+     *
+     * @param table Partitioned table
+     * @param month Month covered by the partition
+     * @return The partition name
+     */
+    static String partitionName(String table, YearMonth month) {
+        return table + "_" + month.format(SUFFIX_FORMAT);
+    }
+
+    /**
+     * Returns the month covered by a partition, based on its name.
+     *
+     * @param table     Partitioned table
+     * @param partition Name of the partition
+     * @return The month, or empty if the partition was not created by this job
+     */
+    static Optional<YearMonth> monthOf(String table, String partition) {
+        if (!partition.startsWith(table + "_")) {
+            return Optional.empty();
+        }
+        Matcher matcher = SUFFIX_PATTERN.matcher(partition);
+        if (!matcher.find() || matcher.start() != table.length()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+    }
+
+    /**
+     * Returns the first instant of a month in UTC, formatted as a partition bound.
+     *
+     * @param month The month
+     * @return The bound literal, e.g. 2025-04-01 00:00:00+00:00
+     */
+    private static String lowerBound(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).format(BOUND_FORMAT);
+    }
+}
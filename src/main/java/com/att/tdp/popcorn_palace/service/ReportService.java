@@ -0,0 +1,112 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.MovieRevenueDTO;
+import com.att.tdp.popcorn_palace.dto.TheaterOccupancyDTO;
+import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Service class producing the management reports.
+ * Reports read only the daily sales rollups, never bookings or showtimes, so they cost a range scan over
+ * one row per day, movie and theater and do not contend with live bookings.
+ */
+@Service
+public class ReportService {
+    /**
+     * Longest period a report may cover, in days.
+     */
+    static final int MAX_REPORT_DAYS = 366;
+
+    static final String REVENUE_SQL =
+            "SELECT sales_day, movie_id, SUM(tickets_sold) AS tickets_sold, SUM(revenue_cents) AS revenue_cents "
+                    + "FROM daily_sales WHERE sales_day BETWEEN ? AND ? "
+                    + "GROUP BY sales_day, movie_id HAVING SUM(showtime_count) > 0 "
+                    + "ORDER BY sales_day, movie_id";
+    static final String OCCUPANCY_SQL =
+            "SELECT sales_day, theater_id, SUM(showtime_count) AS showtime_count, "
+                    + "SUM(seats_offered) AS seats_offered, SUM(tickets_sold) AS tickets_sold "
+                    + "FROM daily_sales WHERE sales_day BETWEEN ? AND ? "
+                    + "GROUP BY sales_day, theater_id HAVING SUM(showtime_count) > 0 "
+                    + "ORDER BY sales_day, theater_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TheaterRegistry theaterRegistry;
+
+    /**
+     * Constructs a ReportService with the required dependencies.
+     * 
+     * @param jdbcTemplate    JDBC access used to read the rollups
+     * @param theaterRegistry Registry resolving theater IDs to names
+     */
+    @Autowired
+    public ReportService(JdbcTemplate jdbcTemplate, TheaterRegistry theaterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.theaterRegistry = theaterRegistry;
+    }
+
+    /**
+     * Reports the tickets sold and revenue per screening day and movie.
+     * 
+     * @param from First screening day of the report
+     * @param to   Last screening day of the report
+     * @return One entry per day and movie with showtimes, ordered by day and movie
+     * 
+     * @throws InvalidRequestException if the period is invalid or too long
+     */
+    public List<MovieRevenueDTO> getRevenueByMovie(LocalDate from, LocalDate to) {
+        validatePeriod(from, to);
+        return jdbcTemplate.query(REVENUE_SQL, (rs, rowNum) -> new MovieRevenueDTO(
+                rs.getObject("sales_day", LocalDate.class),
+                rs.getLong("movie_id"),
+                rs.getLong("tickets_sold"),
+                rs.getLong("revenue_cents")), from, to);
+    }
+
+    /**
+     * Reports the seats offered and sold per screening day and theater.
+     * 
+     * @param from First screening day of the report
+     * @param to   Last screening day of the report
+     * @return One entry per day and theater with showtimes, ordered by day and theater
+     * 
+     * @throws InvalidRequestException if the period is invalid or too long
+     */
+    public List<TheaterOccupancyDTO> getOccupancyByTheater(LocalDate from, LocalDate to) {
+        validatePeriod(from, to);
+        return jdbcTemplate.query(OCCUPANCY_SQL, (rs, rowNum) -> {
+            long seatsOffered = rs.getLong("seats_offered");
+            long ticketsSold = rs.getLong("tickets_sold");
+            return new TheaterOccupancyDTO(
+                    rs.getObject("sales_day", LocalDate.class),
+                    theaterRegistry.nameOf(rs.getInt("theater_id")),
+                    rs.getInt("showtime_count"),
+                    seatsOffered,
+                    ticketsSold,
+                    seatsOffered == 0 ? 0 : (double) ticketsSold / seatsOffered);
+        }, from, to);
+    }
+
+    // Helper methods
+
+    /**
+     * Validates the period of a report.
+     * 
+     * @param from First day of the period
+     * @param to   Last day of the period
+     * @throws InvalidRequestException if the period is empty or longer than {@link #MAX_REPORT_DAYS}
+     */
+    private void validatePeriod(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new InvalidRequestException("The first day of the report must not be after its last day");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_REPORT_DAYS) {
+            throw new InvalidRequestException("A report cannot cover more than " + MAX_REPORT_DAYS + " days");
+        }
+    }
+}
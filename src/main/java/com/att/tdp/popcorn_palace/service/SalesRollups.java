@@ -0,0 +1,379 @@
+package com.att.tdp.popcorn_palace.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the sales rollups used for reporting, in the same transaction as the bookings and showtimes
+ * they summarize.
+ * <p>
+ * {@code showtime_sales} holds the seats offered, tickets sold and revenue of each showtime;
+ * {@code daily_sales} holds the same figures summed per screening day (UTC), movie and theater. Revenue is
+ * recorded in cents at the price of the showtime when each ticket was sold. When a showtime is moved
+ * to another day, movie or theater its figures move with it; when it is deleted they are removed.
+ * <p>
+ * Each figure is split over {@link #STRIPES} rows, told apart by their {@code stripe} column, and readers
+ * sum the stripes. A booking adds its tickets to the stripe of its showtime and first seat
+ * ({@link #stripeOf}), so bookings of different seats rarely update the same row: only bookings whose
+ * seats conflict serialize on their seat locks, not every booking of a showtime or of a busy day on its
+ * rollups. Schedule changes (new, moved, resized and deleted showtimes) only touch stripe 0, after locking
+ * every stripe of the showtimes they change.
+ * <p>
+ * To keep concurrent transactions from deadlocking, every method locks the {@code showtime_sales} rows it
+ * changes in order of showtime ID first, and only then the {@code daily_sales} rows, in {@link #KEY_ORDER};
+ * a sale only touches rows of one stripe.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class SalesRollups {
+    static final String SELECT_SHOWTIME_SQL =
+            "SELECT movie_id, theater_id, start_time, price FROM showtimes WHERE id = ?";
+    static final String LOCK_SHOWTIME_SALES_SQL =
+            "SELECT seats_offered, tickets_sold, revenue_cents FROM showtime_sales WHERE showtime_id = ? "
+                    + "ORDER BY stripe FOR UPDATE";
+    static final String UPDATE_SHOWTIME_SALES_SQL =
+            "UPDATE showtime_sales SET seats_offered = seats_offered + ?, tickets_sold = tickets_sold + ?, "
+                    + "revenue_cents = revenue_cents + ? WHERE showtime_id = ? AND stripe = ?";
+    static final String INSERT_SHOWTIME_SALES_SQL =
+            "INSERT INTO showtime_sales (showtime_id, stripe, seats_offered, tickets_sold, revenue_cents) "
+                    + "VALUES (?, ?, 0, 0, 0) ON CONFLICT DO NOTHING";
+    static final String DELETE_SHOWTIME_SALES_SQL = "DELETE FROM showtime_sales WHERE showtime_id = ?";
+    static final String UPDATE_DAILY_SALES_SQL =
+            "UPDATE daily_sales SET showtime_count = showtime_count + ?, seats_offered = seats_offered + ?, "
+                    + "tickets_sold = tickets_sold + ?, revenue_cents = revenue_cents + ? "
+                    + "WHERE sales_day = ? AND movie_id = ? AND theater_id = ? AND stripe = ?";
+    static final String INSERT_DAILY_SALES_SQL =
+            "INSERT INTO daily_sales (sales_day, movie_id, theater_id, stripe, showtime_count, seats_offered, "
+                    + "tickets_sold, revenue_cents) VALUES (?, ?, ?, ?, 0, 0, 0, 0) ON CONFLICT DO NOTHING";
+    static final String SELECT_THEATER_SHOWTIMES_SQL =
+            "SELECT s.id, s.movie_id, s.theater_id, s.start_time, s.price, "
+                    + "(SELECT SUM(ss.seats_offered) FROM showtime_sales ss WHERE ss.showtime_id = s.id) "
+                    + "AS seats_offered FROM showtimes s WHERE s.theater_id = ? ORDER BY s.id";
+
+    /**
+     * Number of rows each showtime and day, movie and theater is spread over.
+     */
+    public static final int STRIPES = 16;
+
+    /**
+     * Stripe holding the schedule figures: showtime counts, seats offered and moved sales.
+     */
+    static final int SCHEDULE_STRIPE = 0;
+
+    /**
+     * Order in which {@code daily_sales} rows are locked.
+     */
+    public static final Comparator<SalesKey> KEY_ORDER = Comparator.comparing(SalesKey::day)
+            .thenComparingLong(SalesKey::movieId)
+            .thenComparingInt(SalesKey::theaterId);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructs SalesRollups.
+     *
+     * @param jdbcTemplate JDBC access used to update the rollup tables
+     */
+    @Autowired
+    public SalesRollups(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns the rollup key of a showtime.
+     *
+     * @param startTime Start time of the showtime
+     * @param movieId   ID of the movie
+     * @param theaterId ID of the theater
+     * @return The day, movie and theater the showtime's sales are summed under
+     */
+    public static SalesKey keyOf(ZonedDateTime startTime, long movieId, int theaterId) {
+        return new SalesKey(startTime.withZoneSameInstant(ZoneOffset.UTC).toLocalDate(), movieId, theaterId);
+    }
+
+    /**
+     * Returns the stripe that the sales of a booking are added to.
+     *
+     * @param showtimeId ID of the showtime
+     * @param seatNumber The booked seat, or the first of several booked together
+     * @return The stripe, from 0 to {@link #STRIPES} - 1
+     */
+    public static int stripeOf(long showtimeId, int seatNumber) {
+        return Math.floorMod(Long.hashCode(showtimeId) * 31 + seatNumber, STRIPES);
+    }
+
+    /**
+     * Converts a ticket price to cents.
+     *
+     * @param price Price in currency units
+     * @return The price in cents, rounded half up
+     */
+    public static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+
+    /**
+     * Records a newly scheduled showtime.
+     *
+     * @param showtimeId   ID of the showtime
+     * @param key          Rollup key of the showtime
+     * @param seatsOffered Capacity of the showtime's theater
+     */
+    public void recordScheduled(long showtimeId, SalesKey key, int seatsOffered) {
+        addToShowtime(showtimeId, SCHEDULE_STRIPE, seatsOffered, 0, 0);
+        addToDay(key, SCHEDULE_STRIPE, 1, seatsOffered, 0, 0);
+    }
+
+    /**
+     * Records tickets sold for a showtime at its current price.
+     *
+     * @param showtimeId ID of the showtime
+     * @param tickets    Number of tickets sold
+     * @param stripe     Stripe of the booking, see {@link #stripeOf}
+     */
+    public void recordSold(long showtimeId, int tickets, int stripe) {
+        recordSold(Map.of(showtimeId, tickets), stripe);
+    }
+
+    /**
+     * Records tickets sold for several showtimes at their current prices, as one update per showtime
+     * and one per day, movie and theater, all in one stripe.
+     *
+     * @param ticketsByShowtime Number of tickets sold per showtime ID
+     * @param stripe            Stripe of the bookings, see {@link #stripeOf}
+     */
+    public void recordSold(Map<Long, Integer> ticketsByShowtime, int stripe) {
+        DayChanges days = new DayChanges(stripe);
+        new TreeMap<>(ticketsByShowtime).forEach((showtimeId, tickets) -> {
+            List<ShowtimeSnapshot> showtimes = jdbcTemplate.query(SELECT_SHOWTIME_SQL, this::mapShowtime,
+                    showtimeId);
+            if (showtimes.isEmpty()) {
+                return;
+            }
+            ShowtimeSnapshot showtime = showtimes.get(0);
+            long revenueCents = tickets * toCents(showtime.price());
+            addToShowtime(showtimeId, stripe, 0, tickets, revenueCents);
+            days.add(showtime.key(), 0, 0, tickets, revenueCents);
+        });
+        days.apply();
+    }
+
+    /**
+     * Moves the figures of a showtime to its new day, movie or theater.
+     *
+     * @param showtimeId   ID of the showtime
+     * @param oldKey       Rollup key before the change
+     * @param newKey       Rollup key after the change
+     * @param seatsOffered Capacity of the showtime's theater after the change
+     */
+    public void recordRescheduled(long showtimeId, SalesKey oldKey, SalesKey newKey, int seatsOffered) {
+        ShowtimeSales sales = lockShowtimeSales(showtimeId);
+        if (oldKey.equals(newKey) && sales.seatsOffered() == seatsOffered) {
+            return;
+        }
+        addToShowtime(showtimeId, SCHEDULE_STRIPE, seatsOffered - sales.seatsOffered(), 0, 0);
+        DayChanges days = new DayChanges(SCHEDULE_STRIPE);
+        days.add(oldKey, -1, -sales.seatsOffered(), -sales.ticketsSold(), -sales.revenueCents());
+        days.add(newKey, 1, seatsOffered, sales.ticketsSold(), sales.revenueCents());
+        days.apply();
+    }
+
+    /**
+     * Sets the seats offered by every showtime of a theater whose layout changed.
+     *
+     * @param theaterId    ID of the theater
+     * @param seatsOffered Capacity of the theater after the change
+     */
+    public void recordCapacityChanged(int theaterId, int seatsOffered) {
+        List<OfferedSeats> showtimes = jdbcTemplate.query(SELECT_THEATER_SHOWTIMES_SQL, (rs, rowNum) ->
+                new OfferedSeats(rs.getLong("id"), mapShowtime(rs, rowNum).key(), rs.getInt("seats_offered")),
+                theaterId);
+        DayChanges days = new DayChanges(SCHEDULE_STRIPE);
+        for (OfferedSeats showtime : showtimes) {
+            int change = seatsOffered - showtime.seatsOffered();
+            if (change != 0) {
+                addToShowtime(showtime.showtimeId(), SCHEDULE_STRIPE, change, 0, 0);
+                days.add(showtime.key(), 0, change, 0, 0);
+            }
+        }
+        days.apply();
+    }
+
+    /**
+     * Removes the figures of a showtime that is being deleted together with its bookings.
+     *
+     * @param showtimeId ID of the showtime
+     * @param key        Rollup key of the showtime
+     */
+    public void recordCancelled(long showtimeId, SalesKey key) {
+        ShowtimeSales sales = lockShowtimeSales(showtimeId);
+        jdbcTemplate.update(DELETE_SHOWTIME_SALES_SQL, showtimeId);
+        addToDay(key, SCHEDULE_STRIPE, -1, -sales.seatsOffered(), -sales.ticketsSold(), -sales.revenueCents());
+    }
+
+    /**
+     * Locks every stripe of a showtime's figures, so that no sale is added while they are moved or removed,
+     * and sums them.
+     *
+     * @param showtimeId ID of the showtime
+     * @return The figures of the showtime, zero if it has none yet
+     */
+    private ShowtimeSales lockShowtimeSales(long showtimeId) {
+        long[] sums = new long[3];
+        jdbcTemplate.query(LOCK_SHOWTIME_SALES_SQL, (RowCallbackHandler) rs -> {
+            sums[0] += rs.getInt("seats_offered");
+            sums[1] += rs.getLong("tickets_sold");
+            sums[2] += rs.getLong("revenue_cents");
+        }, showtimeId);
+        return new ShowtimeSales((int) sums[0], sums[1], sums[2]);
+    }
+
+    /**
+     * Adds to one stripe of the figures of a showtime, creating its row if needed.
+     *
+     * @param showtimeId   ID of the showtime
+     * @param stripe       Stripe to update
+     * @param seatsOffered Change in seats offered
+     * @param tickets      Change in tickets sold
+     * @param revenueCents Change in revenue, in cents
+     */
+    private void addToShowtime(long showtimeId, int stripe, int seatsOffered, long tickets, long revenueCents) {
+        Object[] parameters = { seatsOffered, tickets, revenueCents, showtimeId, stripe };
+        if (jdbcTemplate.update(UPDATE_SHOWTIME_SALES_SQL, parameters) == 0) {
+            jdbcTemplate.update(INSERT_SHOWTIME_SALES_SQL, showtimeId, stripe);
+            jdbcTemplate.update(UPDATE_SHOWTIME_SALES_SQL, parameters);
+        }
+    }
+
+    /**
+     * Adds to one stripe of the figures of a day, movie and theater, creating its row if needed.
+     * The row is inserted with zeros first so that concurrent first writers both end up updating it.
+     *
+     * @param key          Day, movie and theater to update
+     * @param stripe       Stripe to update
+     * @param showtimes    Change in the number of showtimes
+     * @param seatsOffered Change in seats offered
+     * @param tickets      Change in tickets sold
+     * @param revenueCents Change in revenue, in cents
+     */
+    private void addToDay(SalesKey key, int stripe, int showtimes, long seatsOffered, long tickets,
+            long revenueCents) {
+        Object[] parameters = { showtimes, seatsOffered, tickets, revenueCents, key.day(), key.movieId(),
+                key.theaterId(), stripe };
+        if (jdbcTemplate.update(UPDATE_DAILY_SALES_SQL, parameters) == 0) {
+            jdbcTemplate.update(INSERT_DAILY_SALES_SQL, key.day(), key.movieId(), key.theaterId(), stripe);
+            jdbcTemplate.update(UPDATE_DAILY_SALES_SQL, parameters);
+        }
+    }
+
+    /**
+     * Maps the showtime columns needed to record a sale.
+     *
+     * @param rs     The result set positioned on the showtime
+     * @param rowNum Number of the row
+     * @return The rollup key and price of the showtime
+     * @throws SQLException if a column cannot be read
+     */
+    private ShowtimeSnapshot mapShowtime(ResultSet rs, int rowNum) throws SQLException {
+        ZonedDateTime startTime = rs.getObject("start_time", OffsetDateTime.class).toZonedDateTime();
+        return new ShowtimeSnapshot(keyOf(startTime, rs.getLong("movie_id"), rs.getInt("theater_id")),
+                rs.getDouble("price"));
+    }
+
+    /**
+     * Changes to one stripe of {@code daily_sales} collected during an update, applied together in
+     * {@link #KEY_ORDER} once all {@code showtime_sales} rows have been updated.
+     */
+    private final class DayChanges {
+        private final Map<SalesKey, long[]> changes = new TreeMap<>(KEY_ORDER);
+        private final int stripe;
+
+        /**
+         * Constructs DayChanges for a stripe.
+         *
+         * @param stripe Stripe the changes are applied to
+         */
+        DayChanges(int stripe) {
+            this.stripe = stripe;
+        }
+
+        /**
+         * Adds a change to the figures of a day, movie and theater.
+         *
+         * @param key          Day, movie and theater to update
+         * @param showtimes    Change in the number of showtimes
+         * @param seatsOffered Change in seats offered
+         * @param tickets      Change in tickets sold
+         * @param revenueCents Change in revenue, in cents
+         */
+        void add(SalesKey key, int showtimes, long seatsOffered, long tickets, long revenueCents) {
+            long[] figures = changes.computeIfAbsent(key, k -> new long[4]);
+            figures[0] += showtimes;
+            figures[1] += seatsOffered;
+            figures[2] += tickets;
+            figures[3] += revenueCents;
+        }
+
+        /**
+         * Applies the collected changes, in key order.
+         */
+        void apply() {
+            changes.forEach((key, figures) ->
+                    addToDay(key, stripe, (int) figures[0], figures[1], figures[2], figures[3]));
+        }
+    }
+
+    /**
+     * Day (UTC), movie and theater that the sales of a showtime are summed under.
+     *
+     * @param day       Screening day
+     * @param movieId   ID of the movie
+     * @param theaterId ID of the theater
+     */
+    public record SalesKey(LocalDate day, long movieId, int theaterId) {
+    }
+
+    /**
+     * Rollup key and current price of a showtime.
+     *
+     * @param key   Rollup key of the showtime
+     * @param price Current ticket price
+     */
+    private record ShowtimeSnapshot(SalesKey key, double price) {
+    }
+
+    /**
+     * Seats currently offered by a showtime.
+     *
+     * @param showtimeId   ID of the showtime
+     * @param key          Rollup key of the showtime
+     * @param seatsOffered Seats offered, zero if the showtime has no figures yet
+     */
+    private record OfferedSeats(long showtimeId, SalesKey key, int seatsOffered) {
+    }
+
+    /**
+     * Figures recorded for one showtime.
+     *
+     * @param seatsOffered Capacity of the showtime's theater
+     * @param ticketsSold  Tickets sold
+     * @param revenueCents Revenue, in cents
+     */
+    private record ShowtimeSales(int seatsOffered, long ticketsSold, long revenueCents) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.BestAvailableRequestDTO;
+import com.att.tdp.popcorn_palace.dto.SeatAllocationDTO;
+import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
+import com.att.tdp.popcorn_palace.exception.NoAdjacentSeatsException;
+import com.att.tdp.popcorn_palace.exception.ShowtimeNotFoundException;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.seating.SeatMap;
+import com.att.tdp.popcorn_palace.seating.TheaterLayout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Service that books the best available run of adjacent seats of a showtime.
+ * The search walks the gaps between the booked seats of each section of each row (see {@link SeatMap});
+ * the chosen seats are then claimed together in one transaction with the same conditional insert used for
+ * single bookings. If another booking takes one of them in between, the whole claim is rolled back and the
+ * search is repeated on fresh occupancy.
+ */
+@Service
+public class SeatAllocationService {
+    private final BookingRepository bookingRepository;
+    private final TheaterService theaterService;
+    private final OccupancyCounters occupancyCounters;
+    private final SalesRollups salesRollups;
+    private final BookingLocks bookingLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+
+    /**
+     * Constructs a SeatAllocationService with the required dependencies.
+     * 
+     * @param bookingRepository   Repository for booking data access
+     * @param theaterService      Service providing the seat layout of each showtime's theater
+     * @param occupancyCounters   Live booked-seat counts, updated after every claim
+     * @param salesRollups        Reporting rollups, updated in the transaction of every claim
+     * @param bookingLocks        Cross-node seat locks, taken in the transaction of every claim
+     * @param transactionTemplate Template wrapping each claim in one transaction
+     * @param maxAttempts         Number of searches before giving up on a contended showtime
+     */
+    @Autowired
+    public SeatAllocationService(BookingRepository bookingRepository, TheaterService theaterService,
+            OccupancyCounters occupancyCounters, SalesRollups salesRollups, BookingLocks bookingLocks,
+            TransactionTemplate transactionTemplate,
+            @Value("${popcorn.booking.best-available.max-attempts:3}") int maxAttempts) {
+        this.bookingRepository = bookingRepository;
+        this.theaterService = theaterService;
+        this.occupancyCounters = occupancyCounters;
+        this.salesRollups = salesRollups;
+        this.bookingLocks = bookingLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Books the best run of adjacent free seats within one section of a row of the showtime's theater:
+     * in the rows closest to the middle of the hall, then closest to the middle of the row.
+     * 
+     * @param request DTO containing the showtime, the number of seats and the user
+     * @return The booked seats and the IDs of their bookings
+     * 
+     * @throws InvalidRequestException   if the count exceeds the widest section, or the seats kept being taken
+     *                                   concurrently
+     * @throws NoAdjacentSeatsException  if no row has enough adjacent free seats
+     * @throws ShowtimeNotFoundException if the showtime does not exist
+     */
+    public SeatAllocationDTO bookBestAvailable(BestAvailableRequestDTO request) {
+        int count = request.getCount();
+        TheaterLayout layout = theaterService.getLayoutOfShowtime(request.getShowtimeId())
+                .orElseThrow(() -> new ShowtimeNotFoundException(request.getShowtimeId()));
+        if (count > layout.widestSection()) {
+            throw new InvalidRequestException("Seat count cannot exceed " + layout.widestSection()
+                    + " adjacent seats in this theater");
+        }
+
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            SeatMap seatMap = SeatMap.of(layout,
+                    bookingRepository.findSeatNumbersByShowtimeId(request.getShowtimeId()));
+            int firstSeat = seatMap.findBestRun(count);
+            if (firstSeat < 0) {
+                throw new NoAdjacentSeatsException(count);
+            }
+            SeatAllocationDTO allocation = claim(request, firstSeat);
+            if (allocation != null) {
+                occupancyCounters.recordBooked(request.getShowtimeId(), count);
+                return allocation;
+            }
+        }
+        throw new InvalidRequestException("Could not claim " + count + " adjacent seats after " + maxAttempts
+                + " attempts, please retry");
+    }
+
+    /**
+     * Inserts the bookings of a run of seats, and updates the sales rollups, in one transaction.
+     * 
+     * @param request   DTO containing the showtime, the number of seats and the user
+     * @param firstSeat Number of the first seat of the run
+     * @return The booked seats, or null if one of them was taken meanwhile and nothing was booked
+     * @throws ShowtimeNotFoundException if the showtime does not exist
+     */
+    private SeatAllocationDTO claim(BestAvailableRequestDTO request, int firstSeat) {
+        try {
+            return transactionTemplate.execute(status -> {
+                bookingLocks.lockSeats(request.getShowtimeId(), IntStream
+                        .range(firstSeat, firstSeat + request.getCount()).boxed().toList());
+                LocalDateTime bookingTime = LocalDateTime.now();
+                List<Integer> seatNumbers = new ArrayList<>(request.getCount());
+                List<UUID> bookingIds = new ArrayList<>(request.getCount());
+                for (int seat = firstSeat; seat < firstSeat + request.getCount(); seat++) {
+                    UUID bookingId = UUID.randomUUID();
+                    int inserted = bookingRepository.insertIfSeatAvailable(
+                            bookingId, request.getShowtimeId(), seat, request.getUserId(), bookingTime);
+                    if (inserted == 0) {
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    seatNumbers.add(seat);
+                    bookingIds.add(bookingId);
+                }
+                salesRollups.recordSold(request.getShowtimeId(), seatNumbers.size(),
+                        SalesRollups.stripeOf(request.getShowtimeId(), firstSeat));
+                return new SeatAllocationDTO(request.getShowtimeId(), seatNumbers, bookingIds);
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (BookingService.isMissingShowtime(e)) {
+                throw new ShowtimeNotFoundException(request.getShowtimeId());
+            }
+            throw e;
+        }
+    }
+}
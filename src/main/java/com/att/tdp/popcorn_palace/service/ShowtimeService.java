@@ -1,18 +1,39 @@
 package com.att.tdp.popcorn_palace.service;
 
+import com.att.tdp.popcorn_palace.dto.AvailabilityPageDTO;
+import com.att.tdp.popcorn_palace.dto.FreeSlotDTO;
+import com.att.tdp.popcorn_palace.dto.ShowtimeAvailabilityDTO;
 import com.att.tdp.popcorn_palace.dto.ShowtimeDTO;
+import com.att.tdp.popcorn_palace.dto.ShowtimePageDTO;
+import com.att.tdp.popcorn_palace.dto.VersionedDTO;
+import com.att.tdp.popcorn_palace.exception.ConcurrentUpdateException;
 import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
+import com.att.tdp.popcorn_palace.exception.PreconditionFailedException;
 import com.att.tdp.popcorn_palace.exception.ResourceNotFoundException;
+import com.att.tdp.popcorn_palace.exception.ShowtimeOverlapException;
 import com.att.tdp.popcorn_palace.model.Movie;
 import com.att.tdp.popcorn_palace.model.Showtime;
+import com.att.tdp.popcorn_palace.monitoring.DtoConversionEvent;
+import com.att.tdp.popcorn_palace.monitoring.OverlapCheckEvent;
 import com.att.tdp.popcorn_palace.repository.MovieRepository;
 import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeSearchRepository.ShowtimeRow;
+import com.att.tdp.popcorn_palace.service.SalesRollups.SalesKey;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service class that handles business logic for showtime operations.
@@ -21,20 +42,50 @@ import java.util.List;
  */
 @Service
 public class ShowtimeService {
+    /**
+     * Longest time range that can be searched for free slots at once.
+     */
+    static final Duration MAX_FREE_SLOT_RANGE = Duration.ofDays(31);
+
+    /**
+     * Longest a showtime can last. Overlap queries only look this far back for showtimes still running.
+     */
+    static final Duration MAX_SHOWTIME_LENGTH = Duration.ofHours(24);
 
     private final ShowtimeRepository showtimeRepository;
     private final MovieRepository movieRepository;
+    private final WaitingRoomService waitingRoomService;
+    private final TheaterService theaterService;
+    private final TheaterRegistry theaterRegistry;
+    private final OccupancyCounters occupancyCounters;
+    private final SalesRollups salesRollups;
+    private final OptimisticRetry optimisticRetry;
 
     /**
      * Constructs a ShowtimeService with the required dependencies.
      * 
      * @param showtimeRepository Repository for showtime data access
      * @param movieRepository    Repository for movie data access
+     * @param waitingRoomService Service managing the waiting rooms of high-demand showtimes
+     * @param theaterService     Service caching the theater of each showtime
+     * @param theaterRegistry    Registry resolving theater names to IDs
+     * @param occupancyCounters  Live booked-seat counts of the showtimes
+     * @param salesRollups       Reporting rollups, updated in the transaction of every schedule change
+     * @param optimisticRetry    Runner of versioned updates, retrying those that lose to concurrent updates
      */
     @Autowired
-    public ShowtimeService(ShowtimeRepository showtimeRepository, MovieRepository movieRepository) {
+    public ShowtimeService(ShowtimeRepository showtimeRepository, MovieRepository movieRepository,
+            WaitingRoomService waitingRoomService, TheaterService theaterService,
+            TheaterRegistry theaterRegistry, OccupancyCounters occupancyCounters, SalesRollups salesRollups,
+            OptimisticRetry optimisticRetry) {
         this.showtimeRepository = showtimeRepository;
         this.movieRepository = movieRepository;
+        this.waitingRoomService = waitingRoomService;
+        this.theaterService = theaterService;
+        this.theaterRegistry = theaterRegistry;
+        this.occupancyCounters = occupancyCounters;
+        this.salesRollups = salesRollups;
+        this.optimisticRetry = optimisticRetry;
     }
 
     /**
@@ -47,13 +98,26 @@ public class ShowtimeService {
      * @throws ResourceNotFoundException if no showtime exists with the specified ID
      */
     public ShowtimeDTO getShowtimeById(Long id) {
+        return getVersionedShowtimeById(id).getBody();
+    }
+
+    /**
+     * Retrieves a showtime by its ID, together with its version.
+     * 
+     * @param id ID of the showtime to retrieve
+     * @return DTO representing the requested showtime, with its version
+     * 
+     * @throws InvalidRequestException   if the ID is null
+     * @throws ResourceNotFoundException if no showtime exists with the specified ID
+     */
+    public VersionedDTO<ShowtimeDTO> getVersionedShowtimeById(Long id) {
         if (id == null) {
             throw new InvalidRequestException("Showtime ID cannot be null");
         }
 
         Showtime showtime = showtimeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Showtime", "id", id));
-        return convertToDTO(showtime);
+        return new VersionedDTO<>(convertToDTO(showtime), showtime.getVersion());
     }
 
     /**
@@ -82,9 +146,11 @@ public class ShowtimeService {
         Showtime newShowtime = convertToEntity(showtimeDTO);
 
         // Check for overlapping showtimes in the same theater
-        checkForOverlappingShowtimes(newShowtime, null);
+        checkForOverlappingShowtimes(newShowtime, showtimeDTO.getTheater(), null);
 
         Showtime savedShowtime = showtimeRepository.save(newShowtime);
+        salesRollups.recordScheduled(savedShowtime.getId(), salesKeyOf(savedShowtime),
+                theaterService.getLayout(savedShowtime.getTheaterId()).capacity());
         return convertToDTO(savedShowtime);
     }
 
@@ -99,18 +165,59 @@ public class ShowtimeService {
      * @throws InvalidRequestException   if the ID is null, the showtime data is invalid, or conflicts with existing
      *                                   showtimes
      * @throws ResourceNotFoundException if no showtime or movie exists with the specified IDs
+     * @throws ConcurrentUpdateException if the showtime kept being updated concurrently
      */
-    @Transactional
     public ShowtimeDTO updateShowtime(Long id, ShowtimeDTO showtimeDTO) {
+        return updateShowtime(id, showtimeDTO, null).getBody();
+    }
+
+    /**
+     * Updates an existing showtime identified by its ID, if it still has the expected version.
+     * Validates the updated data and checks for scheduling conflicts. Without an expected version, an update
+     * that loses to a concurrent one is retried on the fresh showtime, checking for conflicts again.
+     * 
+     * @param id               ID of the showtime to update
+     * @param showtimeDTO      DTO containing the updated showtime information
+     * @param expectedVersions Versions of which the showtime must have one, or null to update whatever its
+     *                         version
+     * @return DTO representing the updated showtime, with its new version
+     * 
+     * @throws InvalidRequestException     if the ID is null, the showtime data is invalid, or conflicts with
+     *                                     existing showtimes
+     * @throws ResourceNotFoundException   if no showtime or movie exists with the specified IDs
+     * @throws PreconditionFailedException if the showtime does not have the expected version
+     * @throws ConcurrentUpdateException   if the showtime kept being updated concurrently
+     */
+    public VersionedDTO<ShowtimeDTO> updateShowtime(Long id, ShowtimeDTO showtimeDTO, Set<Long> expectedVersions) {
         if (id == null) {
             throw new InvalidRequestException("Showtime ID cannot be null");
         }
 
         validateShowtimeDTO(showtimeDTO);
 
+        // Resolve the theater once for all attempts; only a theater that does not exist yet is left to
+        // the attempt, which registers it on its own connection so that it rolls back with the update
+        Optional<Integer> knownTheaterId = theaterRegistry.findId(showtimeDTO.getTheater());
+        return optimisticRetry.update("Showtime " + id, expectedVersions,
+                status -> applyUpdate(id, showtimeDTO, knownTheaterId, expectedVersions));
+    }
+
+    /**
+     * Reads a showtime, checks its version and writes the update, within the transaction of one attempt.
+     * 
+     * @param id               ID of the showtime to update
+     * @param showtimeDTO      DTO containing the updated showtime information
+     * @param knownTheaterId   ID of the theater of the update, or empty if the theater is to be registered
+     * @param expectedVersions Versions of which the showtime must have one, or null to update whatever its
+     *                         version
+     * @return DTO representing the updated showtime, with its new version
+     */
+    private VersionedDTO<ShowtimeDTO> applyUpdate(Long id, ShowtimeDTO showtimeDTO, Optional<Integer> knownTheaterId,
+            Set<Long> expectedVersions) {
         // Check if showtime exists
         Showtime showtime = showtimeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Showtime", "id", id));
+        OptimisticRetry.checkVersion("Showtime " + id, expectedVersions, showtime.getVersion());
 
         // Check if movie exists
         Movie movie = movieRepository.findById(showtimeDTO.getMovieId())
@@ -121,17 +228,23 @@ public class ShowtimeService {
             throw new InvalidRequestException("Start time must be before end time");
         }
 
+        SalesKey oldSalesKey = salesKeyOf(showtime);
         showtime.setMovie(movie);
-        showtime.setTheater(showtimeDTO.getTheater());
+        showtime.setTheaterId(knownTheaterId.orElseGet(() -> theaterRegistry.idOf(showtimeDTO.getTheater())));
         showtime.setStartTime(showtimeDTO.getStartTime());
         showtime.setEndTime(showtimeDTO.getEndTime());
         showtime.setPrice(showtimeDTO.getPrice());
 
         // Check for overlapping showtimes in the same theater
-        checkForOverlappingShowtimes(showtime, id);
+        checkForOverlappingShowtimes(showtime, showtimeDTO.getTheater(), id);
 
+        // Flush now so that a concurrent update fails this attempt before the rollups are moved
         Showtime updatedShowtime = showtimeRepository.save(showtime);
-        return convertToDTO(updatedShowtime);
+        showtimeRepository.flush();
+        salesRollups.recordRescheduled(id, oldSalesKey, salesKeyOf(updatedShowtime),
+                theaterService.getLayout(updatedShowtime.getTheaterId()).capacity());
+        theaterService.evictShowtime(id);
+        return new VersionedDTO<>(convertToDTO(updatedShowtime), updatedShowtime.getVersion());
     }
 
     /**
@@ -151,11 +264,245 @@ public class ShowtimeService {
         Showtime showtime = showtimeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Showtime", "id", id));
 
+        salesRollups.recordCancelled(id, salesKeyOf(showtime));
         showtimeRepository.delete(showtime);
+        waitingRoomService.setHighDemand(id, false);
+        theaterService.evictShowtime(id);
+        occupancyCounters.remove(id);
+    }
+
+    /**
+     * Flags a showtime as high demand, or clears the flag.
+     * Bookings for a high-demand showtime are only accepted from visitors admitted through its waiting room.
+     * 
+     * @param id         ID of the showtime
+     * @param highDemand Whether the showtime is in high demand
+     * 
+     * @throws InvalidRequestException   if the ID is null
+     * @throws ResourceNotFoundException if no showtime exists with the specified ID
+     */
+    @Transactional
+    public void setHighDemand(Long id, boolean highDemand) {
+        if (id == null) {
+            throw new InvalidRequestException("Showtime ID cannot be null");
+        }
+
+        Showtime showtime = showtimeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Showtime", "id", id));
+
+        showtime.setHighDemand(highDemand);
+        showtimeRepository.save(showtime);
+        waitingRoomService.setHighDemand(id, highDemand);
+    }
+
+    /**
+     * Searches showtimes, one page at a time, in order of start time.
+     * Pages are addressed by an opaque cursor encoding the (start time, id) of the last showtime returned,
+     * so fetching any page costs one index range scan, however many showtimes precede it.
+     * 
+     * @param movieId Only showtimes of this movie, or null for all movies
+     * @param theater Only showtimes in the theater with this name, or null for all theaters
+     * @param from    Only showtimes starting at or after this time, or null for no lower bound
+     * @param to      Only showtimes starting before this time, or null for no upper bound
+     * @param after   Cursor returned with the previous page, or null for the first page
+     * @param limit   Maximum number of showtimes per page
+     * @return The page of showtimes and the cursor of the next page
+     * 
+     * @throws InvalidRequestException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public ShowtimePageDTO searchShowtimes(Long movieId, String theater, ZonedDateTime from, ZonedDateTime to,
+            String after, int limit) {
+        SearchPage page = search(movieId, theater, from, to, after, limit);
+        List<ShowtimeDTO> showtimes = page.rows().stream()
+                .map(this::convertToDTO)
+                .toList();
+        return new ShowtimePageDTO(showtimes, page.nextCursor());
+    }
+
+    /**
+     * Searches showtimes like {@link #searchShowtimes} and adds the remaining seats of each.
+     * Availability comes from the live occupancy counters and the cached theater layouts, so a page
+     * costs one range scan and one counter read per showtime, whatever the number of bookings.
+     * 
+     * @param movieId Only showtimes of this movie, or null for all movies
+     * @param theater Only showtimes in the theater with this name, or null for all theaters
+     * @param from    Only showtimes starting at or after this time, or null for no lower bound
+     * @param to      Only showtimes starting before this time, or null for no upper bound
+     * @param after   Cursor returned with the previous page, or null for the first page
+     * @param limit   Maximum number of showtimes per page
+     * @return The page of showtimes with their availability and the cursor of the next page
+     * 
+     * @throws InvalidRequestException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public AvailabilityPageDTO searchAvailability(Long movieId, String theater, ZonedDateTime from,
+            ZonedDateTime to, String after, int limit) {
+        SearchPage page = search(movieId, theater, from, to, after, limit);
+        List<ShowtimeAvailabilityDTO> showtimes = page.rows().stream()
+                .map(row -> {
+                    int capacity = theaterService.getLayout(row.theaterId()).capacity();
+                    int remainingSeats = Math.max(0, capacity - occupancyCounters.getBookedSeats(row.id()));
+                    return new ShowtimeAvailabilityDTO(convertToDTO(row), capacity, remainingSeats,
+                            remainingSeats == 0);
+                })
+                .toList();
+        return new AvailabilityPageDTO(showtimes, page.nextCursor());
+    }
+
+    /**
+     * Finds the gaps in a theater's schedule that are long enough for a movie.
+     * The theater's showtimes in the range are read once, in order of start time, and the gaps between
+     * them are collected in a single sweep. Gaps in the past are not offered.
+     * 
+     * @param theaterName Name of the theater
+     * @param movieId     ID of the movie to schedule
+     * @param from        Start of the time range to search
+     * @param to          End of the time range to search
+     * @param buffer      Turnover time to keep free before and after every existing showtime
+     * @return The free slots, earliest first
+     * 
+     * @throws InvalidRequestException   if the time range or buffer is invalid
+     * @throws ResourceNotFoundException if the theater or movie does not exist
+     */
+    @Transactional(readOnly = true)
+    public List<FreeSlotDTO> findFreeSlots(String theaterName, Long movieId, ZonedDateTime from, ZonedDateTime to,
+            Duration buffer) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidRequestException("The start of the range must be before its end");
+        }
+        if (Duration.between(from, to).compareTo(MAX_FREE_SLOT_RANGE) > 0) {
+            throw new InvalidRequestException("The range cannot be longer than " + MAX_FREE_SLOT_RANGE.toDays()
+                    + " days");
+        }
+        if (buffer.isNegative()) {
+            throw new InvalidRequestException("Buffer cannot be negative");
+        }
+
+        Integer theaterId = theaterRegistry.findId(theaterName)
+                .orElseThrow(() -> new ResourceNotFoundException("Theater", "name", theaterName));
+        Movie movie = movieRepository.findById(movieId)
+                .orElseThrow(() -> new ResourceNotFoundException("Movie", "id", movieId));
+        Duration duration = Duration.ofMinutes(movie.getDuration());
+
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime cursor = from.isBefore(now) ? now : from;
+        List<FreeSlotDTO> slots = new ArrayList<>();
+        ZonedDateTime rangeStart = cursor.minus(buffer);
+        for (Showtime showtime : showtimeRepository.findScheduleOfTheater(theaterId,
+                rangeStart.minus(MAX_SHOWTIME_LENGTH), rangeStart, to.plus(buffer))) {
+            addSlotIfLongEnough(slots, cursor, showtime.getStartTime().minus(buffer), duration);
+            ZonedDateTime freeAgain = showtime.getEndTime().plus(buffer);
+            if (freeAgain.isAfter(cursor)) {
+                cursor = freeAgain;
+            }
+        }
+        addSlotIfLongEnough(slots, cursor, to, duration);
+        return slots;
     }
 
     // Helper methods
 
+    /**
+     * Reads one page of a showtime search.
+     * 
+     * @param movieId Only showtimes of this movie, or null for all movies
+     * @param theater Only showtimes in the theater with this name, or null for all theaters
+     * @param from    Only showtimes starting at or after this time, or null for no lower bound
+     * @param to      Only showtimes starting before this time, or null for no upper bound
+     * @param after   Cursor returned with the previous page, or null for the first page
+     * @param limit   Maximum number of showtimes per page
+     * @return The rows of the page and the cursor of the next page
+     * @throws InvalidRequestException if the cursor is malformed
+     */
+    private SearchPage search(Long movieId, String theater, ZonedDateTime from, ZonedDateTime to, String after,
+            int limit) {
+        Integer theaterId = null;
+        if (theater != null) {
+            Optional<Integer> knownTheater = theaterRegistry.findId(theater);
+            if (knownTheater.isEmpty()) {
+                return new SearchPage(List.of(), null);
+            }
+            theaterId = knownTheater.get();
+        }
+
+        ZonedDateTime afterStartTime = null;
+        Long afterId = null;
+        if (after != null) {
+            String[] position = decodeCursor(after);
+            try {
+                afterStartTime = Instant.parse(position[0]).atZone(ZoneOffset.UTC);
+                afterId = Long.valueOf(position[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new InvalidRequestException("Invalid page cursor");
+            }
+        }
+
+        // One extra row tells whether there is a next page
+        List<ShowtimeRow> rows = showtimeRepository.search(movieId, theaterId, from, to, afterStartTime, afterId,
+                limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<ShowtimeRow> page = hasMore ? rows.subList(0, limit) : rows;
+        return new SearchPage(page, hasMore ? encodeCursor(page.get(page.size() - 1)) : null);
+    }
+
+    /**
+     * Returns the key the sales of a showtime are summed under in the reporting rollups.
+     * 
+     * @param showtime The showtime
+     * @return The screening day, movie and theater of the showtime
+     */
+    private SalesKey salesKeyOf(Showtime showtime) {
+        return SalesRollups.keyOf(showtime.getStartTime(), showtime.getMovie().getId(), showtime.getTheaterId());
+    }
+
+    /**
+     * Encodes the position of a showtime as a page cursor.
+     * 
+     * @param row The last showtime of a page
+     * @return The URL-safe cursor
+     */
+    private String encodeCursor(ShowtimeRow row) {
+        String position = row.startTime().toInstant() + "|" + row.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a page cursor into the start time and ID it encodes.
+     * 
+     * @param cursor The cursor returned with a previous page
+     * @return The start time and the ID, as strings
+     * @throws InvalidRequestException if the cursor is malformed
+     */
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\|");
+            if (position.length == 2) {
+                return position;
+            }
+        } catch (IllegalArgumentException e) {
+            // Not Base64, reported below
+        }
+        throw new InvalidRequestException("Invalid page cursor");
+    }
+
+    /**
+     * Adds a gap to the free slots if the movie fits into it.
+     * 
+     * @param slots    The free slots found so far
+     * @param start    Start of the gap
+     * @param end      End of the gap
+     * @param duration Duration of the movie
+     */
+    private void addSlotIfLongEnough(List<FreeSlotDTO> slots, ZonedDateTime start, ZonedDateTime end,
+            Duration duration) {
+        ZonedDateTime latestStart = end.minus(duration);
+        if (!latestStart.isBefore(start)) {
+            slots.add(new FreeSlotDTO(start, end, latestStart));
+        }
+    }
+
     /**
      * Validates a showtime DTO for required fields and business rules.
      * 
@@ -183,6 +530,12 @@ public class ShowtimeService {
             throw new InvalidRequestException("End time cannot be null");
         }
 
+        if (Duration.between(showtimeDTO.getStartTime(), showtimeDTO.getEndTime())
+                .compareTo(MAX_SHOWTIME_LENGTH) > 0) {
+            throw new InvalidRequestException("A showtime cannot be longer than " + MAX_SHOWTIME_LENGTH.toHours()
+                    + " hours");
+        }
+
         if (showtimeDTO.getPrice() == null || showtimeDTO.getPrice() < 0) {
             throw new InvalidRequestException("Price must be a non-negative value");
         }
@@ -196,62 +549,57 @@ public class ShowtimeService {
 
     /**
      * Checks if a showtime overlaps with any existing showtimes in the same theater.
+     * Only the showtimes of that theater overlapping the time slot are read, through an index range.
      * 
-     * @param showtime  The showtime to check for overlaps
-     * @param excludeId Optional ID to exclude from comparison (used in updates)
-     * @throws InvalidRequestException if an overlap is found
+     * @param showtime    The showtime to check for overlaps
+     * @param theaterName Name of the showtime's theater, used in the error message
+     * @param excludeId   Optional ID to exclude from comparison (used in updates)
+     * @throws ShowtimeOverlapException if an overlap is found
      */
-    private void checkForOverlappingShowtimes(Showtime showtime, Long excludeId) {
-        List<Showtime> existingShowtimes = showtimeRepository.findAll();
-
-        for (Showtime existingShowtime : existingShowtimes) {
-            // Skip comparing with itself (important for updates)
-            if (excludeId != null && existingShowtime.getId().equals(excludeId)) {
-                continue;
-            }
-
-            // Only check for overlaps in the same theater
-            if (existingShowtime.getTheater().equals(showtime.getTheater())) {
-                // Check for time overlap
-                if (isTimeSlotOverlapping(
-                        showtime.getStartTime(), showtime.getEndTime(),
-                        existingShowtime.getStartTime(), existingShowtime.getEndTime())) {
-                    throw new InvalidRequestException(
-                            "Showtime overlaps with an existing showtime (ID: " + existingShowtime.getId() +
-                                    ") in theater " + existingShowtime.getTheater());
+    void checkForOverlappingShowtimes(Showtime showtime, String theaterName, Long excludeId) {
+        OverlapCheckEvent event = new OverlapCheckEvent();
+        event.begin();
+        event.theater = theaterName;
+        try {
+            List<Long> overlappingIds = showtimeRepository.findOverlappingIds(showtime.getTheaterId(),
+                    showtime.getStartTime().minus(MAX_SHOWTIME_LENGTH), showtime.getStartTime(),
+                    showtime.getEndTime());
+
+            for (Long overlappingId : overlappingIds) {
+                event.candidatesScanned++;
+
+                // Skip comparing with itself (important for updates)
+                if (overlappingId.equals(excludeId)) {
+                    continue;
                 }
+
+                event.overlapFound = true;
+                throw new ShowtimeOverlapException(overlappingId, theaterName);
             }
+        } finally {
+            event.commit();
         }
     }
 
-    /**
-     * Determines if two time slots overlap with each other.
-     * 
-     * @param start1 Start time of the first time slot
-     * @param end1   End time of the first time slot
-     * @param start2 Start time of the second time slot
-     * @param end2   End time of the second time slot
-     * @return true if the time slots overlap, false otherwise
-     */
-    private boolean isTimeSlotOverlapping(ZonedDateTime start1, ZonedDateTime end1,
-            ZonedDateTime start2, ZonedDateTime end2) {
-        return start1.isBefore(end2) && start2.isBefore(end1);
-    }
-
     /**
      * Converts a Showtime entity to a ShowtimeDTO.
      * 
      * @param showtime The Showtime entity to convert
      * @return The equivalent ShowtimeDTO
      */
-    private ShowtimeDTO convertToDTO(Showtime showtime) {
-        return new ShowtimeDTO(
+    ShowtimeDTO convertToDTO(Showtime showtime) {
+        DtoConversionEvent event = new DtoConversionEvent();
+        event.begin();
+        ShowtimeDTO showtimeDTO = new ShowtimeDTO(
                 showtime.getId(),
                 showtime.getMovie().getId(),
-                showtime.getTheater(),
+                theaterRegistry.nameOf(showtime.getTheaterId()),
                 showtime.getStartTime(),
                 showtime.getEndTime(),
                 showtime.getPrice());
+        event.conversion = "Showtime->ShowtimeDTO";
+        event.commit();
+        return showtimeDTO;
     }
 
     /**
@@ -261,18 +609,42 @@ public class ShowtimeService {
      * @return The equivalent Showtime entity
      * @throws ResourceNotFoundException if the referenced movie does not exist
      */
-    private Showtime convertToEntity(ShowtimeDTO showtimeDTO) {
+    Showtime convertToEntity(ShowtimeDTO showtimeDTO) {
+        DtoConversionEvent event = new DtoConversionEvent();
+        event.begin();
         Showtime showtime = new Showtime();
 
         Movie movie = movieRepository.findById(showtimeDTO.getMovieId())
                 .orElseThrow(() -> new ResourceNotFoundException("Movie", "id", showtimeDTO.getMovieId()));
 
         showtime.setMovie(movie);
-        showtime.setTheater(showtimeDTO.getTheater());
+        showtime.setTheaterId(theaterRegistry.idOf(showtimeDTO.getTheater()));
         showtime.setStartTime(showtimeDTO.getStartTime());
         showtime.setEndTime(showtimeDTO.getEndTime());
         showtime.setPrice(showtimeDTO.getPrice());
 
+        event.conversion = "ShowtimeDTO->Showtime";
+        event.commit();
         return showtime;
     }
-}
\ No newline at end of file
+
+    /**
+     * Converts a showtime row read by a search to a ShowtimeDTO.
+     * 
+     * @param row The showtime row to convert
+     * @return The equivalent ShowtimeDTO
+     */
+    private ShowtimeDTO convertToDTO(ShowtimeRow row) {
+        return new ShowtimeDTO(row.id(), row.movieId(), theaterRegistry.nameOf(row.theaterId()),
+                row.startTime(), row.endTime(), row.price());
+    }
+
+    /**
+     * One page of showtime rows read by a search.
+     * 
+     * @param rows       Rows of the page
+     * @param nextCursor Cursor of the next page, or null if this is the last page
+     */
+    private record SearchPage(List<ShowtimeRow> rows, String nextCursor) {
+    }
+}
@@ -0,0 +1,380 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.archive.ArchiveColumn;
+import com.att.tdp.popcorn_palace.archive.ColumnType;
+import com.att.tdp.popcorn_palace.archive.SnapshotReader;
+import com.att.tdp.popcorn_palace.archive.SnapshotWriter;
+import jakarta.annotation.PostConstruct;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Service exporting the catalog, showtimes, bookings and sales rollups to a binary snapshot and importing
+ * them back (see {@link SnapshotWriter} for the format).
+ * <p>
+ * A snapshot replaces row-by-row seed scripts when an environment needs realistic volumes: the export
+ * streams every table through a cursor, and the import loads each table with PostgreSQL's COPY protocol,
+ * or with batched inserts on other databases. An import replaces all existing rows in one transaction and
+ * keeps the IDs of the snapshot, then moves the ID sequences past them. Snapshots written before a
+ * column was added still import; the column takes its default value.
+ * <p>
+ * When {@code popcorn.snapshot.import-file} is set, the file is imported at startup, before the occupancy
+ * counters and waiting rooms read the bookings and showtimes. With the partitioned schema, the partitions
+ * of the snapshot's months must exist before it is imported.
+ */
+@Service
+public class SnapshotService {
+    private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
+
+    /**
+     * A table of the snapshot, with the query exporting it in the order of its columns.
+     *
+     * @param name      Name of the table
+     * @param columns   Columns of the table
+     * @param selectSql Query returning the columns, in order
+     * @param idColumn  Column generated by a sequence, or null
+     */
+    record SnapshotTable(String name, List<ArchiveColumn> columns, String selectSql, String idColumn) {
+        /**
+         * Returns a table exported as stored, in the given order.
+         */
+        static SnapshotTable ordered(String name, List<ArchiveColumn> columns, String orderBy, String idColumn) {
+            String columnList = columns.stream().map(ArchiveColumn::name).collect(Collectors.joining(", "));
+            return new SnapshotTable(name, columns,
+                    "SELECT " + columnList + " FROM " + name + " ORDER BY " + orderBy, idColumn);
+        }
+
+        /**
+         * Returns this table restricted to some of its columns.
+         */
+        SnapshotTable withColumns(List<ArchiveColumn> loadedColumns) {
+            return new SnapshotTable(name, loadedColumns, selectSql, idColumn);
+        }
+
+        /**
+         * Returns the comma-separated column names.
+         */
+        String columnList() {
+            return columns.stream().map(ArchiveColumn::name).collect(Collectors.joining(", "));
+        }
+    }
+
+    /**
+     * Tables of a snapshot, in the order they are exported and imported so that references are satisfied.
+     */
+    static final List<SnapshotTable> TABLES = List.of(
+            SnapshotTable.ordered("theaters", List.of(
+                    new ArchiveColumn("id", ColumnType.INT),
+                    new ArchiveColumn("name", ColumnType.STRING),
+                    new ArchiveColumn("seat_rows", ColumnType.INT),
+                    new ArchiveColumn("seats_per_row", ColumnType.INT),
+                    new ArchiveColumn("section_layout", ColumnType.STRING)), "id", "id"),
+            SnapshotTable.ordered("movies", List.of(
+                    new ArchiveColumn("id", ColumnType.LONG),
+                    new ArchiveColumn("title", ColumnType.STRING),
+                    new ArchiveColumn("genre", ColumnType.STRING),
+                    new ArchiveColumn("duration", ColumnType.INT),
+                    new ArchiveColumn("rating", ColumnType.DOUBLE),
+                    new ArchiveColumn("release_year", ColumnType.INT),
+                    new ArchiveColumn("version", ColumnType.LONG)), "id", "id"),
+            SnapshotTable.ordered("showtimes", List.of(
+                    new ArchiveColumn("id", ColumnType.LONG),
+                    new ArchiveColumn("movie_id", ColumnType.LONG),
+                    new ArchiveColumn("theater_id", ColumnType.INT),
+                    new ArchiveColumn("start_time", ColumnType.TIMESTAMP),
+                    new ArchiveColumn("end_time", ColumnType.TIMESTAMP),
+                    new ArchiveColumn("price", ColumnType.DOUBLE),
+                    new ArchiveColumn("high_demand", ColumnType.BOOLEAN),
+                    new ArchiveColumn("version", ColumnType.LONG)), "id", "id"),
+            new SnapshotTable("bookings", List.of(
+                    new ArchiveColumn("booking_id", ColumnType.UUID),
+                    new ArchiveColumn("showtime_id", ColumnType.LONG),
+                    new ArchiveColumn("showtime_start", ColumnType.TIMESTAMP),
+                    new ArchiveColumn("seat_number", ColumnType.INT),
+                    new ArchiveColumn("user_id", ColumnType.STRING),
+                    new ArchiveColumn("booking_time", ColumnType.TIMESTAMP)),
+                    // The start time is taken from the showtime, as bookings made before it was stored lack it
+                    "SELECT b.booking_id, b.showtime_id, s.start_time, b.seat_number, b.user_id, b.booking_time "
+                            + "FROM bookings b JOIN showtimes s ON s.id = b.showtime_id "
+                            + "ORDER BY b.showtime_id, b.seat_number", null),
+            SnapshotTable.ordered("showtime_sales", List.of(
+                    new ArchiveColumn("showtime_id", ColumnType.LONG),
+                    new ArchiveColumn("seats_offered", ColumnType.INT),
+                    new ArchiveColumn("tickets_sold", ColumnType.LONG),
+                    new ArchiveColumn("revenue_cents", ColumnType.LONG),
+                    new ArchiveColumn("stripe", ColumnType.INT)), "showtime_id, stripe", null),
+            SnapshotTable.ordered("daily_sales", List.of(
+                    new ArchiveColumn("sales_day", ColumnType.DATE),
+                    new ArchiveColumn("movie_id", ColumnType.LONG),
+                    new ArchiveColumn("theater_id", ColumnType.INT),
+                    new ArchiveColumn("showtime_count", ColumnType.INT),
+                    new ArchiveColumn("seats_offered", ColumnType.LONG),
+                    new ArchiveColumn("tickets_sold", ColumnType.LONG),
+                    new ArchiveColumn("revenue_cents", ColumnType.LONG),
+                    new ArchiveColumn("stripe", ColumnType.INT)),
+                    "sales_day, movie_id, theater_id, stripe", null));
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int BATCH_SIZE = 1000;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate exportTransaction;
+    private final TransactionTemplate importTransaction;
+    private final String importFile;
+
+    /**
+     * Constructs a SnapshotService.
+     *
+     * @param jdbcTemplate       JDBC access whose data source is used to read and load the tables
+     * @param transactionManager Transaction manager wrapping each export and import
+     * @param importFile         Snapshot file to import at startup, or empty for none
+     */
+    @Autowired
+    public SnapshotService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${popcorn.snapshot.import-file:}") String importFile) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.exportTransaction = new TransactionTemplate(transactionManager);
+        this.exportTransaction.setReadOnly(true);
+        this.exportTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.importTransaction = new TransactionTemplate(transactionManager);
+        this.importFile = importFile;
+    }
+
+    /**
+     * Imports the configured snapshot file, if any, before the application serves requests.
+     *
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (importFile.isBlank()) {
+            return;
+        }
+        try (InputStream input = Files.newInputStream(Path.of(importFile))) {
+            Map<String, Long> counts = importSnapshot(input);
+            log.info("Imported snapshot {}: {}", importFile, counts);
+        }
+    }
+
+    /**
+     * Writes a consistent snapshot of all tables.
+     *
+     * @param output Stream receiving the snapshot; closed when the snapshot is complete
+     * @return Number of rows exported per table
+     * @throws IOException if the stream cannot be written
+     */
+    public Map<String, Long> exportSnapshot(OutputStream output) throws IOException {
+        try (SnapshotWriter writer = new SnapshotWriter(output)) {
+            return exportTransaction.execute(status -> {
+                Map<String, Long> counts = new LinkedHashMap<>();
+                for (SnapshotTable table : TABLES) {
+                    long[] rows = new long[1];
+                    try {
+                        writer.beginTable(table.name(), table.columns());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    jdbcTemplate.query(table.selectSql(), (RowCallbackHandler) rs -> {
+                        try {
+                            writer.addRow(ColumnValues.readRow(rs, table.columns()));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        rows[0]++;
+                    });
+                    counts.put(table.name(), rows[0]);
+                }
+                return counts;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Replaces the rows of all tables with the rows of a snapshot, in one transaction.
+     *
+     * @param input Stream holding the snapshot; closed when the import is complete
+     * @return Number of rows imported per table
+     * @throws IOException if the stream cannot be read, or holds a table or columns this schema lacks
+     */
+    public Map<String, Long> importSnapshot(InputStream input) throws IOException {
+        try (SnapshotReader reader = new SnapshotReader(input)) {
+            return importTransaction.execute(status -> jdbcTemplate.execute((ConnectionCallback<Map<String, Long>>)
+                    connection -> {
+                        try {
+                            return load(connection, reader);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Clears the tables and loads every table of a snapshot on the connection of the import transaction.
+     *
+     * @param connection Connection of the transaction
+     * @param reader     The snapshot
+     * @return Number of rows imported per table
+     */
+    private Map<String, Long> load(Connection connection, SnapshotReader reader) throws SQLException, IOException {
+        boolean postgres = connection.isWrapperFor(PGConnection.class);
+        try (Statement statement = connection.createStatement()) {
+            if (postgres) {
+                statement.execute("TRUNCATE " + TABLES.stream().map(SnapshotTable::name)
+                        .collect(Collectors.joining(", ")));
+            } else {
+                for (SnapshotTable table : TABLES.reversed()) {
+                    statement.execute("DELETE FROM " + table.name());
+                }
+            }
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        while (reader.nextTable()) {
+            SnapshotTable table = findTable(reader.getTableName())
+                    .orElseThrow(() -> new IOException("Unknown table " + reader.getTableName()));
+            if (!table.columns().containsAll(reader.getColumns())) {
+                throw new IOException("Columns of table " + table.name() + " do not match " + table.columns());
+            }
+            SnapshotTable loaded = table.withColumns(reader.getColumns());
+            long rows = postgres
+                    ? copyTable(connection.unwrap(PGConnection.class), loaded, reader)
+                    : insertTable(connection, loaded, reader);
+            counts.put(table.name(), rows);
+        }
+
+        for (SnapshotTable table : TABLES) {
+            if (table.idColumn() != null) {
+                resetSequence(connection, table, postgres);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Finds a table of the snapshot format by name.
+     *
+     * @param name Name of the table
+     * @return The table, or empty if snapshots do not hold it
+     */
+    static Optional<SnapshotTable> findTable(String name) {
+        return TABLES.stream().filter(table -> table.name().equals(name)).findFirst();
+    }
+
+    /**
+     * Loads the rows of a table with COPY, sending them in chunks as they are read.
+     */
+    private static long copyTable(PGConnection connection, SnapshotTable table, SnapshotReader reader)
+            throws SQLException, IOException {
+        CopyIn copy = connection.getCopyAPI().copyIn(
+                "COPY " + table.name() + " (" + table.columnList() + ") FROM STDIN");
+        try {
+            Object[] values = new Object[table.columns().size()];
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 1024);
+            long rows = 0;
+            while (reader.nextRow(values)) {
+                ColumnValues.appendCopyRow(buffer, table.columns(), values);
+                rows++;
+                if (buffer.length() >= COPY_BUFFER_SIZE) {
+                    writeToCopy(copy, buffer);
+                }
+            }
+            writeToCopy(copy, buffer);
+            copy.endCopy();
+            return rows;
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Sends the buffered rows to a COPY and empties the buffer.
+     */
+    private static void writeToCopy(CopyIn copy, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    /**
+     * Loads the rows of a table with batched inserts.
+     */
+    private static long insertTable(Connection connection, SnapshotTable table, SnapshotReader reader)
+            throws SQLException, IOException {
+        String placeholders = table.columns().stream().map(column -> "?").collect(Collectors.joining(", "));
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO " + table.name() + " (" + table.columnList() + ") VALUES (" + placeholders + ")")) {
+            Object[] values = new Object[table.columns().size()];
+            long rows = 0;
+            while (reader.nextRow(values)) {
+                ColumnValues.bindRow(statement, table.columns(), values);
+                statement.addBatch();
+                if (++rows % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+            return rows;
+        }
+    }
+
+    /**
+     * Moves the sequence generating the IDs of a table past the largest imported ID.
+     */
+    private static void resetSequence(Connection connection, SnapshotTable table, boolean postgres)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (postgres) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + table.name() + "', '"
+                        + table.idColumn() + "'), COALESCE(MAX(" + table.idColumn() + "), 0) + 1, false) FROM "
+                        + table.name());
+                return;
+            }
+            long next;
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT COALESCE(MAX(" + table.idColumn() + "), 0) + 1 FROM " + table.name())) {
+                rs.next();
+                next = rs.getLong(1);
+            }
+            statement.execute("ALTER TABLE " + table.name() + " ALTER COLUMN " + table.idColumn()
+                    + " RESTART WITH " + next);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.seating.TheaterLayout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory registry resolving theater names to their integer IDs and back.
+ * Showtimes store the theater ID, so scheduling and overlap checks compare small integers instead of
+ * strings; the name is only needed at the API boundary. Theaters are never renamed or deleted, so an
+ * entry stays valid once cached.
+ * <p>
+ * A showtime may name a theater that has not been configured yet. Such a theater is registered with
+ * the {@link TheaterLayout#DEFAULT default layout} in the transaction of the showtime, on the same
+ * connection, so a rejected showtime leaves no theater behind. IDs are only cached once the
+ * transaction that stored them has committed.
+ */
+@Component
+public class TheaterRegistry {
+    static final String INSERT_THEATER_SQL =
+            "INSERT INTO theaters (name, seat_rows, seats_per_row, section_layout) VALUES (?, ?, ?, ?) "
+                    + "ON CONFLICT DO NOTHING";
+    static final String SELECT_ID_SQL = "SELECT id FROM theaters WHERE name = ?";
+    static final String SELECT_NAME_SQL = "SELECT name FROM theaters WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a TheaterRegistry.
+     *
+     * @param jdbcTemplate JDBC access used to look up and register theaters
+     */
+    @Autowired
+    public TheaterRegistry(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns the ID of a theater, registering it with the default layout if it does not exist yet.
+     * The theater is inserted in the caller's transaction and rolls back with it.
+     *
+     * @param name Name of the theater
+     * @return The ID of the theater
+     */
+    public int idOf(String name) {
+        Integer id = idsByName.get(name);
+        if (id != null) {
+            return id;
+        }
+        TheaterLayout layout = TheaterLayout.DEFAULT;
+        jdbcTemplate.update(INSERT_THEATER_SQL, name, layout.rows(), layout.seatsPerRow(),
+                String.valueOf(layout.seatsPerRow()));
+        int registered = jdbcTemplate.queryForObject(SELECT_ID_SQL, Integer.class, name);
+        register(registered, name);
+        return registered;
+    }
+
+    /**
+     * Returns the ID of an existing theater without registering it.
+     *
+     * @param name Name of the theater
+     * @return The ID of the theater, or empty if no theater has this name
+     */
+    public Optional<Integer> findId(String name) {
+        Integer id = idsByName.get(name);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        Optional<Integer> loaded = jdbcTemplate
+                .query(SELECT_ID_SQL, new SingleColumnRowMapper<>(Integer.class), name)
+                .stream()
+                .findFirst();
+        loaded.ifPresent(loadedId -> register(loadedId, name));
+        return loaded;
+    }
+
+    /**
+     * Returns the name of a theater.
+     *
+     * @param id ID of the theater
+     * @return The name of the theater
+     * @throws org.springframework.dao.EmptyResultDataAccessException if no theater has this ID
+     */
+    public String nameOf(int id) {
+        String name = namesById.get(id);
+        if (name != null) {
+            return name;
+        }
+        String loaded = jdbcTemplate.queryForObject(SELECT_NAME_SQL, String.class, id);
+        register(id, loaded);
+        return loaded;
+    }
+
+    /**
+     * Records the ID of a theater that has just been stored. Inside a transaction the ID is only
+     * cached after the commit, so a rolled-back theater is never resolved from the cache.
+     *
+     * @param id   ID of the theater
+     * @param name Name of the theater
+     */
+    public void register(int id, String name) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache(id, name);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache(id, name);
+            }
+        });
+    }
+
+    /**
+     * Caches the ID of a committed theater.
+     *
+     * @param id   ID of the theater
+     * @param name Name of the theater
+     */
+    private void cache(int id, String name) {
+        idsByName.put(name, id);
+        namesById.put(id, name);
+    }
+}
@@ -0,0 +1,326 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.TheaterDTO;
+import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
+import com.att.tdp.popcorn_palace.exception.ResourceNotFoundException;
+import com.att.tdp.popcorn_palace.model.Theater;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.repository.TheaterRepository;
+import com.att.tdp.popcorn_palace.seating.TheaterLayout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Service class that handles business logic for theaters and their seat layouts.
+ * Layouts are needed on every booking, so they are cached in memory per theater and the theater
+ * of each booked showtime is cached per showtime; both caches are invalidated on changes. A layout is
+ * evicted once its change has committed, and a layout loaded while a change was committing is not kept,
+ * so the cache never holds a layout older than the database. Unknown theaters are not cached.
+ */
+@Service
+public class TheaterService {
+    /**
+     * Largest number of seats a theater may have.
+     */
+    static final int MAX_CAPACITY = 100_000;
+
+    /**
+     * Number of showtimes whose theater is remembered before the cache is reset.
+     */
+    private static final int MAX_CACHED_SHOWTIMES = 100_000;
+
+    private final TheaterRepository theaterRepository;
+    private final ShowtimeRepository showtimeRepository;
+    private final BookingRepository bookingRepository;
+    private final TheaterRegistry theaterRegistry;
+    private final SalesRollups salesRollups;
+
+    private final Map<Integer, TheaterLayout> layoutsByTheater = new ConcurrentHashMap<>();
+    private final AtomicLong layoutEvictions = new AtomicLong();
+    private final Map<Long, Integer> theatersByShowtime = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a TheaterService with the required dependencies.
+     * 
+     * @param theaterRepository  Repository for theater data access
+     * @param showtimeRepository Repository used to find the theater of a showtime
+     * @param bookingRepository  Repository used to find the seats booked in a theater
+     * @param theaterRegistry    Registry resolving theater names to IDs
+     * @param salesRollups       Reporting rollups, updated when the capacity of a theater changes
+     */
+    @Autowired
+    public TheaterService(TheaterRepository theaterRepository, ShowtimeRepository showtimeRepository,
+            BookingRepository bookingRepository, TheaterRegistry theaterRegistry, SalesRollups salesRollups) {
+        this.theaterRepository = theaterRepository;
+        this.showtimeRepository = showtimeRepository;
+        this.bookingRepository = bookingRepository;
+        this.theaterRegistry = theaterRegistry;
+        this.salesRollups = salesRollups;
+    }
+
+    /**
+     * Retrieves all theaters.
+     * 
+     * @return List of TheaterDTO objects representing all theaters
+     */
+    public List<TheaterDTO> getAllTheaters() {
+        return theaterRepository.findAll().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Retrieves a theater by its name.
+     * 
+     * @param name Name of the theater
+     * @return DTO representing the theater
+     * 
+     * @throws ResourceNotFoundException if no theater exists with the specified name
+     */
+    public TheaterDTO getTheaterByName(String name) {
+        return theaterRepository.findByName(name)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Theater", "name", name));
+    }
+
+    /**
+     * Adds a new theater.
+     * 
+     * @param theaterDTO DTO containing the theater information
+     * @return DTO representing the newly created theater
+     * 
+     * @throws InvalidRequestException if the layout is invalid or a theater with the same name already exists
+     */
+    @Transactional
+    public TheaterDTO addTheater(TheaterDTO theaterDTO) {
+        List<Integer> sections = validateLayout(theaterDTO);
+        if (theaterRepository.findByName(theaterDTO.getName()).isPresent()) {
+            throw new InvalidRequestException("Theater with name '" + theaterDTO.getName() + "' already exists");
+        }
+
+        Theater theater = new Theater();
+        theater.setName(theaterDTO.getName());
+        applyLayout(theater, theaterDTO, sections);
+        Theater savedTheater = theaterRepository.save(theater);
+        theaterRegistry.register(savedTheater.getId(), savedTheater.getName());
+        evictLayoutAfterCommit(savedTheater.getId());
+        return convertToDTO(savedTheater);
+    }
+
+    /**
+     * Updates the seat layout of an existing theater. Theaters cannot be renamed, since the theater
+     * registry caches their names. If the capacity changes, the seats offered by the theater's showtimes
+     * change with it in the sales rollups. A theater cannot shrink below the seats already booked in it.
+     * 
+     * @param name       Name of the theater to update
+     * @param theaterDTO DTO containing the updated layout
+     * @return DTO representing the updated theater
+     * 
+     * @throws InvalidRequestException   if the layout is invalid, the name would change, or a booked seat
+     *                                   would no longer exist
+     * @throws ResourceNotFoundException if no theater exists with the specified name
+     */
+    @Transactional
+    public TheaterDTO updateTheater(String name, TheaterDTO theaterDTO) {
+        List<Integer> sections = validateLayout(theaterDTO);
+        if (!name.equals(theaterDTO.getName())) {
+            throw new InvalidRequestException("Theater name cannot be changed");
+        }
+
+        Theater theater = theaterRepository.findByName(name)
+                .orElseThrow(() -> new ResourceNotFoundException("Theater", "name", name));
+        int oldCapacity = toLayout(theater).capacity();
+        int newCapacity = theaterDTO.getRows() * theaterDTO.getSeatsPerRow();
+        if (newCapacity < oldCapacity) {
+            Integer highestBookedSeat = bookingRepository.findHighestSeatNumberByTheaterId(theater.getId());
+            if (highestBookedSeat != null && highestBookedSeat > newCapacity) {
+                throw new InvalidRequestException("Theater cannot have fewer than " + highestBookedSeat
+                        + " seats, since seat " + highestBookedSeat + " is already booked");
+            }
+        }
+        applyLayout(theater, theaterDTO, sections);
+        Theater updatedTheater = theaterRepository.save(theater);
+        evictLayoutAfterCommit(updatedTheater.getId());
+        TheaterLayout layout = toLayout(updatedTheater);
+        if (layout.capacity() != oldCapacity) {
+            salesRollups.recordCapacityChanged(updatedTheater.getId(), layout.capacity());
+        }
+        return convertToDTO(updatedTheater);
+    }
+
+    /**
+     * Returns the seat layout of a theater.
+     * Unknown theaters get {@link TheaterLayout#DEFAULT}.
+     * 
+     * @param theaterId ID of the theater
+     * @return The layout of the theater
+     */
+    public TheaterLayout getLayout(int theaterId) {
+        TheaterLayout cached = layoutsByTheater.get(theaterId);
+        if (cached != null) {
+            return cached;
+        }
+        long evictions = layoutEvictions.get();
+        Optional<TheaterLayout> loaded = theaterRepository.findById(theaterId).map(this::toLayout);
+        if (loaded.isEmpty()) {
+            return TheaterLayout.DEFAULT;
+        }
+        layoutsByTheater.put(theaterId, loaded.get());
+        // An eviction that ran since the load may have missed the layout just cached, which may be stale
+        if (layoutEvictions.get() != evictions) {
+            layoutsByTheater.remove(theaterId, loaded.get());
+        }
+        return loaded.get();
+    }
+
+    /**
+     * Evicts the cached layout of a theater once the transaction changing it has committed, or right away
+     * outside a transaction. Evicting before the commit would let a concurrent booking cache the old layout
+     * again.
+     *
+     * @param theaterId ID of the changed theater
+     */
+    private void evictLayoutAfterCommit(int theaterId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictLayout(theaterId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictLayout(theaterId);
+            }
+        });
+    }
+
+    /**
+     * Evicts the cached layout of a theater and marks layouts being loaded concurrently as possibly stale.
+     *
+     * @param theaterId ID of the changed theater
+     */
+    private void evictLayout(int theaterId) {
+        layoutEvictions.incrementAndGet();
+        layoutsByTheater.remove(theaterId);
+    }
+
+    /**
+     * Returns the seat layout of the theater a showtime takes place in.
+     * 
+     * @param showtimeId ID of the showtime
+     * @return The layout, or empty if the showtime does not exist
+     */
+    public Optional<TheaterLayout> getLayoutOfShowtime(Long showtimeId) {
+        Integer theaterId = theatersByShowtime.get(showtimeId);
+        if (theaterId == null) {
+            Optional<Integer> loaded = showtimeRepository.findTheaterIdById(showtimeId);
+            if (loaded.isEmpty()) {
+                return Optional.empty();
+            }
+            if (theatersByShowtime.size() >= MAX_CACHED_SHOWTIMES) {
+                theatersByShowtime.clear();
+            }
+            theaterId = loaded.get();
+            theatersByShowtime.put(showtimeId, theaterId);
+        }
+        return Optional.of(getLayout(theaterId));
+    }
+
+    /**
+     * Forgets the cached theater of a showtime, after the showtime was moved or deleted.
+     * 
+     * @param showtimeId ID of the showtime
+     */
+    public void evictShowtime(Long showtimeId) {
+        theatersByShowtime.remove(showtimeId);
+    }
+
+    // Helper methods
+
+    /**
+     * Validates the layout of a theater DTO.
+     * 
+     * @param theaterDTO The theater DTO to validate
+     * @return The section widths, a single section spanning the row if none were given
+     * @throws InvalidRequestException if the layout is invalid
+     */
+    private List<Integer> validateLayout(TheaterDTO theaterDTO) {
+        if (theaterDTO.getName() == null || theaterDTO.getName().trim().isEmpty()) {
+            throw new InvalidRequestException("Theater name cannot be empty");
+        }
+        if (theaterDTO.getRows() == null || theaterDTO.getRows() < 1
+                || theaterDTO.getSeatsPerRow() == null || theaterDTO.getSeatsPerRow() < 1) {
+            throw new InvalidRequestException("Rows and seats per row must be positive");
+        }
+        if ((long) theaterDTO.getRows() * theaterDTO.getSeatsPerRow() > MAX_CAPACITY) {
+            throw new InvalidRequestException("A theater cannot have more than " + MAX_CAPACITY + " seats");
+        }
+
+        List<Integer> sections = theaterDTO.getSections();
+        if (sections == null || sections.isEmpty()) {
+            return List.of(theaterDTO.getSeatsPerRow());
+        }
+        if (sections.stream().anyMatch(width -> width == null || width < 1)) {
+            throw new InvalidRequestException("Section widths must be positive");
+        }
+        if (sections.stream().mapToInt(Integer::intValue).sum() != theaterDTO.getSeatsPerRow()) {
+            throw new InvalidRequestException("Section widths must add up to the seats per row");
+        }
+        return sections;
+    }
+
+    /**
+     * Copies a validated layout onto a theater entity.
+     * 
+     * @param theater    The theater entity to update
+     * @param theaterDTO DTO containing the layout
+     * @param sections   The validated section widths
+     */
+    private void applyLayout(Theater theater, TheaterDTO theaterDTO, List<Integer> sections) {
+        theater.setRowCount(theaterDTO.getRows());
+        theater.setSeatsPerRow(theaterDTO.getSeatsPerRow());
+        theater.setSectionLayout(sections.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    /**
+     * Builds the seat layout of a theater entity.
+     * 
+     * @param theater The theater entity
+     * @return The equivalent layout
+     */
+    private TheaterLayout toLayout(Theater theater) {
+        List<Integer> sections = Arrays.stream(theater.getSectionLayout().split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .toList();
+        return new TheaterLayout(theater.getRowCount(), theater.getSeatsPerRow(), sections);
+    }
+
+    /**
+     * Converts a Theater entity to a TheaterDTO.
+     * 
+     * @param theater The Theater entity to convert
+     * @return The equivalent TheaterDTO
+     */
+    private TheaterDTO convertToDTO(Theater theater) {
+        TheaterLayout layout = toLayout(theater);
+        return new TheaterDTO(
+                theater.getId(),
+                theater.getName(),
+                layout.rows(),
+                layout.seatsPerRow(),
+                layout.sectionWidths(),
+                layout.capacity());
+    }
+}
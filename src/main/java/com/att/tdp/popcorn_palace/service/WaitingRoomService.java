@@ -0,0 +1,313 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.QueueStatusDTO;
+import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
+import com.att.tdp.popcorn_palace.exception.QueueAdmissionException;
+import com.att.tdp.popcorn_palace.exception.QueueFullException;
+import com.att.tdp.popcorn_palace.exception.ResourceNotFoundException;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.throttling.WaitingRoom;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service managing the waiting rooms placed in front of booking for high-demand showtimes.
+ * Visitors join the queue of a showtime, poll their status, and may book once admitted; admissions
+ * are released at a fixed rate per showtime so that an on-sale rush reaches the database as a steady flow.
+ * <p>
+ * When waiting rooms are disabled, no room is ever opened: showtimes flagged as high demand are booked
+ * like any other, without a queue token.
+ */
+@Service
+@DependsOn({"snapshotService", "datasetService"})
+public class WaitingRoomService {
+    private static final String TOKEN_SEPARATOR = ".";
+
+    private final ShowtimeRepository showtimeRepository;
+    private final boolean enabled;
+    private final int capacity;
+    private final double admissionsPerSecond;
+    private final Duration admissionWindow;
+    private final Duration tickInterval;
+
+    private final Map<Long, WaitingRoom> rooms = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a WaitingRoomService with the configured admission policy.
+     * 
+     * @param showtimeRepository  Repository used to find the showtimes flagged as high demand
+     * @param enabled             Whether high-demand showtimes require queueing
+     * @param capacity            Maximum number of waiting or admitted visitors per showtime
+     * @param admissionsPerSecond Number of visitors admitted per second and showtime
+     * @param admissionWindow     How long an admitted visitor may take to book
+     * @param tickInterval        How often admissions are released
+     */
+    @Autowired
+    public WaitingRoomService(ShowtimeRepository showtimeRepository,
+            @Value("${popcorn.booking.waiting-room.enabled:true}") boolean enabled,
+            @Value("${popcorn.booking.waiting-room.capacity:100000}") int capacity,
+            @Value("${popcorn.booking.waiting-room.admissions-per-second:50}") double admissionsPerSecond,
+            @Value("${popcorn.booking.waiting-room.admission-window:5m}") Duration admissionWindow,
+            @Value("${popcorn.booking.waiting-room.tick-interval:100ms}") Duration tickInterval) {
+        this.showtimeRepository = showtimeRepository;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.admissionsPerSecond = admissionsPerSecond;
+        this.admissionWindow = admissionWindow;
+        this.tickInterval = tickInterval;
+    }
+
+    /**
+     * Opens the waiting rooms of the showtimes already flagged as high demand and starts releasing admissions.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        showtimeRepository.findIdsByHighDemandTrue().forEach(this::openRoom);
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("waiting-room-admission").daemon().factory());
+        scheduler.scheduleAtFixedRate(this::advanceAll,
+                tickInterval.toMillis(), tickInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops releasing admissions.
+     */
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Opens or closes the waiting room of a showtime. Closing it discards every queued visitor.
+     * Does not open any room while waiting rooms are disabled.
+     * 
+     * @param showtimeId ID of the showtime
+     * @param highDemand Whether bookings for the showtime must go through the waiting room
+     */
+    public void setHighDemand(Long showtimeId, boolean highDemand) {
+        if (highDemand && enabled) {
+            openRoom(showtimeId);
+        } else {
+            rooms.remove(showtimeId);
+        }
+    }
+
+    /**
+     * Adds a visitor to the waiting room of a showtime.
+     * 
+     * @param showtimeId ID of the showtime to queue for
+     * @return Status of the visitor, including the token to poll with
+     * 
+     * @throws InvalidRequestException if the showtime does not require queueing
+     * @throws QueueFullException      if the waiting room is full
+     */
+    public QueueStatusDTO join(Long showtimeId) {
+        WaitingRoom room = rooms.get(showtimeId);
+        if (room == null) {
+            throw new InvalidRequestException("Showtime " + showtimeId + " does not require queueing");
+        }
+        WaitingRoom.Ticket ticket = room.join();
+        if (ticket == null) {
+            throw new QueueFullException(showtimeId);
+        }
+        String token = showtimeId + TOKEN_SEPARATOR + ticket.sequence() + TOKEN_SEPARATOR
+                + Long.toHexString(ticket.secret());
+        return toStatus(token, showtimeId, room, room.position(ticket.sequence(), ticket.secret(), now()));
+    }
+
+    /**
+     * Returns the current status of a queue token. Only touches memory, so it is cheap to poll.
+     * 
+     * @param token Token received when joining the queue
+     * @return Status of the visitor
+     * 
+     * @throws InvalidRequestException   if the token is malformed
+     * @throws ResourceNotFoundException if the token is unknown, used or expired
+     */
+    public QueueStatusDTO getStatus(String token) {
+        ParsedToken parsed = parse(token);
+        WaitingRoom room = rooms.get(parsed.showtimeId());
+        long position = room == null ? -1 : room.position(parsed.sequence(), parsed.secret(), now());
+        if (position < 0) {
+            throw new ResourceNotFoundException("Queue token", "value", token);
+        }
+        return toStatus(token, parsed.showtimeId(), room, position);
+    }
+
+    /**
+     * Claims the admission of a token for a booking of the given showtime, so that the same token cannot
+     * run other bookings until this one is over. Showtimes that are not high demand, and every showtime
+     * while waiting rooms are disabled, are always admitted.
+     * 
+     * @param showtimeId ID of the showtime being booked
+     * @param token      Queue token sent with the booking, may be null
+     * @return The claimed admission, to be consumed or released once the booking is over, or null if the
+     *         showtime does not require queueing
+     * 
+     * @throws QueueAdmissionException if the showtime requires queueing and the token has not been admitted,
+     *                                 or is already being used by another booking
+     */
+    public Admission claimAdmission(Long showtimeId, String token) {
+        WaitingRoom room = enabled ? rooms.get(showtimeId) : null;
+        if (room == null) {
+            return null;
+        }
+        if (token == null) {
+            throw new QueueAdmissionException("Showtime " + showtimeId + " is in high demand, join the queue first");
+        }
+        ParsedToken parsed = parseOrNull(token);
+        if (parsed == null || !parsed.showtimeId().equals(showtimeId)) {
+            throw new QueueAdmissionException("Queue token is not valid for showtime " + showtimeId);
+        }
+        long position = room.claim(parsed.sequence(), parsed.secret(), now());
+        if (position == WaitingRoom.IN_USE) {
+            throw new QueueAdmissionException("Queue token is already being used by another booking");
+        }
+        if (position < 0) {
+            throw new QueueAdmissionException("Queue token is unknown, used or expired");
+        }
+        if (position > 0) {
+            throw new QueueAdmissionException("Not admitted yet, " + position + " visitor(s) ahead in the queue");
+        }
+        return new Admission(showtimeId, parsed.sequence(), parsed.secret());
+    }
+
+    /**
+     * Marks a claimed admission as used once its booking is over.
+     * 
+     * @param admission The claimed admission, may be null
+     */
+    public void consumeAdmission(Admission admission) {
+        WaitingRoom room = admission == null ? null : rooms.get(admission.showtimeId());
+        if (room != null) {
+            room.consume(admission.sequence(), admission.secret());
+        }
+    }
+
+    /**
+     * Gives a claimed admission back after its booking was rejected without booking anything,
+     * so that the visitor can try again within the admission window.
+     * 
+     * @param admission The claimed admission, may be null
+     */
+    public void releaseAdmission(Admission admission) {
+        WaitingRoom room = admission == null ? null : rooms.get(admission.showtimeId());
+        if (room != null) {
+            room.release(admission.sequence(), admission.secret());
+        }
+    }
+
+    /**
+     * Releases the admissions due in every open waiting room.
+     */
+    void advanceAll() {
+        long now = now();
+        rooms.values().forEach(room -> room.advance(now));
+    }
+
+    // Helper methods
+
+    /**
+     * Opens the waiting room of a showtime unless it is already open or waiting rooms are disabled,
+     * in which case no scheduler would ever admit its visitors.
+     * 
+     * @param showtimeId ID of the showtime
+     */
+    private void openRoom(Long showtimeId) {
+        if (!enabled) {
+            return;
+        }
+        rooms.computeIfAbsent(showtimeId,
+                id -> new WaitingRoom(capacity, admissionsPerSecond, admissionWindow.toMillis(), now()));
+    }
+
+    /**
+     * Builds the status of a visitor from their position in the queue.
+     * 
+     * @param token      Queue token of the visitor
+     * @param showtimeId ID of the showtime
+     * @param room       Waiting room of the showtime
+     * @param position   Number of visitors ahead, 0 once admitted
+     * @return The visitor's status
+     */
+    private QueueStatusDTO toStatus(String token, Long showtimeId, WaitingRoom room, long position) {
+        long waitSeconds = (long) Math.ceil(position / room.getAdmissionsPerSecond());
+        return new QueueStatusDTO(token, showtimeId, position == 0 ? "ADMITTED" : "WAITING", position, waitSeconds);
+    }
+
+    /**
+     * Parses a queue token of the form showtimeId.sequence.secret.
+     * 
+     * @param token The token to parse
+     * @return The parsed token
+     * @throws InvalidRequestException if the token is malformed
+     */
+    private ParsedToken parse(String token) {
+        ParsedToken parsed = parseOrNull(token);
+        if (parsed == null) {
+            throw new InvalidRequestException("Malformed queue token");
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses a queue token, returning null instead of failing.
+     * 
+     * @param token The token to parse
+     * @return The parsed token, or null if it is malformed
+     */
+    private ParsedToken parseOrNull(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new ParsedToken(Long.valueOf(parts[0]), Long.parseLong(parts[1]),
+                    Long.parseUnsignedLong(parts[2], 16));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the current time used for admissions.
+     * 
+     * @return The current time, in milliseconds
+     */
+    private long now() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Components of a queue token.
+     */
+    private record ParsedToken(Long showtimeId, long sequence, long secret) {
+    }
+
+    /**
+     * Admission claimed by a booking in progress.
+     *
+     * @param showtimeId ID of the showtime being booked
+     * @param sequence   Sequence number of the token
+     * @param secret     Secret of the token
+     */
+    public record Admission(Long showtimeId, long sequence, long secret) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.att.tdp.popcorn_palace.throttling;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limiter whose limit follows the measured latency (gradient algorithm).
+ * <p>
+ * Two moving averages of the request latency are kept: a short one that reacts to the current load
+ * and a long one that represents the latency of an unloaded system. While the short average stays
+ * close to the long one, the limit grows by roughly its square root per sample; when requests start
+ * queueing (short latency rising above the long one) the limit shrinks proportionally. Requests over
+ * the limit are rejected immediately instead of queueing on the connection pool.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double SHORT_WINDOW_WEIGHT = 0.1;
+    private static final double LONG_WINDOW_WEIGHT = 0.002;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    /**
+     * Constructs an AdaptiveConcurrencyLimiter.
+     *
+     * @param initialLimit Concurrency limit used until latency samples are available
+     * @param minLimit     Lowest limit the algorithm may settle on
+     * @param maxLimit     Highest limit the algorithm may settle on
+     * @param rttTolerance Ratio of short to long latency tolerated before the limit shrinks (e.g. 1.5)
+     * @param smoothing    Weight of each new limit estimate, between 0 (frozen) and 1 (no smoothing)
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double rttTolerance,
+            double smoothing) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * Tries to admit a request.
+     *
+     * @return true if the request may proceed, in which case {@link #release(long)} must be called when it ends
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Releases an admitted request and feeds its latency into the limit estimate.
+     *
+     * @param rttNanos Time the request took, in nanoseconds
+     */
+    public void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (rttNanos > 0) {
+            onSample(rttNanos, inFlightBefore);
+        }
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     *
+     * @return The limit, rounded down
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Returns the number of requests currently admitted.
+     *
+     * @return The number of requests in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the number of requests rejected since startup.
+     *
+     * @return The rejected request count
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Updates the latency averages and recomputes the limit.
+     *
+     * @param rttNanos       Latency of the finished request
+     * @param inFlightBefore Number of requests in flight when it finished
+     */
+    private synchronized void onSample(long rttNanos, int inFlightBefore) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) * SHORT_WINDOW_WEIGHT;
+        longRttNanos += (rttNanos - longRttNanos) * LONG_WINDOW_WEIGHT;
+
+        // After a sustained latency shift, let the baseline catch up instead of shrinking forever
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // Do not grow the limit while the system is not using it
+        double currentLimit = limit;
+        if (inFlightBefore < currentLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+        double queueAllowance = Math.sqrt(currentLimit);
+        double estimate = currentLimit * gradient + queueAllowance;
+        double next = currentLimit * (1 - smoothing) + estimate * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
@@ -0,0 +1,117 @@
+package com.att.tdp.popcorn_palace.throttling;
+
+import com.att.tdp.popcorn_palace.exception.RateLimitExceededException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user and per-client-address rate limiting of booking attempts.
+ * A request must pass both limits: the user limit throttles a scalper hammering with one account, the
+ * address limit throttles a bot rotating through user IDs. Behind a load balancer the client address is
+ * taken from X-Forwarded-For of trusted proxies ({@code server.forward-headers-strategy}); otherwise every
+ * client would share the balancer's address and its limit.
+ */
+@Component
+public class BookingRateLimiter {
+    private final TokenBucketRateLimiter userLimiter;
+    private final TokenBucketRateLimiter addressLimiter;
+    private final boolean enabled;
+    private final Duration evictionInterval;
+
+    private ScheduledExecutorService evictionScheduler;
+
+    /**
+     * Constructs a BookingRateLimiter.
+     * 
+     * @param userLimiter      Limiter keyed by user ID
+     * @param addressLimiter   Limiter keyed by client address
+     * @param enabled          Whether booking attempts are rate limited
+     * @param evictionInterval How often idle buckets are evicted
+     */
+    @Autowired
+    public BookingRateLimiter(@Qualifier("bookingUserRateLimiter") TokenBucketRateLimiter userLimiter,
+            @Qualifier("bookingAddressRateLimiter") TokenBucketRateLimiter addressLimiter,
+            @Value("${popcorn.booking.rate-limit.enabled:true}") boolean enabled,
+            @Value("${popcorn.booking.rate-limit.eviction-interval:1m}") Duration evictionInterval) {
+        this.userLimiter = userLimiter;
+        this.addressLimiter = addressLimiter;
+        this.enabled = enabled;
+        this.evictionInterval = evictionInterval;
+    }
+
+    /**
+     * Starts the periodic eviction of idle buckets.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        evictionScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("rate-limit-eviction").daemon().factory());
+        evictionScheduler.scheduleWithFixedDelay(this::evictIdle,
+                evictionInterval.toMillis(), evictionInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic eviction.
+     */
+    @PreDestroy
+    public void stop() {
+        if (evictionScheduler != null) {
+            evictionScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Charges one booking attempt to a user and a client address.
+     * 
+     * @param userId        ID of the user making the booking
+     * @param clientAddress Address of the client sending the request
+     * 
+     * @throws RateLimitExceededException if either the user or the address has exceeded its rate
+     */
+    public void checkBookingAttempt(String userId, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        if (clientAddress != null) {
+            check(addressLimiter, clientAddress, "Too many booking attempts from this address");
+        }
+        if (userId != null) {
+            check(userLimiter, userId, "Too many booking attempts for this user");
+        }
+    }
+
+    /**
+     * Takes a token from one limiter.
+     * 
+     * @param limiter The limiter to charge
+     * @param key     The key to charge
+     * @param message Message of the rejection
+     * @throws RateLimitExceededException if the key has no token left
+     */
+    private void check(TokenBucketRateLimiter limiter, String key, String message) {
+        long waitMillis = limiter.tryAcquire(key);
+        if (waitMillis > 0) {
+            throw new RateLimitExceededException(message, (waitMillis + 999) / 1000);
+        }
+    }
+
+    /**
+     * Evicts the idle buckets of both limiters.
+     */
+    private void evictIdle() {
+        userLimiter.evictIdle();
+        addressLimiter.evictIdle();
+    }
+}
@@ -0,0 +1,97 @@
+package com.att.tdp.popcorn_palace.throttling;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Semaphore bulkhead bounding how many requests of one class may run at the same time.
+ * Each class of endpoints gets its own bulkhead, so a storm in one class can only occupy its own
+ * share of the request threads and never starves the others.
+ */
+public class Bulkhead {
+    private final String name;
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructs a Bulkhead.
+     *
+     * @param name          Name of the bulkhead, used in metrics
+     * @param maxConcurrent Number of requests allowed to run concurrently
+     * @param maxWait       How long a request may wait for a free slot before being rejected
+     */
+    public Bulkhead(String name, int maxConcurrent, Duration maxWait) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Tries to enter the bulkhead, waiting at most the configured time.
+     *
+     * @return true if the caller entered and must call {@link #exit()} afterwards
+     */
+    public boolean tryEnter() {
+        boolean entered;
+        try {
+            entered = maxWaitNanos == 0
+                    ? permits.tryAcquire()
+                    : permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entered = false;
+        }
+        if (!entered) {
+            rejected.increment();
+        }
+        return entered;
+    }
+
+    /**
+     * Leaves the bulkhead.
+     */
+    public void exit() {
+        permits.release();
+    }
+
+    /**
+     * Returns the name of the bulkhead.
+     *
+     * @return The bulkhead name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of requests currently inside the bulkhead.
+     *
+     * @return The number of active requests
+     */
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * Returns the saturation of the bulkhead.
+     *
+     * @return The fraction of slots in use, between 0 and 1
+     */
+    public double getSaturation() {
+        return (double) getActive() / maxConcurrent;
+    }
+
+    /**
+     * Returns the number of requests rejected since startup.
+     *
+     * @return The rejected request count
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
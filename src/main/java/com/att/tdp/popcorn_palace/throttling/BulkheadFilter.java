@@ -0,0 +1,76 @@
+package com.att.tdp.popcorn_palace.throttling;
+
+import com.att.tdp.popcorn_palace.config.DataSourcePartition;
+import com.att.tdp.popcorn_palace.exception.ErrorResponseTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter isolating catalog reads from writes.
+ * GET requests run in the read bulkhead on the read connection pool; bookings and every other
+ * mutation run in the write bulkhead on the write connection pool. A saturated bulkhead sheds its
+ * own requests with 503 Service Unavailable without affecting the other one.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+    private final Bulkhead readBulkhead;
+    private final Bulkhead writeBulkhead;
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+
+    /**
+     * Constructs a BulkheadFilter.
+     * 
+     * @param readBulkhead      Bulkhead of the read endpoints
+     * @param writeBulkhead     Bulkhead of the write endpoints
+     * @param objectMapper      Mapper used to write the rejection body
+     * @param retryAfterSeconds Delay suggested to rejected clients
+     */
+    public BulkheadFilter(Bulkhead readBulkhead, Bulkhead writeBulkhead, ObjectMapper objectMapper,
+            long retryAfterSeconds) {
+        this.readBulkhead = readBulkhead;
+        this.writeBulkhead = writeBulkhead;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = Long.toString(retryAfterSeconds);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        DataSourcePartition partition = HttpMethod.GET.matches(request.getMethod())
+                ? DataSourcePartition.READ
+                : DataSourcePartition.WRITE;
+        Bulkhead bulkhead = partition == DataSourcePartition.READ ? readBulkhead : writeBulkhead;
+
+        if (!bulkhead.tryEnter()) {
+            ErrorResponseTemplate template = ErrorResponseTemplate.SERVICE_UNAVAILABLE;
+            response.setStatus(template.statusCode());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    template.body("Too many concurrent " + bulkhead.getName() + " requests, please retry later"));
+            return;
+        }
+
+        DataSourcePartition.set(partition);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DataSourcePartition.set(null);
+            bulkhead.exit();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+}
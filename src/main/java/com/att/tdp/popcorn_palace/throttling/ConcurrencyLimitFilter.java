@@ -0,0 +1,58 @@
+package com.att.tdp.popcorn_palace.throttling;
+
+import com.att.tdp.popcorn_palace.exception.ErrorResponseTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter that admits requests through an {@link AdaptiveConcurrencyLimiter}.
+ * Requests over the limit are shed immediately with 503 Service Unavailable and a Retry-After header.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+
+    /**
+     * Constructs a ConcurrencyLimitFilter.
+     * 
+     * @param limiter           Limiter deciding which requests are admitted
+     * @param objectMapper      Mapper used to write the rejection body
+     * @param retryAfterSeconds Delay suggested to rejected clients
+     */
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper,
+            long retryAfterSeconds) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = Long.toString(retryAfterSeconds);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            ErrorResponseTemplate template = ErrorResponseTemplate.SERVICE_UNAVAILABLE;
+            response.setStatus(template.statusCode());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    template.body("Booking capacity exceeded, please retry later"));
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+}
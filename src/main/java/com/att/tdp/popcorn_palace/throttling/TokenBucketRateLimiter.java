@@ -0,0 +1,296 @@
+package com.att.tdp.popcorn_palace.throttling;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter keyed by an arbitrary string (user ID, client address, ...).
+ * <p>
+ * Each bucket is a single {@link AtomicLong} packing the time of its last refill (upper 40 bits,
+ * milliseconds since the limiter was created) and its content in thousandths of a token (lower 24 bits),
+ * so taking a token is one lock-free compare-and-set. Buckets are spread over independently bounded
+ * stripes. A bucket that has refilled completely carries no information, so idle buckets are evicted
+ * without changing any decision. Evicting a bucket first marks it as evicted with a compare-and-set, so a
+ * request racing with the eviction either takes its token before the mark or moves to a fresh bucket;
+ * it can never draw from a bucket that was already replaced.
+ * <p>
+ * Idle buckets are swept by {@link #evictIdle()}, which the owner calls periodically. A new key arriving
+ * at a full stripe only inspects a few buckets of the stripe; if none of them is idle, the key is charged
+ * to a bucket shared by all overflowing keys of the stripe, so rotating keys cannot bypass the limit nor
+ * force a scan of the whole stripe.
+ */
+public class TokenBucketRateLimiter {
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI_TOKENS_PER_TOKEN = 1000;
+
+    /**
+     * State of a bucket that has been evicted and must no longer be charged.
+     */
+    private static final long EVICTED = -1;
+
+    /**
+     * Number of buckets inspected for eviction when a new key arrives at a full stripe.
+     */
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final String name;
+    private final long capacityMilliTokens;
+    private final double milliTokensPerMilli;
+    private final int maxEntriesPerStripe;
+    private final Map<String, AtomicLong>[] stripes;
+    private final AtomicLong[] overflowBuckets;
+    private final LongSupplier clock;
+    private final long epochMillis;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+
+    /**
+     * Constructs a TokenBucketRateLimiter using the system clock.
+     *
+     * @param name            Name of the limiter, used in metrics
+     * @param capacity        Number of requests a key may burst
+     * @param tokensPerSecond Sustained number of requests per second and key
+     * @param maxEntries      Upper bound of the number of tracked keys
+     * @param stripes         Number of stripes (rounded up to a power of two)
+     */
+    public TokenBucketRateLimiter(String name, int capacity, double tokensPerSecond, int maxEntries, int stripes) {
+        this(name, capacity, tokensPerSecond, maxEntries, stripes, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a TokenBucketRateLimiter with the given clock.
+     *
+     * @param name            Name of the limiter, used in metrics
+     * @param capacity        Number of requests a key may burst
+     * @param tokensPerSecond Sustained number of requests per second and key
+     * @param maxEntries      Upper bound of the number of tracked keys
+     * @param stripes         Number of stripes (rounded up to a power of two)
+     * @param clock           Source of the current time, in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    TokenBucketRateLimiter(String name, int capacity, double tokensPerSecond, int maxEntries, int stripes,
+            LongSupplier clock) {
+        if (capacity < 1 || capacity * MILLI_TOKENS_PER_TOKEN > TOKEN_MASK) {
+            throw new IllegalArgumentException("Bucket capacity must be between 1 and " + TOKEN_MASK / 1000);
+        }
+        int stripeCount = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.name = name;
+        this.capacityMilliTokens = capacity * MILLI_TOKENS_PER_TOKEN;
+        // Thousandths of a token per millisecond is numerically the same as tokens per second
+        this.milliTokensPerMilli = tokensPerSecond;
+        this.maxEntriesPerStripe = Math.max(1, maxEntries / stripeCount);
+        this.stripes = new Map[stripeCount];
+        this.overflowBuckets = new AtomicLong[stripeCount];
+        this.clock = clock;
+        this.epochMillis = clock.getAsLong();
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+            this.overflowBuckets[i] = new AtomicLong(pack(0, capacityMilliTokens));
+        }
+    }
+
+    /**
+     * Tries to take one token from the bucket of a key.
+     *
+     * @param key The key to charge
+     * @return 0 if the request is allowed, otherwise the number of milliseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong() - epochMillis;
+        int stripeIndex = stripeIndexOf(key);
+        Map<String, AtomicLong> stripe = stripes[stripeIndex];
+        while (true) {
+            AtomicLong bucket = stripe.get(key);
+            if (bucket == null) {
+                if (stripe.size() >= maxEntriesPerStripe && evictSample(stripe, now) == 0) {
+                    untracked.increment();
+                    return take(overflowBuckets[stripeIndex], now);
+                }
+                bucket = stripe.computeIfAbsent(key, k -> new AtomicLong(pack(now, capacityMilliTokens)));
+            }
+            long wait = take(bucket, now);
+            if (wait != EVICTED) {
+                return wait;
+            }
+            // Evicted concurrently: make sure it is gone before creating a fresh bucket
+            stripe.remove(key, bucket);
+        }
+    }
+
+    /**
+     * Tries to take one token from a bucket.
+     *
+     * @param bucket The bucket to charge
+     * @param now    Current time relative to the limiter epoch
+     * @return 0 if a token was taken, the number of milliseconds until one is available,
+     *         or {@link #EVICTED} if the bucket has been evicted
+     */
+    private long take(AtomicLong bucket, long now) {
+        while (true) {
+            long state = bucket.get();
+            if (state == EVICTED) {
+                return EVICTED;
+            }
+            long available = refilled(state, now);
+            if (available < MILLI_TOKENS_PER_TOKEN) {
+                rejected.increment();
+                return (long) Math.ceil((MILLI_TOKENS_PER_TOKEN - available) / milliTokensPerMilli);
+            }
+            if (bucket.compareAndSet(state, pack(now, available - MILLI_TOKENS_PER_TOKEN))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Removes every bucket that has refilled completely.
+     *
+     * @return The number of evicted buckets
+     */
+    public int evictIdle() {
+        long now = clock.getAsLong() - epochMillis;
+        int evicted = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            evicted += evictIdle(stripe, now);
+        }
+        return evicted;
+    }
+
+    /**
+     * Returns the name of the limiter.
+     *
+     * @return The limiter name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of keys currently tracked.
+     *
+     * @return The number of buckets
+     */
+    public int getTrackedKeys() {
+        int size = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of requests rejected since startup.
+     *
+     * @return The rejected request count
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns the number of requests charged to the shared bucket of their stripe because it was full.
+     *
+     * @return The untracked request count
+     */
+    public long getUntrackedCount() {
+        return untracked.sum();
+    }
+
+    /**
+     * Removes the buckets of one stripe that have refilled completely.
+     *
+     * @param stripe The stripe to sweep
+     * @param now    Current time relative to the limiter epoch
+     * @return The number of evicted buckets
+     */
+    private int evictIdle(Map<String, AtomicLong> stripe, long now) {
+        int evicted = 0;
+        for (Map.Entry<String, AtomicLong> entry : stripe.entrySet()) {
+            if (tryEvict(stripe, entry.getKey(), entry.getValue(), now)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Removes the idle buckets among the first few buckets of a stripe.
+     *
+     * @param stripe The stripe to sample
+     * @param now    Current time relative to the limiter epoch
+     * @return The number of evicted buckets
+     */
+    private int evictSample(Map<String, AtomicLong> stripe, long now) {
+        int evicted = 0;
+        int inspected = 0;
+        for (Map.Entry<String, AtomicLong> entry : stripe.entrySet()) {
+            if (tryEvict(stripe, entry.getKey(), entry.getValue(), now)) {
+                evicted++;
+            }
+            if (++inspected == EVICTION_SAMPLE) {
+                break;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Evicts a bucket if it has refilled completely. The bucket is marked as evicted before it is removed,
+     * so no request can take a token from it once it has been judged idle.
+     *
+     * @param stripe The stripe holding the bucket
+     * @param key    Key of the bucket
+     * @param bucket The bucket
+     * @param now    Current time relative to the limiter epoch
+     * @return Whether the bucket was evicted
+     */
+    private boolean tryEvict(Map<String, AtomicLong> stripe, String key, AtomicLong bucket, long now) {
+        long state = bucket.get();
+        if (state == EVICTED || refilled(state, now) < capacityMilliTokens
+                || !bucket.compareAndSet(state, EVICTED)) {
+            return false;
+        }
+        stripe.remove(key, bucket);
+        return true;
+    }
+
+    /**
+     * Computes the content of a bucket at the given time.
+     *
+     * @param state Packed state of the bucket
+     * @param now   Current time relative to the limiter epoch
+     * @return The available thousandths of a token
+     */
+    private long refilled(long state, long now) {
+        long elapsed = Math.max(0, now - (state >>> TOKEN_BITS));
+        long tokens = state & TOKEN_MASK;
+        return Math.min(capacityMilliTokens, tokens + (long) (elapsed * milliTokensPerMilli));
+    }
+
+    /**
+     * Selects the stripe holding a key.
+     *
+     * @param key The key
+     * @return The index of the stripe of the key
+     */
+    private int stripeIndexOf(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    /**
+     * Packs a refill time and a bucket content into one long.
+     *
+     * @param time        Refill time relative to the limiter epoch
+     * @param milliTokens Content of the bucket, in thousandths of a token
+     * @return The packed state
+     */
+    private static long pack(long time, long milliTokens) {
+        return (time << TOKEN_BITS) | milliTokens;
+    }
+}
@@ -0,0 +1,254 @@
+package com.att.tdp.popcorn_palace.throttling;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Admission queue of one high-demand showtime.
+ * <p>
+ * Every visitor receives a sequence number and a random secret; together they form the queue token.
+ * The secrets live in a ring buffer indexed by sequence number, so the whole queue costs two longs per
+ * slot and looking a token up is a single array access. The buffer starts small and doubles whenever
+ * every slot is in use, up to the capacity, so a showtime flagged in advance costs little until its
+ * queue actually fills. Visitors are admitted strictly
+ * in order by advancing the admitted-up-to sequence at the configured rate; an admitted token stays
+ * valid for the admission window or until it is used for a booking, after which its slot is reused.
+ * A booking claims its admitted token before it runs, so one token cannot run several bookings at once.
+ */
+public class WaitingRoom {
+    /** Result of {@link #claim} for an admitted token already claimed by a booking in progress. */
+    public static final long IN_USE = -2;
+
+    /** Number of slots allocated when the room opens. */
+    static final int INITIAL_SLOTS = 64;
+
+    private long[] secrets;
+    private long[] admittedAtMillis;
+    private boolean[] claimed;
+    private final int capacity;
+    private final double admissionsPerMilli;
+    private final long admissionWindowMillis;
+
+    /** Sequence of the oldest slot that may still hold a live token. */
+    private long head;
+    /** Sequence handed to the next visitor. */
+    private long tail;
+    /** Visitors with a lower sequence have been admitted. */
+    private volatile long admittedUpTo;
+    private double admissionCredit;
+    private long lastAdvanceMillis;
+
+    /**
+     * Constructs a WaitingRoom.
+     *
+     * @param capacity              Maximum number of waiting or admitted visitors
+     * @param admissionsPerSecond   Rate at which visitors are admitted
+     * @param admissionWindowMillis How long an admitted visitor may take to book
+     * @param nowMillis             Current time, in milliseconds
+     */
+    public WaitingRoom(int capacity, double admissionsPerSecond, long admissionWindowMillis, long nowMillis) {
+        this.capacity = capacity;
+        int slots = Math.min(capacity, INITIAL_SLOTS);
+        this.secrets = new long[slots];
+        this.admittedAtMillis = new long[slots];
+        this.claimed = new boolean[slots];
+        this.admissionsPerMilli = admissionsPerSecond / 1000;
+        this.admissionWindowMillis = admissionWindowMillis;
+        this.lastAdvanceMillis = nowMillis;
+    }
+
+    /**
+     * Adds a visitor to the end of the queue.
+     *
+     * @return The visitor's ticket, or null if the queue is full
+     */
+    public synchronized Ticket join() {
+        if (tail - head >= capacity) {
+            return null;
+        }
+        if (tail - head >= secrets.length) {
+            grow();
+        }
+        long secret;
+        do {
+            secret = ThreadLocalRandom.current().nextLong();
+        } while (secret == 0);
+        long sequence = tail++;
+        secrets[slot(sequence)] = secret;
+        claimed[slot(sequence)] = false;
+        return new Ticket(sequence, secret);
+    }
+
+    /**
+     * Admits the visitors whose turn has come since the last call and releases the slots of used
+     * or expired admissions. Called periodically by the admission scheduler.
+     *
+     * @param nowMillis Current time, in milliseconds
+     */
+    public synchronized void advance(long nowMillis) {
+        admissionCredit += (nowMillis - lastAdvanceMillis) * admissionsPerMilli;
+        lastAdvanceMillis = nowMillis;
+
+        long admitted = admittedUpTo;
+        while (admissionCredit >= 1 && admitted < tail) {
+            admittedAtMillis[slot(admitted)] = nowMillis;
+            admitted++;
+            admissionCredit--;
+        }
+        // Credit does not pile up while nobody is waiting
+        if (admitted == tail) {
+            admissionCredit = Math.min(admissionCredit, 1);
+        }
+        admittedUpTo = admitted;
+
+        while (head < admitted
+                && (secrets[slot(head)] == 0 || nowMillis - admittedAtMillis[slot(head)] > admissionWindowMillis)) {
+            secrets[slot(head)] = 0;
+            claimed[slot(head)] = false;
+            head++;
+        }
+    }
+
+    /**
+     * Returns the state of a ticket.
+     *
+     * @param sequence  Sequence number of the ticket
+     * @param secret    Secret of the ticket
+     * @param nowMillis Current time, in milliseconds
+     * @return The number of visitors ahead of the ticket (0 once admitted), or -1 if the ticket is
+     *         unknown, used or expired
+     */
+    public synchronized long position(long sequence, long secret, long nowMillis) {
+        if (!isLive(sequence, secret)) {
+            return -1;
+        }
+        long admitted = admittedUpTo;
+        if (sequence >= admitted) {
+            return sequence - admitted + 1;
+        }
+        return nowMillis - admittedAtMillis[slot(sequence)] > admissionWindowMillis ? -1 : 0;
+    }
+
+    /**
+     * Claims an admitted ticket for a booking, so that no other booking can use it until it is released
+     * or consumed.
+     *
+     * @param sequence  Sequence number of the ticket
+     * @param secret    Secret of the ticket
+     * @param nowMillis Current time, in milliseconds
+     * @return 0 if the ticket was claimed, the number of visitors ahead if it is not admitted yet, -1 if it
+     *         is unknown, used or expired, or {@link #IN_USE} if another booking has claimed it
+     */
+    public synchronized long claim(long sequence, long secret, long nowMillis) {
+        long position = position(sequence, secret, nowMillis);
+        if (position != 0) {
+            return position;
+        }
+        if (claimed[slot(sequence)]) {
+            return IN_USE;
+        }
+        claimed[slot(sequence)] = true;
+        return 0;
+    }
+
+    /**
+     * Releases a claimed ticket whose booking was rejected, so that it can be used again.
+     *
+     * @param sequence Sequence number of the ticket
+     * @param secret   Secret of the ticket
+     */
+    public synchronized void release(long sequence, long secret) {
+        if (isLive(sequence, secret)) {
+            claimed[slot(sequence)] = false;
+        }
+    }
+
+    /**
+     * Consumes an admitted ticket so that it cannot be used again.
+     *
+     * @param sequence Sequence number of the ticket
+     * @param secret   Secret of the ticket
+     */
+    public synchronized void consume(long sequence, long secret) {
+        if (isLive(sequence, secret)) {
+            secrets[slot(sequence)] = 0;
+            claimed[slot(sequence)] = false;
+        }
+    }
+
+    /**
+     * Returns the number of visitors still waiting for admission.
+     *
+     * @return The queue length
+     */
+    public synchronized long getWaiting() {
+        return tail - admittedUpTo;
+    }
+
+    /**
+     * Returns the rate at which visitors are admitted.
+     *
+     * @return Admissions per second
+     */
+    public double getAdmissionsPerSecond() {
+        return admissionsPerMilli * 1000;
+    }
+
+    /**
+     * Determines whether a ticket still occupies its slot.
+     *
+     * @param sequence Sequence number of the ticket
+     * @param secret   Secret of the ticket
+     * @return true if the ticket is neither unknown, used nor released
+     */
+    private boolean isLive(long sequence, long secret) {
+        return sequence >= head && sequence < tail && secret != 0 && secrets[slot(sequence)] == secret;
+    }
+
+    /**
+     * Doubles the ring buffer, up to the capacity, moving the live slots to their place in the new one.
+     */
+    private void grow() {
+        int length = (int) Math.min(capacity, 2L * secrets.length);
+        long[] grownSecrets = new long[length];
+        long[] grownAdmittedAtMillis = new long[length];
+        boolean[] grownClaimed = new boolean[length];
+        for (long sequence = head; sequence < tail; sequence++) {
+            int from = slot(sequence);
+            int to = (int) (sequence % length);
+            grownSecrets[to] = secrets[from];
+            grownAdmittedAtMillis[to] = admittedAtMillis[from];
+            grownClaimed[to] = claimed[from];
+        }
+        secrets = grownSecrets;
+        admittedAtMillis = grownAdmittedAtMillis;
+        claimed = grownClaimed;
+    }
+
+    /**
+     * Returns the number of slots currently allocated.
+     *
+     * @return The length of the ring buffer
+     */
+    synchronized int getAllocatedSlots() {
+        return secrets.length;
+    }
+
+    /**
+     * Maps a sequence number to its ring buffer slot.
+     *
+     * @param sequence Sequence number
+     * @return Index into the ring buffer
+     */
+    private int slot(long sequence) {
+        return (int) (sequence % secrets.length);
+    }
+
+    /**
+     * Position handed to a visitor joining the queue.
+     *
+     * @param sequence Order of the visitor in the queue
+     * @param secret   Random value proving ownership of the position
+     */
+    public record Ticket(long sequence, long secret) {
+    }
+}
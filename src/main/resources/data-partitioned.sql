@@ -0,0 +1,7 @@
+-- Sample theaters for the partitioned schema (10 rows of 10 seats).
+-- Showtimes are not seeded here: their partitions are created by PartitionMaintenanceJob after startup.
+INSERT INTO theaters (name, seat_rows, seats_per_row, section_layout) VALUES
+('Theater 1', 10, 10, '10'),
+('Theater 2', 10, 10, '10'),
+('Theater 3', 10, 10, '10')
+ON CONFLICT DO NOTHING;
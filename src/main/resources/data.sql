@@ -1,16 +1,55 @@
+-- Runs at every startup, so the sample data is only inserted where it is missing.
+-- Larger data sets are loaded from a snapshot instead (see popcorn.snapshot.import-file)
+
 -- Insert sample movies
 INSERT INTO movies (title, genre, duration, rating, release_year) VALUES
 ('The Avengers', 'Action', 143, 8.0, 2012),
 ('Inception', 'Sci-Fi', 148, 8.8, 2010),
 ('The Shawshank Redemption', 'Drama', 142, 9.3, 1994),
 ('The Dark Knight', 'Action', 152, 9.0, 2008),
-('Pulp Fiction', 'Crime', 154, 8.9, 1994);
+('Pulp Fiction', 'Crime', 154, 8.9, 1994)
+ON CONFLICT DO NOTHING;
+
+-- Insert sample theaters (10 rows of 10 seats)
+INSERT INTO theaters (name, seat_rows, seats_per_row, section_layout) VALUES
+('Theater 1', 10, 10, '10'),
+('Theater 2', 10, 10, '10'),
+('Theater 3', 10, 10, '10')
+ON CONFLICT DO NOTHING;
+
+-- Insert sample showtimes into an empty database, referring to movies and theaters by name.
+-- Runs once: seed_history records the step, so a database emptied later (e.g. by archiving) stays empty
+INSERT INTO showtimes (movie_id, theater_id, start_time, end_time, price)
+SELECT m.id, t.id, CAST(v.start_time AS TIMESTAMP WITH TIME ZONE), CAST(v.end_time AS TIMESTAMP WITH TIME ZONE),
+       v.price
+FROM (VALUES
+    ('The Avengers', 'Theater 1', '2025-04-01T10:00:00Z', '2025-04-01T12:30:00Z', 15.99),
+    ('The Avengers', 'Theater 2', '2025-04-01T14:00:00Z', '2025-04-01T16:30:00Z', 15.99),
+    ('Inception', 'Theater 1', '2025-04-01T13:00:00Z', '2025-04-01T15:30:00Z', 14.99),
+    ('The Shawshank Redemption', 'Theater 3', '2025-04-01T19:00:00Z', '2025-04-01T21:30:00Z', 16.99),
+    ('The Dark Knight', 'Theater 2', '2025-04-01T20:00:00Z', '2025-04-01T22:30:00Z', 17.99),
+    ('Pulp Fiction', 'Theater 1', '2025-04-01T22:00:00Z', '2025-04-02T00:30:00Z', 18.99)
+) AS v (title, theater, start_time, end_time, price)
+JOIN movies m ON m.title = v.title
+JOIN theaters t ON t.name = v.theater
+WHERE NOT EXISTS (SELECT 1 FROM showtimes)
+  AND NOT EXISTS (SELECT 1 FROM seed_history WHERE name = 'sample-showtimes');
+
+-- Seed the sales rollups of showtimes that have none (no tickets sold yet)
+INSERT INTO showtime_sales (showtime_id, seats_offered, tickets_sold, revenue_cents)
+SELECT s.id, t.seat_rows * t.seats_per_row, 0, 0
+FROM showtimes s JOIN theaters t ON t.id = s.theater_id
+WHERE NOT EXISTS (SELECT 1 FROM showtime_sales ss WHERE ss.showtime_id = s.id)
+ON CONFLICT DO NOTHING;
+
+INSERT INTO daily_sales (sales_day, movie_id, theater_id, showtime_count, seats_offered, tickets_sold, revenue_cents)
+SELECT CAST(s.start_time AT TIME ZONE 'UTC' AS DATE), s.movie_id, s.theater_id, COUNT(*),
+       SUM(t.seat_rows * t.seats_per_row), 0, 0
+FROM showtimes s JOIN theaters t ON t.id = s.theater_id
+WHERE NOT EXISTS (SELECT 1 FROM daily_sales)
+  AND NOT EXISTS (SELECT 1 FROM seed_history WHERE name = 'sample-showtimes')
+GROUP BY CAST(s.start_time AT TIME ZONE 'UTC' AS DATE), s.movie_id, s.theater_id;
 
--- Insert sample showtimes
-INSERT INTO showtimes (movie_id, theater, start_time, end_time, price) VALUES
-(1, 'Theater 1', '2025-04-01T10:00:00Z', '2025-04-01T12:30:00Z', 15.99),
-(1, 'Theater 2', '2025-04-01T14:00:00Z', '2025-04-01T16:30:00Z', 15.99),
-(2, 'Theater 1', '2025-04-01T13:00:00Z', '2025-04-01T15:30:00Z', 14.99),
-(3, 'Theater 3', '2025-04-01T19:00:00Z', '2025-04-01T21:30:00Z', 16.99),
-(4, 'Theater 2', '2025-04-01T20:00:00Z', '2025-04-01T22:30:00Z', 17.99),
-(5, 'Theater 1', '2025-04-01T22:00:00Z', '2025-04-02T00:30:00Z', 18.99);
\ No newline at end of file
+-- Databases seeded before seed_history existed are marked too, as their showtimes are already in place
+INSERT INTO seed_history (name, applied_at) VALUES ('sample-showtimes', CURRENT_TIMESTAMP)
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,99 @@
+-- Partitioned variant of schema.sql for PostgreSQL 15 or later, applied by the "partitioned" profile.
+-- Showtimes are range-partitioned by month on start_time, and bookings are co-partitioned on the start
+-- time of their showtime, so that queries on upcoming showtimes only touch the partitions of their months.
+-- Monthly partitions are created ahead of time and detached after the retention period by
+-- PartitionMaintenanceJob. The script does not drop anything and is safe to run at every startup.
+
+-- Create theaters table (showtimes refer to theaters by id)
+CREATE TABLE IF NOT EXISTS theaters (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE,
+    seat_rows INTEGER NOT NULL,
+    seats_per_row INTEGER NOT NULL,
+    section_layout VARCHAR(255) NOT NULL
+);
+
+-- Create movies table
+CREATE TABLE IF NOT EXISTS movies (
+    id SERIAL PRIMARY KEY,
+    title VARCHAR(255) NOT NULL UNIQUE,
+    genre VARCHAR(100) NOT NULL,
+    duration INTEGER NOT NULL,
+    rating DOUBLE PRECISION NOT NULL,
+    release_year INTEGER NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+-- Optimistic locking version, added to databases created before it existed
+ALTER TABLE movies ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Create showtimes table, partitioned by month of start_time.
+-- Keys of a partitioned table must include the partition key, so the primary key is (id, start_time);
+-- IDs stay unique because they all come from the same sequence.
+CREATE TABLE IF NOT EXISTS showtimes (
+    id SERIAL,
+    movie_id BIGINT NOT NULL,
+    theater_id INTEGER NOT NULL,
+    start_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    end_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    price DOUBLE PRECISION NOT NULL,
+    high_demand BOOLEAN NOT NULL DEFAULT FALSE,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, start_time),
+    FOREIGN KEY (movie_id) REFERENCES movies(id),
+    FOREIGN KEY (theater_id) REFERENCES theaters(id)
+) PARTITION BY RANGE (start_time);
+
+-- Optimistic locking version, added to databases created before it existed
+ALTER TABLE showtimes ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Indexes are created on every partition
+CREATE INDEX IF NOT EXISTS idx_showtimes_theater_start ON showtimes (theater_id, start_time, id);
+CREATE INDEX IF NOT EXISTS idx_showtimes_start ON showtimes (start_time, id);
+CREATE INDEX IF NOT EXISTS idx_showtimes_movie_start ON showtimes (movie_id, start_time, id);
+
+-- Create bookings table, partitioned like showtimes on the start time of the booked showtime.
+-- Rescheduling a showtime moves its bookings to the partition of the new month (ON UPDATE CASCADE).
+-- The seat constraint includes showtime_start only because partitioned keys must; a showtime has one start time.
+CREATE TABLE IF NOT EXISTS bookings (
+    booking_id UUID NOT NULL,
+    showtime_id BIGINT NOT NULL,
+    showtime_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    seat_number INTEGER NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    booking_time TIMESTAMP NOT NULL,
+    PRIMARY KEY (booking_id, showtime_start),
+    FOREIGN KEY (showtime_id, showtime_start) REFERENCES showtimes(id, start_time) ON UPDATE CASCADE,
+    -- A seat can be booked only once per showtime; bookings rely on this to resolve conflicts
+    CONSTRAINT uk_bookings_showtime_seat UNIQUE (showtime_id, seat_number, showtime_start)
+) PARTITION BY RANGE (showtime_start);
+
+-- Sales rollups for reporting (amounts in cents). Not partitioned: they hold a few rows per showtime or day.
+-- showtime_sales cannot reference showtimes(id) alone; its rows are removed by the application instead.
+CREATE TABLE IF NOT EXISTS showtime_sales (
+    showtime_id BIGINT NOT NULL,
+    seats_offered INTEGER NOT NULL,
+    tickets_sold BIGINT NOT NULL,
+    revenue_cents BIGINT NOT NULL,
+    stripe INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS daily_sales (
+    sales_day DATE NOT NULL,
+    movie_id BIGINT NOT NULL,
+    theater_id INTEGER NOT NULL,
+    showtime_count INTEGER NOT NULL,
+    seats_offered BIGINT NOT NULL,
+    tickets_sold BIGINT NOT NULL,
+    revenue_cents BIGINT NOT NULL,
+    stripe INTEGER NOT NULL DEFAULT 0
+);
+
+-- Sales are spread over stripes of each rollup row so that concurrent bookings rarely update the same
+-- row; readers sum the stripes. Databases created before the stripes existed have their key widened.
+ALTER TABLE showtime_sales ADD COLUMN IF NOT EXISTS stripe INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE showtime_sales DROP CONSTRAINT IF EXISTS showtime_sales_pkey;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_showtime_sales_stripe ON showtime_sales (showtime_id, stripe);
+ALTER TABLE daily_sales ADD COLUMN IF NOT EXISTS stripe INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE daily_sales DROP CONSTRAINT IF EXISTS daily_sales_pkey;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_daily_sales_stripe ON daily_sales (sales_day, movie_id, theater_id, stripe);
@@ -1,7 +1,14 @@
--- Drop tables if they exist to avoid conflicts
-DROP TABLE IF EXISTS bookings;
-DROP TABLE IF EXISTS showtimes;
-DROP TABLE IF EXISTS movies;
+-- Runs at every startup, so it only creates what is missing and never drops tables;
+-- changes to existing tables need their own ALTER statements
+
+-- Create theaters table (showtimes refer to theaters by id)
+CREATE TABLE IF NOT EXISTS theaters (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE,
+    seat_rows INTEGER NOT NULL,
+    seats_per_row INTEGER NOT NULL,
+    section_layout VARCHAR(255) NOT NULL
+);
 
 -- Create movies table
 CREATE TABLE IF NOT EXISTS movies (
@@ -10,26 +17,88 @@ CREATE TABLE IF NOT EXISTS movies (
     genre VARCHAR(100) NOT NULL,
     duration INTEGER NOT NULL,
     rating DOUBLE PRECISION NOT NULL,
-    release_year INTEGER NOT NULL
+    release_year INTEGER NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
+-- Optimistic locking version, added to databases created before it existed
+ALTER TABLE movies ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
 -- Create showtimes table
 CREATE TABLE IF NOT EXISTS showtimes (
     id SERIAL PRIMARY KEY,
     movie_id BIGINT NOT NULL,
-    theater VARCHAR(100) NOT NULL,
+    theater_id INTEGER NOT NULL,
     start_time TIMESTAMP WITH TIME ZONE NOT NULL,
     end_time TIMESTAMP WITH TIME ZONE NOT NULL,
     price DOUBLE PRECISION NOT NULL,
-    FOREIGN KEY (movie_id) REFERENCES movies(id)
+    high_demand BOOLEAN NOT NULL DEFAULT FALSE,
+    version BIGINT NOT NULL DEFAULT 0,
+    FOREIGN KEY (movie_id) REFERENCES movies(id),
+    FOREIGN KEY (theater_id) REFERENCES theaters(id),
+    -- Target of the bookings' (showtime_id, showtime_start) reference, as in the partitioned schema
+    CONSTRAINT uk_showtimes_id_start UNIQUE (id, start_time)
 );
 
+-- Optimistic locking version, added to databases created before it existed
+ALTER TABLE showtimes ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Overlap checks, per-theater schedules and searches read a range of one theater's showtimes
+CREATE INDEX IF NOT EXISTS idx_showtimes_theater_start ON showtimes (theater_id, start_time, id);
+
+-- Showtime searches page through (start_time, id), optionally for one movie
+CREATE INDEX IF NOT EXISTS idx_showtimes_start ON showtimes (start_time, id);
+CREATE INDEX IF NOT EXISTS idx_showtimes_movie_start ON showtimes (movie_id, start_time, id);
+
 -- Create bookings table
 CREATE TABLE IF NOT EXISTS bookings (
     booking_id UUID PRIMARY KEY,
     showtime_id BIGINT NOT NULL,
+    -- Start time of the showtime, copied on insert and kept in sync on reschedule; the partitioned
+    -- schema partitions bookings on it. Left nullable so that a missing showtime fails the foreign key
+    showtime_start TIMESTAMP WITH TIME ZONE,
     seat_number INTEGER NOT NULL,
     user_id VARCHAR(255) NOT NULL,
     booking_time TIMESTAMP NOT NULL,
-    FOREIGN KEY (showtime_id) REFERENCES showtimes(id)
-);
\ No newline at end of file
+    FOREIGN KEY (showtime_id) REFERENCES showtimes(id),
+    FOREIGN KEY (showtime_id, showtime_start) REFERENCES showtimes(id, start_time) ON UPDATE CASCADE,
+    -- A seat can be booked only once per showtime; bookings rely on this to resolve conflicts
+    CONSTRAINT uk_bookings_showtime_seat UNIQUE (showtime_id, seat_number)
+);
+
+-- Sales rollups for reporting, updated in the same transaction as bookings and showtimes (amounts in cents)
+CREATE TABLE IF NOT EXISTS showtime_sales (
+    showtime_id BIGINT NOT NULL,
+    seats_offered INTEGER NOT NULL,
+    tickets_sold BIGINT NOT NULL,
+    revenue_cents BIGINT NOT NULL,
+    stripe INTEGER NOT NULL DEFAULT 0,
+    FOREIGN KEY (showtime_id) REFERENCES showtimes(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS daily_sales (
+    sales_day DATE NOT NULL,
+    movie_id BIGINT NOT NULL,
+    theater_id INTEGER NOT NULL,
+    showtime_count INTEGER NOT NULL,
+    seats_offered BIGINT NOT NULL,
+    tickets_sold BIGINT NOT NULL,
+    revenue_cents BIGINT NOT NULL,
+    stripe INTEGER NOT NULL DEFAULT 0
+);
+
+-- Sales are spread over stripes of each rollup row so that concurrent bookings rarely update the same
+-- row; readers sum the stripes. Databases created before the stripes existed have their key widened.
+ALTER TABLE showtime_sales ADD COLUMN IF NOT EXISTS stripe INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE showtime_sales DROP CONSTRAINT IF EXISTS showtime_sales_pkey;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_showtime_sales_stripe ON showtime_sales (showtime_id, stripe);
+ALTER TABLE daily_sales ADD COLUMN IF NOT EXISTS stripe INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE daily_sales DROP CONSTRAINT IF EXISTS daily_sales_pkey;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_daily_sales_stripe ON daily_sales (sales_day, movie_id, theater_id, stripe);
+
+-- One-time seed steps of data.sql that have run, so that a step does not run again once its rows
+-- are gone (e.g. after the sample showtimes were archived)
+CREATE TABLE IF NOT EXISTS seed_history (
+    name VARCHAR(100) PRIMARY KEY,
+    applied_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,229 @@
+package com.att.tdp.popcorn_palace;
+
+import com.att.tdp.popcorn_palace.controller.BookingController;
+import com.att.tdp.popcorn_palace.dto.BookingDTO;
+import com.att.tdp.popcorn_palace.dto.ShowtimeDTO;
+import com.att.tdp.popcorn_palace.exception.GlobalExceptionHandler;
+import com.att.tdp.popcorn_palace.exception.SeatUnavailableException;
+import com.att.tdp.popcorn_palace.service.BookingService;
+import com.att.tdp.popcorn_palace.service.OccupancyCounters;
+import com.att.tdp.popcorn_palace.service.ShowtimeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Stress tests of concurrent bookings against the application on H2.
+ * Thousands of bookings race for a few hot seats of a new showtime, through BookingService and through
+ * BookingController. Afterwards every seat must have exactly one booking, every accepted booking must be
+ * stored, and every other attempt must have been rejected as a taken seat. The throughput of each run is
+ * logged so that changes to the booking path can be shown to be both correct and faster.
+ * <p>
+ * Subclasses choose the configuration of the booking path, so the beans under test are the ones the
+ * application builds from it.
+ */
+public abstract class BookingStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingStressTest.class);
+
+    private static final int CLIENTS = 64;
+    private static final int ATTEMPTS = 2000;
+    private static final int HOT_SEATS = 8;
+    private static final AtomicInteger SHOWTIME_DAYS = new AtomicInteger();
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingController bookingController;
+
+    @Autowired
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Autowired
+    private OccupancyCounters occupancyCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShowtimeService showtimeService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Tests that concurrent bookings through the service book each hot seat exactly once.
+     *
+     * @throws Exception if the attempts cannot be run
+     */
+    @Test
+    void bookTicket_ConcurrentAttemptsOnHotSeats_ShouldBookEachSeatOnce() throws Exception {
+        // Given
+        long showtimeId = addShowtime();
+
+        // When
+        Map<UUID, Integer> accepted = runAttempts("service", seatNumber -> {
+            try {
+                return bookingService.bookTicket(
+                        new BookingDTO(showtimeId, seatNumber, UUID.randomUUID().toString()));
+            } catch (SeatUnavailableException e) {
+                return null;
+            }
+        });
+
+        // Then
+        assertBookedOnce(showtimeId, accepted);
+    }
+
+    /**
+     * Tests that concurrent bookings through the endpoint book each hot seat exactly once and answer
+     * every other attempt with 400 Bad Request for a taken seat.
+     *
+     * @throws Exception if the attempts cannot be run
+     */
+    @Test
+    void bookTicketEndpoint_ConcurrentAttemptsOnHotSeats_ShouldBookEachSeatOnce() throws Exception {
+        // Given
+        MockMvc mockMvc = MockMvcBuilders
+                .standaloneSetup(bookingController)
+                .setControllerAdvice(globalExceptionHandler)
+                .build();
+        long showtimeId = addShowtime();
+
+        // When
+        Map<UUID, Integer> accepted = runAttempts("endpoint", seatNumber -> {
+            BookingDTO booking = new BookingDTO(showtimeId, seatNumber, UUID.randomUUID().toString());
+            MvcResult result = mockMvc.perform(post("/bookings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(booking)))
+                    .andReturn();
+            String body = result.getResponse().getContentAsString();
+            if (result.getResponse().getStatus() == 400 && body.contains("is already taken")) {
+                return null;
+            }
+            assertEquals(200, result.getResponse().getStatus(), body);
+            return UUID.fromString(objectMapper.readTree(body).get("bookingId").asText());
+        });
+
+        // Then
+        assertBookedOnce(showtimeId, accepted);
+    }
+
+    /**
+     * A booking attempt for a seat of the hot showtime.
+     */
+    private interface Attempt {
+        /**
+         * Tries to book a seat.
+         *
+         * @param seatNumber The seat
+         * @return The ID of the booking, or null if the seat was taken
+         * @throws Exception if the attempt failed for any other reason
+         */
+        UUID book(int seatNumber) throws Exception;
+    }
+
+    /**
+     * Adds a showtime on a day of its own, so that each test books seats nobody else has booked.
+     */
+    private long addShowtime() {
+        Long movieId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM movies", Long.class);
+        String theater = jdbcTemplate.queryForObject("SELECT MIN(name) FROM theaters", String.class);
+        ZonedDateTime start = ZonedDateTime.now().plusYears(5).plusDays(SHOWTIME_DAYS.incrementAndGet());
+        return showtimeService.addShowtime(
+                new ShowtimeDTO(null, movieId, theater, start, start.plusHours(3), 12.5)).getId();
+    }
+
+    /**
+     * Runs all attempts from the clients at once, spread evenly over the hot seats, and logs the throughput.
+     *
+     * @param label   Path the attempts take, for the log
+     * @param attempt Books a seat
+     * @return The seat of each accepted booking, by booking ID
+     */
+    private Map<UUID, Integer> runAttempts(String label, Attempt attempt) throws Exception {
+        Map<UUID, Integer> accepted = new ConcurrentHashMap<>();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            int seatNumber = 1 + i % HOT_SEATS;
+            tasks.add(() -> {
+                startSignal.await();
+                UUID bookingId = attempt.book(seatNumber);
+                if (bookingId == null) {
+                    rejected.incrementAndGet();
+                } else {
+                    assertNull(accepted.put(bookingId, seatNumber), "Booking ID returned twice");
+                }
+                return null;
+            });
+        }
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                results.add(clients.submit(task));
+            }
+            long start = System.nanoTime();
+            startSignal.countDown();
+            for (Future<Void> result : results) {
+                result.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            log.info("Booking stress ({}, {}): {} attempts from {} clients in {} ms, {} attempts/s",
+                    label, getClass().getSimpleName(), ATTEMPTS, CLIENTS, elapsed / 1_000_000,
+                    Math.round(ATTEMPTS * 1e9 / elapsed));
+        } finally {
+            clients.shutdownNow();
+        }
+
+        assertEquals(ATTEMPTS, accepted.size() + rejected.get());
+        return accepted;
+    }
+
+    /**
+     * Asserts that each hot seat was accepted once, that the stored bookings are exactly the accepted ones,
+     * and that no seat of any showtime has two bookings.
+     */
+    private void assertBookedOnce(long showtimeId, Map<UUID, Integer> accepted) {
+        assertEquals(HOT_SEATS, accepted.size());
+        assertEquals(HOT_SEATS, accepted.values().stream().distinct().count());
+
+        Map<UUID, Integer> stored = jdbcTemplate.query(
+                        "SELECT booking_id, seat_number FROM bookings WHERE showtime_id = ?",
+                        (rs, rowNum) -> Map.entry(rs.getObject(1, UUID.class), rs.getInt(2)), showtimeId)
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        assertEquals(accepted, stored);
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT showtime_id, seat_number "
+                + "FROM bookings GROUP BY showtime_id, seat_number HAVING COUNT(*) > 1) duplicates", Integer.class));
+        assertEquals(HOT_SEATS, occupancyCounters.getBookedSeats(showtimeId));
+    }
+}
@@ -0,0 +1,13 @@
+package com.att.tdp.popcorn_palace;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Booking stress tests with each booking inserted in a transaction of its own.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "popcorn.booking.rate-limit.enabled=false",
+        "popcorn.booking.group-commit.enabled=false"})
+public class DirectBookingStressTest extends BookingStressTest {
+}
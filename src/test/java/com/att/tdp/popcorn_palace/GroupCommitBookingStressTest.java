@@ -0,0 +1,14 @@
+package com.att.tdp.popcorn_palace;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Booking stress tests with bookings inserted through the group-commit stage, configured from the
+ * popcorn.booking.group-commit settings of application.yaml.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "popcorn.booking.rate-limit.enabled=false",
+        "popcorn.booking.group-commit.enabled=true"})
+public class GroupCommitBookingStressTest extends BookingStressTest {
+}
@@ -0,0 +1,121 @@
+package com.att.tdp.popcorn_palace.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ColumnarArchiveWriter and ColumnarArchiveReader classes.
+ * Tests that every column type survives a round trip and that scans only read the requested columns.
+ */
+public class ColumnarArchiveTest {
+
+    private static final List<ArchiveColumn> COLUMNS = List.of(
+            new ArchiveColumn("id", ColumnType.LONG),
+            new ArchiveColumn("seat", ColumnType.INT),
+            new ArchiveColumn("time", ColumnType.TIMESTAMP),
+            new ArchiveColumn("price", ColumnType.DOUBLE),
+            new ArchiveColumn("user", ColumnType.STRING));
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that rows are read back with the values and Java types they were written with.
+     */
+    @Test
+    void scan_ShouldReturnWrittenRows() throws IOException {
+        // Given
+        Path file = directory.resolve("rows.colgz");
+        ColumnarArchiveWriter writer = new ColumnarArchiveWriter(COLUMNS);
+        writer.addRow(5L, -3, Instant.parse("2025-04-01T10:00:00Z"), 15.99, "user-ü");
+        writer.addRow(2L, 100_000, Instant.parse("2025-03-01T10:00:00.123Z"), 0.0, "");
+        writer.addRow(Long.MAX_VALUE, Integer.MIN_VALUE, Instant.EPOCH, -1.5, "user-3");
+        writer.writeTo(file);
+
+        // When
+        ColumnarArchiveReader reader = new ColumnarArchiveReader(file);
+        List<List<Object>> rows = new ArrayList<>();
+        reader.scan(List.of("user", "id", "seat", "time", "price"), values -> rows.add(List.of(values)));
+
+        // Then
+        assertEquals(COLUMNS, reader.getColumns());
+        assertEquals(3, reader.getRowCount());
+        assertEquals(List.of(
+                List.of("user-ü", 5L, -3, Instant.parse("2025-04-01T10:00:00Z"), 15.99),
+                List.of("", 2L, 100_000, Instant.parse("2025-03-01T10:00:00.123Z"), 0.0),
+                List.of("user-3", Long.MAX_VALUE, Integer.MIN_VALUE, Instant.EPOCH, -1.5)), rows);
+    }
+
+    /**
+     * Tests that a scan does not read the blocks of other columns, by damaging one of them.
+     */
+    @Test
+    void scan_ShouldNotReadOtherColumns() throws IOException {
+        // Given
+        Path file = directory.resolve("pruned.colgz");
+        ColumnarArchiveWriter writer = new ColumnarArchiveWriter(List.of(
+                new ArchiveColumn("id", ColumnType.LONG), new ArchiveColumn("user", ColumnType.STRING)));
+        for (long id = 1; id <= 1000; id++) {
+            writer.addRow(id, "user-" + id);
+        }
+        writer.writeTo(file);
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(raw.length() - 20);
+            raw.write(new byte[20]);
+        }
+
+        // When
+        ColumnarArchiveReader reader = new ColumnarArchiveReader(file);
+        long[] sum = {0};
+        reader.scan(List.of("id"), values -> {
+            sum[0] += (Long) values[0];
+            return true;
+        });
+
+        // Then
+        assertEquals(500_500L, sum[0]);
+        assertThrows(IOException.class, () -> reader.scan(List.of("user"), values -> true));
+    }
+
+    /**
+     * Tests that a scan stops as soon as the consumer returns false.
+     */
+    @Test
+    void scan_WhenConsumerReturnsFalse_ShouldStop() throws IOException {
+        // Given
+        Path file = directory.resolve("stop.colgz");
+        ColumnarArchiveWriter writer = new ColumnarArchiveWriter(List.of(new ArchiveColumn("id", ColumnType.LONG)));
+        for (long id = 1; id <= 10; id++) {
+            writer.addRow(id);
+        }
+        writer.writeTo(file);
+
+        // When
+        List<Object> seen = new ArrayList<>();
+        new ColumnarArchiveReader(file).scan(List.of("id"), values -> seen.add(values[0]) && seen.size() < 3);
+
+        // Then
+        assertEquals(List.of(1L, 2L, 3L), seen);
+    }
+
+    /**
+     * Tests that rows with a wrong number of values or a null value are rejected.
+     */
+    @Test
+    void addRow_WhenRowInvalid_ShouldThrowIllegalArgumentException() {
+        ColumnarArchiveWriter writer = new ColumnarArchiveWriter(COLUMNS);
+
+        assertThrows(IllegalArgumentException.class, () -> writer.addRow(1L, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.addRow(1L, 2, Instant.EPOCH, 1.0, null));
+    }
+}
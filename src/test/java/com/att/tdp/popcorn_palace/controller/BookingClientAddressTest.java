@@ -0,0 +1,59 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.dto.BookingDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the per-address booking limit behind a proxy, on a running server.
+ * Requests come from the loopback address, which the server trusts as a proxy, and carry the client
+ * address in X-Forwarded-For.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "popcorn.booking.rate-limit.address.capacity=1",
+        "popcorn.booking.rate-limit.address.tokens-per-second=0.001" })
+public class BookingClientAddressTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    /**
+     * Tests that clients behind the same proxy have their own booking limits.
+     */
+    @Test
+    void bookTicket_ThroughProxy_ShouldLimitEachForwardedAddress() {
+        // When
+        HttpStatus first = book("203.0.113.1", "address-user-1");
+        HttpStatus second = book("203.0.113.2", "address-user-2");
+        HttpStatus repeated = book("203.0.113.1", "address-user-3");
+
+        // Then
+        assertNotEquals(HttpStatus.TOO_MANY_REQUESTS, first);
+        assertNotEquals(HttpStatus.TOO_MANY_REQUESTS, second);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, repeated);
+    }
+
+    /**
+     * Books a seat of a missing showtime on behalf of a client behind the proxy.
+     *
+     * @param clientAddress Address of the client, as forwarded by the proxy
+     * @param userId        ID of the user booking
+     * @return Status of the response
+     */
+    private HttpStatus book(String clientAddress, String userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Forwarded-For", clientAddress);
+        ResponseEntity<String> response = restTemplate.postForEntity("/bookings",
+                new HttpEntity<>(new BookingDTO(Long.MAX_VALUE, 1, userId), headers), String.class);
+        return HttpStatus.valueOf(response.getStatusCode().value());
+    }
+}
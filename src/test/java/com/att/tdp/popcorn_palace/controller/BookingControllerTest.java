@@ -1,7 +1,14 @@
 package com.att.tdp.popcorn_palace.controller;
 
 import com.att.tdp.popcorn_palace.dto.BookingDTO;
+import com.att.tdp.popcorn_palace.exception.GlobalExceptionHandler;
+import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
+import com.att.tdp.popcorn_palace.exception.SeatUnavailableException;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
 import com.att.tdp.popcorn_palace.service.BookingService;
+import com.att.tdp.popcorn_palace.service.SeatAllocationService;
+import com.att.tdp.popcorn_palace.service.WaitingRoomService;
+import com.att.tdp.popcorn_palace.throttling.BookingRateLimiter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,8 +19,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.time.Duration;
 import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -29,6 +40,18 @@ public class BookingControllerTest {
     @Mock
     private BookingService bookingService;
 
+    @Mock
+    private SeatAllocationService seatAllocationService;
+
+    @Mock
+    private WaitingRoomService waitingRoomService;
+
+    @Mock
+    private BookingRateLimiter bookingRateLimiter;
+
+    @Mock
+    private ShowtimeRepository showtimeRepository;
+
     @InjectMocks
     private BookingController bookingController;
 
@@ -42,7 +65,9 @@ public class BookingControllerTest {
      */
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(bookingController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(bookingController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
         objectMapper = new ObjectMapper();
     }
 
@@ -71,4 +96,74 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.bookingId").value(expectedBookingId.toString()));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that a booking uses up the admission it claimed when it succeeds, but gives it back when the
+     * seat turns out to be taken, so that the visitor can pick another seat.
+     * 
+     * @throws Exception if an error occurs during the test
+     */
+    @Test
+    public void bookTicket_WithQueueToken_ShouldConsumeAdmissionOnlyWhenBooked() throws Exception {
+        // Given
+        BookingDTO bookingDTO = new BookingDTO(1L, 42, "user-1");
+        WaitingRoomService.Admission admission = new WaitingRoomService.Admission(1L, 0, 7);
+        when(waitingRoomService.claimAdmission(1L, "1.0.7")).thenReturn(admission);
+        when(bookingService.bookTicket(any(BookingDTO.class)))
+                .thenThrow(new SeatUnavailableException(42))
+                .thenReturn(UUID.randomUUID());
+
+        // When
+        mockMvc.perform(post("/bookings")
+                .header(BookingController.QUEUE_TOKEN_HEADER, "1.0.7")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bookingDTO)))
+                .andExpect(status().isBadRequest());
+
+        // Then
+        verify(waitingRoomService).releaseAdmission(admission);
+        verify(waitingRoomService, never()).consumeAdmission(any());
+
+        // When
+        mockMvc.perform(post("/bookings")
+                .header(BookingController.QUEUE_TOKEN_HEADER, "1.0.7")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bookingDTO)))
+                .andExpect(status().isOk());
+
+        // Then
+        verify(waitingRoomService).consumeAdmission(admission);
+    }
+
+    /**
+     * Tests that with waiting rooms disabled, a showtime flagged as high demand is booked without a
+     * queue token instead of rejecting every booking.
+     * 
+     * @throws Exception if an error occurs during the test
+     */
+    @Test
+    public void bookTicket_HighDemandWithWaitingRoomsDisabled_ShouldBookWithoutToken() throws Exception {
+        // Given
+        WaitingRoomService disabledWaitingRooms = new WaitingRoomService(showtimeRepository, false, 100, 50,
+                Duration.ofMinutes(5), Duration.ofMillis(100));
+        disabledWaitingRooms.start();
+        disabledWaitingRooms.setHighDemand(1L, true);
+        MockMvc disabledMockMvc = MockMvcBuilders
+                .standaloneSetup(new BookingController(bookingService, seatAllocationService, disabledWaitingRooms,
+                        bookingRateLimiter))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        UUID expectedBookingId = UUID.randomUUID();
+        when(bookingService.bookTicket(any(BookingDTO.class))).thenReturn(expectedBookingId);
+
+        // When
+        disabledMockMvc.perform(post("/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BookingDTO(1L, 42, "user-1"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookingId").value(expectedBookingId.toString()));
+
+        // Then
+        assertThrows(InvalidRequestException.class, () -> disabledWaitingRooms.join(1L));
+    }
+}
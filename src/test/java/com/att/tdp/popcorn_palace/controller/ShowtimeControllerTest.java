@@ -1,6 +1,9 @@
 package com.att.tdp.popcorn_palace.controller;
 
 import com.att.tdp.popcorn_palace.dto.ShowtimeDTO;
+import com.att.tdp.popcorn_palace.dto.ShowtimePageDTO;
+import com.att.tdp.popcorn_palace.dto.VersionedDTO;
+import com.att.tdp.popcorn_palace.exception.PreconditionFailedException;
 import com.att.tdp.popcorn_palace.exception.ResourceNotFoundException;
 import com.att.tdp.popcorn_palace.service.ShowtimeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -8,14 +11,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -52,18 +60,19 @@ public class ShowtimeControllerTest {
 
     /**
      * Tests the getShowtimeById endpoint with a valid ID.
-     * Verifies that the endpoint returns the showtime with correct data.
+     * Verifies that the endpoint returns the showtime with correct data and the ETag of its version.
      * 
      * @throws Exception if an error occurs during the test
      */
     @Test
     void getShowtimeById_ShouldReturnShowtime() throws Exception {
         // When
-        when(showtimeService.getShowtimeById(1L)).thenReturn(showtimeDTO);
+        when(showtimeService.getVersionedShowtimeById(1L)).thenReturn(new VersionedDTO<>(showtimeDTO, 2L));
 
         // Then
         mockMvc.perform(get("/showtimes/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.movieId").value(1))
                 .andExpect(jsonPath("$.theater").value("Theater 1"))
@@ -79,7 +88,7 @@ public class ShowtimeControllerTest {
     @Test
     void getShowtimeById_ShouldReturnNotFound() throws Exception {
         // When
-        when(showtimeService.getShowtimeById(999L))
+        when(showtimeService.getVersionedShowtimeById(999L))
                 .thenThrow(new ResourceNotFoundException("Showtime not found with ID: 999"));
 
         // Then
@@ -118,13 +127,15 @@ public class ShowtimeControllerTest {
     @Test
     void updateShowtime_ShouldUpdateAndReturnShowtime() throws Exception {
         // When
-        when(showtimeService.updateShowtime(eq(1L), any(ShowtimeDTO.class))).thenReturn(showtimeDTO);
+        when(showtimeService.updateShowtime(eq(1L), any(ShowtimeDTO.class), isNull()))
+                .thenReturn(new VersionedDTO<>(showtimeDTO, 3L));
 
         // Then
         mockMvc.perform(post("/showtimes/update/1")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(showtimeDTO)))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.movieId").value(1))
                 .andExpect(jsonPath("$.theater").value("Theater 1"))
@@ -140,7 +151,7 @@ public class ShowtimeControllerTest {
     @Test
     void updateShowtime_ShouldReturnNotFound() throws Exception {
         // When
-        when(showtimeService.updateShowtime(eq(999L), any(ShowtimeDTO.class)))
+        when(showtimeService.updateShowtime(eq(999L), any(ShowtimeDTO.class), isNull()))
                 .thenThrow(new ResourceNotFoundException("Showtime not found with ID: 999"));
 
         // Then
@@ -150,6 +161,69 @@ public class ShowtimeControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    /**
+     * Tests the updateShowtime endpoint with an If-Match header.
+     * Verifies that the version is passed on to the service, and that a stale version or an ETag
+     * that is not a version is answered with 412 Precondition Failed.
+     * 
+     * @throws Exception if an error occurs during the test
+     */
+    @Test
+    void updateShowtime_WithIfMatch_ShouldUpdateOnlyMatchingVersion() throws Exception {
+        // When
+        when(showtimeService.updateShowtime(eq(1L), any(ShowtimeDTO.class), eq(Set.of(3L))))
+                .thenReturn(new VersionedDTO<>(showtimeDTO, 4L));
+        when(showtimeService.updateShowtime(eq(1L), any(ShowtimeDTO.class), eq(Set.of(2L))))
+                .thenThrow(new PreconditionFailedException("Showtime 1", Set.of(2L), 3L));
+
+        // Then
+        mockMvc.perform(post("/showtimes/update/1")
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(showtimeDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+        mockMvc.perform(post("/showtimes/update/1")
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(showtimeDTO)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value(containsString("has changed")));
+        mockMvc.perform(post("/showtimes/update/1")
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(showtimeDTO)))
+                .andExpect(status().isPreconditionFailed());
+        verify(showtimeService, times(2)).updateShowtime(eq(1L), any(ShowtimeDTO.class), any());
+    }
+
+    /**
+     * Tests the updateShowtime endpoint with an If-Match header listing several ETags.
+     * Verifies that every strong version of the list is passed on to the service and weak ETags are skipped.
+     * 
+     * @throws Exception if an error occurs during the test
+     */
+    @Test
+    void updateShowtime_WithIfMatchList_ShouldAcceptAnyListedVersion() throws Exception {
+        // When
+        when(showtimeService.updateShowtime(eq(1L), any(ShowtimeDTO.class), eq(Set.of(2L, 3L))))
+                .thenReturn(new VersionedDTO<>(showtimeDTO, 4L));
+
+        // Then
+        mockMvc.perform(post("/showtimes/update/1")
+                .header(HttpHeaders.IF_MATCH, "W/\"9\", \"2\",\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(showtimeDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+        mockMvc.perform(post("/showtimes/update/1")
+                .header(HttpHeaders.IF_MATCH, "W/\"2\", \"abc\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(showtimeDTO)))
+                .andExpect(status().isPreconditionFailed());
+        verify(showtimeService, times(1)).updateShowtime(eq(1L), any(ShowtimeDTO.class), any());
+    }
+
     /**
      * Tests the deleteShowtime endpoint with a valid ID.
      * Verifies that the endpoint successfully processes a delete request and returns 204 No Content.
@@ -201,4 +275,27 @@ public class ShowtimeControllerTest {
                 .content(objectMapper.writeValueAsString(invalidDTO)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the searchShowtimes endpoint with filters and a page size.
+     * Verifies that the filters are passed on and the page is returned with its cursor.
+     * 
+     * @throws Exception if an error occurs during the test
+     */
+    @Test
+    void searchShowtimes_ShouldReturnPage() throws Exception {
+        // When
+        when(showtimeService.searchShowtimes(eq(1L), eq("Theater 1"), any(), isNull(), isNull(), eq(10)))
+                .thenReturn(new ShowtimePageDTO(List.of(showtimeDTO), "next"));
+
+        // Then
+        mockMvc.perform(get("/showtimes")
+                .param("movieId", "1")
+                .param("theater", "Theater 1")
+                .param("from", "2030-01-01T00:00:00Z")
+                .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.showtimes[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+}
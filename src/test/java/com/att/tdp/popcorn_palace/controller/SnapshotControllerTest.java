@@ -0,0 +1,62 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.service.SnapshotService;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the SnapshotController class.
+ * Tests that the export endpoint only exists when it has been enabled.
+ */
+@WebMvcTest(SnapshotController.class)
+public class SnapshotControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SnapshotService snapshotService;
+
+    /**
+     * Tests that the export endpoint is not served by default.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void export_ByDefault_ShouldNotBeFound() throws Exception {
+        mockMvc.perform(get("/admin/snapshot"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Tests of the export endpoint once enabled.
+     */
+    @Nested
+    @TestPropertySource(properties = "popcorn.snapshot.export.enabled=true")
+    class WhenEnabled {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        /**
+         * Tests that the snapshot is streamed as an attachment.
+         *
+         * @throws Exception if the request fails
+         */
+        @Test
+        void export_ShouldStreamSnapshotAttachment() throws Exception {
+            mockMvc.perform(get("/admin/snapshot"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Disposition",
+                            "attachment; filename=\"popcorn-palace.snapshot\""));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.att.tdp.popcorn_palace.exception;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the GlobalExceptionHandler class.
+ * Tests the fast path used for expected business rejections.
+ */
+public class GlobalExceptionHandlerTest {
+
+    private GlobalExceptionHandler handler;
+
+    /**
+     * Set up the test environment before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        handler = new GlobalExceptionHandler();
+    }
+
+    /**
+     * Tests that seat conflicts are rejected with a 400 response and carry no stack trace.
+     */
+    @Test
+    void handleInvalidRequestException_WhenSeatTaken_ShouldRenderBadRequestTemplate() {
+        // Given
+        SeatUnavailableException exception = new SeatUnavailableException(5);
+
+        // When
+        ResponseEntity<Object> response = handler.handleInvalidRequestException(exception);
+
+        // Then
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        ErrorResponse body = assertInstanceOf(ErrorResponse.class, response.getBody());
+        assertEquals("Seat 5 is already taken for this showtime", body.message());
+        assertEquals(400, body.status());
+        assertNotNull(body.timestamp());
+    }
+
+    /**
+     * Tests that missing showtimes are rejected with a 404 response and carry no stack trace.
+     */
+    @Test
+    void handleEntityNotFoundException_WhenShowtimeMissing_ShouldRenderNotFoundTemplate() {
+        // Given
+        ShowtimeNotFoundException exception = new ShowtimeNotFoundException(42L);
+
+        // When
+        ResponseEntity<Object> response = handler.handleEntityNotFoundException(exception);
+
+        // Then
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        ErrorResponse body = assertInstanceOf(ErrorResponse.class, response.getBody());
+        assertEquals("Showtime not found with id: 42", body.message());
+        assertEquals(404, body.status());
+    }
+
+    /**
+     * Tests that bookings withdrawn after the group-commit timeout are rejected with a 503 response
+     * telling the client when to retry.
+     */
+    @Test
+    void handleBookingTimeoutException_ShouldRenderServiceUnavailableWithRetryAfter() {
+        // Given
+        BookingTimeoutException exception = new BookingTimeoutException("Not committed in time", 2, null);
+
+        // When
+        ResponseEntity<Object> response = handler.handleBookingTimeoutException(exception);
+
+        // Then
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        ErrorResponse body = assertInstanceOf(ErrorResponse.class, response.getBody());
+        assertEquals("Not committed in time", body.message());
+        assertEquals(503, body.status());
+    }
+}
@@ -0,0 +1,73 @@
+package com.att.tdp.popcorn_palace.monitoring;
+
+import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the FlightRecorderService class.
+ * Tests the continuous recording lifecycle and the on-demand dump.
+ */
+public class FlightRecorderServiceTest {
+
+    @TempDir
+    Path dumpDirectory;
+
+    private FlightRecorderService flightRecorderService;
+
+    /**
+     * Stops the recording started by a test.
+     */
+    @AfterEach
+    void tearDown() {
+        if (flightRecorderService != null) {
+            flightRecorderService.stop();
+        }
+    }
+
+    /**
+     * Tests that a dump of a running recording is written to the dump directory.
+     */
+    @Test
+    void dump_WhenRecording_ShouldWriteRecordingFile() throws Exception {
+        // Given
+        flightRecorderService = new FlightRecorderService(true, "default", Duration.ofMinutes(5), 64L << 20,
+                dumpDirectory);
+        flightRecorderService.start();
+
+        BookingAttemptEvent event = new BookingAttemptEvent();
+        event.begin();
+        event.showtimeId = 1L;
+        event.seatNumber = 5;
+        event.outcome = "BOOKED";
+        event.commit();
+
+        // When
+        Path file = flightRecorderService.dump(1);
+
+        // Then
+        assertEquals(dumpDirectory, file.getParent());
+        assertTrue(Files.size(file) > 0);
+    }
+
+    /**
+     * Tests that dumping is rejected when the continuous recording is disabled.
+     */
+    @Test
+    void dump_WhenDisabled_ShouldThrowInvalidRequestException() {
+        // Given
+        flightRecorderService = new FlightRecorderService(false, "default", Duration.ofMinutes(5), 64L << 20,
+                dumpDirectory);
+        flightRecorderService.start();
+
+        // Then
+        assertThrows(InvalidRequestException.class, () -> flightRecorderService.dump(1));
+    }
+}
@@ -0,0 +1,98 @@
+package com.att.tdp.popcorn_palace.monitoring;
+
+import com.att.tdp.popcorn_palace.dto.EndpointSqlStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SqlProfiler class.
+ * Tests the per-request aggregation and the detection of N+1 and unbounded queries.
+ */
+public class SqlProfilerTest {
+
+    private static final String ENDPOINT = "GET /showtimes/{showtimeId}";
+
+    private SqlProfiler sqlProfiler;
+
+    /**
+     * Set up the test environment before each test.
+     * Creates a profiler with a low statement threshold.
+     */
+    @BeforeEach
+    void setUp() {
+        sqlProfiler = new SqlProfiler(true, 3, 2);
+    }
+
+    /**
+     * Tests that statements and rows of a request are aggregated under its endpoint.
+     */
+    @Test
+    void endRequest_ShouldAggregateStatementsAndRowsPerEndpoint() {
+        // When
+        sqlProfiler.beginRequest();
+        sqlProfiler.recordStatement("select s1_0.id from showtimes s1_0 where s1_0.id=?");
+        sqlProfiler.recordRowFetched();
+        sqlProfiler.endRequest(ENDPOINT);
+
+        sqlProfiler.beginRequest();
+        sqlProfiler.recordStatement("select s1_0.id from showtimes s1_0 where s1_0.id=?");
+        sqlProfiler.endRequest(ENDPOINT);
+
+        // Then
+        List<EndpointSqlStatsDTO> stats = sqlProfiler.getEndpointStats();
+        assertEquals(1, stats.size());
+        assertEquals(ENDPOINT, stats.get(0).getEndpoint());
+        assertEquals(2, stats.get(0).getRequests());
+        assertEquals(2, stats.get(0).getStatements());
+        assertEquals(1, stats.get(0).getRowsFetched());
+        assertEquals(0, stats.get(0).getThresholdWarnings());
+    }
+
+    /**
+     * Tests that a statement repeated above the threshold is flagged as an N+1 pattern
+     * and that the request is flagged for exceeding the statement threshold.
+     */
+    @Test
+    void endRequest_WhenStatementRepeated_ShouldFlagNPlusOne() {
+        // When
+        sqlProfiler.beginRequest();
+        for (int i = 0; i < 4; i++) {
+            sqlProfiler.recordStatement("select b1_0.booking_id from bookings b1_0 where b1_0.showtime_id=?");
+        }
+        sqlProfiler.endRequest(ENDPOINT);
+
+        // Then
+        EndpointSqlStatsDTO stats = sqlProfiler.getEndpointStats().get(0);
+        assertEquals(1, stats.getSuspectedNPlusOneRequests());
+        assertEquals(1, stats.getThresholdWarnings());
+        assertEquals(4, stats.getMaxStatementsPerRequest());
+    }
+
+    /**
+     * Tests that statements recorded outside of a request are ignored.
+     */
+    @Test
+    void recordStatement_OutsideRequest_ShouldBeIgnored() {
+        // When
+        sqlProfiler.recordStatement("select 1");
+        sqlProfiler.endRequest(ENDPOINT);
+
+        // Then
+        assertTrue(sqlProfiler.getEndpointStats().isEmpty());
+    }
+
+    /**
+     * Tests the detection of selects that read a whole table.
+     */
+    @Test
+    void isUnboundedSelect_ShouldDetectSelectsWithoutPredicateOrLimit() {
+        assertTrue(SqlProfiler.isUnboundedSelect("select s1_0.id,s1_0.theater from showtimes s1_0"));
+        assertFalse(SqlProfiler.isUnboundedSelect("select s1_0.id from showtimes s1_0 where s1_0.id=?"));
+        assertFalse(SqlProfiler.isUnboundedSelect("select m1_0.id from movies m1_0 fetch first ? rows only"));
+        assertFalse(SqlProfiler.isUnboundedSelect("insert into bookings (booking_id) values (?)"));
+    }
+}
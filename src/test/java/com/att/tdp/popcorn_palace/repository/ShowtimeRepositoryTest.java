@@ -0,0 +1,63 @@
+package com.att.tdp.popcorn_palace.repository;
+
+import com.att.tdp.popcorn_palace.dto.MovieDTO;
+import com.att.tdp.popcorn_palace.dto.ShowtimeDTO;
+import com.att.tdp.popcorn_palace.model.Showtime;
+import com.att.tdp.popcorn_palace.service.MovieService;
+import com.att.tdp.popcorn_palace.service.ShowtimeService;
+import com.att.tdp.popcorn_palace.service.TheaterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the overlap queries of the ShowtimeRepository interface in the application context, on H2.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class ShowtimeRepositoryTest {
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private ShowtimeService showtimeService;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private TheaterRegistry theaterRegistry;
+
+    /**
+     * Tests that the overlap queries find a long showtime that started before the slot, as long as it
+     * started after the lower bound, and skip the index range before the bound.
+     */
+    @Test
+    void findOverlapping_ShouldOnlyReadShowtimesStartingAfterBound() {
+        // Given - a 23-hour showtime in a theater of its own
+        MovieDTO movie = movieService.addMovie(new MovieDTO(null, "Overlap Marathon", "Drama", 1000, 7.0, 2024));
+        ZonedDateTime start = ZonedDateTime.now().plusYears(9).truncatedTo(ChronoUnit.MINUTES);
+        long showtimeId = showtimeService.addShowtime(new ShowtimeDTO(null, movie.getId(), "Overlap Hall",
+                start, start.plusHours(23), 9.5)).getId();
+        Integer theaterId = theaterRegistry.idOf("Overlap Hall");
+        ZonedDateTime slotStart = start.plusHours(22);
+        ZonedDateTime slotEnd = start.plusHours(25);
+
+        // When
+        List<Long> overlapping = showtimeRepository.findOverlappingIds(theaterId, slotStart.minusHours(24),
+                slotStart, slotEnd);
+        List<Long> pastBound = showtimeRepository.findOverlappingIds(theaterId, start, slotStart, slotEnd);
+
+        // Then
+        assertEquals(List.of(showtimeId), overlapping);
+        assertTrue(pastBound.isEmpty());
+        assertEquals(List.of(showtimeId), showtimeRepository.findScheduleOfTheater(theaterId,
+                slotStart.minusHours(24), slotStart, slotEnd).stream().map(Showtime::getId).toList());
+    }
+}
@@ -0,0 +1,104 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the CompressedSeatSet class.
+ * Tests that the storage follows the occupancy and switches to a bitmap once dense.
+ */
+public class CompressedSeatSetTest {
+
+    /**
+     * Tests that a sparsely booked arena stays small.
+     */
+    @Test
+    void add_Sparse_ShouldStayArray() {
+        // Given - a 10,000 seat arena with 20 bookings
+        CompressedSeatSet seats = new CompressedSeatSet(10_000);
+        for (int seat = 500; seat < 520; seat++) {
+            seats.add(seat);
+        }
+
+        // Then
+        assertFalse(seats.isBitmap());
+        assertEquals(20, seats.size());
+        assertTrue(seats.sizeInBytes() < 10_000 / 8);
+        assertTrue(seats.contains(510));
+        assertFalse(seats.contains(520));
+    }
+
+    /**
+     * Tests that a densely booked hall switches to a bitmap and keeps every seat.
+     */
+    @Test
+    void add_Dense_ShouldSwitchToBitmap() {
+        // Given
+        CompressedSeatSet seats = new CompressedSeatSet(1_000);
+        for (int seat = 1; seat <= 1_000; seat += 2) {
+            seats.add(seat);
+        }
+
+        // Then
+        assertTrue(seats.isBitmap());
+        assertEquals(500, seats.size());
+        assertEquals(16 * Long.BYTES, seats.sizeInBytes());
+        assertTrue(seats.contains(999));
+        assertFalse(seats.contains(1_000));
+        assertFalse(seats.add(999));
+    }
+
+    /**
+     * Tests that both representations produce the same bitmap.
+     */
+    @Test
+    void toWords_ShouldMatchSeatNumbers() {
+        // Given
+        CompressedSeatSet seats = new CompressedSeatSet(130);
+        seats.add(1);
+        seats.add(65);
+        seats.add(130);
+
+        // When
+        long[] words = seats.toWords();
+
+        // Then
+        assertEquals(3, words.length);
+        assertEquals(1L, words[0]);
+        assertEquals(1L, words[1]);
+        assertEquals(2L, words[2]);
+        assertThrows(IllegalArgumentException.class, () -> seats.add(131));
+    }
+
+    /**
+     * Tests that the next taken seat is found the same way in both storages.
+     */
+    @Test
+    void nextSeat_ShouldFindNextSeatInArrayAndBitmap() {
+        // Given - the same seats, sparse in a large hall and dense in a small one
+        CompressedSeatSet sparse = new CompressedSeatSet(10_000);
+        CompressedSeatSet dense = new CompressedSeatSet(200);
+        for (int seat : new int[] {3, 64, 65, 130, 200}) {
+            sparse.add(seat);
+            dense.add(seat);
+        }
+        for (int seat = 150; seat < 190; seat++) {
+            dense.add(seat);
+        }
+
+        // Then
+        assertFalse(sparse.isBitmap());
+        assertTrue(dense.isBitmap());
+        for (CompressedSeatSet seats : new CompressedSeatSet[] {sparse, dense}) {
+            assertEquals(3, seats.nextSeat(0));
+            assertEquals(64, seats.nextSeat(4));
+            assertEquals(65, seats.nextSeat(65));
+            assertEquals(130, seats.nextSeat(66));
+        }
+        assertEquals(200, sparse.nextSeat(131));
+        assertEquals(-1, sparse.nextSeat(201));
+        assertEquals(150, dense.nextSeat(131));
+        assertEquals(-1, dense.nextSeat(201));
+    }
+}
@@ -0,0 +1,178 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SeatMap class.
+ * Tests the search for runs of adjacent free seats and the preference for central seats.
+ */
+public class SeatMapTest {
+
+    /**
+     * Tests that an empty hall offers the middle of the middle row.
+     */
+    @Test
+    void findBestRun_EmptyHall_ShouldPreferCenter() {
+        // Given - 10 rows of 10 seats
+        SeatMap seatMap = new SeatMap(TheaterLayout.DEFAULT);
+
+        // Then - rows 5 and 6 are equally central, row 5 (seats 41-50) comes first: 44-47
+        assertEquals(44, seatMap.findBestRun(4));
+        assertEquals(41, seatMap.findBestRun(10));
+    }
+
+    /**
+     * Tests that runs never span two rows and skip taken seats.
+     */
+    @Test
+    void findBestRun_ShouldStayWithinRowAndSkipTakenSeats() {
+        // Given - 2 rows of 5 seats, seat 3 and seats 6-7 taken
+        SeatMap seatMap = SeatMap.of(new TheaterLayout(2, 5, List.of(5)), List.of(3, 6, 7));
+
+        // Then - only 8-10 fits 3 seats
+        assertEquals(8, seatMap.findBestRun(3));
+        assertEquals(-1, seatMap.findBestRun(4));
+    }
+
+    /**
+     * Tests that runs never cross an aisle and cannot be longer than the widest section.
+     */
+    @Test
+    void findBestRun_ShouldStayWithinSection() {
+        // Given - 1 row of 2 + 6 + 2 seats
+        SeatMap seatMap = new SeatMap(new TheaterLayout(1, 10, List.of(2, 6, 2)));
+
+        // Then
+        assertEquals(4, seatMap.findBestRun(4));
+        assertEquals(3, seatMap.findBestRun(6));
+        assertEquals(-1, seatMap.findBestRun(7));
+    }
+
+    /**
+     * Tests that runs crossing a 64-bit word boundary are found.
+     */
+    @Test
+    void findBestRun_AcrossWordBoundary_ShouldFindRun() {
+        // Given - a single row of 128 seats where only seats 62-67 are free
+        List<Integer> taken = new ArrayList<>();
+        for (int seat = 1; seat <= 128; seat++) {
+            if (seat < 62 || seat > 67) {
+                taken.add(seat);
+            }
+        }
+        SeatMap seatMap = SeatMap.of(new TheaterLayout(1, 128, List.of(128)), taken);
+
+        // Then
+        assertEquals(62, seatMap.findBestRun(6));
+        assertEquals(-1, seatMap.findBestRun(7));
+        assertFalse(seatMap.isOccupied(64));
+        assertTrue(seatMap.isOccupied(68));
+    }
+
+    /**
+     * Tests that a full hall has no run at all.
+     */
+    @Test
+    void findBestRun_FullHall_ShouldReturnNone() {
+        // Given
+        SeatMap seatMap = new SeatMap(new TheaterLayout(2, 10, List.of(10)));
+        for (int seat = 1; seat <= 20; seat++) {
+            seatMap.occupy(seat);
+        }
+
+        // Then
+        assertEquals(-1, seatMap.findBestRun(1));
+        assertEquals(20, seatMap.occupiedCount());
+    }
+
+    /**
+     * Tests the search against checking every seat of random halls, both sparsely and densely booked.
+     */
+    @Test
+    void findBestRun_ShouldMatchExhaustiveSearch() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int hall = 0; hall < 300; hall++) {
+            // Given
+            List<Integer> sections = new ArrayList<>();
+            int seatsPerRow = 0;
+            for (int section = 1 + random.nextInt(3); section > 0; section--) {
+                int width = 1 + random.nextInt(12);
+                sections.add(width);
+                seatsPerRow += width;
+            }
+            TheaterLayout layout = new TheaterLayout(1 + random.nextInt(9), seatsPerRow, sections);
+            double occupancy = random.nextDouble();
+            List<Integer> taken = new ArrayList<>();
+            for (int seat = 1; seat <= layout.capacity(); seat++) {
+                if (random.nextDouble() < occupancy) {
+                    taken.add(seat);
+                }
+            }
+            SeatMap seatMap = SeatMap.of(layout, taken);
+
+            // Then
+            for (int count = 1; count <= layout.widestSection(); count++) {
+                assertEquals(exhaustiveBestRun(seatMap, layout, count), seatMap.findBestRun(count),
+                        layout + " " + taken + " count " + count);
+            }
+        }
+    }
+
+    /**
+     * Finds the best run by scoring every seat as a possible start.
+     *
+     * @param seatMap Occupancy to search
+     * @param layout  Layout of the hall
+     * @param count   Number of adjacent seats wanted
+     * @return Number of the first seat of the best run, or -1 if there is none
+     */
+    private static int exhaustiveBestRun(SeatMap seatMap, TheaterLayout layout, int count) {
+        int[] sectionEnds = sectionEnds(layout);
+        double middleRow = (layout.rows() - 1) / 2.0;
+        int bestSeat = -1;
+        double bestScore = Double.MAX_VALUE;
+        for (int start = 0; start < layout.capacity(); start++) {
+            int row = start / layout.seatsPerRow();
+            int position = start % layout.seatsPerRow();
+            if (position + count > sectionEnds[position]) {
+                continue;
+            }
+            boolean free = true;
+            for (int seat = start + 1; seat <= start + count; seat++) {
+                free &= !seatMap.isOccupied(seat);
+            }
+            double score = Math.abs(row - middleRow) * layout.seatsPerRow()
+                    + Math.abs(position + count / 2.0 - layout.seatsPerRow() / 2.0);
+            if (free && score < bestScore) {
+                bestScore = score;
+                bestSeat = start + 1;
+            }
+        }
+        return bestSeat;
+    }
+
+    /**
+     * Returns, for every position in a row, the position just after the end of its section.
+     * A run of seats starting at position {@code p} fits in its section if {@code p + count <= ends[p]}.
+     *
+     * @param layout Layout of the hall
+     * @return The section end of every position in a row
+     */
+    private static int[] sectionEnds(TheaterLayout layout) {
+        int[] ends = new int[layout.seatsPerRow()];
+        int start = 0;
+        for (int width : layout.sectionWidths()) {
+            for (int position = start; position < start + width && position < ends.length; position++) {
+                ends[position] = start + width;
+            }
+            start += width;
+        }
+        return ends;
+    }
+}
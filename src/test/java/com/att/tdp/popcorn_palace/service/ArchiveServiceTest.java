@@ -0,0 +1,197 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.ArchiveQueryResultDTO;
+import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ArchiveService class.
+ * Archives showtimes and bookings of an embedded database into a temporary directory and queries them back.
+ */
+public class ArchiveServiceTest {
+
+    private static final YearMonth MARCH = YearMonth.of(2025, 3);
+    private static final YearMonth APRIL = YearMonth.of(2025, 4);
+    private static final Instant NOW = Instant.parse("2025-05-20T12:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private OccupancyCounters occupancyCounters;
+    private WaitingRoomService waitingRoomService;
+    private TheaterService theaterService;
+    private ArchiveService archiveService;
+
+    /**
+     * Set up the test environment before each test.
+     * Creates the showtimes, bookings and sales tables with showtimes in March, April and May 2025.
+     */
+    @BeforeEach
+    void setUp() {
+        SimpleDriverDataSource database = new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE showtimes (id BIGINT PRIMARY KEY, movie_id BIGINT NOT NULL, "
+                + "theater_id INTEGER NOT NULL, start_time TIMESTAMP WITH TIME ZONE NOT NULL, "
+                + "end_time TIMESTAMP WITH TIME ZONE NOT NULL, price DOUBLE PRECISION NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE bookings (booking_id UUID PRIMARY KEY, showtime_id BIGINT NOT NULL, "
+                + "seat_number INTEGER NOT NULL, user_id VARCHAR(255) NOT NULL, booking_time TIMESTAMP NOT NULL, "
+                + "FOREIGN KEY (showtime_id) REFERENCES showtimes(id))");
+        jdbcTemplate.execute("CREATE TABLE showtime_sales (showtime_id BIGINT PRIMARY KEY, "
+                + "seats_offered INTEGER NOT NULL, tickets_sold BIGINT NOT NULL, revenue_cents BIGINT NOT NULL)");
+
+        addShowtime(1, 1, "2025-03-10T19:00:00Z", 12.5);
+        addShowtime(2, 2, "2025-03-31T23:00:00Z", 15.0);
+        addShowtime(3, 1, "2025-04-15T19:00:00Z", 12.5);
+        addShowtime(4, 1, "2025-05-15T19:00:00Z", 12.5);
+        addBooking(1, 7, "user-1");
+        addBooking(1, 8, "user-2");
+        addBooking(2, 1, "user-1");
+        addBooking(3, 1, "user-3");
+        addBooking(4, 1, "user-4");
+
+        occupancyCounters = mock(OccupancyCounters.class);
+        waitingRoomService = mock(WaitingRoomService.class);
+        theaterService = mock(TheaterService.class);
+        archiveService = new ArchiveService(jdbcTemplate, new DataSourceTransactionManager(database),
+                occupancyCounters, waitingRoomService, theaterService, false, directory.toString(), Duration.ofDays(7), Duration.ofHours(1));
+    }
+
+    /**
+     * Drops the database.
+     */
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    /**
+     * Tests that months over for longer than the delay are moved to the archive and the others are kept.
+     */
+    @Test
+    void archiveFinishedMonths_ShouldMoveFinishedMonthsToArchive() {
+        // When
+        List<YearMonth> archived = archiveService.archiveFinishedMonths(NOW);
+
+        // Then
+        assertEquals(List.of(MARCH, APRIL), archived);
+        assertEquals(List.of(4L), jdbcTemplate.queryForList("SELECT id FROM showtimes", Long.class));
+        assertEquals(List.of(4L), jdbcTemplate.queryForList("SELECT showtime_id FROM bookings", Long.class));
+        assertEquals(List.of(4L), jdbcTemplate.queryForList("SELECT showtime_id FROM showtime_sales", Long.class));
+        assertTrue(Files.exists(directory.resolve("showtimes-2025-03.colgz")));
+        assertTrue(Files.exists(directory.resolve("bookings-2025-04.colgz")));
+        verify(occupancyCounters).remove(1L);
+        verify(occupancyCounters).remove(3L);
+        verify(occupancyCounters, never()).remove(4L);
+        verify(waitingRoomService).setHighDemand(1L, false);
+        verify(theaterService).evictShowtime(3L);
+        verify(waitingRoomService, never()).setHighDemand(4L, false);
+        verify(theaterService, never()).evictShowtime(4L);
+
+        ArchiveQueryResultDTO bookings = archiveService.query("bookings", MARCH, APRIL,
+                List.of("showtime_id", "seat_number", "user_id", "price"), null, null, null);
+        assertEquals(List.of(
+                List.of(1L, 7, "user-1", 12.5),
+                List.of(1L, 8, "user-2", 12.5),
+                List.of(2L, 1, "user-1", 15.0),
+                List.of(3L, 1, "user-3", 12.5)), bookings.getRows());
+        assertFalse(bookings.isTruncated());
+    }
+
+    /**
+     * Tests that only showtimes that have ended are archived, and that archiving the rest of the month
+     * later merges them into the existing files.
+     */
+    @Test
+    void archiveMonth_WhenArchivedAgain_ShouldMergeIntoExistingFiles() {
+        // When
+        int first = archiveService.archiveMonth(MARCH, Instant.parse("2025-03-31T00:00:00Z"));
+        int second = archiveService.archiveMonth(MARCH, NOW);
+        int third = archiveService.archiveMonth(MARCH, NOW);
+
+        // Then
+        assertEquals(1, first);
+        assertEquals(1, second);
+        assertEquals(0, third);
+        ArchiveQueryResultDTO showtimes = archiveService.query("showtimes", MARCH, MARCH,
+                List.of("id", "start_time"), null, null, null);
+        assertEquals(List.of(
+                List.of(1L, Instant.parse("2025-03-10T19:00:00Z")),
+                List.of(2L, Instant.parse("2025-03-31T23:00:00Z"))), showtimes.getRows());
+    }
+
+    /**
+     * Tests that queries filter on columns that are not returned and stop at the limit.
+     */
+    @Test
+    void query_WithFiltersAndLimit_ShouldReturnMatchingRows() {
+        // Given
+        archiveService.archiveFinishedMonths(NOW);
+
+        // When
+        ArchiveQueryResultDTO byMovie = archiveService.query("bookings", MARCH, APRIL,
+                List.of("user_id"), 1L, null, null);
+        ArchiveQueryResultDTO byShowtime = archiveService.query("bookings", MARCH, APRIL,
+                List.of("seat_number"), null, 1L, 1);
+
+        // Then
+        assertEquals(List.of("user_id"), byMovie.getColumns());
+        assertEquals(List.of(List.of("user-1"), List.of("user-2"), List.of("user-3")), byMovie.getRows());
+        assertEquals(List.of(List.of(7)), byShowtime.getRows());
+        assertTrue(byShowtime.isTruncated());
+    }
+
+    /**
+     * Tests that queries for an unknown archive or column, or an invalid period, are rejected.
+     */
+    @Test
+    void query_WhenRequestInvalid_ShouldThrowInvalidRequestException() {
+        assertThrows(InvalidRequestException.class,
+                () -> archiveService.query("movies", MARCH, APRIL, null, null, null, null));
+        assertThrows(InvalidRequestException.class,
+                () -> archiveService.query("bookings", MARCH, APRIL, List.of("title"), null, null, null));
+        assertThrows(InvalidRequestException.class,
+                () -> archiveService.query("bookings", APRIL, MARCH, null, null, null, null));
+        assertThrows(InvalidRequestException.class,
+                () -> archiveService.query("bookings", MARCH, APRIL, null, null, null, 0));
+    }
+
+    /**
+     * Adds a showtime lasting two and a half hours, with its sales figures.
+     */
+    private void addShowtime(long id, long movieId, String startTime, double price) {
+        OffsetDateTime start = OffsetDateTime.parse(startTime);
+        jdbcTemplate.update("INSERT INTO showtimes VALUES (?, ?, 1, ?, ?, ?)",
+                id, movieId, start, start.plusMinutes(150), price);
+        jdbcTemplate.update("INSERT INTO showtime_sales VALUES (?, 100, 0, 0)", id);
+    }
+
+    /**
+     * Adds a booking for a seat of a showtime.
+     */
+    private void addBooking(long showtimeId, int seatNumber, String userId) {
+        jdbcTemplate.update("INSERT INTO bookings VALUES (?, ?, ?, ?, ?)",
+                UUID.randomUUID(), showtimeId, seatNumber, userId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,150 @@
+package com.att.tdp.popcorn_palace.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the BookingBatchWriter class.
+ * Runs the group-commit stage against an embedded database to check per-request outcomes.
+ */
+public class BookingBatchWriterTest {
+
+    private SimpleDriverDataSource database;
+    private JdbcTemplate jdbcTemplate;
+    private BookingLocks bookingLocks;
+    private BookingBatchWriter writer;
+
+    /**
+     * Set up the test environment before each test.
+     * Creates the showtimes and bookings tables with one showtime and starts the writer.
+     */
+    @BeforeEach
+    void setUp() {
+        database = new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE showtimes (id BIGINT PRIMARY KEY, "
+                + "start_time TIMESTAMP WITH TIME ZONE NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE bookings (booking_id UUID PRIMARY KEY, showtime_id BIGINT NOT NULL, "
+                + "showtime_start TIMESTAMP WITH TIME ZONE, seat_number INTEGER NOT NULL, "
+                + "user_id VARCHAR(255) NOT NULL, booking_time TIMESTAMP NOT NULL, "
+                + "FOREIGN KEY (showtime_id) REFERENCES showtimes(id), UNIQUE (showtime_id, seat_number))");
+        jdbcTemplate.update("INSERT INTO showtimes (id, start_time) VALUES (1, TIMESTAMP WITH TIME ZONE "
+                + "'2030-05-01 19:00:00+00')");
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+        bookingLocks = mock(BookingLocks.class);
+        writer = new BookingBatchWriter(jdbcTemplate, transactionTemplate, mock(SalesRollups.class),
+                bookingLocks, true, Duration.ofMillis(20), 64);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer and drops the database.
+     */
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    /**
+     * Tests that concurrent requests for the same seat are coalesced and only one of them wins.
+     */
+    @Test
+    void submit_WhenSameSeatRequestedConcurrently_ShouldBookExactlyOnce() {
+        // When
+        List<CompletableFuture<BookingOutcome>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(writer.submit(UUID.randomUUID(), 1L, 7, UUID.randomUUID().toString()));
+        }
+
+        // Then
+        List<BookingOutcome> outcomes = results.stream().map(CompletableFuture::join).toList();
+        assertEquals(1, outcomes.stream().filter(outcome -> outcome == BookingOutcome.BOOKED).count());
+        assertEquals(19, outcomes.stream().filter(outcome -> outcome == BookingOutcome.SEAT_TAKEN).count());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings", Integer.class));
+    }
+
+    /**
+     * Tests that a booking for a missing showtime does not fail the other bookings of its batch.
+     */
+    @Test
+    void submit_WhenBatchContainsMissingShowtime_ShouldIsolateFailure() {
+        // When
+        CompletableFuture<BookingOutcome> valid = writer.submit(UUID.randomUUID(), 1L, 1, "user-1");
+        CompletableFuture<BookingOutcome> missing = writer.submit(UUID.randomUUID(), 99L, 1, "user-2");
+        CompletableFuture<BookingOutcome> other = writer.submit(UUID.randomUUID(), 1L, 2, "user-3");
+
+        // Then
+        assertEquals(BookingOutcome.BOOKED, valid.join());
+        assertEquals(BookingOutcome.SHOWTIME_NOT_FOUND, missing.join());
+        assertEquals(BookingOutcome.BOOKED, other.join());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings", Integer.class));
+    }
+
+    /**
+     * Tests that a queued booking can be withdrawn and is then never written, while a booking whose batch
+     * is already being written cannot be withdrawn and keeps the outcome of its batch.
+     *
+     * @throws Exception if the bookings cannot be awaited
+     */
+    @Test
+    void cancel_ShouldWithdrawOnlyBookingsNotYetClaimed() throws Exception {
+        // Given
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(bookingLocks).lockBookings(anyCollection());
+        CompletableFuture<BookingOutcome> inFlight = writer.submit(UUID.randomUUID(), 1L, 1, "user-1");
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        CompletableFuture<BookingOutcome> queued = writer.submit(UUID.randomUUID(), 1L, 2, "user-2");
+
+        // When
+        boolean queuedWithdrawn = queued.cancel(false);
+        boolean inFlightWithdrawn = inFlight.cancel(false);
+        release.countDown();
+
+        // Then
+        assertTrue(queuedWithdrawn);
+        assertFalse(inFlightWithdrawn);
+        assertEquals(BookingOutcome.BOOKED, inFlight.get(10, TimeUnit.SECONDS));
+        assertEquals(BookingOutcome.BOOKED,
+                writer.submit(UUID.randomUUID(), 1L, 3, "user-3").get(10, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 3), jdbcTemplate.queryForList(
+                "SELECT seat_number FROM bookings ORDER BY seat_number", Integer.class));
+    }
+
+    /**
+     * Tests that bookings submitted after the writer stopped fail at once instead of waiting forever.
+     */
+    @Test
+    void submit_AfterStop_ShouldFail() {
+        // When
+        writer.stop();
+
+        // Then
+        assertTrue(writer.submit(UUID.randomUUID(), 1L, 1, "user-1").isCompletedExceptionally());
+    }
+}
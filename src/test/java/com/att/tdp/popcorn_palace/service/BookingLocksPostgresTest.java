@@ -0,0 +1,110 @@
+package com.att.tdp.popcorn_palace.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the BookingLocks class against a PostgreSQL container, with each transaction on its own
+ * connection as if on its own instance. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class BookingLocksPostgresTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingLocks locks;
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService executor;
+
+    /**
+     * Set up the test environment before each test.
+     * Creates locks with one lock per seat and a pool of threads to run concurrent transactions.
+     */
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource database = new DriverManagerDataSource(POSTGRES.getJdbcUrl(),
+                POSTGRES.getUsername(), POSTGRES.getPassword());
+        meterRegistry = new SimpleMeterRegistry();
+        locks = new BookingLocks(new JdbcTemplate(database), meterRegistry, "advisory-lock", 1);
+        locks.verify();
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    /**
+     * Stops the threads of the test.
+     */
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tests that a transaction locking a seat held by another waits for its commit,
+     * while a transaction locking another seat of the same showtime does not.
+     *
+     * @throws Exception if a transaction fails
+     */
+    @Test
+    void lockSeat_ShouldOnlySerializeSameSeat() throws Exception {
+        // Given
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            locks.lockSeat(1L, 5);
+            locked.countDown();
+            awaitQuietly(release);
+        }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        // When
+        Future<?> otherSeat = executor.submit(() -> transactionTemplate.executeWithoutResult(
+                status -> locks.lockSeat(1L, 6)));
+        Future<?> sameSeat = executor.submit(() -> transactionTemplate.executeWithoutResult(
+                status -> locks.lockSeat(1L, 5)));
+
+        // Then
+        otherSeat.get(10, TimeUnit.SECONDS);
+        assertThrows(TimeoutException.class, () -> sameSeat.get(500, TimeUnit.MILLISECONDS));
+
+        // When
+        release.countDown();
+
+        // Then
+        sameSeat.get(10, TimeUnit.SECONDS);
+        holder.get(10, TimeUnit.SECONDS);
+        assertEquals(3, meterRegistry.timer("booking.lock.wait").count());
+        assertTrue(meterRegistry.timer("booking.lock.wait").max(TimeUnit.MILLISECONDS) >= 500);
+    }
+
+    /**
+     * Waits for a latch, giving up if interrupted.
+     */
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.att.tdp.popcorn_palace.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the BookingLocks class.
+ * Runs against an embedded database where pg_advisory_xact_lock is an alias recording the keys it is
+ * called with, to check which locks are taken and in which order.
+ */
+public class BookingLocksTest {
+
+    private static final List<String> LOCKED = Collections.synchronizedList(new ArrayList<>());
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Records a lock taken through the pg_advisory_xact_lock alias.
+     *
+     * @param showtime First key of the lock
+     * @param block    Second key of the lock
+     */
+    public static void recordLock(int showtime, int block) {
+        LOCKED.add(showtime + "/" + block);
+    }
+
+    /**
+     * Set up the test environment before each test.
+     * Creates an embedded database with the recording alias.
+     */
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE ALIAS pg_advisory_xact_lock FOR '"
+                + BookingLocksTest.class.getName() + ".recordLock'");
+        meterRegistry = new SimpleMeterRegistry();
+        LOCKED.clear();
+    }
+
+    /**
+     * Tests that the seats of a batch are locked once each, ordered by showtime then seat,
+     * and that the wait is recorded once for the batch.
+     */
+    @Test
+    void lockBookings_ShouldTakeEachKeyOnceInOrder() {
+        // Given
+        BookingLocks locks = new BookingLocks(jdbcTemplate, meterRegistry, "advisory-lock", 1);
+
+        // When
+        locks.lockBookings(List.of(pending(2L, 5), pending(1L, 9), pending(2L, 1), pending(1L, 9)));
+
+        // Then
+        assertEquals(List.of("1/8", "2/0", "2/4"), LOCKED);
+        assertEquals(1, meterRegistry.timer("booking.lock.wait").count());
+    }
+
+    /**
+     * Tests that consecutive seats of one block share a lock.
+     */
+    @Test
+    void lockSeats_WithSeatBlocks_ShouldLockEachBlockOnce() {
+        // Given
+        BookingLocks locks = new BookingLocks(jdbcTemplate, meterRegistry, "advisory-lock", 10);
+
+        // When
+        locks.lockSeats(7L, List.of(12, 3, 10, 11));
+
+        // Then
+        assertEquals(List.of("7/0", "7/1"), LOCKED);
+    }
+
+    /**
+     * Tests that no lock is taken and no wait is recorded in mode none.
+     */
+    @Test
+    void lockSeat_WhenModeNone_ShouldTakeNoLock() {
+        // Given
+        BookingLocks locks = new BookingLocks(jdbcTemplate, meterRegistry, "none", 1);
+
+        // When
+        locks.lockSeat(1L, 1);
+        locks.verify();
+
+        // Then
+        assertTrue(LOCKED.isEmpty());
+        assertEquals(0, meterRegistry.timer("booking.lock.wait").count());
+    }
+
+    /**
+     * Tests that advisory locking is refused at startup on a database other than PostgreSQL,
+     * and that unknown settings are rejected.
+     */
+    @Test
+    void constructAndVerify_WithInvalidSetup_ShouldThrow() {
+        // Given
+        BookingLocks locks = new BookingLocks(jdbcTemplate, meterRegistry, "advisory-lock", 1);
+
+        // Then
+        assertThrows(IllegalStateException.class, locks::verify);
+        assertThrows(IllegalArgumentException.class,
+                () -> new BookingLocks(jdbcTemplate, meterRegistry, "global-lock", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BookingLocks(jdbcTemplate, meterRegistry, "advisory-lock", 0));
+    }
+
+    /**
+     * Creates a queued booking of a seat.
+     */
+    private static BookingBatchWriter.PendingBooking pending(Long showtimeId, int seatNumber) {
+        return new BookingBatchWriter.PendingBooking(UUID.randomUUID(), showtimeId, seatNumber, "user-1",
+                LocalDateTime.now(), new BookingBatchWriter.PendingResult());
+    }
+}
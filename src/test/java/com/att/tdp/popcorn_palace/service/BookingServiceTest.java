@@ -1,29 +1,32 @@
 package com.att.tdp.popcorn_palace.service;
 
 import com.att.tdp.popcorn_palace.dto.BookingDTO;
+import com.att.tdp.popcorn_palace.exception.BookingTimeoutException;
 import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
-import com.att.tdp.popcorn_palace.model.Movie;
-import com.att.tdp.popcorn_palace.model.Showtime;
-import com.att.tdp.popcorn_palace.model.Booking;
-import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
 import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.seating.TheaterLayout;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -37,43 +40,36 @@ public class BookingServiceTest {
     private BookingRepository bookingRepository;
 
     @Mock
-    private ShowtimeRepository showtimeRepository;
+    private BookingBatchWriter bookingBatchWriter;
+
+    @Mock
+    private BookingLocks bookingLocks;
+
+    @Mock
+    private TheaterService theaterService;
+
+    @Mock
+    private OccupancyCounters occupancyCounters;
+
+    @Mock
+    private SalesRollups salesRollups;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
-    @InjectMocks
     private BookingService bookingService;
 
     private BookingDTO validBookingDTO;
-    private Showtime validShowtime;
-    private Movie movie;
-    private List<Booking> existingBookings;
 
     /**
      * Set up the test environment before each test.
-     * Creates sample entities and DTOs for testing.
+     * Creates a sample booking DTO for testing.
      */
     @BeforeEach
     void setUp() {
-        // Create a sample movie
-        movie = new Movie();
-        movie.setId(1L);
-        movie.setTitle("Test Movie");
-        movie.setGenre("Action");
-        movie.setDuration(120);
-        movie.setRating(8.5);
-        movie.setReleaseYear(2023);
-
-        // Create a sample showtime
-        validShowtime = new Showtime();
-        validShowtime.setId(1L);
-        validShowtime.setMovie(movie);
-        validShowtime.setTheater("Theater 1");
-        validShowtime.setStartTime(ZonedDateTime.now().plusDays(1));
-        validShowtime.setEndTime(ZonedDateTime.now().plusDays(1).plusHours(2));
-        validShowtime.setPrice(10.0);
-
-        // Initialize an empty list of bookings
-        existingBookings = new ArrayList<>();
-        validShowtime.setTickets(existingBookings);
+        bookingService = new BookingService(bookingRepository, bookingBatchWriter, bookingLocks, theaterService,
+                occupancyCounters, salesRollups, new TransactionTemplate(transactionManager), Duration.ofSeconds(1));
+        lenient().when(theaterService.getLayoutOfShowtime(1L)).thenReturn(Optional.of(TheaterLayout.DEFAULT));
 
         // Create a sample booking DTO
         validBookingDTO = new BookingDTO();
@@ -82,14 +78,37 @@ public class BookingServiceTest {
         validBookingDTO.setUserId(UUID.randomUUID().toString());
     }
 
+    /**
+     * Tests that bookTicket returns the ID of the inserted booking when the seat is free.
+     * Verifies that the booking is stored with a single conditional insert.
+     */
+    @Test
+    void bookTicket_WhenSeatAvailable_ShouldReturnBookingId() {
+        // When
+        when(bookingRepository.insertIfSeatAvailable(any(UUID.class), eq(1L), eq(5),
+                eq(validBookingDTO.getUserId()), any(LocalDateTime.class))).thenReturn(1);
+
+        // Then
+        UUID bookingId = bookingService.bookTicket(validBookingDTO);
+        assertNotNull(bookingId);
+
+        // Verify
+        verify(bookingRepository).insertIfSeatAvailable(eq(bookingId), eq(1L), eq(5),
+                eq(validBookingDTO.getUserId()), any(LocalDateTime.class));
+        verifyNoMoreInteractions(bookingRepository);
+        verify(salesRollups).recordSold(1L, 1, SalesRollups.stripeOf(1L, 5));
+    }
+
     /**
      * Tests that bookTicket throws EntityNotFoundException when the showtime doesn't exist.
-     * Verifies that the repository is called with the correct ID and no booking is saved.
+     * Verifies that the foreign key violation of the insert is reported as a missing showtime.
      */
     @Test
     void bookTicket_WhenShowtimeNotFound_ShouldThrowEntityNotFoundException() {
         // When
-        when(showtimeRepository.findById(validBookingDTO.getShowtimeId())).thenReturn(Optional.empty());
+        when(bookingRepository.insertIfSeatAvailable(any(), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("insert failed",
+                        new SQLException("violates foreign key constraint", "23503")));
 
         // Then
         EntityNotFoundException exception = assertThrows(
@@ -97,29 +116,16 @@ public class BookingServiceTest {
                 () -> bookingService.bookTicket(validBookingDTO));
 
         assertTrue(exception.getMessage().contains(validBookingDTO.getShowtimeId().toString()));
-
-        // Verify
-        verify(showtimeRepository).findById(validBookingDTO.getShowtimeId());
-        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     /**
      * Tests that bookTicket throws InvalidRequestException when the requested seat is already taken.
-     * Verifies that the appropriate exception is thrown with the correct message.
+     * Verifies that an insert skipped by the unique seat constraint is reported as a seat conflict.
      */
     @Test
     void bookTicket_WhenSeatAlreadyTaken_ShouldThrowInvalidRequestException() {
-        // Given
-        Booking existingBooking = new Booking();
-        existingBooking.setBookingId(UUID.randomUUID());
-        existingBooking.setShowtime(validShowtime);
-        existingBooking.setSeatNumber(validBookingDTO.getSeatNumber());
-        existingBooking.setUserId(UUID.randomUUID().toString());
-        existingBooking.setBookingTime(LocalDateTime.now());
-        existingBookings.add(existingBooking);
-
         // When
-        when(showtimeRepository.findById(validBookingDTO.getShowtimeId())).thenReturn(Optional.of(validShowtime));
+        when(bookingRepository.insertIfSeatAvailable(any(), any(), any(), any(), any())).thenReturn(0);
 
         // Then
         InvalidRequestException exception = assertThrows(
@@ -127,9 +133,137 @@ public class BookingServiceTest {
                 () -> bookingService.bookTicket(validBookingDTO));
 
         assertTrue(exception.getMessage().contains("Seat " + validBookingDTO.getSeatNumber() + " is already taken"));
+    }
+
+    /**
+     * Tests that integrity violations other than a missing showtime are not masked.
+     */
+    @Test
+    void bookTicket_WhenOtherIntegrityViolation_ShouldRethrow() {
+        // When
+        when(bookingRepository.insertIfSeatAvailable(any(), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("insert failed",
+                        new SQLException("null value in column", "23502")));
+
+        // Then
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.bookTicket(validBookingDTO));
+    }
+
+    /**
+     * Tests that bookTicket waits for the group-commit stage when it is enabled
+     * and reports the outcome of the batch to the caller.
+     */
+    @Test
+    void bookTicket_WhenGroupCommitEnabled_ShouldUseOutcomeOfBatch() {
+        // When
+        when(bookingBatchWriter.isEnabled()).thenReturn(true);
+        when(bookingBatchWriter.submit(any(UUID.class), eq(1L), eq(5), eq(validBookingDTO.getUserId())))
+                .thenReturn(CompletableFuture.completedFuture(BookingOutcome.SEAT_TAKEN));
+
+        // Then
+        assertThrows(InvalidRequestException.class, () -> bookingService.bookTicket(validBookingDTO));
 
         // Verify
-        verify(showtimeRepository).findById(validBookingDTO.getShowtimeId());
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    /**
+     * Tests that a booking still queued when the group-commit timeout expires is withdrawn before the
+     * failure is reported, so that it can never be stored afterwards.
+     */
+    @Test
+    void bookTicket_WhenGroupCommitTimesOutWhileQueued_ShouldWithdrawBooking() {
+        // Given
+        BookingService service = new BookingService(bookingRepository, bookingBatchWriter, bookingLocks,
+                theaterService, occupancyCounters, salesRollups, new TransactionTemplate(transactionManager),
+                Duration.ofMillis(50));
+        BookingBatchWriter.PendingResult queued = new BookingBatchWriter.PendingResult();
+        when(bookingBatchWriter.isEnabled()).thenReturn(true);
+        when(bookingBatchWriter.submit(any(UUID.class), eq(1L), eq(5), any())).thenReturn(queued);
+
+        // When
+        assertThrows(BookingTimeoutException.class, () -> service.bookTicket(validBookingDTO));
+
+        // Then
+        assertTrue(queued.isCancelled());
+        assertFalse(queued.claim());
+        verifyNoInteractions(occupancyCounters);
+    }
+
+    /**
+     * Tests that a booking whose batch is already being written when the group-commit timeout expires
+     * is not reported as failed, but gets the outcome of its batch.
+     */
+    @Test
+    void bookTicket_WhenGroupCommitTimesOutWhileWriting_ShouldAwaitBatch() {
+        // Given
+        BookingService service = new BookingService(bookingRepository, bookingBatchWriter, bookingLocks,
+                theaterService, occupancyCounters, salesRollups, new TransactionTemplate(transactionManager),
+                Duration.ofMillis(50));
+        BookingBatchWriter.PendingResult writing = new BookingBatchWriter.PendingResult();
+        assertTrue(writing.claim());
+        when(bookingBatchWriter.isEnabled()).thenReturn(true);
+        when(bookingBatchWriter.submit(any(UUID.class), eq(1L), eq(5), any())).thenReturn(writing);
+        CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS)
+                .execute(() -> writing.complete(BookingOutcome.BOOKED));
+
+        // When
+        UUID bookingId = service.bookTicket(validBookingDTO);
+
+        // Then
+        assertNotNull(bookingId);
+        verify(occupancyCounters).recordBooked(1L, 1);
+    }
+
+    /**
+     * Tests that a seat beyond the capacity of the showtime's theater is rejected without touching the database.
+     */
+    @Test
+    void bookTicket_WhenSeatExceedsTheaterCapacity_ShouldThrowInvalidRequestException() {
+        // When
+        when(theaterService.getLayoutOfShowtime(1L)).thenReturn(Optional.of(new TheaterLayout(1, 4, List.of(4))));
+
+        // Then
+        InvalidRequestException exception = assertThrows(
+                InvalidRequestException.class,
+                () -> bookingService.bookTicket(validBookingDTO));
+
+        assertTrue(exception.getMessage().contains("capacity"));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    /**
+     * Tests that missing and non-positive seat numbers are rejected without touching the database.
+     */
+    @Test
+    void bookTicket_WhenSeatNumberBelowOne_ShouldThrowInvalidRequestException() {
+        // Given
+        when(theaterService.getLayoutOfShowtime(1L)).thenReturn(Optional.of(TheaterLayout.DEFAULT));
+
+        for (Integer seatNumber : new Integer[] { null, 0, -3 }) {
+            validBookingDTO.setSeatNumber(seatNumber);
+
+            // Then
+            InvalidRequestException exception = assertThrows(
+                    InvalidRequestException.class,
+                    () -> bookingService.bookTicket(validBookingDTO));
+
+            assertTrue(exception.getMessage().contains("at least 1"));
+        }
+        verifyNoInteractions(bookingRepository);
+    }
+
+    /**
+     * Tests that seat numbers above 100 are accepted in larger theaters.
+     */
+    @Test
+    void bookTicket_InLargeTheater_ShouldAcceptHighSeatNumbers() {
+        // Given
+        validBookingDTO.setSeatNumber(420);
+        when(theaterService.getLayoutOfShowtime(1L)).thenReturn(Optional.of(new TheaterLayout(20, 24, List.of(24))));
+        when(bookingRepository.insertIfSeatAvailable(any(), eq(1L), eq(420), any(), any())).thenReturn(1);
+
+        // Then
+        assertNotNull(bookingService.bookTicket(validBookingDTO));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.archive.ArchiveColumn;
+import com.att.tdp.popcorn_palace.archive.ColumnType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ColumnValues class.
+ * Checks the rows sent to PostgreSQL's COPY, which SnapshotServicePostgresTest loads when Docker is available.
+ */
+public class ColumnValuesTest {
+
+    /**
+     * Tests that a COPY row separates values with tabs and escapes the characters COPY treats specially.
+     */
+    @Test
+    void appendCopyRow_ShouldEscapeSpecialCharacters() {
+        // Given
+        List<ArchiveColumn> columns = List.of(
+                new ArchiveColumn("id", ColumnType.LONG),
+                new ArchiveColumn("title", ColumnType.STRING),
+                new ArchiveColumn("high_demand", ColumnType.BOOLEAN),
+                new ArchiveColumn("sales_day", ColumnType.DATE));
+        StringBuilder line = new StringBuilder();
+
+        // When
+        ColumnValues.appendCopyRow(line, columns,
+                new Object[] {7L, "Tab\tnew\nline\r\\slash", true, LocalDate.of(2025, 4, 1)});
+
+        // Then
+        assertEquals("7\tTab\\tnew\\nline\\r\\\\slash\tt\t2025-04-01\n", line.toString());
+    }
+}
@@ -0,0 +1,152 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.archive.SnapshotReader;
+import com.att.tdp.popcorn_palace.archive.SnapshotWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the DatasetGenerator and DatasetService classes.
+ * Generates small datasets and checks that they are reproducible and consistent.
+ */
+public class DatasetGeneratorTest {
+
+    private static final DatasetSpec SPEC = new DatasetSpec(7, 4, 30, LocalDate.of(2025, 6, 1), 3, 0.5, 200);
+
+    /**
+     * Tests that the same specification always produces the same snapshot, and another seed another one.
+     */
+    @Test
+    void writeTo_ShouldBeDeterministic() throws IOException {
+        // When
+        byte[] first = generate(SPEC);
+        byte[] second = generate(SPEC);
+        byte[] otherSeed = generate(new DatasetSpec(8, 4, 30, LocalDate.of(2025, 6, 1), 3, 0.5, 200));
+
+        // Then
+        assertArrayEquals(first, second);
+        assertFalse(Arrays.equals(first, otherSeed));
+    }
+
+    /**
+     * Tests that the showtimes of a theater never overlap, that seats are booked once within the theater's
+     * capacity, and that the sales rollups add up to the bookings.
+     */
+    @Test
+    void writeTo_ShouldProduceConsistentSchedule() throws IOException {
+        // Given
+        Map<String, List<Object[]>> tables = readTables(generate(SPEC));
+        Map<Integer, Integer> capacities = new HashMap<>();
+        for (Object[] theater : tables.get("theaters")) {
+            capacities.put((Integer) theater[0], (Integer) theater[2] * (Integer) theater[3]);
+        }
+
+        // Then
+        Map<Long, Object[]> showtimes = new HashMap<>();
+        Map<Integer, Instant> lastEnds = new HashMap<>();
+        for (Object[] showtime : tables.get("showtimes")) {
+            showtimes.put((Long) showtime[0], showtime);
+            Instant start = (Instant) showtime[3];
+            Instant lastEnd = lastEnds.put((Integer) showtime[2], (Instant) showtime[4]);
+            assertTrue(lastEnd == null || !start.isBefore(lastEnd), "Overlapping showtime " + showtime[0]);
+        }
+
+        Set<String> seats = new HashSet<>();
+        Map<Long, Long> sold = new HashMap<>();
+        for (Object[] booking : tables.get("bookings")) {
+            Object[] showtime = showtimes.get((Long) booking[1]);
+            int seat = (Integer) booking[3];
+            assertEquals(showtime[3], booking[2]);
+            assertTrue(seat >= 1 && seat <= capacities.get((Integer) showtime[2]));
+            assertTrue(seats.add(booking[1] + "/" + seat), "Seat booked twice");
+            sold.merge((Long) booking[1], 1L, Long::sum);
+        }
+        assertFalse(tables.get("bookings").isEmpty());
+
+        long dailyTickets = 0;
+        for (Object[] sales : tables.get("showtime_sales")) {
+            assertEquals(sold.getOrDefault((Long) sales[0], 0L), sales[2]);
+        }
+        for (Object[] sales : tables.get("daily_sales")) {
+            dailyTickets += (Long) sales[5];
+        }
+        assertEquals(tables.get("bookings").size(), dailyTickets);
+        assertEquals(new DatasetGenerator(SPEC).getBookingCount(), tables.get("bookings").size());
+    }
+
+    /**
+     * Tests that loading a dataset replaces the data of the database with the generated rows.
+     */
+    @Test
+    void load_ShouldReplaceDataWithDataset() throws IOException {
+        // Given
+        JdbcTemplate database = new JdbcTemplate(new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1"));
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("data.sql"))
+                .execute(database.getDataSource());
+        SnapshotService snapshotService = new SnapshotService(database,
+                new DataSourceTransactionManager(database.getDataSource()), "");
+        DatasetService datasetService = new DatasetService(snapshotService, false, 1, 1, 1, "", 1, 0, 1);
+
+        // When
+        Map<String, Long> counts = datasetService.load(SPEC);
+
+        // Then
+        assertEquals(30, database.queryForObject("SELECT COUNT(*) FROM movies", Integer.class));
+        assertEquals(counts.get("bookings"), database.queryForObject("SELECT COUNT(*) FROM bookings", Long.class));
+        assertEquals(counts.get("bookings"),
+                database.queryForObject("SELECT SUM(tickets_sold) FROM showtime_sales", Long.class));
+        assertEquals(0, database.queryForObject("SELECT COUNT(*) FROM showtimes a JOIN showtimes b "
+                + "ON a.theater_id = b.theater_id AND a.id < b.id "
+                + "AND a.start_time < b.end_time AND b.start_time < a.end_time", Integer.class));
+    }
+
+    /**
+     * Generates the snapshot of a dataset.
+     */
+    private static byte[] generate(DatasetSpec spec) throws IOException {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(snapshot)) {
+            new DatasetGenerator(spec).writeTo(writer);
+        }
+        return snapshot.toByteArray();
+    }
+
+    /**
+     * Reads every row of a snapshot, by table.
+     */
+    private static Map<String, List<Object[]>> readTables(byte[] snapshot) throws IOException {
+        Map<String, List<Object[]>> tables = new HashMap<>();
+        try (SnapshotReader reader = new SnapshotReader(new ByteArrayInputStream(snapshot))) {
+            while (reader.nextTable()) {
+                List<Object[]> rows = new ArrayList<>();
+                Object[] values = new Object[reader.getColumns().size()];
+                while (reader.nextRow(values)) {
+                    rows.add(values.clone());
+                }
+                tables.put(reader.getTableName(), rows);
+            }
+        }
+        return tables;
+    }
+}
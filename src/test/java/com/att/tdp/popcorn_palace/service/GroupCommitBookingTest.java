@@ -0,0 +1,134 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.BookingDTO;
+import com.att.tdp.popcorn_palace.dto.ShowtimeDTO;
+import com.att.tdp.popcorn_palace.exception.BookingTimeoutException;
+import com.att.tdp.popcorn_palace.exception.SeatUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+/**
+ * Tests of bookings through the group-commit stage of the application context, with the configured
+ * flush interval and timeout, on H2.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class GroupCommitBookingTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingBatchWriter bookingBatchWriter;
+
+    @Autowired
+    private ShowtimeService showtimeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private BookingLocks bookingLocks;
+
+    @Value("${popcorn.booking.group-commit.timeout}")
+    private Duration groupCommitTimeout;
+
+    /**
+     * Removes the stubbing of the seat locks.
+     */
+    @AfterEach
+    void tearDown() {
+        reset(bookingLocks);
+    }
+
+    /**
+     * Tests that bookings go through the group-commit stage and get their own outcomes.
+     */
+    @Test
+    void bookTicket_ThroughGroupCommit_ShouldBookFreeSeatsAndRejectTakenOnes() {
+        // Given
+        long showtimeId = addShowtime(1);
+
+        // When
+        UUID bookingId = bookingService.bookTicket(new BookingDTO(showtimeId, 1, "user-1"));
+
+        // Then
+        assertTrue(bookingBatchWriter.isEnabled());
+        assertNotNull(bookingId);
+        assertThrows(SeatUnavailableException.class,
+                () -> bookingService.bookTicket(new BookingDTO(showtimeId, 1, "user-2")));
+        assertEquals(List.of(1), bookedSeats(showtimeId));
+    }
+
+    /**
+     * Tests that when a batch takes longer than the configured timeout, the bookings waiting behind it are
+     * withdrawn and reported as failed, while the booking being written waits for its batch and is reported
+     * as booked: no caller is told a booking failed that is stored.
+     *
+     * @throws Exception if the bookings cannot be run
+     */
+    @Test
+    void bookTicket_WhenBatchOutlastsTimeout_ShouldOnlyFailWithdrawnBookings() throws Exception {
+        // Given
+        long showtimeId = addShowtime(2);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await(30, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(bookingLocks).lockBookings(anyCollection());
+        CompletableFuture<UUID> inFlight = CompletableFuture.supplyAsync(
+                () -> bookingService.bookTicket(new BookingDTO(showtimeId, 1, "user-1")));
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+        // When
+        long start = System.nanoTime();
+        assertThrows(BookingTimeoutException.class,
+                () -> bookingService.bookTicket(new BookingDTO(showtimeId, 2, "user-2")));
+        Duration waited = Duration.ofNanos(System.nanoTime() - start);
+        release.countDown();
+
+        // Then
+        assertTrue(waited.compareTo(groupCommitTimeout) >= 0);
+        assertNotNull(inFlight.get(10, TimeUnit.SECONDS));
+        assertEquals(List.of(1), bookedSeats(showtimeId));
+    }
+
+    /**
+     * Adds a showtime on a day of its own, so that each test books seats nobody else has booked.
+     */
+    private long addShowtime(int day) {
+        Long movieId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM movies", Long.class);
+        String theater = jdbcTemplate.queryForObject("SELECT MIN(name) FROM theaters", String.class);
+        ZonedDateTime start = ZonedDateTime.now().plusYears(6).plusDays(day);
+        return showtimeService.addShowtime(
+                new ShowtimeDTO(null, movieId, theater, start, start.plusHours(3), 12.5)).getId();
+    }
+
+    /**
+     * Returns the booked seats of a showtime, in order.
+     */
+    private List<Integer> bookedSeats(long showtimeId) {
+        return jdbcTemplate.queryForList(
+                "SELECT seat_number FROM bookings WHERE showtime_id = ? ORDER BY seat_number", Integer.class,
+                showtimeId);
+    }
+}
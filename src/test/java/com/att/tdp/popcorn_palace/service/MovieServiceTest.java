@@ -0,0 +1,71 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.BookingDTO;
+import com.att.tdp.popcorn_palace.dto.MovieDTO;
+import com.att.tdp.popcorn_palace.dto.ShowtimeDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the MovieService class in the application context, on H2.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class MovieServiceTest {
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private ShowtimeService showtimeService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private OccupancyCounters occupancyCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Tests that deleting a movie with booked showtimes removes the showtimes, their bookings,
+     * their sales figures and their occupancy counters.
+     */
+    @Test
+    void deleteMovie_WithBookings_ShouldCleanUpShowtimes() {
+        // Given
+        MovieDTO movie = movieService.addMovie(new MovieDTO(null, "Deleted Feature", "Drama", 120, 7.5, 2024));
+        String theater = jdbcTemplate.queryForObject("SELECT MIN(name) FROM theaters", String.class);
+        ZonedDateTime start = ZonedDateTime.now().plusYears(7);
+        long showtimeId = showtimeService.addShowtime(
+                new ShowtimeDTO(null, movie.getId(), theater, start, start.plusHours(3), 12.5)).getId();
+        bookingService.bookTicket(new BookingDTO(showtimeId, 1, "user-1"));
+        bookingService.bookTicket(new BookingDTO(showtimeId, 2, "user-2"));
+        assertEquals(2, occupancyCounters.getBookedSeats(showtimeId));
+
+        // When
+        movieService.deleteMovie("Deleted Feature");
+
+        // Then
+        assertEquals(0, countRows("showtimes WHERE movie_id = " + movie.getId()));
+        assertEquals(0, countRows("bookings WHERE showtime_id = " + showtimeId));
+        assertEquals(0, countRows("showtime_sales WHERE showtime_id = " + showtimeId));
+        assertEquals(0, countRows("(SELECT sales_day FROM daily_sales WHERE movie_id = " + movie.getId()
+                + " GROUP BY sales_day, theater_id HAVING SUM(showtime_count) <> 0 OR SUM(tickets_sold) <> 0"
+                + " OR SUM(revenue_cents) <> 0) days"));
+        assertEquals(0, occupancyCounters.getBookedSeats(showtimeId));
+    }
+
+    /**
+     * Counts the rows of a table matching a condition.
+     */
+    private int countRows(String tableAndCondition) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tableAndCondition, Integer.class);
+    }
+}
@@ -0,0 +1,49 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the OccupancyCounters class.
+ * Tests seeding from the grouped count and the updates after bookings and deletions.
+ */
+@ExtendWith(MockitoExtension.class)
+public class OccupancyCountersTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private OccupancyCounters occupancyCounters;
+
+    /**
+     * Tests that the counters start from the stored bookings and follow new bookings and deletions.
+     */
+    @Test
+    void counters_ShouldBeSeededAndUpdated() {
+        // Given
+        when(bookingRepository.countSeatsByShowtime())
+                .thenReturn(List.of(new Object[] { 1L, 40L }, new Object[] { 2L, 3L }));
+        occupancyCounters.load();
+
+        // When
+        occupancyCounters.recordBooked(1L, 4);
+        occupancyCounters.recordBooked(3L, 1);
+        occupancyCounters.remove(2L);
+
+        // Then
+        assertEquals(44, occupancyCounters.getBookedSeats(1L));
+        assertEquals(0, occupancyCounters.getBookedSeats(2L));
+        assertEquals(1, occupancyCounters.getBookedSeats(3L));
+        verify(bookingRepository, times(1)).countSeatsByShowtime();
+    }
+}
@@ -0,0 +1,123 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.exception.ConcurrentUpdateException;
+import com.att.tdp.popcorn_palace.exception.PreconditionFailedException;
+import com.att.tdp.popcorn_palace.model.Movie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the OptimisticRetry class.
+ */
+public class OptimisticRetryTest {
+
+    private PlatformTransactionManager transactionManager;
+    private OptimisticRetry optimisticRetry;
+
+    /**
+     * Set up the test environment before each test.
+     * Creates a retry allowing three attempts, without pauses.
+     */
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        optimisticRetry = new OptimisticRetry(new TransactionTemplate(transactionManager), 3, Duration.ZERO);
+    }
+
+    /**
+     * Tests that an unconditional update is retried, each attempt in a transaction of its own,
+     * until it no longer meets a concurrent update.
+     */
+    @Test
+    void update_WhenUnconditional_ShouldRetryConflicts() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String result = optimisticRetry.update("Movie 'Test'", null, status -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "updated";
+        });
+
+        // Then
+        assertEquals("updated", result);
+        assertEquals(3, attempts.get());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    /**
+     * Tests that an unconditional update gives up with a conflict once every attempt met a concurrent update.
+     */
+    @Test
+    void update_WhenConflictsPersist_ShouldThrowConcurrentUpdateException() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        ConcurrentUpdateException exception = assertThrows(ConcurrentUpdateException.class,
+                () -> optimisticRetry.update("Movie 'Test'", null, status -> {
+                    attempts.incrementAndGet();
+                    throw conflict();
+                }));
+
+        // Then
+        assertEquals(3, attempts.get());
+        assertTrue(exception.getMessage().contains("Movie 'Test'"));
+    }
+
+    /**
+     * Tests that a conditional update is not retried: the client's version is no longer current.
+     */
+    @Test
+    void update_WhenConditional_ShouldNotRetry() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        assertThrows(PreconditionFailedException.class,
+                () -> optimisticRetry.update("Movie 'Test'", Set.of(2L), status -> {
+                    attempts.incrementAndGet();
+                    throw conflict();
+                }));
+
+        // Then
+        assertEquals(1, attempts.get());
+    }
+
+    /**
+     * Tests that versions are only checked for conditional updates, and that invalid bounds are rejected.
+     */
+    @Test
+    void checkVersionAndConstruct_ShouldValidate() {
+        // Then
+        assertDoesNotThrow(() -> OptimisticRetry.checkVersion("Movie 'Test'", null, 4L));
+        assertDoesNotThrow(() -> OptimisticRetry.checkVersion("Movie 'Test'", Set.of(3L, 4L), 4L));
+        assertThrows(PreconditionFailedException.class, () -> OptimisticRetry.checkVersion("Movie 'Test'", Set.of(3L), 4L));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OptimisticRetry(new TransactionTemplate(transactionManager), 0, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OptimisticRetry(new TransactionTemplate(transactionManager), 3, Duration.ofMillis(-1)));
+    }
+
+    /**
+     * Creates the failure of a flush meeting a concurrent update.
+     */
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(Movie.class, 1L);
+    }
+}
@@ -0,0 +1,229 @@
+package com.att.tdp.popcorn_palace.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the PartitionMaintenanceJob class and the partitioned schema, against a PostgreSQL container.
+ * Tests partition creation and detachment, co-partitioned bookings and partition pruning.
+ * Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class PartitionMaintenanceJobTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final YearMonth CURRENT = YearMonth.of(2030, 5);
+
+    private JdbcTemplate jdbcTemplate;
+    private OccupancyCounters occupancyCounters;
+    private WaitingRoomService waitingRoomService;
+    private TheaterService theaterService;
+    private PartitionMaintenanceJob job;
+
+    /**
+     * Set up the test environment before each test.
+     * Creates the partitioned schema in a fresh database schema, with one movie and one theater,
+     * and a job keeping two months ahead and six months back.
+     */
+    @BeforeEach
+    void setUp() {
+        String schema = "test_" + UUID.randomUUID().toString().replace("-", "");
+        new JdbcTemplate(new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+                POSTGRES.getPassword())).execute("CREATE SCHEMA " + schema);
+        DriverManagerDataSource database = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl() + "&currentSchema=" + schema, POSTGRES.getUsername(), POSTGRES.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("schema-partitioned.sql")).execute(database);
+
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.update("INSERT INTO movies (title, genre, duration, rating, release_year) "
+                + "VALUES ('Inception', 'Sci-Fi', 148, 8.8, 2010)");
+        jdbcTemplate.update("INSERT INTO theaters (name, seat_rows, seats_per_row, section_layout) "
+                + "VALUES ('Theater 1', 10, 10, '10')");
+
+        occupancyCounters = mock(OccupancyCounters.class);
+        waitingRoomService = mock(WaitingRoomService.class);
+        theaterService = mock(TheaterService.class);
+        job = new PartitionMaintenanceJob(jdbcTemplate, new DataSourceTransactionManager(database),
+                occupancyCounters, waitingRoomService, theaterService, true, 2, 6, Duration.ofHours(1));
+    }
+
+    /**
+     * Tests that the current month and the months ahead get partitions, and that runs are repeatable.
+     */
+    @Test
+    void maintain_ShouldCreatePartitionsOfWindow() {
+        // When
+        assertTrue(job.maintain(CURRENT));
+        assertTrue(job.maintain(CURRENT));
+
+        // Then
+        List<String> expected = List.of("2030_05", "2030_06", "2030_07");
+        assertEquals(expected.stream().map(month -> "showtimes_" + month).toList(), partitionsOf("showtimes"));
+        assertEquals(expected.stream().map(month -> "bookings_" + month).toList(), partitionsOf("bookings"));
+    }
+
+    /**
+     * Tests that a booking is stored in the partition of its showtime's month and follows it when rescheduled.
+     */
+    @Test
+    void insertBooking_ShouldFollowPartitionOfShowtime() {
+        // Given
+        job.maintain(CURRENT);
+        long showtimeId = addShowtime("2030-06-10T19:00:00Z");
+
+        // When
+        insertBooking(showtimeId, 1);
+
+        // Then
+        assertEquals(1, countRows("bookings_2030_06"));
+
+        // When
+        jdbcTemplate.update("UPDATE showtimes SET start_time = ?, end_time = ? WHERE id = ?",
+                OffsetDateTime.parse("2030-07-02T19:00:00Z"), OffsetDateTime.parse("2030-07-02T21:30:00Z"),
+                showtimeId);
+
+        // Then
+        assertEquals(0, countRows("bookings_2030_06"));
+        assertEquals(1, countRows("bookings_2030_07"));
+    }
+
+    /**
+     * Tests that a booking for a missing showtime is rejected as such, and a taken seat as a conflict.
+     */
+    @Test
+    void insertBooking_WhenShowtimeMissingOrSeatTaken_ShouldBeRejected() {
+        // Given
+        job.maintain(CURRENT);
+        long showtimeId = addShowtime("2030-05-20T19:00:00Z");
+        insertBooking(showtimeId, 1);
+
+        // Then
+        assertEquals(0, insertBooking(showtimeId, 1));
+        DataIntegrityViolationException exception = assertThrows(
+                DataIntegrityViolationException.class,
+                () -> insertBooking(showtimeId + 1000, 1));
+        assertTrue(BookingService.isMissingShowtime(exception));
+    }
+
+    /**
+     * Tests that range queries on showtimes and bookings only scan the partitions of the requested months.
+     */
+    @Test
+    void rangeQueries_ShouldPruneToPartitionsOfRange() {
+        // Given
+        job.maintain(CURRENT);
+        addShowtime("2030-05-20T19:00:00Z");
+        insertBooking(addShowtime("2030-06-10T19:00:00Z"), 1);
+
+        // When
+        String showtimesPlan = explain("SELECT id FROM showtimes WHERE theater_id = 1 "
+                + "AND start_time >= '2030-06-01T00:00:00Z' AND start_time < '2030-06-15T00:00:00Z'");
+        String bookingsPlan = explain("SELECT seat_number FROM bookings "
+                + "WHERE showtime_start >= '2030-06-10T00:00:00Z' AND showtime_start < '2030-06-11T00:00:00Z'");
+
+        // Then
+        assertTrue(showtimesPlan.contains("showtimes_2030_06"), showtimesPlan);
+        assertFalse(showtimesPlan.contains("showtimes_2030_05"), showtimesPlan);
+        assertFalse(showtimesPlan.contains("showtimes_2030_07"), showtimesPlan);
+        assertTrue(bookingsPlan.contains("bookings_2030_06"), bookingsPlan);
+        assertFalse(bookingsPlan.contains("bookings_2030_05"), bookingsPlan);
+        assertFalse(bookingsPlan.contains("bookings_2030_07"), bookingsPlan);
+    }
+
+    /**
+     * Tests that partitions older than the retention period are detached with their rows kept,
+     * that the sales figures of their showtimes are removed while the daily sales stay for reports, and
+     * that the showtimes are forgotten by the counters, waiting rooms and theater cache.
+     */
+    @Test
+    void maintain_ShouldDetachExpiredPartitions() {
+        // Given
+        job.maintain(CURRENT);
+        long showtimeId = addShowtime("2030-05-20T19:00:00Z");
+        long keptShowtimeId = addShowtime("2030-06-10T19:00:00Z");
+        insertBooking(showtimeId, 1);
+        jdbcTemplate.update("INSERT INTO showtime_sales VALUES (?, 100, 1, 1250)", showtimeId);
+        jdbcTemplate.update("INSERT INTO daily_sales VALUES (DATE '2030-05-20', 1, 1, 1, 100, 1, 1250)");
+        jdbcTemplate.update("INSERT INTO daily_sales VALUES (DATE '2030-06-10', 1, 1, 1, 100, 0, 0)");
+
+        // When
+        job.maintain(CURRENT.plusMonths(7));
+
+        // Then
+        assertFalse(partitionsOf("showtimes").contains("showtimes_2030_05"));
+        assertFalse(partitionsOf("bookings").contains("bookings_2030_05"));
+        assertTrue(partitionsOf("showtimes").contains("showtimes_2030_06"));
+        assertEquals(1, countRows("showtimes_2030_05"));
+        assertEquals(1, countRows("bookings_2030_05"));
+        assertEquals(1, countRows("showtimes"));
+        assertEquals(0, countRows("showtime_sales"));
+        assertEquals(List.of(LocalDate.of(2030, 5, 20), LocalDate.of(2030, 6, 10)), jdbcTemplate.queryForList(
+                "SELECT sales_day FROM daily_sales ORDER BY sales_day", LocalDate.class));
+        verify(occupancyCounters).remove(showtimeId);
+        verify(waitingRoomService).setHighDemand(showtimeId, false);
+        verify(theaterService).evictShowtime(showtimeId);
+        verify(occupancyCounters, never()).remove(keptShowtimeId);
+    }
+
+    /**
+     * Adds a showtime of the movie in the theater, lasting two and a half hours.
+     */
+    private long addShowtime(String startTime) {
+        OffsetDateTime start = OffsetDateTime.parse(startTime);
+        return jdbcTemplate.queryForObject("INSERT INTO showtimes (movie_id, theater_id, start_time, end_time, price) "
+                + "VALUES (1, 1, ?, ?, 12.5) RETURNING id", Long.class, start, start.plusMinutes(150));
+    }
+
+    /**
+     * Inserts a booking with the statement used by the group-commit stage.
+     */
+    private int insertBooking(long showtimeId, int seatNumber) {
+        return jdbcTemplate.update(BookingBatchWriter.INSERT_BOOKING_SQL, UUID.randomUUID(), showtimeId, showtimeId,
+                seatNumber, "user-1", Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Lists the partitions attached to a table, by name.
+     */
+    private List<String> partitionsOf(String table) {
+        return jdbcTemplate.queryForList(PartitionMaintenanceJob.SELECT_PARTITIONS_SQL + " ORDER BY c.relname",
+                String.class, table);
+    }
+
+    /**
+     * Counts the rows of a table or partition.
+     */
+    private int countRows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    /**
+     * Returns the query plan of a statement as text.
+     */
+    private String explain(String query) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+    }
+}
@@ -0,0 +1,183 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.MovieRevenueDTO;
+import com.att.tdp.popcorn_palace.dto.TheaterOccupancyDTO;
+import com.att.tdp.popcorn_palace.service.SalesRollups.SalesKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the SalesRollups and ReportService classes.
+ * Runs the rollup updates against an embedded database and reads them back through the reports.
+ */
+public class SalesRollupsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 5, 1);
+    private static final ZonedDateTime START = ZonedDateTime.parse("2030-05-01T19:00:00Z");
+
+    private SimpleDriverDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private SalesRollups salesRollups;
+    private ReportService reportService;
+
+    /**
+     * Set up the test environment before each test.
+     * Creates the showtimes and rollup tables with one showtime of movie 1 in theater 1 at 12.50.
+     */
+    @BeforeEach
+    void setUp() {
+        dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE showtimes (id BIGINT PRIMARY KEY, movie_id BIGINT NOT NULL, "
+                + "theater_id INTEGER NOT NULL, start_time TIMESTAMP WITH TIME ZONE NOT NULL, "
+                + "price DOUBLE PRECISION NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE showtime_sales (showtime_id BIGINT NOT NULL, "
+                + "seats_offered INTEGER NOT NULL, tickets_sold BIGINT NOT NULL, revenue_cents BIGINT NOT NULL, "
+                + "stripe INTEGER NOT NULL DEFAULT 0, UNIQUE (showtime_id, stripe))");
+        jdbcTemplate.execute("CREATE TABLE daily_sales (sales_day DATE NOT NULL, movie_id BIGINT NOT NULL, "
+                + "theater_id INTEGER NOT NULL, showtime_count INTEGER NOT NULL, seats_offered BIGINT NOT NULL, "
+                + "tickets_sold BIGINT NOT NULL, revenue_cents BIGINT NOT NULL, stripe INTEGER NOT NULL DEFAULT 0, "
+                + "UNIQUE (sales_day, movie_id, theater_id, stripe))");
+        jdbcTemplate.update("INSERT INTO showtimes VALUES (1, 1, 1, ?, 12.5)", START.toOffsetDateTime());
+
+        salesRollups = new SalesRollups(jdbcTemplate);
+        TheaterRegistry theaterRegistry = mock(TheaterRegistry.class);
+        when(theaterRegistry.nameOf(anyInt())).thenAnswer(invocation -> "Theater " + invocation.getArgument(0));
+        reportService = new ReportService(jdbcTemplate, theaterRegistry);
+    }
+
+    /**
+     * Drops the database.
+     */
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    /**
+     * Tests that scheduled seats and sold tickets add up in the reports, with revenue in cents.
+     */
+    @Test
+    void recordSold_ShouldAddUpInReports() {
+        // When
+        salesRollups.recordScheduled(1L, SalesRollups.keyOf(START, 1L, 1), 100);
+        salesRollups.recordSold(1L, 1, 3);
+        salesRollups.recordSold(1L, 3, 7);
+
+        // Then
+        List<MovieRevenueDTO> revenue = reportService.getRevenueByMovie(DAY, DAY);
+        assertEquals(List.of(new MovieRevenueDTO(DAY, 1L, 4, 5000)), revenue);
+
+        List<TheaterOccupancyDTO> occupancy = reportService.getOccupancyByTheater(DAY, DAY);
+        assertEquals(List.of(new TheaterOccupancyDTO(DAY, "Theater 1", 1, 100, 4, 0.04)), occupancy);
+    }
+
+    /**
+     * Tests that the figures of a showtime move with it and disappear when it is cancelled.
+     */
+    @Test
+    void recordRescheduledAndCancelled_ShouldMoveAndRemoveFigures() {
+        // Given
+        SalesKey oldKey = SalesRollups.keyOf(START, 1L, 1);
+        SalesKey newKey = SalesRollups.keyOf(START.plusDays(1), 1L, 2);
+        salesRollups.recordScheduled(1L, oldKey, 100);
+        salesRollups.recordSold(1L, 2, 5);
+
+        // When
+        salesRollups.recordRescheduled(1L, oldKey, newKey, 400);
+
+        // Then
+        assertTrue(reportService.getOccupancyByTheater(DAY, DAY).isEmpty());
+        assertEquals(List.of(new TheaterOccupancyDTO(DAY.plusDays(1), "Theater 2", 1, 400, 2, 0.005)),
+                reportService.getOccupancyByTheater(DAY, DAY.plusDays(1)));
+
+        // When
+        salesRollups.recordCancelled(1L, newKey);
+
+        // Then
+        assertTrue(reportService.getRevenueByMovie(DAY, DAY.plusDays(1)).isEmpty());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM showtime_sales", Integer.class));
+    }
+
+    /**
+     * Tests that a batch of sales for several showtimes of the same day adds up in one daily row.
+     */
+    @Test
+    void recordSold_ForSeveralShowtimes_ShouldAddUpPerDay() {
+        // Given
+        jdbcTemplate.update("INSERT INTO showtimes VALUES (2, 1, 1, ?, 10.0)", START.plusHours(3).toOffsetDateTime());
+        salesRollups.recordScheduled(1L, SalesRollups.keyOf(START, 1L, 1), 100);
+        salesRollups.recordScheduled(2L, SalesRollups.keyOf(START.plusHours(3), 1L, 1), 100);
+
+        // When
+        salesRollups.recordSold(Map.of(2L, 3, 1L, 2), 9);
+
+        // Then
+        assertEquals(List.of(new MovieRevenueDTO(DAY, 1L, 5, 5500)), reportService.getRevenueByMovie(DAY, DAY));
+        assertEquals(List.of(new TheaterOccupancyDTO(DAY, "Theater 1", 2, 200, 5, 0.025)),
+                reportService.getOccupancyByTheater(DAY, DAY));
+    }
+
+    /**
+     * Tests that a new theater capacity changes the seats offered by its showtimes.
+     */
+    @Test
+    void recordCapacityChanged_ShouldUpdateSeatsOffered() {
+        // Given
+        salesRollups.recordScheduled(1L, SalesRollups.keyOf(START, 1L, 1), 100);
+        salesRollups.recordSold(1L, 4, 2);
+
+        // When
+        salesRollups.recordCapacityChanged(1, 80);
+
+        // Then
+        assertEquals(List.of(new TheaterOccupancyDTO(DAY, "Theater 1", 1, 80, 4, 0.05)),
+                reportService.getOccupancyByTheater(DAY, DAY));
+        assertEquals(80, jdbcTemplate.queryForObject(
+                "SELECT SUM(seats_offered) FROM showtime_sales WHERE showtime_id = 1", Integer.class));
+    }
+
+    /**
+     * Tests that uncommitted sales in one stripe only hold back sales in the same stripe.
+     */
+    @Test
+    void recordSold_InOpenTransactions_ShouldOnlyWaitWithinStripe() throws SQLException {
+        // Given
+        salesRollups.recordScheduled(1L, SalesRollups.keyOf(START, 1L, 1), 100);
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            first.setAutoCommit(false);
+            second.setAutoCommit(false);
+            SalesRollups firstRollups = new SalesRollups(new JdbcTemplate(new SingleConnectionDataSource(first, true)));
+            JdbcTemplate secondTemplate = new JdbcTemplate(new SingleConnectionDataSource(second, true));
+            secondTemplate.execute("SET LOCK_TIMEOUT 200");
+            SalesRollups secondRollups = new SalesRollups(secondTemplate);
+
+            // When
+            firstRollups.recordSold(1L, 1, 3);
+
+            // Then
+            assertDoesNotThrow(() -> secondRollups.recordSold(1L, 1, 4));
+            assertThrows(DataAccessException.class, () -> secondRollups.recordSold(1L, 1, 3));
+            second.rollback();
+            first.commit();
+        }
+        assertEquals(List.of(new MovieRevenueDTO(DAY, 1L, 1, 1250)), reportService.getRevenueByMovie(DAY, DAY));
+    }
+}
@@ -0,0 +1,152 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.BestAvailableRequestDTO;
+import com.att.tdp.popcorn_palace.dto.SeatAllocationDTO;
+import com.att.tdp.popcorn_palace.exception.NoAdjacentSeatsException;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.seating.TheaterLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the SeatAllocationService class.
+ * Tests the choice of seats and the retry when a chosen seat is taken concurrently.
+ */
+@ExtendWith(MockitoExtension.class)
+public class SeatAllocationServiceTest {
+
+    private static final Long SHOWTIME_ID = 1L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TheaterService theaterService;
+
+    @Mock
+    private OccupancyCounters occupancyCounters;
+
+    @Mock
+    private SalesRollups salesRollups;
+
+    @Mock
+    private BookingLocks bookingLocks;
+
+    private SeatAllocationService seatAllocationService;
+
+    private BestAvailableRequestDTO request;
+
+    /**
+     * Set up the test environment before each test.
+     * Uses the default hall of 10 rows of 10 seats.
+     */
+    @BeforeEach
+    void setUp() {
+        seatAllocationService = new SeatAllocationService(bookingRepository, theaterService, occupancyCounters, salesRollups,
+                bookingLocks, new TransactionTemplate(transactionManager), 3);
+        lenient().when(theaterService.getLayoutOfShowtime(SHOWTIME_ID)).thenReturn(Optional.of(TheaterLayout.DEFAULT));
+        request = new BestAvailableRequestDTO(SHOWTIME_ID, 4, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Tests that the central seats of an empty hall are booked together.
+     */
+    @Test
+    void bookBestAvailable_EmptyHall_ShouldBookCentralSeats() {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(bookingRepository.findSeatNumbersByShowtimeId(SHOWTIME_ID)).thenReturn(List.of());
+        when(bookingRepository.insertIfSeatAvailable(any(), eq(SHOWTIME_ID), anyInt(), any(), any())).thenReturn(1);
+
+        // When
+        SeatAllocationDTO allocation = seatAllocationService.bookBestAvailable(request);
+
+        // Then
+        assertEquals(List.of(44, 45, 46, 47), allocation.getSeatNumbers());
+        assertEquals(4, allocation.getBookingIds().size());
+        verify(transactionManager).commit(any());
+    }
+
+    /**
+     * Tests that a claim losing a seat to a concurrent booking is rolled back and retried on fresh occupancy.
+     */
+    @Test
+    void bookBestAvailable_WhenSeatTakenConcurrently_ShouldRetry() {
+        // Given - seat 45 is taken between the first search and the claim
+        SimpleTransactionStatus firstClaim = new SimpleTransactionStatus();
+        SimpleTransactionStatus secondClaim = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(firstClaim, secondClaim);
+        when(bookingRepository.findSeatNumbersByShowtimeId(SHOWTIME_ID))
+                .thenReturn(List.of())
+                .thenReturn(List.of(45));
+        when(bookingRepository.insertIfSeatAvailable(any(), eq(SHOWTIME_ID), anyInt(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2, Integer.class) == 45 ? 0 : 1);
+
+        // When
+        SeatAllocationDTO allocation = seatAllocationService.bookBestAvailable(request);
+
+        // Then
+        assertFalse(allocation.getSeatNumbers().contains(45));
+        assertEquals(4, allocation.getSeatNumbers().size());
+        verify(bookingRepository, times(2)).findSeatNumbersByShowtimeId(SHOWTIME_ID);
+        assertTrue(firstClaim.isRollbackOnly());
+        assertFalse(secondClaim.isRollbackOnly());
+    }
+
+    /**
+     * Tests that a request is rejected when no row has enough adjacent free seats.
+     */
+    @Test
+    void bookBestAvailable_NoRun_ShouldThrow() {
+        // Given - every other seat is taken
+        List<Integer> taken = IntStream.rangeClosed(1, 100)
+                .filter(seat -> seat % 2 == 0)
+                .boxed()
+                .toList();
+        when(bookingRepository.findSeatNumbersByShowtimeId(SHOWTIME_ID)).thenReturn(taken);
+
+        // Then
+        assertThrows(NoAdjacentSeatsException.class, () -> seatAllocationService.bookBestAvailable(request));
+        verify(bookingRepository, never()).insertIfSeatAvailable(any(), any(), any(), any(), any());
+    }
+
+    /**
+     * Tests that runs never cross an aisle between two sections.
+     */
+    @Test
+    void bookBestAvailable_ShouldKeepRunWithinSection() {
+        // Given - 1 row of 3 + 4 + 3 seats, the middle section is partly taken
+        when(theaterService.getLayoutOfShowtime(SHOWTIME_ID))
+                .thenReturn(Optional.of(new TheaterLayout(1, 10, List.of(3, 4, 3))));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(bookingRepository.findSeatNumbersByShowtimeId(SHOWTIME_ID)).thenReturn(List.of(5));
+        when(bookingRepository.insertIfSeatAvailable(any(), eq(SHOWTIME_ID), anyInt(), any(), any())).thenReturn(1);
+        request.setCount(3);
+
+        // When
+        SeatAllocationDTO allocation = seatAllocationService.bookBestAvailable(request);
+
+        // Then - seats 6-8 would be free but cross the aisle after seat 7
+        assertTrue(List.of(List.of(1, 2, 3), List.of(8, 9, 10)).contains(allocation.getSeatNumbers()));
+    }
+}
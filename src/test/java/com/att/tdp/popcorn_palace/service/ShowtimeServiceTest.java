@@ -1,22 +1,34 @@
 package com.att.tdp.popcorn_palace.service;
 
+import com.att.tdp.popcorn_palace.dto.AvailabilityPageDTO;
+import com.att.tdp.popcorn_palace.dto.FreeSlotDTO;
 import com.att.tdp.popcorn_palace.dto.ShowtimeDTO;
+import com.att.tdp.popcorn_palace.dto.ShowtimePageDTO;
 import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
+import com.att.tdp.popcorn_palace.exception.PreconditionFailedException;
 import com.att.tdp.popcorn_palace.exception.ResourceNotFoundException;
 import com.att.tdp.popcorn_palace.model.Movie;
 import com.att.tdp.popcorn_palace.model.Showtime;
 import com.att.tdp.popcorn_palace.repository.MovieRepository;
 import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeSearchRepository.ShowtimeRow;
+import com.att.tdp.popcorn_palace.seating.TheaterLayout;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,6 +48,7 @@ public class ShowtimeServiceTest {
     private static final Long ANOTHER_SHOWTIME_ID = 4L;
     private static final Long NONEXISTENT_SHOWTIME_ID = 99L;
     private static final String THEATER_NAME = "Theater 1";
+    private static final int THEATER_ID = 7;
     private static final double TICKET_PRICE = 10.0;
 
     @Mock
@@ -44,6 +57,25 @@ public class ShowtimeServiceTest {
     @Mock
     private MovieRepository movieRepository;
 
+    @Mock
+    private WaitingRoomService waitingRoomService;
+
+    @Mock
+    private TheaterService theaterService;
+
+    @Mock
+    private TheaterRegistry theaterRegistry;
+
+    @Mock
+    private OccupancyCounters occupancyCounters;
+
+    @Mock
+    private SalesRollups salesRollups;
+
+    @Spy
+    private OptimisticRetry optimisticRetry =
+            new OptimisticRetry(new TransactionTemplate(mock(PlatformTransactionManager.class)), 3, Duration.ZERO);
+
     @InjectMocks
     private ShowtimeService showtimeService;
 
@@ -81,10 +113,14 @@ public class ShowtimeServiceTest {
         existingShowtime = new Showtime();
         existingShowtime.setId(EXISTING_SHOWTIME_ID);
         existingShowtime.setMovie(movie);
-        existingShowtime.setTheater(THEATER_NAME);
+        existingShowtime.setTheaterId(THEATER_ID);
         existingShowtime.setStartTime(baseTime.plusHours(3));
         existingShowtime.setEndTime(baseTime.plusHours(5));
         existingShowtime.setPrice(TICKET_PRICE);
+        existingShowtime.setVersion(0L);
+
+        lenient().when(theaterRegistry.idOf(THEATER_NAME)).thenReturn(THEATER_ID);
+        lenient().when(theaterRegistry.findId(THEATER_NAME)).thenReturn(Optional.of(THEATER_ID));
     }
 
     /**
@@ -99,7 +135,10 @@ public class ShowtimeServiceTest {
         validShowtimeDTO.setStartTime(baseTime.plusHours(4));
         validShowtimeDTO.setEndTime(baseTime.plusHours(6));
 
-        when(showtimeRepository.findAll()).thenReturn(List.of(existingShowtime));
+        when(showtimeRepository.findOverlappingIds(THEATER_ID,
+                validShowtimeDTO.getStartTime().minus(ShowtimeService.MAX_SHOWTIME_LENGTH),
+                validShowtimeDTO.getStartTime(), validShowtimeDTO.getEndTime()))
+                .thenReturn(List.of(EXISTING_SHOWTIME_ID));
 
         // Then
         InvalidRequestException exception = assertThrows(
@@ -110,7 +149,25 @@ public class ShowtimeServiceTest {
 
         // Verify
         verify(movieRepository, times(2)).findById(validShowtimeDTO.getMovieId());
-        verify(showtimeRepository).findAll();
+        verify(showtimeRepository, never()).findAll();
+        verify(showtimeRepository, never()).save(any(Showtime.class));
+    }
+
+    /**
+     * Tests that a showtime longer than the bound of the overlap queries is rejected before they run.
+     */
+    @Test
+    void addShowtime_WhenLongerThanMaxLength_ShouldThrowInvalidRequestException() {
+        // Given
+        validShowtimeDTO.setEndTime(baseTime.plus(ShowtimeService.MAX_SHOWTIME_LENGTH).plusMinutes(1));
+
+        // Then
+        InvalidRequestException exception = assertThrows(
+                InvalidRequestException.class,
+                () -> showtimeService.addShowtime(validShowtimeDTO));
+
+        assertTrue(exception.getMessage().contains("longer than 24 hours"));
+        verify(showtimeRepository, never()).findOverlappingIds(any(), any(), any(), any());
         verify(showtimeRepository, never()).save(any(Showtime.class));
     }
 
@@ -124,7 +181,7 @@ public class ShowtimeServiceTest {
         Showtime showtimeToUpdate = new Showtime();
         showtimeToUpdate.setId(UPDATE_SHOWTIME_ID);
         showtimeToUpdate.setMovie(movie);
-        showtimeToUpdate.setTheater(THEATER_NAME);
+        showtimeToUpdate.setTheaterId(THEATER_ID);
         showtimeToUpdate.setStartTime(baseTime.plusHours(6));
         showtimeToUpdate.setEndTime(baseTime.plusHours(8));
         showtimeToUpdate.setPrice(TICKET_PRICE);
@@ -132,7 +189,7 @@ public class ShowtimeServiceTest {
         Showtime anotherExistingShowtime = new Showtime();
         anotherExistingShowtime.setId(ANOTHER_SHOWTIME_ID);
         anotherExistingShowtime.setMovie(movie);
-        anotherExistingShowtime.setTheater(THEATER_NAME);
+        anotherExistingShowtime.setTheaterId(THEATER_ID);
         anotherExistingShowtime.setStartTime(baseTime.plusHours(4));
         anotherExistingShowtime.setEndTime(baseTime.plusHours(6));
         anotherExistingShowtime.setPrice(TICKET_PRICE);
@@ -144,8 +201,10 @@ public class ShowtimeServiceTest {
         validShowtimeDTO.setStartTime(baseTime.plusHours(5));
         validShowtimeDTO.setEndTime(baseTime.plusHours(7));
 
-        when(showtimeRepository.findAll())
-                .thenReturn(List.of(existingShowtime, showtimeToUpdate, anotherExistingShowtime));
+        when(showtimeRepository.findOverlappingIds(THEATER_ID,
+                validShowtimeDTO.getStartTime().minus(ShowtimeService.MAX_SHOWTIME_LENGTH),
+                validShowtimeDTO.getStartTime(), validShowtimeDTO.getEndTime()))
+                .thenReturn(List.of(UPDATE_SHOWTIME_ID, ANOTHER_SHOWTIME_ID));
 
         // Then
         InvalidRequestException exception = assertThrows(
@@ -157,7 +216,7 @@ public class ShowtimeServiceTest {
         // Verify
         verify(showtimeRepository).findById(UPDATE_SHOWTIME_ID);
         verify(movieRepository).findById(validShowtimeDTO.getMovieId());
-        verify(showtimeRepository).findAll();
+        verify(showtimeRepository, never()).findAll();
         verify(showtimeRepository, never()).save(any(Showtime.class));
     }
 
@@ -183,4 +242,213 @@ public class ShowtimeServiceTest {
         verify(movieRepository, never()).findById(any());
         verify(showtimeRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that a showtime that only overlaps itself can be updated and is returned with its theater name.
+     */
+    @Test
+    void updateShowtime_WhenOnlyOverlappingItself_ShouldSave() {
+        // Given
+        when(showtimeRepository.findById(EXISTING_SHOWTIME_ID)).thenReturn(Optional.of(existingShowtime));
+        when(movieRepository.findById(MOVIE_ID)).thenReturn(Optional.of(movie));
+        when(showtimeRepository.findOverlappingIds(THEATER_ID,
+                validShowtimeDTO.getStartTime().minus(ShowtimeService.MAX_SHOWTIME_LENGTH),
+                validShowtimeDTO.getStartTime(), validShowtimeDTO.getEndTime()))
+                .thenReturn(List.of(EXISTING_SHOWTIME_ID));
+        when(showtimeRepository.save(existingShowtime)).thenReturn(existingShowtime);
+        when(theaterRegistry.nameOf(THEATER_ID)).thenReturn(THEATER_NAME);
+        when(theaterService.getLayout(THEATER_ID)).thenReturn(TheaterLayout.DEFAULT);
+
+        // When
+        ShowtimeDTO result = showtimeService.updateShowtime(EXISTING_SHOWTIME_ID, validShowtimeDTO);
+
+        // Then
+        assertEquals(THEATER_NAME, result.getTheater());
+        assertEquals(THEATER_ID, existingShowtime.getTheaterId());
+        verify(theaterService).evictShowtime(EXISTING_SHOWTIME_ID);
+        verify(salesRollups).recordRescheduled(EXISTING_SHOWTIME_ID,
+                SalesRollups.keyOf(baseTime.plusHours(3), MOVIE_ID, THEATER_ID),
+                SalesRollups.keyOf(baseTime, MOVIE_ID, THEATER_ID), 100);
+    }
+
+    /**
+     * Tests that an update expecting another version than the current one is refused without retrying
+     * and without writing anything.
+     */
+    @Test
+    void updateShowtime_WhenVersionIsStale_ShouldThrowPreconditionFailedException() {
+        // Given
+        existingShowtime.setVersion(5L);
+        when(showtimeRepository.findById(EXISTING_SHOWTIME_ID)).thenReturn(Optional.of(existingShowtime));
+
+        // When
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class,
+                () -> showtimeService.updateShowtime(EXISTING_SHOWTIME_ID, validShowtimeDTO, Set.of(4L)));
+
+        // Then
+        assertTrue(exception.getMessage().contains("version 5, expected 4"));
+        verify(showtimeRepository).findById(EXISTING_SHOWTIME_ID);
+        verify(showtimeRepository, never()).save(any());
+        verifyNoInteractions(salesRollups);
+    }
+
+    /**
+     * Tests that an unconditional update losing to a concurrent update is run again on the fresh showtime,
+     * while a conditional one fails with the first conflict.
+     */
+    @Test
+    void updateShowtime_WhenUpdatedConcurrently_ShouldRetryOnlyUnconditionalUpdate() {
+        // Given
+        when(showtimeRepository.findById(EXISTING_SHOWTIME_ID)).thenReturn(Optional.of(existingShowtime));
+        when(movieRepository.findById(MOVIE_ID)).thenReturn(Optional.of(movie));
+        when(showtimeRepository.findOverlappingIds(THEATER_ID,
+                validShowtimeDTO.getStartTime().minus(ShowtimeService.MAX_SHOWTIME_LENGTH),
+                validShowtimeDTO.getStartTime(), validShowtimeDTO.getEndTime())).thenReturn(List.of());
+        when(showtimeRepository.save(existingShowtime)).thenReturn(existingShowtime);
+        when(theaterRegistry.nameOf(THEATER_ID)).thenReturn(THEATER_NAME);
+        when(theaterService.getLayout(THEATER_ID)).thenReturn(TheaterLayout.DEFAULT);
+        ObjectOptimisticLockingFailureException conflict =
+                new ObjectOptimisticLockingFailureException(Showtime.class, EXISTING_SHOWTIME_ID);
+        doThrow(conflict).doNothing().when(showtimeRepository).flush();
+
+        // When
+        ShowtimeDTO result = showtimeService.updateShowtime(EXISTING_SHOWTIME_ID, validShowtimeDTO);
+
+        // Then
+        assertEquals(THEATER_NAME, result.getTheater());
+        verify(showtimeRepository, times(2)).findById(EXISTING_SHOWTIME_ID);
+        verify(salesRollups, times(1)).recordRescheduled(eq(EXISTING_SHOWTIME_ID), any(), any(), eq(100));
+        verify(theaterRegistry, times(1)).findId(THEATER_NAME);
+        verify(theaterRegistry, never()).idOf(any());
+
+        // When
+        doThrow(conflict).when(showtimeRepository).flush();
+
+        // Then
+        assertThrows(PreconditionFailedException.class,
+                () -> showtimeService.updateShowtime(EXISTING_SHOWTIME_ID, validShowtimeDTO, Set.of(0L)));
+        verify(showtimeRepository, times(3)).findById(EXISTING_SHOWTIME_ID);
+    }
+
+    /**
+     * Tests that free slots are the gaps between showtimes, shortened by the buffer, that fit the movie.
+     */
+    @Test
+    void findFreeSlots_ShouldReturnGapsLongEnoughForMovie() {
+        // Given - showtimes at +3h..+5h (existing) and +7h30..+9h; the movie runs 120 minutes
+        Showtime lateShowtime = new Showtime();
+        lateShowtime.setId(ANOTHER_SHOWTIME_ID);
+        lateShowtime.setTheaterId(THEATER_ID);
+        lateShowtime.setStartTime(baseTime.plusHours(7).plusMinutes(30));
+        lateShowtime.setEndTime(baseTime.plusHours(9));
+
+        ZonedDateTime from = baseTime;
+        ZonedDateTime to = baseTime.plusHours(12);
+        Duration buffer = Duration.ofMinutes(15);
+        when(theaterRegistry.findId(THEATER_NAME)).thenReturn(Optional.of(THEATER_ID));
+        when(movieRepository.findById(MOVIE_ID)).thenReturn(Optional.of(movie));
+        when(showtimeRepository.findScheduleOfTheater(THEATER_ID,
+                from.minus(buffer).minus(ShowtimeService.MAX_SHOWTIME_LENGTH), from.minus(buffer), to.plus(buffer)))
+                .thenReturn(List.of(existingShowtime, lateShowtime));
+
+        // When
+        List<FreeSlotDTO> slots = showtimeService.findFreeSlots(THEATER_NAME, MOVIE_ID, from, to, buffer);
+
+        // Then - +5h15..+7h15 is exactly 120 minutes, the other gaps are longer
+        assertEquals(3, slots.size());
+        assertEquals(baseTime, slots.get(0).getStartTime());
+        assertEquals(baseTime.plusHours(2).plusMinutes(45), slots.get(0).getEndTime());
+        assertEquals(baseTime.plusHours(5).plusMinutes(15), slots.get(1).getStartTime());
+        assertEquals(slots.get(1).getStartTime(), slots.get(1).getLatestStartTime());
+        assertEquals(baseTime.plusHours(9).plusMinutes(15), slots.get(2).getStartTime());
+        assertEquals(baseTime.plusHours(10), slots.get(2).getLatestStartTime());
+    }
+
+    /**
+     * Tests that free slots cannot be searched for a theater that does not exist.
+     */
+    @Test
+    void findFreeSlots_WhenTheaterNotFound_ShouldThrowResourceNotFoundException() {
+        // Given
+        when(theaterRegistry.findId("Unknown")).thenReturn(Optional.empty());
+
+        // Then
+        assertThrows(ResourceNotFoundException.class, () -> showtimeService.findFreeSlots(
+                "Unknown", MOVIE_ID, baseTime, baseTime.plusHours(4), Duration.ZERO));
+        verify(showtimeRepository, never()).findScheduleOfTheater(any(), any(), any(), any());
+    }
+
+    /**
+     * Tests that a full page returns a cursor that continues after its last showtime.
+     */
+    @Test
+    void searchShowtimes_WhenMoreResults_ShouldReturnCursorOfLastShowtime() {
+        // Given - a page size of 2, the repository returns one extra row
+        ShowtimeRow first = new ShowtimeRow(10L, MOVIE_ID, THEATER_ID, baseTime, baseTime.plusHours(2), TICKET_PRICE);
+        ShowtimeRow second = new ShowtimeRow(11L, MOVIE_ID, THEATER_ID, baseTime.plusHours(3),
+                baseTime.plusHours(5), TICKET_PRICE);
+        ShowtimeRow third = new ShowtimeRow(12L, MOVIE_ID, THEATER_ID, baseTime.plusHours(6),
+                baseTime.plusHours(8), TICKET_PRICE);
+        when(theaterRegistry.findId(THEATER_NAME)).thenReturn(Optional.of(THEATER_ID));
+        when(theaterRegistry.nameOf(THEATER_ID)).thenReturn(THEATER_NAME);
+        when(showtimeRepository.search(MOVIE_ID, THEATER_ID, null, null, null, null, 3))
+                .thenReturn(List.of(first, second, third));
+
+        // When
+        ShowtimePageDTO page = showtimeService.searchShowtimes(MOVIE_ID, THEATER_NAME, null, null, null, 2);
+
+        // Then
+        assertEquals(List.of(10L, 11L), page.getShowtimes().stream().map(ShowtimeDTO::getId).toList());
+        assertEquals(THEATER_NAME, page.getShowtimes().get(0).getTheater());
+        assertNotNull(page.getNextCursor());
+
+        // When - the cursor is used for the next page
+        when(showtimeRepository.search(eq(MOVIE_ID), eq(THEATER_ID), isNull(), isNull(), any(), eq(11L), eq(3)))
+                .thenReturn(List.of(third));
+        ShowtimePageDTO nextPage = showtimeService.searchShowtimes(MOVIE_ID, THEATER_NAME, null, null,
+                page.getNextCursor(), 2);
+
+        // Then
+        assertEquals(1, nextPage.getShowtimes().size());
+        assertNull(nextPage.getNextCursor());
+        verify(showtimeRepository).search(eq(MOVIE_ID), eq(THEATER_ID), isNull(), isNull(),
+                argThat(startTime -> startTime != null && startTime.toInstant().equals(baseTime.plusHours(3).toInstant())),
+                eq(11L), eq(3));
+    }
+
+    /**
+     * Tests that a malformed cursor is rejected.
+     */
+    @Test
+    void searchShowtimes_WhenCursorMalformed_ShouldThrowInvalidRequestException() {
+        assertThrows(InvalidRequestException.class,
+                () -> showtimeService.searchShowtimes(null, null, null, null, "not-a-cursor", 10));
+        verify(showtimeRepository, never()).search(any(), any(), any(), any(), any(), any(), anyInt());
+    }
+
+    /**
+     * Tests that availability is computed from the occupancy counters and the theater's capacity.
+     */
+    @Test
+    void searchAvailability_ShouldReportRemainingSeatsFromCounters() {
+        // Given
+        ShowtimeRow open = new ShowtimeRow(10L, MOVIE_ID, THEATER_ID, baseTime, baseTime.plusHours(2), TICKET_PRICE);
+        ShowtimeRow full = new ShowtimeRow(11L, MOVIE_ID, THEATER_ID, baseTime.plusHours(3), baseTime.plusHours(5),
+                TICKET_PRICE);
+        when(showtimeRepository.search(null, null, null, null, null, null, 51)).thenReturn(List.of(open, full));
+        when(theaterRegistry.nameOf(THEATER_ID)).thenReturn(THEATER_NAME);
+        when(theaterService.getLayout(THEATER_ID)).thenReturn(TheaterLayout.DEFAULT);
+        when(occupancyCounters.getBookedSeats(10L)).thenReturn(37);
+        when(occupancyCounters.getBookedSeats(11L)).thenReturn(100);
+
+        // When
+        AvailabilityPageDTO page = showtimeService.searchAvailability(null, null, null, null, null, 50);
+
+        // Then
+        assertEquals(63, page.getShowtimes().get(0).getRemainingSeats());
+        assertFalse(page.getShowtimes().get(0).isSoldOut());
+        assertEquals(0, page.getShowtimes().get(1).getRemainingSeats());
+        assertTrue(page.getShowtimes().get(1).isSoldOut());
+        assertNull(page.getNextCursor());
+    }
+}
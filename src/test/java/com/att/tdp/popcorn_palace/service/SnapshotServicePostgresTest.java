@@ -0,0 +1,82 @@
+package com.att.tdp.popcorn_palace.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SnapshotService class against a PostgreSQL container, where snapshots are imported with
+ * the COPY protocol. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class SnapshotServicePostgresTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    /**
+     * Tests that an import through COPY restores the exported rows, including text COPY has to escape,
+     * and that new rows get IDs after the imported ones.
+     *
+     * @throws Exception if the snapshot cannot be written or read
+     */
+    @Test
+    void importSnapshot_WithCopy_ShouldRestoreExportedRows() throws Exception {
+        // Given
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(),
+                POSTGRES.getUsername(), POSTGRES.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("data.sql"))
+                .execute(dataSource);
+        JdbcTemplate database = new JdbcTemplate(dataSource);
+        SnapshotService snapshotService = new SnapshotService(database,
+                new DataSourceTransactionManager(dataSource), "");
+        database.update("INSERT INTO movies (title, genre, duration, rating, release_year, version) "
+                + "VALUES (?, 'Drama', 100, 7.5, 2020, 3)", "Tab\tnew\nline\\slash");
+        database.update("INSERT INTO bookings (booking_id, showtime_id, showtime_start, seat_number, user_id, "
+                + "booking_time) SELECT ?, id, start_time, 42, 'user-1', ? FROM showtimes WHERE id = 3",
+                UUID.randomUUID(), Timestamp.valueOf(LocalDateTime.of(2025, 3, 1, 10, 15, 30)));
+        Map<String, List<Map<String, Object>>> expected = readTables(database);
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        snapshotService.exportSnapshot(snapshot);
+        database.update("INSERT INTO movies (title, genre, duration, rating, release_year) "
+                + "VALUES ('Only Before Import', 'Drama', 100, 7.5, 2020)");
+
+        // When
+        Map<String, Long> imported = snapshotService.importSnapshot(new ByteArrayInputStream(snapshot.toByteArray()));
+
+        // Then
+        assertEquals(List.of(3L, 6L, 6L, 1L, 6L, 6L), List.copyOf(imported.values()));
+        assertEquals(expected, readTables(database));
+        database.update("INSERT INTO movies (title, genre, duration, rating, release_year) "
+                + "VALUES ('New', 'Drama', 100, 7.5, 2020)");
+        assertEquals(7L, database.queryForObject("SELECT id FROM movies WHERE title = 'New'", Long.class));
+    }
+
+    /**
+     * Reads every table of the snapshot format, in export order.
+     */
+    private static Map<String, List<Map<String, Object>>> readTables(JdbcTemplate database) {
+        Map<String, List<Map<String, Object>>> tables = new LinkedHashMap<>();
+        for (SnapshotService.SnapshotTable table : SnapshotService.TABLES) {
+            tables.put(table.name(), database.queryForList(table.selectSql()));
+        }
+        return tables;
+    }
+}
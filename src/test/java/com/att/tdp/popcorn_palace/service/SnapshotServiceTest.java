@@ -0,0 +1,189 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.archive.ArchiveColumn;
+import com.att.tdp.popcorn_palace.archive.ColumnType;
+import com.att.tdp.popcorn_palace.archive.SnapshotWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SnapshotService class and the startup scripts.
+ * Exports embedded databases created with schema.sql and data.sql and imports them into other ones.
+ */
+public class SnapshotServiceTest {
+
+    /**
+     * Tests that running the startup scripts again keeps the existing data and adds no duplicates.
+     */
+    @Test
+    void startupScripts_WhenRunTwice_ShouldKeepData() {
+        // Given
+        JdbcTemplate database = createDatabase();
+        database.update("INSERT INTO bookings (booking_id, showtime_id, showtime_start, seat_number, user_id, "
+                + "booking_time) SELECT ?, id, start_time, 1, 'user-1', ? FROM showtimes WHERE id = 1",
+                UUID.randomUUID(), Timestamp.valueOf(LocalDateTime.now()));
+
+        // When
+        runStartupScripts(database);
+
+        // Then
+        assertEquals(5, countRows(database, "movies"));
+        assertEquals(3, countRows(database, "theaters"));
+        assertEquals(6, countRows(database, "showtimes"));
+        assertEquals(1, countRows(database, "bookings"));
+        assertEquals(6, countRows(database, "showtime_sales"));
+        assertEquals(6, countRows(database, "daily_sales"));
+    }
+
+    /**
+     * Tests that an import replaces the data with the exported rows, IDs included,
+     * and that new rows get IDs after the imported ones.
+     */
+    @Test
+    void importSnapshot_ShouldRestoreExportedRows() throws IOException {
+        // Given
+        JdbcTemplate source = createDatabase();
+        source.update("INSERT INTO movies (title, genre, duration, rating, release_year) "
+                + "VALUES ('Tab\\tand\\\\slash', 'Drama', 100, 7.5, 2020)");
+        source.update("DELETE FROM showtime_sales WHERE showtime_id = 2");
+        source.update("DELETE FROM showtimes WHERE id = 2");
+        source.update("UPDATE showtimes SET high_demand = TRUE, version = 4 WHERE id = 3");
+        source.update("UPDATE movies SET version = 2 WHERE id = 1");
+        source.update("INSERT INTO bookings (booking_id, showtime_id, showtime_start, seat_number, user_id, "
+                + "booking_time) SELECT ?, id, start_time, 42, 'user-1', ? FROM showtimes WHERE id = 3",
+                UUID.randomUUID(), Timestamp.valueOf(LocalDateTime.of(2025, 3, 1, 10, 15, 30)));
+        JdbcTemplate target = createDatabase();
+        target.update("INSERT INTO movies (title, genre, duration, rating, release_year) "
+                + "VALUES ('Only In Target', 'Drama', 100, 7.5, 2020)");
+
+        // When
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        Map<String, Long> exported = serviceOf(source).exportSnapshot(snapshot);
+        Map<String, Long> imported = serviceOf(target)
+                .importSnapshot(new ByteArrayInputStream(snapshot.toByteArray()));
+
+        // Then
+        assertEquals(exported, imported);
+        assertEquals(List.of(3L, 6L, 5L, 1L, 5L, 6L), List.copyOf(imported.values()));
+        for (SnapshotService.SnapshotTable table : SnapshotService.TABLES) {
+            assertEquals(source.queryForList(table.selectSql()), target.queryForList(table.selectSql()),
+                    table.name());
+        }
+        target.update("INSERT INTO movies (title, genre, duration, rating, release_year) "
+                + "VALUES ('New', 'Drama', 100, 7.5, 2020)");
+        assertEquals(7L, target.queryForObject("SELECT id FROM movies WHERE title = 'New'", Long.class));
+    }
+
+    /**
+     * Tests that archiving all showtimes and restarting does not seed the sample showtimes again.
+     */
+    @Test
+    void startupScripts_WhenShowtimesRemoved_ShouldNotReseed() {
+        // Given
+        JdbcTemplate database = createDatabase();
+        database.update("DELETE FROM showtime_sales");
+        database.update("DELETE FROM daily_sales");
+        database.update("DELETE FROM showtimes");
+
+        // When
+        runStartupScripts(database);
+
+        // Then
+        assertEquals(0, countRows(database, "showtimes"));
+        assertEquals(0, countRows(database, "showtime_sales"));
+        assertEquals(0, countRows(database, "daily_sales"));
+    }
+
+    /**
+     * Tests that a snapshot written before the version columns existed imports with default versions.
+     */
+    @Test
+    void importSnapshot_WithoutVersionColumns_ShouldDefaultVersions() throws IOException {
+        // Given
+        JdbcTemplate database = createDatabase();
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(snapshot)) {
+            writer.beginTable("movies", SnapshotService.findTable("movies").orElseThrow().columns().stream()
+                    .filter(column -> !column.name().equals("version"))
+                    .toList());
+            writer.addRow(9L, "Old Snapshot", "Drama", 100, 7.5, 2020);
+        }
+
+        // When
+        serviceOf(database).importSnapshot(new ByteArrayInputStream(snapshot.toByteArray()));
+
+        // Then
+        assertEquals(1, countRows(database, "movies"));
+        assertEquals(0L, database.queryForObject("SELECT version FROM movies WHERE id = 9", Long.class));
+    }
+
+    /**
+     * Tests that a snapshot with a table this schema lacks is rejected without changing the data.
+     */
+    @Test
+    void importSnapshot_WhenTableUnknown_ShouldRollBack() throws IOException {
+        // Given
+        JdbcTemplate database = createDatabase();
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(snapshot)) {
+            writer.beginTable("users", List.of(new ArchiveColumn("id", ColumnType.LONG)));
+            writer.addRow(1L);
+        }
+
+        // When
+        IOException exception = assertThrows(IOException.class,
+                () -> serviceOf(database).importSnapshot(new ByteArrayInputStream(snapshot.toByteArray())));
+
+        // Then
+        assertEquals("Unknown table users", exception.getMessage());
+        assertEquals(5, countRows(database, "movies"));
+        assertEquals(6, countRows(database, "showtimes"));
+    }
+
+    /**
+     * Creates an embedded database initialized by the startup scripts.
+     */
+    private static JdbcTemplate createDatabase() {
+        JdbcTemplate database = new JdbcTemplate(new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1"));
+        runStartupScripts(database);
+        return database;
+    }
+
+    /**
+     * Runs schema.sql and data.sql as at startup.
+     */
+    private static void runStartupScripts(JdbcTemplate database) {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("data.sql"))
+                .execute(database.getDataSource());
+    }
+
+    /**
+     * Creates a SnapshotService over a database, without a startup import.
+     */
+    private static SnapshotService serviceOf(JdbcTemplate database) {
+        return new SnapshotService(database, new DataSourceTransactionManager(database.getDataSource()), "");
+    }
+
+    /**
+     * Counts the rows of a table.
+     */
+    private static int countRows(JdbcTemplate database, String table) {
+        return database.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,75 @@
+package com.att.tdp.popcorn_palace.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the TheaterRegistry class.
+ * Registers theaters in transactions over an embedded database created with schema.sql.
+ */
+public class TheaterRegistryTest {
+
+    private JdbcTemplate database;
+    private TransactionTemplate transactionTemplate;
+    private TheaterRegistry theaterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", true);
+        dataSource.setAutoCommit(true);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        database = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        theaterRegistry = new TheaterRegistry(database);
+    }
+
+    /**
+     * Tests that a theater registered by a transaction that commits is stored and cached.
+     */
+    @Test
+    void idOf_WhenTransactionCommits_ShouldKeepTheater() {
+        // When
+        Integer id = transactionTemplate.execute(status -> theaterRegistry.idOf("Theater 9"));
+
+        // Then
+        assertEquals(1, countTheaters());
+        database.update("DELETE FROM theaters");
+        assertEquals(Optional.of(id), theaterRegistry.findId("Theater 9"));
+    }
+
+    /**
+     * Tests that a theater registered by a transaction that rolls back,
+     * such as a rejected showtime, is neither stored nor cached.
+     */
+    @Test
+    void idOf_WhenTransactionRollsBack_ShouldLeaveNoTheater() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            theaterRegistry.idOf("Theater 9");
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertEquals(0, countTheaters());
+        assertEquals(Optional.empty(), theaterRegistry.findId("Theater 9"));
+    }
+
+    /**
+     * Counts the stored theaters.
+     */
+    private int countTheaters() {
+        return database.queryForObject("SELECT COUNT(*) FROM theaters", Integer.class);
+    }
+}
@@ -0,0 +1,224 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.TheaterDTO;
+import com.att.tdp.popcorn_palace.exception.InvalidRequestException;
+import com.att.tdp.popcorn_palace.model.Theater;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.repository.TheaterRepository;
+import com.att.tdp.popcorn_palace.seating.TheaterLayout;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the TheaterService class.
+ * Tests layout validation and the caching of layouts per theater and per showtime.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TheaterServiceTest {
+
+    private static final String THEATER_NAME = "Arena";
+
+    @Mock
+    private TheaterRepository theaterRepository;
+
+    @Mock
+    private ShowtimeRepository showtimeRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private TheaterRegistry theaterRegistry;
+
+    @Mock
+    private SalesRollups salesRollups;
+
+    @InjectMocks
+    private TheaterService theaterService;
+
+    /**
+     * Tests adding a theater with an aisle layout.
+     */
+    @Test
+    void addTheater_WithSections_ShouldSaveLayout() {
+        // Given
+        TheaterDTO theaterDTO = new TheaterDTO(null, THEATER_NAME, 40, 20, List.of(4, 12, 4), null);
+        when(theaterRepository.findByName(THEATER_NAME)).thenReturn(Optional.empty());
+        when(theaterRepository.save(any(Theater.class))).thenAnswer(invocation -> {
+            Theater theater = invocation.getArgument(0);
+            theater.setId(5);
+            return theater;
+        });
+
+        // When
+        TheaterDTO result = theaterService.addTheater(theaterDTO);
+
+        // Then
+        verify(theaterRegistry).register(5, THEATER_NAME);
+        assertEquals(800, result.getCapacity());
+        assertEquals(List.of(4, 12, 4), result.getSections());
+        verify(theaterRepository).save(argThat(theater -> "4,12,4".equals(theater.getSectionLayout())));
+    }
+
+    /**
+     * Tests that section widths must cover the row exactly.
+     */
+    @Test
+    void addTheater_WhenSectionsDoNotMatchRow_ShouldThrowInvalidRequestException() {
+        // Given
+        TheaterDTO theaterDTO = new TheaterDTO(null, THEATER_NAME, 40, 20, List.of(4, 12), null);
+
+        // Then
+        assertThrows(InvalidRequestException.class, () -> theaterService.addTheater(theaterDTO));
+        verify(theaterRepository, never()).save(any());
+    }
+
+    /**
+     * Tests that a layout change with a new capacity updates the seats offered in the sales rollups.
+     */
+    @Test
+    void updateTheater_WhenCapacityChanges_ShouldUpdateSalesRollups() {
+        // Given
+        Theater theater = new Theater();
+        theater.setId(5);
+        theater.setName(THEATER_NAME);
+        theater.setRowCount(10);
+        theater.setSeatsPerRow(10);
+        theater.setSectionLayout("10");
+        when(theaterRepository.findByName(THEATER_NAME)).thenReturn(Optional.of(theater));
+        when(theaterRepository.save(theater)).thenReturn(theater);
+
+        // When
+        TheaterDTO result = theaterService.updateTheater(THEATER_NAME,
+                new TheaterDTO(null, THEATER_NAME, 12, 10, null, null));
+
+        // Then
+        assertEquals(120, result.getCapacity());
+        verify(salesRollups).recordCapacityChanged(5, 120);
+    }
+
+    /**
+     * Tests that a theater cannot shrink below a seat that is already booked.
+     */
+    @Test
+    void updateTheater_WhenBookedSeatWouldDisappear_ShouldThrowInvalidRequestException() {
+        // Given - seat 95 of the 10x10 theater is booked
+        Theater theater = new Theater();
+        theater.setId(5);
+        theater.setName(THEATER_NAME);
+        theater.setRowCount(10);
+        theater.setSeatsPerRow(10);
+        theater.setSectionLayout("10");
+        when(theaterRepository.findByName(THEATER_NAME)).thenReturn(Optional.of(theater));
+        when(bookingRepository.findHighestSeatNumberByTheaterId(5)).thenReturn(95);
+
+        // Then
+        assertThrows(InvalidRequestException.class, () -> theaterService.updateTheater(THEATER_NAME,
+                new TheaterDTO(null, THEATER_NAME, 9, 10, null, null)));
+        verify(theaterRepository, never()).save(any());
+        verifyNoInteractions(salesRollups);
+    }
+
+    /**
+     * Tests that theaters without a configured layout get the default hall, which is not cached so that
+     * the theater's layout is used once it is configured.
+     */
+    @Test
+    void getLayout_WhenTheaterNotConfigured_ShouldReturnDefault() {
+        // Given
+        when(theaterRepository.findById(42)).thenReturn(Optional.empty());
+
+        // Then
+        assertEquals(TheaterLayout.DEFAULT, theaterService.getLayout(42));
+        assertEquals(TheaterLayout.DEFAULT, theaterService.getLayout(42));
+        verify(theaterRepository, times(2)).findById(42);
+    }
+
+    /**
+     * Tests that a layout change only evicts the cached layout once its transaction has committed, so that
+     * bookings before the commit cannot cache the old layout again.
+     */
+    @Test
+    void updateTheater_InTransaction_ShouldEvictLayoutAfterCommit() {
+        // Given
+        Theater theater = new Theater();
+        theater.setId(5);
+        theater.setName(THEATER_NAME);
+        theater.setRowCount(10);
+        theater.setSeatsPerRow(10);
+        theater.setSectionLayout("10");
+        when(theaterRepository.findById(5)).thenReturn(Optional.of(theater));
+        when(theaterRepository.findByName(THEATER_NAME)).thenReturn(Optional.of(theater));
+        when(theaterRepository.save(theater)).thenReturn(theater);
+        assertEquals(100, theaterService.getLayout(5).capacity());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            theaterService.updateTheater(THEATER_NAME, new TheaterDTO(null, THEATER_NAME, 12, 10, null, null));
+
+            // Then - still cached until the commit
+            assertEquals(100, theaterService.getLayout(5).capacity());
+            verify(theaterRepository, times(1)).findById(5);
+
+            // When
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertEquals(120, theaterService.getLayout(5).capacity());
+        verify(theaterRepository, times(2)).findById(5);
+    }
+
+    /**
+     * Tests that the theater of a showtime is loaded once and then served from the cache.
+     */
+    @Test
+    void getLayoutOfShowtime_ShouldCacheTheaterOfShowtime() {
+        // Given
+        Theater theater = new Theater();
+        theater.setId(5);
+        theater.setName(THEATER_NAME);
+        theater.setRowCount(2);
+        theater.setSeatsPerRow(6);
+        theater.setSectionLayout("3,3");
+        when(showtimeRepository.findTheaterIdById(1L)).thenReturn(Optional.of(5));
+        when(theaterRepository.findById(5)).thenReturn(Optional.of(theater));
+
+        // When
+        theaterService.getLayoutOfShowtime(1L);
+        Optional<TheaterLayout> layout = theaterService.getLayoutOfShowtime(1L);
+
+        // Then
+        assertEquals(Optional.of(new TheaterLayout(2, 6, List.of(3, 3))), layout);
+        verify(showtimeRepository, times(1)).findTheaterIdById(1L);
+        verify(theaterRepository, times(1)).findById(5);
+    }
+
+    /**
+     * Tests that an unknown showtime yields no layout.
+     */
+    @Test
+    void getLayoutOfShowtime_WhenShowtimeNotFound_ShouldReturnEmpty() {
+        // Given
+        when(showtimeRepository.findTheaterIdById(99L)).thenReturn(Optional.empty());
+
+        // Then
+        assertTrue(theaterService.getLayoutOfShowtime(99L).isEmpty());
+    }
+}
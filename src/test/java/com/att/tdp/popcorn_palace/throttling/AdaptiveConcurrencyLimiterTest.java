@@ -0,0 +1,83 @@
+package com.att.tdp.popcorn_palace.throttling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the AdaptiveConcurrencyLimiter class.
+ * Tests admission against the limit and the reaction of the limit to latency.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * Tests that requests beyond the limit are rejected and counted.
+     */
+    @Test
+    void tryAcquire_WhenLimitReached_ShouldReject() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5, 0.2);
+
+        // Then
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejectedCount());
+
+        limiter.release(0);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    /**
+     * Tests that the limit grows while the saturated system keeps a stable latency.
+     */
+    @Test
+    void release_WhenLatencyStable_ShouldIncreaseLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 1.5, 0.2);
+
+        // When
+        runSaturated(limiter, FAST, 200);
+
+        // Then
+        assertTrue(limiter.getLimit() > 10);
+    }
+
+    /**
+     * Tests that the limit shrinks towards its minimum when latency rises sharply.
+     */
+    @Test
+    void release_WhenLatencyRises_ShouldDecreaseLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 100, 1.5, 0.2);
+        runSaturated(limiter, FAST, 50);
+        int limitBeforeSlowdown = limiter.getLimit();
+
+        // When
+        runSaturated(limiter, SLOW, 2);
+
+        // Then
+        assertTrue(limiter.getLimit() < limitBeforeSlowdown);
+        assertTrue(limiter.getLimit() >= 5);
+    }
+
+    /**
+     * Fills the limiter to its current limit and completes every request with the given latency.
+     */
+    private void runSaturated(AdaptiveConcurrencyLimiter limiter, long rttNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(rttNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.att.tdp.popcorn_palace.throttling;
+
+import com.att.tdp.popcorn_palace.config.DataSourcePartition;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the BulkheadFilter class.
+ * Tests that reads and writes are admitted by separate bulkheads and routed to their own pool.
+ */
+public class BulkheadFilterTest {
+
+    private Bulkhead readBulkhead;
+    private Bulkhead writeBulkhead;
+    private BulkheadFilter filter;
+
+    /**
+     * Sets up small bulkheads before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        readBulkhead = new Bulkhead("read", 1, Duration.ZERO);
+        writeBulkhead = new Bulkhead("write", 1, Duration.ZERO);
+        filter = new BulkheadFilter(readBulkhead, writeBulkhead, new ObjectMapper().findAndRegisterModules(), 1);
+    }
+
+    /**
+     * Tests that a saturated write bulkhead sheds writes but still lets reads through.
+     */
+    @Test
+    void doFilter_WhenWriteBulkheadFull_ShouldRejectWritesOnly() throws Exception {
+        // Given
+        assertTrue(writeBulkhead.tryEnter());
+
+        // When
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/bookings"), writeResponse, (req, res) -> fail());
+        MockHttpServletResponse readResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/movies/all"), readResponse, (req, res) -> { });
+
+        // Then
+        assertEquals(503, writeResponse.getStatus());
+        assertEquals("1", writeResponse.getHeader("Retry-After"));
+        assertTrue(writeResponse.getContentAsString().contains("write"));
+        assertEquals(200, readResponse.getStatus());
+        assertEquals(1, writeBulkhead.getRejectedCount());
+        assertEquals(0, readBulkhead.getRejectedCount());
+    }
+
+    /**
+     * Tests that each request runs on its partition's pool and releases its slot afterwards.
+     */
+    @Test
+    void doFilter_ShouldSelectPartitionForRequestAndReleaseSlot() throws Exception {
+        // Given
+        AtomicReference<DataSourcePartition> readPartition = new AtomicReference<>();
+        AtomicReference<DataSourcePartition> writePartition = new AtomicReference<>();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/showtimes/1"), new MockHttpServletResponse(),
+                (req, res) -> readPartition.set(DataSourcePartition.current()));
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/movies/Inception"), new MockHttpServletResponse(),
+                (req, res) -> writePartition.set(DataSourcePartition.current()));
+
+        // Then
+        assertEquals(DataSourcePartition.READ, readPartition.get());
+        assertEquals(DataSourcePartition.WRITE, writePartition.get());
+        assertEquals(0, readBulkhead.getActive());
+        assertEquals(0, writeBulkhead.getActive());
+    }
+}
@@ -0,0 +1,184 @@
+package com.att.tdp.popcorn_palace.throttling;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the TokenBucketRateLimiter class.
+ * Tests bursting, refilling, the bounded, lossless eviction of idle buckets, and the shared bucket of full stripes.
+ */
+public class TokenBucketRateLimiterTest {
+
+    private AtomicLong clock;
+
+    /**
+     * Sets up a manual clock before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000_000);
+    }
+
+    /**
+     * Tests that a key may burst up to the capacity and is then told how long to wait.
+     */
+    @Test
+    void tryAcquire_WhenBucketEmpty_ShouldRejectWithWaitTime() {
+        // Given - 3 tokens, 2 per second
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("user", 3, 2, 100, 4, clock::get);
+
+        // Then
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertEquals(500, limiter.tryAcquire("alice"));
+        assertEquals(0, limiter.tryAcquire("bob"));
+        assertEquals(1, limiter.getRejectedCount());
+    }
+
+    /**
+     * Tests that tokens come back at the configured rate.
+     */
+    @Test
+    void tryAcquire_AfterRefill_ShouldAllowAgain() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("user", 1, 2, 100, 4, clock::get);
+        assertEquals(0, limiter.tryAcquire("alice"));
+
+        // When
+        clock.addAndGet(200);
+        long waitBeforeRefill = limiter.tryAcquire("alice");
+        clock.addAndGet(300);
+
+        // Then
+        assertEquals(300, waitBeforeRefill);
+        assertEquals(0, limiter.tryAcquire("alice"));
+    }
+
+    /**
+     * Tests that only fully refilled buckets are evicted, so eviction never changes a decision.
+     */
+    @Test
+    void evictIdle_ShouldOnlyRemoveFullBuckets() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("user", 2, 1, 100, 4, clock::get);
+        limiter.tryAcquire("alice");
+        clock.addAndGet(1000);
+        limiter.tryAcquire("bob");
+
+        // When
+        int evicted = limiter.evictIdle();
+
+        // Then
+        assertEquals(1, evicted);
+        assertEquals(1, limiter.getTrackedKeys());
+    }
+
+    /**
+     * Tests that the number of tracked keys stays bounded when every bucket is active, and that new keys
+     * share one bucket instead of being let through without limit.
+     */
+    @Test
+    void tryAcquire_WhenStripeFullOfActiveBuckets_ShouldShareOneBucket() {
+        // Given - a single stripe holding at most 2 keys, 2 tokens per bucket
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("address", 2, 1, 2, 1, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        // When - every request comes with a new key
+        long first = limiter.tryAcquire("c");
+        long second = limiter.tryAcquire("d");
+        long third = limiter.tryAcquire("e");
+
+        // Then
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertEquals(1000, third);
+        assertEquals(2, limiter.getTrackedKeys());
+        assertEquals(3, limiter.getUntrackedCount());
+        assertEquals(1, limiter.getRejectedCount());
+    }
+
+    /**
+     * Tests that a new key arriving at a full stripe evicts idle buckets and gets a bucket of its own.
+     */
+    @Test
+    void tryAcquire_WhenStripeFullOfIdleBuckets_ShouldEvictAndTrackKey() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("address", 2, 1, 2, 1, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        clock.addAndGet(1000);
+
+        // When
+        long wait = limiter.tryAcquire("c");
+
+        // Then
+        assertEquals(0, wait);
+        assertEquals(1, limiter.getTrackedKeys());
+        assertEquals(0, limiter.getUntrackedCount());
+    }
+
+    /**
+     * Tests that a key whose bucket was evicted starts again from a single full bucket.
+     */
+    @Test
+    void tryAcquire_AfterEviction_ShouldStartFromFullBucket() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("user", 2, 1, 100, 4, clock::get);
+        limiter.tryAcquire("alice");
+        clock.addAndGet(1000);
+        assertEquals(1, limiter.evictIdle());
+
+        // Then
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertEquals(1000, limiter.tryAcquire("alice"));
+        assertEquals(1, limiter.getTrackedKeys());
+    }
+
+    /**
+     * Tests that racing evictions never hand out more tokens than one bucket holds: without time passing,
+     * a key gets at most its capacity, however often its full bucket is evicted meanwhile.
+     *
+     * @throws Exception if a thread fails
+     */
+    @Test
+    void tryAcquire_WhileEvicting_ShouldNotExceedCapacity() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            // Given
+            TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("user", 2, 1, 100, 1, clock::get);
+            AtomicInteger allowed = new AtomicInteger();
+            AtomicBoolean done = new AtomicBoolean();
+            Thread evictor = Thread.ofPlatform().start(() -> {
+                while (!done.get()) {
+                    limiter.evictIdle();
+                }
+            });
+
+            // When
+            try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+                for (int i = 0; i < 8; i++) {
+                    executor.execute(() -> {
+                        if (limiter.tryAcquire("alice") == 0) {
+                            allowed.incrementAndGet();
+                        }
+                    });
+                }
+            }
+            done.set(true);
+            evictor.join();
+
+            // Then
+            assertEquals(2, allowed.get());
+        }
+    }
+}
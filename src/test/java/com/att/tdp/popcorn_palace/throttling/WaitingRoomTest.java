@@ -0,0 +1,155 @@
+package com.att.tdp.popcorn_palace.throttling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the WaitingRoom class.
+ * Tests ordered admission at the configured rate and the reuse of ring buffer slots.
+ */
+public class WaitingRoomTest {
+
+    private static final long WINDOW = 60_000;
+
+    /**
+     * Tests that visitors are admitted in order at the configured rate.
+     */
+    @Test
+    void advance_ShouldAdmitVisitorsInOrderAtConfiguredRate() {
+        // Given - 10 admissions per second
+        WaitingRoom room = new WaitingRoom(100, 10, WINDOW, 0);
+        WaitingRoom.Ticket first = room.join();
+        WaitingRoom.Ticket second = room.join();
+        WaitingRoom.Ticket third = room.join();
+
+        // When - 200ms worth of admissions
+        room.advance(200);
+
+        // Then
+        assertEquals(0, room.position(first.sequence(), first.secret(), 200));
+        assertEquals(0, room.position(second.sequence(), second.secret(), 200));
+        assertEquals(1, room.position(third.sequence(), third.secret(), 200));
+        assertEquals(1, room.getWaiting());
+    }
+
+    /**
+     * Tests that a wrong secret does not reveal or grant a position.
+     */
+    @Test
+    void position_WithWrongSecret_ShouldReturnUnknown() {
+        // Given
+        WaitingRoom room = new WaitingRoom(100, 10, WINDOW, 0);
+        WaitingRoom.Ticket ticket = room.join();
+
+        // Then
+        assertEquals(-1, room.position(ticket.sequence(), ticket.secret() + 1, 0));
+        assertEquals(-1, room.position(ticket.sequence() + 1, ticket.secret(), 0));
+    }
+
+    /**
+     * Tests that a full ring buffer rejects visitors until used admissions free their slots.
+     */
+    @Test
+    void join_WhenFull_ShouldRejectUntilSlotsAreReleased() {
+        // Given
+        WaitingRoom room = new WaitingRoom(2, 10, WINDOW, 0);
+        WaitingRoom.Ticket first = room.join();
+        room.join();
+        assertNull(room.join());
+
+        // When - the first visitor is admitted and books
+        room.advance(100);
+        room.consume(first.sequence(), first.secret());
+        room.advance(100);
+
+        // Then
+        assertEquals(-1, room.position(first.sequence(), first.secret(), 100));
+        assertNotNull(room.join());
+    }
+
+    /**
+     * Tests that an admission expires once the admission window has passed.
+     */
+    @Test
+    void position_AfterAdmissionWindow_ShouldExpire() {
+        // Given
+        WaitingRoom room = new WaitingRoom(10, 10, WINDOW, 0);
+        WaitingRoom.Ticket ticket = room.join();
+        room.advance(100);
+
+        // Then
+        assertEquals(0, room.position(ticket.sequence(), ticket.secret(), 100 + WINDOW));
+        assertEquals(-1, room.position(ticket.sequence(), ticket.secret(), 101 + WINDOW));
+    }
+
+    /**
+     * Tests that an admitted ticket can only be claimed by one booking at a time, can be claimed again
+     * once released, and not at all once consumed.
+     */
+    @Test
+    void claim_ShouldAllowOneBookingAtATime() {
+        // Given
+        WaitingRoom room = new WaitingRoom(10, 10, WINDOW, 0);
+        WaitingRoom.Ticket admitted = room.join();
+        WaitingRoom.Ticket waiting = room.join();
+        room.advance(100);
+
+        // Then
+        assertEquals(1, room.claim(waiting.sequence(), waiting.secret(), 100));
+        assertEquals(0, room.claim(admitted.sequence(), admitted.secret(), 100));
+        assertEquals(WaitingRoom.IN_USE, room.claim(admitted.sequence(), admitted.secret(), 100));
+        assertEquals(0, room.position(admitted.sequence(), admitted.secret(), 100));
+
+        // When
+        room.release(admitted.sequence(), admitted.secret());
+
+        // Then
+        assertEquals(0, room.claim(admitted.sequence(), admitted.secret(), 100));
+
+        // When
+        room.consume(admitted.sequence(), admitted.secret());
+
+        // Then
+        assertEquals(-1, room.claim(admitted.sequence(), admitted.secret(), 100));
+    }
+
+    /**
+     * Tests that the ring buffer starts small and grows up to the capacity as the queue fills,
+     * keeping the position, admission and claim of every ticket across the growth.
+     */
+    @Test
+    void join_WhenBufferIsFull_ShouldGrowUpToCapacity() {
+        // Given - the buffer has wrapped around once the first visitors are done
+        int capacity = 3 * WaitingRoom.INITIAL_SLOTS;
+        WaitingRoom room = new WaitingRoom(capacity, 10, WINDOW, 0);
+        assertEquals(WaitingRoom.INITIAL_SLOTS, room.getAllocatedSlots());
+        for (int i = 0; i < 10; i++) {
+            WaitingRoom.Ticket used = room.join();
+            room.advance(100L * (i + 1));
+            room.consume(used.sequence(), used.secret());
+        }
+        room.advance(1000);
+        WaitingRoom.Ticket admitted = room.join();
+        room.advance(1100);
+        assertEquals(0, room.claim(admitted.sequence(), admitted.secret(), 1100));
+
+        // When
+        List<WaitingRoom.Ticket> waiting = new ArrayList<>();
+        for (int i = 1; i < capacity; i++) {
+            waiting.add(room.join());
+        }
+
+        // Then
+        assertEquals(capacity, room.getAllocatedSlots());
+        assertNull(room.join());
+        assertEquals(WaitingRoom.IN_USE, room.claim(admitted.sequence(), admitted.secret(), 1100));
+        for (int i = 0; i < waiting.size(); i++) {
+            WaitingRoom.Ticket ticket = waiting.get(i);
+            assertEquals(i + 1, room.position(ticket.sequence(), ticket.secret(), 1100));
+        }
+    }
+}